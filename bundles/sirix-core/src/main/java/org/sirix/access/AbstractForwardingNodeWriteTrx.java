@@ -39,6 +39,11 @@ public abstract class AbstractForwardingNodeWriteTrx extends
 		delegate().commit();
 	}
 
+	@Override
+	public NodeReadTrx beginSnapshotReadTrx() throws SirixException {
+		return delegate().beginSnapshotReadTrx();
+	}
+
 	@Override
 	public NodeWriteTrx moveSubtreeToLeftSibling(long fromKey)
 			throws SirixException {
@@ -2,6 +2,7 @@ package org.sirix.access;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.Session;
@@ -91,11 +92,24 @@ public abstract class AbstractForwardingPageReadTrx extends ForwardingObject
 		return delegate().getRecord(key, page, index);
 	}
 
+	@Override
+	@Nullable
+	public Record getRecordOrNull(@Nonnegative long key,
+			@Nonnull PageKind page, @Nonnegative int index) throws SirixIOException {
+		return delegate().getRecordOrNull(key, page, index);
+	}
+
 	@Override
 	public long pageKey(@Nonnegative long recordKey) {
 		return delegate().pageKey(recordKey);
 	}
 
+	@Override
+	public boolean mightContain(@Nonnegative long recordPageKey, long entry)
+			throws SirixIOException {
+		return delegate().mightContain(recordPageKey, entry);
+	}
+
 	@Override
 	public RevisionRootPage getActualRevisionRootPage() {
 		return delegate().getActualRevisionRootPage();
@@ -153,6 +167,11 @@ public abstract class AbstractForwardingPageReadTrx extends ForwardingObject
 		delegate().putPageCache(pageLog);
 	}
 
+	@Override
+	public NamePage readNamePage(@Nonnegative long key) throws SirixIOException {
+		return delegate().readNamePage(key);
+	}
+
 	@Override
 	public Reader getReader() {
 		return delegate().getReader();
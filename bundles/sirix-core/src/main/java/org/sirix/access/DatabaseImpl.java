@@ -83,6 +83,9 @@ public final class DatabaseImpl implements Database {
 	/** DatabaseConfiguration with fixed settings. */
 	private final DatabaseConfiguration mDBConfig;
 
+	/** Determines if the database is opened by a read-only replica. */
+	private final boolean mReplica;
+
 	/**
 	 * Package private constructor.
 	 * 
@@ -93,11 +96,52 @@ public final class DatabaseImpl implements Database {
 	 *           if something weird happens
 	 */
 	DatabaseImpl(final DatabaseConfiguration dbConfig) throws SirixException {
+		this(dbConfig, false);
+	}
+
+	/**
+	 * Package private constructor.
+	 * 
+	 * @param dbConfig
+	 *          {@link ResourceConfiguration} reference to configure the
+	 *          {@link Database}
+	 * @param replica
+	 *          determines if the database is opened by a read-only replica, which
+	 *          neither takes the lock nor modifies any resource
+	 * @throws SirixException
+	 *           if something weird happens
+	 */
+	DatabaseImpl(final DatabaseConfiguration dbConfig, final boolean replica)
+			throws SirixException {
 		mDBConfig = checkNotNull(dbConfig);
+		mReplica = replica;
 		mSessions = new ConcurrentHashMap<>();
 		mResources = Maps.synchronizedBiMap(HashBiMap.<Long, String> create());
 	}
 
+	/**
+	 * Determines if the database is opened by a read-only replica.
+	 * 
+	 * @return {@code true}, if it is opened by a read-only replica, {@code false}
+	 *         otherwise
+	 */
+	boolean isReplica() {
+		return mReplica;
+	}
+
+	/**
+	 * Make sure, that the database isn't opened by a read-only replica.
+	 * 
+	 * @throws IllegalStateException
+	 *           if the database is opened by a read-only replica
+	 */
+	private void assertWritable() {
+		if (mReplica) {
+			throw new IllegalStateException(
+					"Resources can't be modified by a read-only replica!");
+		}
+	}
+
 	// //////////////////////////////////////////////////////////
 	// START Creation/Deletion of Resources /////////////////////
 	// //////////////////////////////////////////////////////////
@@ -105,6 +149,7 @@ public final class DatabaseImpl implements Database {
 	@Override
 	public synchronized boolean createResource(
 			final ResourceConfiguration resConfig) throws SirixIOException {
+		assertWritable();
 		boolean returnVal = true;
 		final File path = new File(new File(mDBConfig.getFile().getAbsoluteFile(),
 				DatabaseConfiguration.Paths.DATA.getFile().getName()),
@@ -123,8 +168,8 @@ public final class DatabaseImpl implements Database {
 						returnVal = toCreate.mkdir();
 					} else {
 						try {
-							returnVal = ResourceConfiguration.Paths.INDEXES.getFile()
-									.getName().equals(paths.getFile().getName()) ? true
+							returnVal = paths == ResourceConfiguration.Paths.INDEXES
+									|| paths == ResourceConfiguration.Paths.CHANGES ? true
 									: toCreate.createNewFile();
 						} catch (final IOException e) {
 							Files.recursiveRemove(path.toPath());
@@ -169,6 +214,7 @@ public final class DatabaseImpl implements Database {
 
 	@Override
 	public synchronized Database truncateResource(final String name) {
+		assertWritable();
 		final File resourceFile = new File(new File(mDBConfig.getFile(),
 				DatabaseConfiguration.Paths.DATA.getFile().getName()), name);
 		// Check that database must be closed beforehand.
@@ -251,12 +297,15 @@ public final class DatabaseImpl implements Database {
 			}
 		}
 
-		// Remove from database mapping.
-		Databases.removeDatabase(mDBConfig.getFile());
+		// A replica neither is mapped nor holds the lock.
+		if (!mReplica) {
+			// Remove from database mapping.
+			Databases.removeDatabase(mDBConfig.getFile());
 
-		// Remove lock file.
-		Files.recursiveRemove(new File(mDBConfig.getFile().getAbsoluteFile(),
-				DatabaseConfiguration.Paths.LOCK.getFile().getName()).toPath());
+			// Remove lock file.
+			Files.recursiveRemove(new File(mDBConfig.getFile().getAbsoluteFile(),
+					DatabaseConfiguration.Paths.LOCK.getFile().getName()).toPath());
+		}
 	}
 
 	@Override
@@ -312,7 +361,8 @@ public final class DatabaseImpl implements Database {
 
 	@Override
 	public String toString() {
-		return Objects.toStringHelper(this).add("dbConfig", mDBConfig).toString();
+		return Objects.toStringHelper(this).add("dbConfig", mDBConfig)
+				.add("replica", mReplica).toString();
 	}
 
 	@Override
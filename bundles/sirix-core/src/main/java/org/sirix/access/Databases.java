@@ -148,6 +148,43 @@ public final class Databases {
 		}
 	}
 
+	/**
+	 * Open a database as a read-only replica. Neither the lock of the database is
+	 * taken nor is the replica bound to the {@link File}, thus a database can be
+	 * opened by a writer and by any number of replicas in other JVMs (or the same
+	 * JVM) at the same time. The directory might also be a copy, which is
+	 * continuously synchronized with the database of the writer.
+	 *
+	 * <p>
+	 * Sessions of a replica only support read transactions. They periodically
+	 * check the storage for revisions committed in the meantime and expose them
+	 * to all read transactions begun afterwards (see
+	 * {@link SessionConfiguration.Builder#replicaPollInterval(long)}). Only
+	 * resources with the file storage are supported.
+	 * </p>
+	 *
+	 * @param file
+	 *          determines where the database is located
+	 * @return a new {@link Database} instance of the replica
+	 * @throws SirixException
+	 *           if something odd happens
+	 * @throws NullPointerException
+	 *           if {@code file} is {@code null}
+	 */
+	public static Database openReplica(final File file) throws SirixException {
+		if (!file.exists()) {
+			throw new SirixUsageException(
+					"DB could not be opened (since it was not created?) at location",
+					file.toString());
+		}
+		final DatabaseConfiguration config = DatabaseConfiguration
+				.deserialize(file);
+		if (config == null) {
+			throw new IllegalStateException("Configuration may not be null!");
+		}
+		return new DatabaseImpl(config, true);
+	}
+
 	/**
 	 * Determines if a database already exists.
 	 *
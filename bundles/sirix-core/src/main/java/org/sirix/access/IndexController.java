@@ -14,6 +14,7 @@ import java.util.Iterator;
 import java.util.Set;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.brackit.xquery.atomic.Atomic;
 import org.brackit.xquery.atomic.QNm;
@@ -30,15 +31,16 @@ import org.sirix.api.NodeWriteTrx;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.api.Session;
-import org.sirix.api.visitor.Visitor;
 import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.index.ChangeListener;
+import org.sirix.index.IndexBuildVisitor;
 import org.sirix.index.IndexBuilder;
 import org.sirix.index.IndexDef;
 import org.sirix.index.IndexType;
 import org.sirix.index.Indexes;
 import org.sirix.index.SearchMode;
+import org.sirix.index.avltree.AVLNode;
 import org.sirix.index.avltree.keyvalue.CASValue;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
 import org.sirix.index.cas.CASFilter;
@@ -219,6 +221,30 @@ public final class IndexController {
 		}
 	}
 
+	/**
+	 * Apply the changes buffered by the index listeners to the indexes. Must be
+	 * called before the indexes are read within the write transaction and
+	 * before the transaction is committed.
+	 * 
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	public void flushChanges() throws SirixIOException {
+		for (final ChangeListener listener : mListeners) {
+			listener.flush();
+		}
+	}
+
+	/**
+	 * Discard the changes buffered by the index listeners, for instance if the
+	 * write transaction is rolled back.
+	 */
+	public void clearChanges() {
+		for (final ChangeListener listener : mListeners) {
+			listener.clear();
+		}
+	}
+
 	/**
 	 * Create new indexes.
 	 * 
@@ -244,13 +270,46 @@ public final class IndexController {
 		}
 
 		// Build the indexes.
-		IndexBuilder.build(nodeWriteTrx,
-				createIndexBuilders(indexDefs, nodeWriteTrx));
+		final Set<IndexBuildVisitor> builders = createIndexBuilders(indexDefs,
+				nodeWriteTrx);
+		final Session session = nodeWriteTrx.getSession();
+		final int threads = session instanceof SessionImpl ? ((SessionImpl) session).mSessionConfig.mIndexBuildThreads
+				: 1;
+		// Each thread opens the path summary of the revision, if one is needed.
+		if (threads > 1
+				&& nodeWriteTrx instanceof NodeWriteTrxImpl
+				&& ((NodeWriteTrxImpl) nodeWriteTrx).isUnmodified()
+				&& (session.getResourceConfig().mPathSummary || !needsPathSummary(indexDefs))) {
+			// Traverse the last committed revision, which is the same.
+			try {
+				IndexBuilder.build(nodeWriteTrx, builders, session,
+						session.getMostRecentRevisionNumber(), threads);
+			} catch (final SirixIOException e) {
+				throw e;
+			} catch (final SirixException e) {
+				throw new SirixIOException(e);
+			}
+		} else {
+			IndexBuilder.build(nodeWriteTrx, builders);
+		}
 
 		// Create index listeners for upcoming changes.
 		return createIndexListeners(indexDefs, nodeWriteTrx);
 	}
 
+	/**
+	 * Determines if one of the indexes is built by means of the path summary,
+	 * which has to be opened by each thread of a parallel build.
+	 */
+	private static boolean needsPathSummary(final Set<IndexDef> indexDefs) {
+		for (final IndexDef indexDef : indexDefs) {
+			if (indexDef.isPathIndex() || indexDef.isCasIndex()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Create index builders.
 	 * 
@@ -261,10 +320,10 @@ public final class IndexController {
 	 * 
 	 * @return the created index builder instances
 	 */
-	Set<Visitor> createIndexBuilders(final Set<IndexDef> indexDefs,
+	Set<IndexBuildVisitor> createIndexBuilders(final Set<IndexDef> indexDefs,
 			final NodeWriteTrx nodeWriteTrx) {
 		// Index builders for all index definitions.
-		final Set<Visitor> indexBuilders = new HashSet<>(indexDefs.size());
+		final Set<IndexBuildVisitor> indexBuilders = new HashSet<>(indexDefs.size());
 		for (final IndexDef indexDef : indexDefs) {
 			switch (indexDef.getType()) {
 			case PATH:
@@ -326,6 +385,18 @@ public final class IndexController {
 		return this;
 	}
 
+	/**
+	 * Remove all index listeners, discarding their buffered changes. Used before
+	 * the listeners are recreated for a new page transaction.
+	 * 
+	 * @return this {@link IndexController} instance
+	 */
+	IndexController clearIndexListeners() {
+		clearChanges();
+		mListeners.clear();
+		return this;
+	}
+
 	private ChangeListener createPathIndexListener(
 			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
 			final PathSummaryReader pathSummaryReader, final IndexDef indexDef) {
@@ -344,20 +415,20 @@ public final class IndexController {
 		return mNameIndex.createListener(pageWriteTrx, indexDef);
 	}
 
-	private Visitor createPathIndexBuilder(
+	private IndexBuildVisitor createPathIndexBuilder(
 			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
 			final PathSummaryReader pathSummaryReader, final IndexDef indexDef) {
 		return mPathIndex.createBuilder(pageWriteTrx, pathSummaryReader, indexDef);
 	}
 
-	private Visitor createCASIndexBuilder(final NodeReadTrx nodeReadTrx,
+	private IndexBuildVisitor createCASIndexBuilder(final NodeReadTrx nodeReadTrx,
 			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
 			final PathSummaryReader pathSummaryReader, final IndexDef indexDef) {
 		return mCASIndex.createBuilder(nodeReadTrx, pageWriteTrx,
 				pathSummaryReader, indexDef);
 	}
 
-	private Visitor createNameIndexBuilder(
+	private IndexBuildVisitor createNameIndexBuilder(
 			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
 			final IndexDef indexDef) {
 		return mNameIndex.createBuilder(pageWriteTrx, indexDef);
@@ -409,6 +480,7 @@ public final class IndexController {
 					"This document does not support path indexes.");
 		}
 
+		flush();
 		return mPathIndex.openIndex(pageRtx, indexDef, filter);
 	}
 
@@ -419,6 +491,7 @@ public final class IndexController {
 					"This document does not support path indexes.");
 		}
 
+		flush();
 		return mNameIndex.openIndex(pageRtx, indexDef, filter);
 	}
 
@@ -430,6 +503,7 @@ public final class IndexController {
 					"This document does not support path indexes.");
 		}
 
+		flush();
 		return mCASIndex.openIndex(pageRtx, indexDef, mode, filter, key, inc);
 	}
 
@@ -442,8 +516,33 @@ public final class IndexController {
 					"This document does not support path indexes.");
 		}
 
+		flush();
 		return mCASIndex.openIndex(pageRtx, indexDef, mode, filter, low, max,
 				incLow, incMax);
 	}
 
+	public Iterator<AVLNode<CASValue, NodeReferences>> openCASIndexEntries(
+			final PageReadTrx pageRtx, final IndexDef indexDef,
+			final Set<Long> pcrs, final @Nullable Atomic key) {
+		if (mCASIndex == null) {
+			throw new IllegalStateException(
+					"This document does not support CAS indexes.");
+		}
+
+		flush();
+		return mCASIndex.openIndexEntries(pageRtx, indexDef, pcrs, key);
+	}
+
+	/**
+	 * Make buffered index changes of an open write transaction visible to index
+	 * lookups.
+	 */
+	private void flush() {
+		try {
+			flushChanges();
+		} catch (final SirixIOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 }
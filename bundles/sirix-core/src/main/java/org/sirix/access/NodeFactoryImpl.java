@@ -3,7 +3,6 @@ package org.sirix.access;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
-import java.util.zip.Deflater;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -30,7 +29,6 @@ import org.sirix.page.PageKind;
 import org.sirix.page.PathSummaryPage;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.settings.Fixed;
-import org.sirix.utils.Compression;
 import org.sirix.utils.NamePageHash;
 
 import com.google.common.base.Optional;
@@ -137,11 +135,9 @@ final class NodeFactoryImpl implements NodeFactory {
 		final NodeDelegate nodeDel = new NodeDelegate(mPageWriteTrx
 				.getActualRevisionRootPage().getMaxNodeKey() + 1, parentKey, 0,
 				revision, id);
-		final boolean compression = isCompressed && value.length > 10;
-		final byte[] compressedValue = compression ? Compression.compress(value,
-				Deflater.HUFFMAN_ONLY) : value;
-		final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel,
-				compressedValue, compression);
+		// Values are compressed with the dictionary of the record page.
+		final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, value,
+				ValNodeDelegate.Encoding.NONE, isCompressed);
 		final StructNodeDelegate structDel = new StructNodeDelegate(nodeDel,
 				Fixed.NULL_NODE_KEY.getStandardProperty(), rightSibKey, leftSibKey, 0,
 				0);
@@ -222,7 +218,8 @@ final class NodeFactoryImpl implements NodeFactory {
 				0);
 		final NameNodeDelegate nameDel = new NameNodeDelegate(nodeDel, uriKey,
 				prefixKey, localNameKey, pathNodeKey);
-		final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, content, false);
+		final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, content,
+				ValNodeDelegate.Encoding.NONE, isCompressed);
 
 		return (PINode) mPageWriteTrx.createEntry(nodeDel.getNodeKey(), new PINode(
 				structDel, nameDel, valDel, mPageWriteTrx), PageKind.RECORDPAGE, -1,
@@ -238,11 +235,9 @@ final class NodeFactoryImpl implements NodeFactory {
 		final NodeDelegate nodeDel = new NodeDelegate(mPageWriteTrx
 				.getActualRevisionRootPage().getMaxNodeKey() + 1, parentKey, 0,
 				revision, id);
-		final boolean compression = isCompressed && value.length > 10;
-		final byte[] compressedValue = compression ? Compression.compress(value,
-				Deflater.HUFFMAN_ONLY) : value;
-		final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel,
-				compressedValue, compression);
+		// Values are compressed with the dictionary of the record page.
+		final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, value,
+				ValNodeDelegate.Encoding.NONE, isCompressed);
 		final StructNodeDelegate structDel = new StructNodeDelegate(nodeDel,
 				Fixed.NULL_NODE_KEY.getStandardProperty(), rightSibKey, leftSibKey, 0,
 				0);
@@ -109,6 +109,9 @@ public final class NodeReadTrxImpl implements NodeReadTrx {
 	/** Read-transaction-exclusive item list. */
 	private final ItemList<AtomicValue> mItemList;
 
+	/** Result of every successful move, as it only refers to this cursor. */
+	private final Move<NodeReadTrxImpl> mMoved = Move.moved(this);
+
 	/**
 	 * Constructor.
 	 * 
@@ -212,31 +215,28 @@ public final class NodeReadTrxImpl implements NodeReadTrx {
 		// return Move.notMoved();
 		// }
 
-		// Remember old node and fetch new one.
-		final ImmutableNode oldNode = mCurrentNode;
-		Optional<? extends Record> newNode;
+		// Fetch new node, the current node is kept if it doesn't exist.
+		Record newNode;
 		try {
 			// Immediately return node from item list if node key negative.
 			if (nodeKey < 0) {
 				if (mItemList.size() > 0) {
-					newNode = mItemList.getItem(nodeKey);
+					newNode = mItemList.getItem(nodeKey).orNull();
 				} else {
-					newNode = Optional.absent();
+					newNode = null;
 				}
 			} else {
-				final Optional<? extends Record> node = mPageReadTrx.getRecord(nodeKey,
-						PageKind.RECORDPAGE, -1);
-				newNode = node;
+				newNode = mPageReadTrx.getRecordOrNull(nodeKey, PageKind.RECORDPAGE,
+						-1);
 			}
 		} catch (final SirixIOException e) {
-			newNode = Optional.absent();
+			newNode = null;
 		}
 
-		if (newNode.isPresent()) {
-			mCurrentNode = (Node) newNode.get();
-			return Move.moved(this);
+		if (newNode != null) {
+			mCurrentNode = (Node) newNode;
+			return mMoved;
 		} else {
-			mCurrentNode = oldNode;
 			return Move.notMoved();
 		}
 	}
@@ -597,7 +597,7 @@ public final class NodeReadTrxImpl implements NodeReadTrx {
 				moveToRightSibling();
 			}
 
-			return Move.moved(this);
+			return mMoved;
 		}
 		return Move.notMoved();
 	}
@@ -133,6 +133,9 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 	/** Modification counter. */
 	private long mModificationCount;
 
+	/** Determines if an older revision has been reverted to. */
+	private boolean mReverted;
+
 	/** Hash kind of Structure. */
 	private final HashKind mHashKind;
 
@@ -1831,6 +1834,7 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 
 			// Reset modification counter.
 			mModificationCount = 0L;
+			mReverted = true;
 
 			// Move to document root.
 			moveToDocumentRoot();
@@ -1901,6 +1905,7 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 			mNodeFactory = new NodeFactoryImpl(trx);
 
 			reInstantiateIndexes();
+			mReverted = false;
 		} finally {
 			unLock();
 		}
@@ -1935,6 +1940,9 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 		// Optionally lock while commiting and assigning new instances.
 		acquireLock();
 		try {
+			// Apply buffered index changes.
+			mIndexController.flushChanges();
+
 			final UberPage uberPage = getPageTransaction()
 					.commit(MultipleWriteTrx.NO);
 
@@ -1977,6 +1985,20 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 		mNodeFactory = new NodeFactoryImpl(trx);
 
 		reInstantiateIndexes();
+		mReverted = false;
+	}
+
+	/**
+	 * Determines if the transaction still represents the most recently
+	 * committed revision, that is nothing has been modified or reverted since it
+	 * has been started, committed or rolled back.
+	 * 
+	 * @return {@code true}, if the transaction is unmodified, {@code false}
+	 *         otherwise
+	 */
+	boolean isUnmodified() {
+		return mModificationCount == 0 && !mReverted
+				&& !getPageTransaction().getUberPage().isBootstrap();
 	}
 
 	/**
@@ -1998,9 +2020,10 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 					mNodeRtx);
 		}
 
-		// Recreate index listeners.
-		mIndexController.createIndexListeners(mIndexController.getIndexes()
-				.getIndexDefs(), this);
+		// Recreate index listeners (buffered changes of the former page
+		// transaction are either committed or discarded).
+		mIndexController.clearIndexListeners().createIndexListeners(
+				mIndexController.getIndexes().getIndexDefs(), this);
 	}
 
 	/**
@@ -2969,4 +2992,15 @@ final class NodeWriteTrxImpl extends AbstractForwardingNodeReadTrx implements
 			unLock();
 		}
 	}
+
+	@Override
+	public NodeReadTrx beginSnapshotReadTrx() throws SirixException {
+		acquireLock();
+		try {
+			mNodeRtx.assertNotClosed();
+			return mNodeRtx.mSession.beginSnapshotReadTrx(getPageTransaction());
+		} finally {
+			unLock();
+		}
+	}
 }
@@ -39,6 +39,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -60,6 +61,8 @@ import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.index.IndexType;
 import org.sirix.io.Reader;
+import org.sirix.io.StorageType;
+import org.sirix.metrics.Metrics;
 import org.sirix.node.DeletedNode;
 import org.sirix.node.Kind;
 import org.sirix.node.interfaces.Record;
@@ -84,6 +87,7 @@ import com.google.common.base.Optional;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 /**
  * <h1>PageReadTransaction</h1>
@@ -123,6 +127,13 @@ final class PageReadTrxImpl implements PageReadTrx {
 	/** Internal reference to page cache. */
 	private final LoadingCache<PageReference, Page> mPageCache;
 
+	/** Boxed key of the last lookup in the node cache. */
+	private Long mLastNodeCacheKey = Long.valueOf(-1);
+
+	/** Keys of the last lookups in the index caches, by page kind. */
+	private final IndexLogKey[] mLastIndexLogKeys = new IndexLogKey[PageKind
+			.values().length];
+
 	/** {@link SessionImpl} reference. */
 	protected final SessionImpl mSession;
 
@@ -180,6 +191,12 @@ final class PageReadTrxImpl implements PageReadTrx {
 	/** {@link IndexController} instance. */
 	private final IndexController mIndexController;
 
+	/**
+	 * Optional readahead of record pages, if the transaction reads a committed
+	 * revision from persistent storage.
+	 */
+	private final Optional<RecordPageReadahead> mReadahead;
+
 	/**
 	 * Standard constructor.
 	 * 
@@ -293,6 +310,14 @@ final class PageReadTrxImpl implements PageReadTrx {
 						new CacheLoader<Long, RecordPageContainer<UnorderedKeyValuePage>>() {
 							public RecordPageContainer<UnorderedKeyValuePage> load(
 									final Long key) throws SirixException {
+								Metrics.inc(Metrics.NODE_CACHE_MISSES);
+								if (mReadahead.isPresent()) {
+									final RecordPageContainer<UnorderedKeyValuePage> container = mReadahead
+											.get().take(key);
+									if (container != null) {
+										return container;
+									}
+								}
 								final RecordPageContainer<UnorderedKeyValuePage> container = mNodeLog
 										.isPresent() ? mNodeLog.get().get(key)
 										: RecordPageContainer
@@ -311,6 +336,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 					.build(new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
 						public RecordPageContainer<UnorderedKeyValuePage> load(
 								final IndexLogKey key) throws SirixException {
+							Metrics.inc(Metrics.INDEX_CACHE_MISSES);
 							final RecordPageContainer<UnorderedKeyValuePage> container = mPathSummaryLog
 									.isPresent() ? mPathSummaryLog.get().get(key)
 									: RecordPageContainer.<UnorderedKeyValuePage> emptyInstance();
@@ -330,6 +356,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 					.build(new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
 						public RecordPageContainer<UnorderedKeyValuePage> load(
 								final IndexLogKey key) throws SirixException {
+							Metrics.inc(Metrics.INDEX_CACHE_MISSES);
 							final RecordPageContainer<UnorderedKeyValuePage> container = mPathLog
 									.isPresent() ? mPathLog.get().get(key) : RecordPageContainer
 									.<UnorderedKeyValuePage> emptyInstance();
@@ -348,6 +375,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 					.build(new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
 						public RecordPageContainer<UnorderedKeyValuePage> load(
 								final IndexLogKey key) throws SirixException {
+							Metrics.inc(Metrics.INDEX_CACHE_MISSES);
 							final RecordPageContainer<UnorderedKeyValuePage> container = mCASLog
 									.isPresent() ? mCASLog.get().get(key) : RecordPageContainer
 									.<UnorderedKeyValuePage> emptyInstance();
@@ -365,6 +393,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 					.build(new CacheLoader<IndexLogKey, RecordPageContainer<UnorderedKeyValuePage>>() {
 						public RecordPageContainer<UnorderedKeyValuePage> load(
 								final IndexLogKey key) throws SirixException {
+							Metrics.inc(Metrics.INDEX_CACHE_MISSES);
 							final RecordPageContainer<UnorderedKeyValuePage> container = mNameLog
 									.isPresent() ? mNameLog.get().get(key) : RecordPageContainer
 									.<UnorderedKeyValuePage> emptyInstance();
@@ -383,6 +412,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 		final PageReadTrxImpl impl = this;
 		mPageCache = pageCacheBuilder.build(new CacheLoader<PageReference, Page>() {
 			public Page load(final PageReference reference) throws SirixException {
+				Metrics.inc(Metrics.PAGE_CACHE_MISSES);
 				assert reference.getLogKey() != null
 						|| reference.getKey() != Constants.NULL_ID;
 				Page page = mPageLog.isPresent() ? mPageLog.get().get(
@@ -399,6 +429,13 @@ final class PageReadTrxImpl implements PageReadTrx {
 		assert mRootPage != null : "root page must not be null!";
 		mNamePage = getNamePage(mRootPage);
 		mClosed = false;
+
+		final int readaheadPages = session.mSessionConfig.mReadaheadPages;
+		mReadahead = readaheadPages > 0 && !mPageWriteTrx.isPresent()
+				&& !mNodeLog.isPresent()
+				&& mResourceConfig.mStorage != StorageType.IN_MEMORY ? Optional
+				.of(new RecordPageReadahead(this, session, readaheadPages)) : Optional
+				.<RecordPageReadahead> absent();
 	}
 
 	@Override
@@ -420,11 +457,18 @@ final class PageReadTrxImpl implements PageReadTrx {
 	public Optional<Record> getRecord(final long nodeKey,
 			final PageKind pageKind, final @Nonnegative int index)
 			throws SirixIOException {
+		return Optional.fromNullable(getRecordOrNull(nodeKey, pageKind, index));
+	}
+
+	@Override
+	@Nullable
+	public Record getRecordOrNull(final long nodeKey, final PageKind pageKind,
+			final @Nonnegative int index) throws SirixIOException {
 		checkNotNull(pageKind);
 		assertNotClosed();
 
 		if (nodeKey == Fixed.NULL_NODE_KEY.getStandardProperty()) {
-			return Optional.<Record> absent();
+			return null;
 		}
 
 		final long recordPageKey = pageKey(nodeKey);
@@ -433,19 +477,27 @@ final class PageReadTrxImpl implements PageReadTrx {
 		try {
 			switch (pageKind) {
 			case RECORDPAGE:
-				cont = mNodeCache.get(recordPageKey);
+				Metrics.inc(Metrics.NODE_CACHE_REQUESTS);
+				if (mReadahead.isPresent()) {
+					mReadahead.get().access(recordPageKey);
+				}
+				cont = mNodeCache.get(nodeCacheKey(recordPageKey));
 				break;
 			case PATHSUMMARYPAGE:
-				cont = mPathSummaryCache.get(new IndexLogKey(recordPageKey, index));
+				Metrics.inc(Metrics.INDEX_CACHE_REQUESTS);
+				cont = mPathSummaryCache.get(indexLogKey(pageKind, recordPageKey, index));
 				break;
 			case PATHPAGE:
-				cont = mPathCache.get(new IndexLogKey(recordPageKey, index));
+				Metrics.inc(Metrics.INDEX_CACHE_REQUESTS);
+				cont = mPathCache.get(indexLogKey(pageKind, recordPageKey, index));
 				break;
 			case CASPAGE:
-				cont = mCASCache.get(new IndexLogKey(recordPageKey, index));
+				Metrics.inc(Metrics.INDEX_CACHE_REQUESTS);
+				cont = mCASCache.get(indexLogKey(pageKind, recordPageKey, index));
 				break;
 			case NAMEPAGE:
-				cont = mNameCache.get(new IndexLogKey(recordPageKey, index));
+				Metrics.inc(Metrics.INDEX_CACHE_REQUESTS);
+				cont = mNameCache.get(indexLogKey(pageKind, recordPageKey, index));
 				break;
 			default:
 				throw new IllegalStateException();
@@ -455,11 +507,52 @@ final class PageReadTrxImpl implements PageReadTrx {
 		}
 
 		if (cont.equals(RecordPageContainer.EMPTY_INSTANCE)) {
-			return Optional.<Record> absent();
+			return null;
 		}
 
 		final Record retVal = cont.getComplete().getValue(nodeKey);
-		return checkItemIfDeleted(retVal);
+		return nullIfDeleted(retVal);
+	}
+
+	/**
+	 * Get the boxed key for a lookup in the node cache. Consecutive lookups
+	 * mostly hit the same record page, so the last key is reused.
+	 * 
+	 * @param recordPageKey
+	 *          the record page key
+	 * @return the boxed record page key
+	 */
+	private Long nodeCacheKey(final long recordPageKey) {
+		Long key = mLastNodeCacheKey;
+		if (key.longValue() != recordPageKey) {
+			key = Long.valueOf(recordPageKey);
+			mLastNodeCacheKey = key;
+		}
+		return key;
+	}
+
+	/**
+	 * Get the key for a lookup in one of the index caches. The last key of each
+	 * page kind is reused if it denotes the same record page of the same index.
+	 * 
+	 * @param pageKind
+	 *          the page kind of the index
+	 * @param recordPageKey
+	 *          the record page key
+	 * @param index
+	 *          the index number
+	 * @return the key
+	 */
+	private IndexLogKey indexLogKey(final PageKind pageKind,
+			final long recordPageKey, final @Nonnegative int index) {
+		final int ordinal = pageKind.ordinal();
+		IndexLogKey key = mLastIndexLogKeys[ordinal];
+		if (key == null || key.getRecordPageKey() != recordPageKey
+				|| key.getIndex() != index) {
+			key = new IndexLogKey(recordPageKey, index);
+			mLastIndexLogKeys[ordinal] = key;
+		}
+		return key;
 	}
 
 	/**
@@ -469,12 +562,9 @@ final class PageReadTrxImpl implements PageReadTrx {
 	 *          node to check
 	 * @return the {@code node} if it is valid, {@code null} otherwise
 	 */
-	final Optional<Record> checkItemIfDeleted(final @Nullable Record toCheck) {
-		if (toCheck instanceof DeletedNode) {
-			return Optional.absent();
-		} else {
-			return Optional.fromNullable(toCheck);
-		}
+	@Nullable
+	static Record nullIfDeleted(final @Nullable Record toCheck) {
+		return toCheck instanceof DeletedNode ? null : toCheck;
 	}
 
 	@Override
@@ -582,6 +672,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 			if (page == null) {
 				assert reference.getKey() != Constants.NULL_ID
 						|| reference.getLogKey() != null;
+				Metrics.inc(Metrics.PAGE_CACHE_REQUESTS);
 				page = (RevisionRootPage) mPageCache.get(reference);
 			}
 			return page;
@@ -598,6 +689,22 @@ final class PageReadTrxImpl implements PageReadTrx {
 				PageKind.NAMEPAGE);
 	}
 
+	@Override
+	public final NamePage readNamePage(final @Nonnegative long key)
+			throws SirixIOException {
+		assertNotClosed();
+		try {
+			return mSession.mNamePages.get(key, new Callable<NamePage>() {
+				@Override
+				public NamePage call() throws SirixIOException {
+					return (NamePage) mPageReader.read(key, PageReadTrxImpl.this);
+				}
+			});
+		} catch (final ExecutionException | UncheckedExecutionException e) {
+			throw new SirixIOException(e.getCause());
+		}
+	}
+
 	@Override
 	public final PathSummaryPage getPathSummaryPage(
 			final RevisionRootPage revisionRoot) throws SirixIOException {
@@ -640,6 +747,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 				reference.setLogKey(logKey);
 			}
 			if (page == null) {
+				Metrics.inc(Metrics.PAGE_CACHE_REQUESTS);
 				page = mPageCache.get(reference);
 				reference.setPage(page);
 			}
@@ -663,23 +771,41 @@ final class PageReadTrxImpl implements PageReadTrx {
 		assertNotClosed();
 		checkArgument(recordPageKey >= 0, "recordPageKey must not be negative!");
 		try {
+			final long start = Metrics.start();
 			final List<S> pages = (List<S>) this.<K, V, S> getSnapshotPages(
 					checkNotNull(recordPageKey), index, checkNotNull(pageKind),
 					Optional.<PageReference> absent());
-			if (pages.size() == 0) {
-				return RecordPageContainer.<S> emptyInstance();
-			}
-
-			final int mileStoneRevision = mResourceConfig.mRevisionsToRestore;
-			final Versioning revisioning = mResourceConfig.mRevisionKind;
-			final S completePage = revisioning.combineRecordPages(pages,
-					mileStoneRevision, this);
-			return new RecordPageContainer<S>(completePage);
+			Metrics.stop(Metrics.SNAPSHOT_TIME, start);
+			return this.<K, V, S> combineSnapshotPages(pages);
 		} catch (final ExecutionException e) {
 			throw new SirixIOException(e.getCause());
 		}
 	}
 
+	/**
+	 * Reconstruct the full record page from its fragments.
+	 * 
+	 * @param pages
+	 *          the fragments, starting with the most recent one
+	 * @return container with the complete page or the empty container, if there
+	 *         are no fragments
+	 */
+	final <K extends Comparable<? super K>, V extends Record, S extends KeyValuePage<K, V>> RecordPageContainer<S> combineSnapshotPages(
+			final List<S> pages) {
+		if (pages.size() == 0) {
+			return RecordPageContainer.<S> emptyInstance();
+		}
+		Metrics.update(Metrics.FRAGMENTS, pages.size());
+
+		final int mileStoneRevision = mResourceConfig.mRevisionsToRestore;
+		final Versioning revisioning = mResourceConfig.mRevisionKind;
+		final long combineStart = Metrics.start();
+		final S completePage = revisioning.combineRecordPages(pages,
+				mileStoneRevision, this);
+		Metrics.stop(Metrics.COMBINE_TIME, combineStart);
+		return new RecordPageContainer<S>(completePage);
+	}
+
 	/**
 	 * Dereference key/value page reference and get all leaves, the
 	 * {@link KeyValuePage}s from the revision-trees.
@@ -704,27 +830,40 @@ final class PageReadTrxImpl implements PageReadTrx {
 			throws SirixIOException, ExecutionException {
 		assert recordPageKey >= 0;
 		assert pageKind != null;
-		final ResourceConfiguration config = mSession.getResourceConfig();
-		final int revsToRestore = config.mRevisionsToRestore;
+		final PageReference refToRecordPage;
+		if (pageReference.isPresent()) {
+			refToRecordPage = pageReference.get();
+		} else {
+			final PageReference tmpRef = getPageReference(mRootPage, pageKind, index);
+			refToRecordPage = getPageReferenceForPage(tmpRef, recordPageKey, index,
+					pageKind);
+		}
+		return readSnapshotPages(refToRecordPage, mPageReader);
+	}
+
+	/**
+	 * Read the fragments of a record page, starting with the most recent one and
+	 * following the references to the previous versions.
+	 * 
+	 * @param refToRecordPage
+	 *          reference to the most recent fragment, might be {@code null}
+	 * @param reader
+	 *          the reader to use, which is not necessarily the reader of this
+	 *          transaction
+	 * @return the fragments
+	 * @throws SirixIOException
+	 *           if an I/O-error occurs
+	 */
+	final <K extends Comparable<? super K>, V extends Record, S extends KeyValuePage<K, V>> List<S> readSnapshotPages(
+			@Nullable PageReference refToRecordPage, final Reader reader)
+			throws SirixIOException {
+		final int revsToRestore = mResourceConfig.mRevisionsToRestore;
 		final List<S> pages = new ArrayList<>(revsToRestore);
 		final Set<Long> keys = new HashSet<>(revsToRestore);
-		final int[] revisionsToRead = config.mRevisionKind.getRevisionRoots(
-				mRootPage.getRevision(), revsToRestore);
-		boolean first = true;
-		for (int i : revisionsToRead) {
-			PageReference refToRecordPage = null;
-			if (first) {
-				first = false;
-				if (pageReference.isPresent()) {
-					refToRecordPage = pageReference.get();
-				} else {
-					assert mRootPage.getRevision() == i;
-					final PageReference tmpRef = getPageReference(mRootPage, pageKind,
-							index);
-					refToRecordPage = getPageReferenceForPage(tmpRef, recordPageKey,
-							index, pageKind);
-				}
-			} else {
+		final int[] revisionsToRead = mResourceConfig.mRevisionKind
+				.getRevisionRoots(mRootPage.getRevision(), revsToRestore);
+		for (int i = 0; i < revisionsToRead.length; i++) {
+			if (i > 0) {
 				final Optional<PageReference> reference = pages.get(pages.size() - 1)
 						.getPreviousReference();
 				refToRecordPage = reference.isPresent() ? reference.get() : null;
@@ -735,7 +874,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 				// Probably save page.
 				if (!keys.contains(refToRecordPage.getKey())) {
 					@SuppressWarnings("unchecked")
-					final S page = (S) mPageReader.read(refToRecordPage.getKey(), this);
+					final S page = (S) reader.read(refToRecordPage.getKey(), this);
 					pages.add(page);
 					keys.add(refToRecordPage.getKey());
 					if (page.size() == Constants.NDP_NODE_COUNT) {
@@ -810,6 +949,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 			}
 			if (page == null
 					&& (reference.getKey() != Constants.NULL_ID || reference.getLogKey() != null)) {
+				Metrics.inc(Metrics.PAGE_CACHE_REQUESTS);
 				page = (IndirectPage) mPageCache.get(reference);
 			}
 			return page;
@@ -886,6 +1026,31 @@ final class PageReadTrxImpl implements PageReadTrx {
 		return recordKey >> Constants.NDP_NODE_COUNT_EXPONENT;
 	}
 
+	@Override
+	public boolean mightContain(final @Nonnegative long recordPageKey,
+			final long entry) throws SirixIOException {
+		assertNotClosed();
+		checkArgument(recordPageKey >= 0, "recordPageKey must not be negative!");
+		if (!mResourceConfig.mBloomFilters) {
+			return true;
+		}
+		final PageReference reference = getPageReferenceForPage(
+				getPageReference(mRootPage, PageKind.RECORDPAGE, -1), recordPageKey,
+				-1, PageKind.RECORDPAGE);
+		final boolean mightContain;
+		if (reference == null || reference.getKey() == Constants.NULL_ID) {
+			mightContain = false;
+		} else {
+			mightContain = reference.getFilter() == null
+					|| reference.getFilter().mightContain(entry);
+		}
+		Metrics.inc(Metrics.BLOOM_FILTER_PROBES);
+		if (!mightContain) {
+			Metrics.inc(Metrics.BLOOM_FILTER_SKIPS);
+		}
+		return mightContain;
+	}
+
 	@Override
 	public RevisionRootPage getActualRevisionRootPage() {
 		assertNotClosed();
@@ -902,6 +1067,9 @@ final class PageReadTrxImpl implements PageReadTrx {
 	@Override
 	public void close() throws SirixIOException {
 		if (!mClosed) {
+			if (mReadahead.isPresent()) {
+				mReadahead.get().close();
+			}
 			closeCaches();
 			mPageReader.close();
 
@@ -931,6 +1099,7 @@ final class PageReadTrxImpl implements PageReadTrx {
 			throws SirixIOException {
 		assertNotClosed();
 		try {
+			Metrics.inc(Metrics.PAGE_CACHE_REQUESTS);
 			return mPageCache.get(reference);
 		} catch (final ExecutionException e) {
 			throw new SirixIOException(e.getCause());
@@ -949,4 +1118,4 @@ final class PageReadTrxImpl implements PageReadTrx {
 	public Reader getReader() {
 		return mPageReader;
 	}
-}
\ No newline at end of file
+}
@@ -36,8 +36,18 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
@@ -57,17 +67,25 @@ import org.sirix.cache.SynchronizedTransactionLogPageCache;
 import org.sirix.cache.TransactionIndexLogCache;
 import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
+import org.sirix.exception.SirixThreadedException;
 import org.sirix.index.IndexType;
+import org.sirix.io.SerializingWriter;
 import org.sirix.io.Writer;
+import org.sirix.metrics.Metrics;
 import org.sirix.node.DeletedNode;
 import org.sirix.node.Kind;
 import org.sirix.node.SirixDeweyID;
 import org.sirix.node.delegates.NodeDelegate;
+import org.sirix.node.delegates.ValNodeDelegate;
+import org.sirix.node.interfaces.DelegatingValueNode;
 import org.sirix.node.interfaces.Node;
 import org.sirix.node.interfaces.Record;
+import org.sirix.node.interfaces.RecordPersistenter;
+import org.sirix.page.BloomFilters;
 import org.sirix.page.CASPage;
 import org.sirix.page.IndirectPage;
 import org.sirix.page.NamePage;
+import org.sirix.page.OverflowPage;
 import org.sirix.page.PageKind;
 import org.sirix.page.PageReference;
 import org.sirix.page.PathPage;
@@ -83,6 +101,9 @@ import org.sirix.settings.Versioning;
 import org.sirix.utils.NamePageHash;
 
 import com.google.common.base.Optional;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * <h1>PageWriteTrx</h1>
@@ -149,6 +170,28 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 	/** {@link IndexController} instance. */
 	private final IndexController mIndexController;
 
+	/** Keys of the record pages in the node log. */
+	private final Set<Long> mModifiedRecordPages = new HashSet<>();
+
+	/**
+	 * Maximum number of pages per commit thread, which are serialized but not
+	 * written yet.
+	 */
+	private static final int PENDING_PAGES_PER_THREAD = 16;
+
+	/** Pool serializing record pages during a commit, created on demand. */
+	private ExecutorService mCommitPool;
+
+	/**
+	 * Pages of the running commit, which are not written yet, in the order in
+	 * which they have to be written. It's empty if pages aren't serialized in
+	 * parallel.
+	 */
+	private final Deque<PendingPage> mPendingPages = new ArrayDeque<>();
+
+	/** Determines if record pages are serialized in parallel. */
+	private boolean mSerializeInParallel;
+
 	/**
 	 * Standard constructor.
 	 * 
@@ -245,8 +288,11 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 			page.createPathSummaryTree(this, 0);
 		}
 
+		// Only names changed in this transaction have to be written.
+		final NamePage namePage = mPageRtx.getNamePage(revisionRoot);
+		namePage.setPreviousKey(revisionRoot.getNamePageReference().getKey());
 		mPageLog.put(new IndirectPageLogKey(PageKind.NAMEPAGE, -1, -1, 0),
-				mPageRtx.getNamePage(revisionRoot));
+				namePage);
 		mPageLog.put(new IndirectPageLogKey(PageKind.CASPAGE, -1, -1, 0),
 				mPageRtx.getCASPage(revisionRoot));
 		mPageLog.put(new IndirectPageLogKey(PageKind.PATHPAGE, -1, -1, 0),
@@ -354,6 +400,14 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 	public Optional<Record> getRecord(final @Nonnegative long recordKey,
 			final PageKind pageKind, final @Nonnegative int index)
 			throws SirixIOException {
+		return Optional.fromNullable(getRecordOrNull(recordKey, pageKind, index));
+	}
+
+	@Override
+	@Nullable
+	public Record getRecordOrNull(final @Nonnegative long recordKey,
+			final PageKind pageKind, final @Nonnegative int index)
+			throws SirixIOException {
 		mPageRtx.assertNotClosed();
 		checkArgument(recordKey >= Fixed.NULL_NODE_KEY.getStandardProperty());
 		checkNotNull(pageKind);
@@ -363,14 +417,26 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		final RecordPageContainer<UnorderedKeyValuePage> pageCont = getUnorderedRecordPageContainer(
 				pageKind, index, recordPageKey);
 		if (pageCont.equals(RecordPageContainer.EMPTY_INSTANCE)) {
-			return mPageRtx.getRecord(recordKey, pageKind, index);
+			return mPageRtx.getRecordOrNull(recordKey, pageKind, index);
 		} else {
 			Record node = pageCont.getModified().getValue(recordKey);
 			if (node == null) {
 				node = pageCont.getComplete().getValue(recordKey);
 			}
-			return mPageRtx.checkItemIfDeleted(node);
+			return PageReadTrxImpl.nullIfDeleted(node);
+		}
+	}
+
+	@Override
+	public boolean mightContain(final @Nonnegative long recordPageKey,
+			final long entry) throws SirixIOException {
+		mPageRtx.assertNotClosed();
+		// Pages in the transaction log have no filter yet.
+		if (!mNodeLog.get(recordPageKey).equals(
+				RecordPageContainer.EMPTY_INSTANCE)) {
+			return true;
 		}
+		return mPageRtx.mightContain(recordPageKey, entry);
 	}
 
 	/**
@@ -486,6 +552,11 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		final int nameKey = NamePageHash.generateHashForString(string);
 		final NamePage namePage = (NamePage) mNewRoot.getNamePageReference()
 				.getPage();
+		final String existing = namePage.getName(nameKey, nodeKind);
+		if (existing != null && !existing.equals(string)) {
+			throw new SirixIOException("The name " + string
+					+ " has the same key as the name " + existing + "!");
+		}
 		namePage.setName(nameKey, string, nodeKind);
 		return nameKey;
 	}
@@ -500,7 +571,7 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		final IndirectPageLogKey logKey = reference.getLogKey();
 		final PageKind pageKind = logKey == null ? null : logKey.getPageKind();
 		final int index = logKey == null ? -1 : logKey.getIndex();
-		RecordPageContainer<? extends KeyValuePage<?, ?>> cont = null;
+		RecordPageContainer<UnorderedKeyValuePage> cont = null;
 		if (recordPageKey == -1) {
 			if (logKey != null) {
 				page = mPageLog.get(logKey);
@@ -518,10 +589,27 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 				// throw new IllegalStateException("Page kind not known!");
 			}
 
-			if (cont != null) {
-				page = cont.getModified();
+			if (cont != null && cont.getModified() != null) {
+				// The versioning approach might decide to write another page, for
+				// instance a full dump instead of the modified records.
+				page = mPageRtx.mResourceConfig.mRevisionKind.getPageToCommit(cont,
+						mPageRtx.mResourceConfig.mRevisionsToRestore);
+				// The filter is written with the parent indirect page, which is
+				// serialized after its referenced pages.
+				if (pageKind == PageKind.RECORDPAGE
+						&& mPageRtx.mResourceConfig.mBloomFilters) {
+					reference.setFilter(BloomFilters.create(cont.getComplete(),
+							cont.getModified()));
+				}
 			}
 		}
+		// Overflow pages aren't kept in a log, but are referenced by the record
+		// page committing them.
+		if (page == null && reference.getPage() instanceof OverflowPage
+				&& reference.getKey() == Constants.NULL_ID) {
+			page = reference.getPage();
+		}
+
 		// If none is in the log.
 		// if (page == null) {
 		// // Test if one is instantiated, if so, get
@@ -595,9 +683,48 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 
 		reference.setPage(page);
 
+		if (cont != null && mSerializeInParallel) {
+			// The records are serialized and the overflow pages are written on this
+			// thread, as the keys of the overflow pages are part of the page and the
+			// page read transaction must not be shared with the pool.
+			page.commit(this);
+
+			// Lay out and compress the record page on the pool. It's written once
+			// all pages committed before it have been written.
+			final SerializingWriter writer = (SerializingWriter) mPageWriter;
+			final Page recordPage = page;
+			mPendingPages.add(new PendingPage(reference, mCommitPool
+					.submit(new Callable<byte[]>() {
+						@Override
+						public byte[] call() throws SirixIOException {
+							return writer.serialize(recordPage);
+						}
+					})));
+			final int maxPendingPages = PENDING_PAGES_PER_THREAD
+					* mPageRtx.mSession.mSessionConfig.mCommitThreads;
+			while (mPendingPages.size() > maxPendingPages) {
+				writePendingPage();
+			}
+			return;
+		}
+
 		// Recursively commit indirectly referenced pages and then
 		// write self.
 		page.commit(this);
+		if (!mPendingPages.isEmpty()) {
+			if (!(page instanceof OverflowPage)) {
+				// Referenced pages might not be written yet, which is why the keys
+				// needed to serialize the page aren't known.
+				mPendingPages.add(new PendingPage(reference, null));
+				return;
+			}
+			// The record page referencing the overflow page is serialized right
+			// afterwards and needs its key. The pending pages are written first to
+			// keep the order of the pages.
+			while (!mPendingPages.isEmpty()) {
+				writePendingPage();
+			}
+		}
 		mPageWriter.write(reference);
 
 		// Remove from transaction log.
@@ -619,6 +746,7 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 	public UberPage commit(final MultipleWriteTrx multipleWriteTrx)
 			throws SirixException {
 		mPageRtx.assertNotClosed();
+		final long start = Metrics.start();
 		mPageRtx.mSession.mCommitLock.lock();
 		mMultipleWriteTrx = checkNotNull(multipleWriteTrx);
 
@@ -636,6 +764,7 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 
 		// Forcefully flush write-ahead transaction logs to persistent storage.
 		if (mPageRtx.mSession.mSessionConfig.dumpLogs()) {
+			final long flushStart = Metrics.start();
 			mPageLog.toSecondCache();
 			mNodeLog.toSecondCache();
 
@@ -651,6 +780,7 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 			if (mNameLog != null) {
 				mNameLog.toSecondCache();
 			}
+			Metrics.stop(Metrics.COMMIT_FLUSH_TIME, flushStart);
 		}
 
 		final PageReference uberPageReference = new PageReference();
@@ -659,14 +789,25 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		final int revision = uberPage.getRevisionNumber();
 
 		// Recursively write indirectly referenced pages.
-		uberPage.commit(this);
-
-		uberPageReference.setPage(uberPage);
-		mPageWriter.writeFirstReference(uberPageReference);
-		uberPageReference.setPage(null);
-
-		mPageRtx.mSession.waitForFinishedSync(mTransactionID);
+		final long writeStart = Metrics.start();
+		mSerializeInParallel = serializeInParallel();
+		try {
+			uberPage.commit(this);
+			while (!mPendingPages.isEmpty()) {
+				writePendingPage();
+			}
+		} finally {
+			mSerializeInParallel = false;
+			for (final PendingPage pending : mPendingPages) {
+				if (pending.mSerializedPage != null) {
+					pending.mSerializedPage.cancel(true);
+				}
+			}
+			mPendingPages.clear();
+		}
 
+		// The index definitions are written before the uber page is published, as
+		// replicas expose the revision as soon as the beacon refers to it.
 		final File indexes = new File(mPageRtx.mResourceConfig.mPath,
 				ResourceConfiguration.Paths.INDEXES.getFile().getPath() + revision
 						+ ".xml");
@@ -676,6 +817,15 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 			throw new SirixIOException("Index definitions couldn't be serialized!", e);
 		}
 
+		uberPageReference.setPage(uberPage);
+		mPageWriter.writeFirstReference(uberPageReference);
+		uberPageReference.setPage(null);
+		Metrics.stop(Metrics.COMMIT_WRITE_TIME, writeStart);
+
+		final long syncStart = Metrics.start();
+		mPageRtx.mSession.waitForFinishedSync(mTransactionID);
+		Metrics.stop(Metrics.COMMIT_SYNC_TIME, syncStart);
+
 		// Delete commit file which denotes that a commit must write the log in
 		// the data file.
 		final boolean deleted = commitFile.delete();
@@ -684,12 +834,70 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		}
 
 		mPageRtx.mSession.mCommitLock.unlock();
+		Metrics.stop(Metrics.COMMIT_TIME, start);
 		return uberPage;
 	}
 
+	/**
+	 * Determines if record pages are serialized in parallel during the commit,
+	 * which requires a writer storing pages as bytes and more than one thread.
+	 * Transaction logs dumped to persistent storage serialize pages when evicted
+	 * from memory, which is why they are committed sequentially.
+	 * 
+	 * @return {@code true}, if record pages are serialized in parallel,
+	 *         {@code false} otherwise
+	 */
+	private boolean serializeInParallel() {
+		final int threads = mPageRtx.mSession.mSessionConfig.mCommitThreads;
+		if (threads < 2 || !(mPageWriter instanceof SerializingWriter)
+				|| mPageRtx.mSession.mSessionConfig.dumpLogs()) {
+			return false;
+		}
+		if (mCommitPool == null) {
+			mCommitPool = Executors.newFixedThreadPool(threads,
+					new ThreadFactoryBuilder().setDaemon(true)
+							.setNameFormat("sirix-commit-%d").build());
+		}
+		return true;
+	}
+
+	/**
+	 * Write the first pending page. Record pages are serialized on the pool
+	 * after their overflow pages have been written, all other pages only now,
+	 * as the keys of the pages they reference are known once these have been
+	 * written.
+	 * 
+	 * @throws SirixException
+	 *           if the page couldn't be serialized or written
+	 */
+	private void writePendingPage() throws SirixException {
+		final PendingPage pending = mPendingPages.poll();
+		final PageReference reference = pending.mReference;
+		if (pending.mSerializedPage == null) {
+			mPageWriter.write(reference);
+		} else {
+			final byte[] serializedPage;
+			try {
+				serializedPage = pending.mSerializedPage.get();
+			} catch (final InterruptedException e) {
+				throw new SirixThreadedException(e);
+			} catch (final ExecutionException e) {
+				if (e.getCause() instanceof SirixException) {
+					throw (SirixException) e.getCause();
+				}
+				throw new SirixThreadedException(e);
+			}
+			((SerializingWriter) mPageWriter).write(reference, serializedPage);
+		}
+		reference.setPage(null);
+	}
+
 	@Override
 	public void close() throws SirixIOException {
 		if (!mIsClosed) {
+			if (mCommitPool != null) {
+				mCommitPool.shutdown();
+			}
 			mPageRtx.assertNotClosed();
 			mPageRtx.clearCaches();
 			mPageRtx.closeCaches();
@@ -807,6 +1015,7 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 			switch (pageKind) {
 			case RECORDPAGE:
 				mNodeLog.put(recordPageKey, cont);
+				mModifiedRecordPages.add(recordPageKey);
 				break;
 			case PATHSUMMARYPAGE:
 				mPathSummaryLog.put(new IndexLogKey(recordPageKey, index), cont);
@@ -1003,6 +1212,76 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		return mPageRtx;
 	}
 
+	@Override
+	public PageReadTrx snapshot(final PageReadTrx pageReadTrx)
+			throws SirixIOException {
+		mPageRtx.assertNotClosed();
+		checkNotNull(pageReadTrx);
+		final RecordPersistenter persistenter = mPageRtx.mSession.mResourceConfig.mPersistenter;
+		final Map<Long, Record> records = new HashMap<>();
+		final Set<Long> removed = new HashSet<>();
+		try {
+			for (final long recordPageKey : mModifiedRecordPages) {
+				final RecordPageContainer<UnorderedKeyValuePage> cont = mNodeLog
+						.get(recordPageKey);
+				if (cont.equals(RecordPageContainer.EMPTY_INSTANCE)) {
+					continue;
+				}
+				for (final Record record : cont.getModified().values()) {
+					if (record.getKind() == Kind.DELETE) {
+						removed.add(record.getNodeKey());
+					} else {
+						records.put(record.getNodeKey(),
+								copyRecord(record, persistenter, pageReadTrx));
+					}
+				}
+			}
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+		final NamePage namePage = ((NamePage) mNewRoot.getNamePageReference()
+				.getPage()).copy();
+		return new SnapshotPageReadTrx(pageReadTrx, records, removed, namePage);
+	}
+
+	/**
+	 * Copy a record by serializing and deserializing it, such that the copy is
+	 * not affected by later modifications of the record.
+	 * 
+	 * @param record
+	 *          the record to copy
+	 * @param persistenter
+	 *          the persistenter of the resource
+	 * @param pageReadTrx
+	 *          transaction the copy is read with
+	 * @return the copy
+	 * @throws IOException
+	 *           if the record can't be serialized or deserialized
+	 */
+	private Record copyRecord(final Record record,
+			final RecordPersistenter persistenter, final PageReadTrx pageReadTrx)
+			throws IOException {
+		final ByteArrayDataOutput out = ByteStreams.newDataOutput();
+		persistenter.serialize(out, record, mPageRtx);
+		final Optional<SirixDeweyID> deweyID = record instanceof Node ? ((Node) record)
+				.getDeweyID() : Optional.<SirixDeweyID> absent();
+		final Record copy = persistenter.deserialize(
+				ByteStreams.newDataInput(out.toByteArray()), record.getNodeKey(),
+				deweyID, pageReadTrx);
+		if (record instanceof DelegatingValueNode) {
+			final ValNodeDelegate original = ((DelegatingValueNode) record)
+					.getValNodeDelegate();
+			final ValNodeDelegate copied = ((DelegatingValueNode) copy)
+					.getValNodeDelegate();
+			if (original.getDictionary() != null) {
+				copied.setDictionary(original.getDictionary());
+			}
+			// Decompress the value up front, not by concurrent readers.
+			copied.getRawValue();
+		}
+		return copy;
+	}
+
 	@Override
 	public void putPageIntoCache(final IndirectPageLogKey key, final Page page) {
 		mPageLog.put(checkNotNull(key), checkNotNull(page));
@@ -1018,6 +1297,7 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		switch (pageKind) {
 		case RECORDPAGE:
 			mNodeLog.put(recordPageKey, pageContainer);
+			mModifiedRecordPages.add(recordPageKey);
 			break;
 		case PATHSUMMARYPAGE:
 			mPathSummaryLog.put(new IndexLogKey(recordPageKey, index), pageContainer);
@@ -1040,4 +1320,27 @@ final class PageWriteTrxImpl extends AbstractForwardingPageReadTrx implements
 		checkNotNull(key);
 		return mPageLog.get(key);
 	}
+
+	/** A page of the running commit, which is not written yet. */
+	private static final class PendingPage {
+		/** Reference to the page. */
+		private final PageReference mReference;
+
+		/** The serialized record page or {@code null} for other pages. */
+		private final Future<byte[]> mSerializedPage;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param reference
+		 *          reference to the page
+		 * @param serializedPage
+		 *          the serialized record page or {@code null} for other pages
+		 */
+		private PendingPage(final PageReference reference,
+				final @Nullable Future<byte[]> serializedPage) {
+			mReference = reference;
+			mSerializedPage = serializedPage;
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+package org.sirix.access;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import org.sirix.cache.RecordPageContainer;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.Reader;
+import org.sirix.metrics.Metrics;
+import org.sirix.node.interfaces.Record;
+import org.sirix.page.PageKind;
+import org.sirix.page.PageReference;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.settings.Constants;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Readahead of record pages for scans in document order. Node keys are
+ * assigned in document order, thus axes and serializers traversing a document
+ * access the record pages mostly one after the other. Once a transaction has
+ * advanced to the next record page twice in a row, the fragments of the
+ * following pages within a window are read in the background.
+ * 
+ * <p>
+ * The background thread reads with a reader opened from the session, which on
+ * file storage is the reader shared by all transactions of the resource. Its
+ * reads therefore are never interrupted, as an interrupted read closes the
+ * channel of the shared reader. The page references are looked up on the
+ * thread of the transaction, and the fragments are handed over, when the
+ * transaction loads the page into its node cache. They are
+ * combined on the thread of the transaction, as combining reads overflow pages
+ * with the reader of the transaction. Pages, which are accessed out of order,
+ * are read synchronously as before.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+final class RecordPageReadahead {
+
+	/** {@link LogWrapper} reference. */
+	private static final LogWrapper LOGWRAPPER = new LogWrapper(
+			LoggerFactory.getLogger(RecordPageReadahead.class));
+
+	/** Number of advances to the next record page, which start the readahead. */
+	private static final int SEQUENTIAL_ACCESSES = 2;
+
+	/** Seconds to wait for the background thread during closing. */
+	private static final int CLOSE_TIMEOUT = 5;
+
+	/** Transaction, which is read ahead. */
+	private final PageReadTrxImpl mPageReadTrx;
+
+	/** Session to open the reader of the background thread from. */
+	private final SessionImpl mSession;
+
+	/** Maximum number of record pages read ahead of the current page. */
+	private final int mWindow;
+
+	/** Key of the last record page of the revision. */
+	private final long mMaxRecordPageKey;
+
+	/** Fragments of the pages, which are read ahead, by their record page key. */
+	private final Map<Long, Future<List<UnorderedKeyValuePage>>> mPending;
+
+	/** Highest record page key accessed so far. */
+	private long mHighestKey = -1;
+
+	/** Number of consecutive advances to the next record page. */
+	private int mSequential;
+
+	/** Next record page key, which hasn't been read ahead. */
+	private long mNextKey;
+
+	/** Background thread, created on the first readahead. */
+	@Nullable
+	private ExecutorService mExecutor;
+
+	/**
+	 * Reader of the background thread, opened from the session on the first
+	 * readahead.
+	 */
+	@Nullable
+	private Reader mReader;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param pageReadTrx
+	 *          the transaction to read ahead for
+	 * @param session
+	 *          the session of the transaction
+	 * @param window
+	 *          maximum number of record pages read ahead
+	 */
+	RecordPageReadahead(final PageReadTrxImpl pageReadTrx,
+			final SessionImpl session, final @Nonnegative int window) {
+		checkArgument(window > 0, "window must be > 0!");
+		mPageReadTrx = checkNotNull(pageReadTrx);
+		mSession = checkNotNull(session);
+		mWindow = window;
+		mMaxRecordPageKey = pageReadTrx.getActualRevisionRootPage()
+				.getMaxNodeKey() >> Constants.NDP_NODE_COUNT_EXPONENT;
+		mPending = new HashMap<>();
+	}
+
+	/**
+	 * Notify about an access of a record page, which might start reading the
+	 * following pages.
+	 * 
+	 * @param recordPageKey
+	 *          the key of the accessed record page
+	 * @throws SirixIOException
+	 *           if the page references can't be read
+	 */
+	void access(final long recordPageKey) throws SirixIOException {
+		if (recordPageKey <= mHighestKey) {
+			// Going back to a page, for instance of an ancestor, doesn't interrupt
+			// a scan.
+			return;
+		}
+		if (recordPageKey == mHighestKey + 1) {
+			mSequential++;
+		} else {
+			mSequential = 0;
+			cancel();
+		}
+		mHighestKey = recordPageKey;
+		if (mSequential >= SEQUENTIAL_ACCESSES) {
+			readAhead(recordPageKey);
+		}
+	}
+
+	/**
+	 * Take a record page, which has been read ahead.
+	 * 
+	 * @param recordPageKey
+	 *          the key of the record page
+	 * @return the record page reconstructed from the fragments, which have been
+	 *         read ahead, or {@code null}, if it hasn't been read ahead or
+	 *         reading failed
+	 */
+	@Nullable
+	RecordPageContainer<UnorderedKeyValuePage> take(final long recordPageKey) {
+		final Future<List<UnorderedKeyValuePage>> future = mPending
+				.remove(recordPageKey);
+		if (future == null) {
+			return null;
+		}
+		try {
+			final List<UnorderedKeyValuePage> pages = future.get();
+			Metrics.inc(Metrics.READAHEAD_HITS);
+			return mPageReadTrx
+					.<Long, Record, UnorderedKeyValuePage> combineSnapshotPages(pages);
+		} catch (final ExecutionException e) {
+			// The page is read synchronously instead.
+			LOGWRAPPER.debug("Readahead of record page {} failed: {}",
+					recordPageKey, e.getCause());
+			return null;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Stop the background thread and close its reader. Pending reads are
+	 * cancelled, whereas a running read is completed instead of being
+	 * interrupted.
+	 * 
+	 * @throws SirixIOException
+	 *           if the reader can't be closed
+	 */
+	void close() throws SirixIOException {
+		cancel();
+		if (mExecutor != null) {
+			mExecutor.shutdown();
+			try {
+				if (!mExecutor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS)) {
+					LOGWRAPPER.warn("Readahead didn't terminate within {} seconds!",
+							CLOSE_TIMEOUT);
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			mExecutor = null;
+		}
+		if (mReader != null) {
+			mReader.close();
+			mReader = null;
+		}
+	}
+
+	/** Submit the pages following the current page up to the window. */
+	private void readAhead(final long recordPageKey) throws SirixIOException {
+		final long lastKey = Math.min(recordPageKey + mWindow, mMaxRecordPageKey);
+		final PageReference startReference = mPageReadTrx.getPageReference(
+				mPageReadTrx.getActualRevisionRootPage(), PageKind.RECORDPAGE, -1);
+		for (long key = Math.max(mNextKey, recordPageKey + 1); key <= lastKey; key++) {
+			final PageReference reference = mPageReadTrx.getPageReferenceForPage(
+					startReference, key, -1, PageKind.RECORDPAGE);
+			if (reference != null && reference.getKey() != Constants.NULL_ID) {
+				mPending.put(key, executor().submit(new ReadTask(reference)));
+			}
+		}
+		mNextKey = Math.max(mNextKey, lastKey + 1);
+	}
+
+	/** Cancel all pages, which are read ahead. */
+	private void cancel() {
+		for (final Future<List<UnorderedKeyValuePage>> future : mPending.values()) {
+			future.cancel(false);
+		}
+		mPending.clear();
+		mNextKey = 0;
+	}
+
+	/** Get the background thread, which is created on first use. */
+	private ExecutorService executor() throws SirixIOException {
+		if (mExecutor == null) {
+			mReader = mSession.openReader();
+			mExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+					.setDaemon(true).setNameFormat("sirix-readahead-%d").build());
+		}
+		return mExecutor;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("window", mWindow)
+				.add("highestKey", mHighestKey).add("pending", mPending.size())
+				.toString();
+	}
+
+	/** Reads the fragments of a record page on the background thread. */
+	private final class ReadTask implements
+			Callable<List<UnorderedKeyValuePage>> {
+
+		/** Reference to the most recent fragment of the page. */
+		private final PageReference mReference;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param reference
+		 *          reference to the most recent fragment of the page
+		 */
+		ReadTask(final PageReference reference) {
+			mReference = reference;
+		}
+
+		@Override
+		public List<UnorderedKeyValuePage> call() throws SirixIOException {
+			final List<UnorderedKeyValuePage> pages = mPageReadTrx
+					.<Long, Record, UnorderedKeyValuePage> readSnapshotPages(
+							mReference, mReader);
+			Metrics.inc(Metrics.READAHEAD_PAGES);
+			return pages;
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package org.sirix.access;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnegative;
+
+import org.sirix.exception.SirixIOException;
+import org.sirix.metrics.Metrics;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Tails the storage of a resource, which is opened by a read-only replica. The
+ * storage is append-only and a writer publishes a commit by writing the offset
+ * of the new uber page into the beacon at the start of the file, after all
+ * other pages of the revision. The beacon is polled in the background and a
+ * new uber page is handed to the session, which exposes the revision to all
+ * transactions begun afterwards.
+ * 
+ * <p>
+ * A beacon, which points to an uber page not yet completely visible (for
+ * instance on a shared disk or a copy, which is still being transferred), fails
+ * to deserialize and is simply polled again.
+ * </p>
+ * 
+ * <p>
+ * The beacon is read with the reader of the session, which on file storage is
+ * shared by all transactions of the resource. Closing the tailer therefore
+ * doesn't interrupt a running poll, as an interrupted read closes the channel
+ * of the shared reader.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+final class ReplicaTailer implements Runnable {
+
+	/** {@link LogWrapper} reference. */
+	private static final LogWrapper LOGWRAPPER = new LogWrapper(
+			LoggerFactory.getLogger(ReplicaTailer.class));
+
+	/** Seconds to wait for the background thread during closing. */
+	private static final int CLOSE_TIMEOUT = 5;
+
+	/** Session of the replica. */
+	private final SessionImpl mSession;
+
+	/** Milliseconds between two polls of the beacon. */
+	private final long mPollInterval;
+
+	/** Background thread polling the beacon. */
+	private final ScheduledExecutorService mExecutor;
+
+	/** Offset of the uber page, which has been read last. */
+	private volatile long mUberPageKey;
+
+	/** Determines if the tailer has been closed. */
+	private volatile boolean mClosed;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param session
+	 *          the session of the replica
+	 * @param uberPageKey
+	 *          offset of the uber page the session has been opened with
+	 * @param pollInterval
+	 *          milliseconds between two polls of the beacon
+	 */
+	ReplicaTailer(final SessionImpl session, final long uberPageKey,
+			final @Nonnegative long pollInterval) {
+		checkArgument(pollInterval > 0, "pollInterval must be > 0!");
+		mSession = checkNotNull(session);
+		mUberPageKey = uberPageKey;
+		mPollInterval = pollInterval;
+		mExecutor = Executors
+				.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+						.setDaemon(true).setNameFormat("sirix-replica-%d").build());
+	}
+
+	/**
+	 * Start polling the beacon.
+	 * 
+	 * @return this instance
+	 */
+	ReplicaTailer start() {
+		mExecutor.scheduleWithFixedDelay(this, mPollInterval, mPollInterval,
+				TimeUnit.MILLISECONDS);
+		return this;
+	}
+
+	@Override
+	public void run() {
+		if (mClosed) {
+			return;
+		}
+		try {
+			poll();
+		} catch (final SirixIOException | RuntimeException e) {
+			// The revision might not be completely visible yet.
+			LOGWRAPPER.debug("Uber page not readable yet: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Read the beacon and publish the uber page it refers to, if it is newer than
+	 * the uber page of the session.
+	 * 
+	 * @return {@code true}, if a new revision has been published, {@code false}
+	 *         otherwise
+	 * @throws SirixIOException
+	 *           if the beacon or the uber page can't be read
+	 */
+	boolean poll() throws SirixIOException {
+		final PageReference reference = mSession.openReader()
+				.readUberPageReference();
+		if (reference.getKey() == mUberPageKey) {
+			return false;
+		}
+		final UberPage uberPage = (UberPage) reference.getPage();
+		mUberPageKey = reference.getKey();
+		if (!mClosed && mSession.publishUberPage(uberPage)) {
+			Metrics.inc(Metrics.REPLICA_REVISIONS);
+			return true;
+		}
+		return false;
+	}
+
+	/** Stop polling the beacon, after a running poll has completed. */
+	void close() {
+		mClosed = true;
+		mExecutor.shutdown();
+		try {
+			if (!mExecutor.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS)) {
+				LOGWRAPPER.warn("Replica tailer didn't terminate within {} seconds!",
+						CLOSE_TIMEOUT);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("pollInterval", mPollInterval)
+				.add("uberPageKey", mUberPageKey).toString();
+	}
+}
@@ -71,6 +71,7 @@ import org.sirix.io.Storage;
 import org.sirix.io.StorageType;
 import org.sirix.io.Writer;
 import org.sirix.node.interfaces.Record;
+import org.sirix.page.NamePage;
 import org.sirix.page.PageKind;
 import org.sirix.page.PageReference;
 import org.sirix.page.UberPage;
@@ -78,6 +79,8 @@ import org.sirix.page.UnorderedKeyValuePage;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * <h1>Session</h1>
@@ -137,6 +140,15 @@ public final class SessionImpl implements Session {
 	/** {@link IndexController}s used for this session. */
 	private final Map<Integer, IndexController> mWtxIndexControllers;
 
+	/**
+	 * Name pages of former revisions, which the name pages of later revisions
+	 * are based on, by their storage key. The cached pages are never modified.
+	 */
+	final Cache<Long, NamePage> mNamePages;
+
+	/** Tails the storage for new revisions, if opened by a read-only replica. */
+	private final Optional<ReplicaTailer> mReplicaTailer;
+
 	/** Determines if session was closed. */
 	private volatile boolean mClosed;
 
@@ -169,12 +181,19 @@ public final class SessionImpl implements Session {
 		mDatabase = checkNotNull(database);
 		mResourceConfig = checkNotNull(resourceConf);
 		mSessionConfig = checkNotNull(sessionConf);
+		if (database.isReplica() && resourceConf.mStorage != StorageType.FILE) {
+			throw new SirixUsageException(
+					"Read-only replicas are only supported by the file storage:",
+					resourceConf.mStorage.toString());
+		}
 		mNodeTrxMap = new ConcurrentHashMap<>();
 		mPageTrxMap = new ConcurrentHashMap<>();
 		mNodePageTrxMap = new ConcurrentHashMap<>();
 		mSyncTransactionsReturns = new ConcurrentHashMap<>();
 		mRtxIndexControllers = new HashMap<>();
 		mWtxIndexControllers = new HashMap<>();
+		mNamePages = CacheBuilder.newBuilder()
+				.maximumSize(NamePage.MAX_DELTA_DEPTH * 4).build();
 
 		mNodeTrxIDCounter = new AtomicLong();
 		mPageTrxIDCounter = new AtomicLong();
@@ -184,10 +203,14 @@ public final class SessionImpl implements Session {
 		mWriteSemaphore = new Semaphore(sessionConf.mWtxAllowed);
 		mReadSemaphore = new Semaphore(sessionConf.mRtxAllowed);
 
-		mFac = StorageType.getStorage(mResourceConfig);
+		mFac = sessionConf.getKey().isPresent() ? StorageType.getStorage(
+				mResourceConfig, sessionConf.getKey().get()) : StorageType
+				.getStorage(mResourceConfig);
+		long uberPageKey = -1;
 		if (mFac.exists()) {
 			final Reader reader = mFac.getReader();
 			final PageReference firstRef = reader.readUberPageReference();
+			uberPageKey = firstRef.getKey();
 			if (firstRef.getPage() == null) {
 				mLastCommittedUberPage = new AtomicReference<>((UberPage) reader.read(
 						firstRef.getKey(), null));
@@ -200,6 +223,9 @@ public final class SessionImpl implements Session {
 			// Bootstrap uber page and make sure there already is a root node.
 			mLastCommittedUberPage = new AtomicReference<>(new UberPage());
 		}
+		mReplicaTailer = database.isReplica() ? Optional.of(new ReplicaTailer(
+				this, uberPageKey, sessionConf.mReplicaPollInterval).start())
+				: Optional.<ReplicaTailer> absent();
 		mClosed = false;
 	}
 
@@ -212,7 +238,59 @@ public final class SessionImpl implements Session {
 	public synchronized NodeReadTrx beginNodeReadTrx(
 			@Nonnegative final int revisionKey) throws SirixException {
 		assertAccess(revisionKey);
-		// Make sure not to exceed available number of read transactions.
+		acquireReadTrx();
+
+		// Create new read transaction.
+		final NodeReadTrx rtx = new NodeReadTrxImpl(this,
+				mNodeTrxIDCounter.incrementAndGet(), new PageReadTrxImpl(this,
+						mLastCommittedUberPage.get(), revisionKey, mFac.getReader(),
+						Optional.<PageWriteTrxImpl> absent(),
+						Optional.<IndexController> absent()));
+
+		return registerReadTrx(rtx);
+	}
+
+	/**
+	 * Begin a read-only transaction on a snapshot of the uncommitted changes of
+	 * a write transaction.
+	 * 
+	 * @param pageWriteTrx
+	 *          the page transaction of the write transaction
+	 * @return the read transaction
+	 * @throws SirixException
+	 *           if the snapshot can't be created
+	 */
+	synchronized NodeReadTrx beginSnapshotReadTrx(
+			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx)
+			throws SirixException {
+		final int revision = pageWriteTrx.getPageReadTrx().getRevisionNumber();
+		assertAccess(revision);
+		acquireReadTrx();
+
+		final PageReadTrx pageReadTrx = new PageReadTrxImpl(this,
+				mLastCommittedUberPage.get(), revision, mFac.getReader(),
+				Optional.<PageWriteTrxImpl> absent(),
+				Optional.<IndexController> absent());
+		final NodeReadTrx rtx;
+		try {
+			rtx = new NodeReadTrxImpl(this, mNodeTrxIDCounter.incrementAndGet(),
+					pageWriteTrx.snapshot(pageReadTrx));
+		} catch (final SirixException | RuntimeException e) {
+			pageReadTrx.close();
+			mReadSemaphore.release();
+			throw e;
+		}
+
+		return registerReadTrx(rtx);
+	}
+
+	/**
+	 * Make sure not to exceed available number of read transactions.
+	 * 
+	 * @throws SirixException
+	 *           if no read transaction is available
+	 */
+	private void acquireReadTrx() throws SirixException {
 		try {
 			if (!mReadSemaphore.tryAcquire(20, TimeUnit.SECONDS)) {
 				throw new SirixUsageException(
@@ -221,15 +299,19 @@ public final class SessionImpl implements Session {
 		} catch (final InterruptedException e) {
 			throw new SirixThreadedException(e);
 		}
+	}
 
-		// Create new read transaction.
-		final NodeReadTrx rtx = new NodeReadTrxImpl(this,
-				mNodeTrxIDCounter.incrementAndGet(), new PageReadTrxImpl(this,
-						mLastCommittedUberPage.get(), revisionKey, mFac.getReader(),
-						Optional.<PageWriteTrxImpl> absent(),
-						Optional.<IndexController> absent()));
-
-		// Remember transaction for debugging and safe close.
+	/**
+	 * Remember transaction for debugging and safe close.
+	 * 
+	 * @param rtx
+	 *          the read transaction
+	 * @return the read transaction
+	 * @throws SirixException
+	 *           if the transaction ID isn't unique
+	 */
+	private NodeReadTrx registerReadTrx(final NodeReadTrx rtx)
+			throws SirixException {
 		if (mNodeTrxMap.put(rtx.getTransactionID(), rtx) != null) {
 			throw new SirixUsageException(
 					"ID generation is bogus because of duplicate ID.");
@@ -261,6 +343,7 @@ public final class SessionImpl implements Session {
 			@Nonnegative final int maxTime) throws SirixException {
 		// Checks.
 		assertAccess(mLastCommittedUberPage.get().getRevision());
+		assertWritable();
 		if (maxNodeCount < 0 || maxTime < 0) {
 			throw new SirixUsageException("maxNodeCount may not be < 0!");
 		}
@@ -350,6 +433,11 @@ public final class SessionImpl implements Session {
 				rtx = null;
 			}
 
+			// Stop tailing the storage before releasing the uber page.
+			if (mReplicaTailer.isPresent()) {
+				mReplicaTailer.get().close();
+			}
+
 			// Immediately release all ressources.
 			mLastCommittedUberPage = null;
 			mNodeTrxMap.clear();
@@ -363,6 +451,19 @@ public final class SessionImpl implements Session {
 		}
 	}
 
+	/**
+	 * Make sure, that the session isn't opened by a read-only replica.
+	 * 
+	 * @throws SirixUsageException
+	 *           if the session is opened by a read-only replica
+	 */
+	private void assertWritable() throws SirixUsageException {
+		if (mReplicaTailer.isPresent()) {
+			throw new SirixUsageException(
+					"Write transactions are not supported by a read-only replica!");
+		}
+	}
+
 	/**
 	 * Checks for valid revision.
 	 * 
@@ -596,6 +697,34 @@ public final class SessionImpl implements Session {
 		mLastCommittedUberPage.set(checkNotNull(page));
 	}
 
+	/**
+	 * Expose an uber page, which has been committed by another process, to all
+	 * transactions begun afterwards. Running transactions keep reading their
+	 * revision.
+	 * 
+	 * @param page
+	 *          the committed {@link UberPage}
+	 * @return {@code true}, if the uber page is newer than the last committed
+	 *         uber page and has been exposed, {@code false} otherwise
+	 */
+	boolean publishUberPage(final UberPage page) {
+		checkNotNull(page);
+		final AtomicReference<UberPage> lastCommittedUberPage = mLastCommittedUberPage;
+		if (lastCommittedUberPage == null) {
+			// Session is closed.
+			return false;
+		}
+		UberPage current;
+		do {
+			current = lastCommittedUberPage.get();
+			if (!current.isBootstrap()
+					&& page.getRevisionNumber() <= current.getRevisionNumber()) {
+				return false;
+			}
+		} while (!lastCommittedUberPage.compareAndSet(current, page));
+		return true;
+	}
+
 	@Override
 	public ResourceConfiguration getResourceConfig() {
 		return mResourceConfig;
@@ -622,6 +751,17 @@ public final class SessionImpl implements Session {
 		return openPathSummary(mLastCommittedUberPage.get().getRevisionNumber());
 	}
 
+	/**
+	 * Open a new reader on the storage of the resource.
+	 * 
+	 * @return the reader
+	 * @throws SirixIOException
+	 *           if the reader can't be opened
+	 */
+	Reader openReader() throws SirixIOException {
+		return mFac.getReader();
+	}
+
 	@Override
 	public PageReadTrx beginPageReadTrx() throws SirixException {
 		return beginPageReadTrx(mLastCommittedUberPage.get().getRevisionNumber());
@@ -644,6 +784,7 @@ public final class SessionImpl implements Session {
 	@Override
 	public synchronized PageWriteTrx<Long, Record, UnorderedKeyValuePage> beginPageWriteTrx(
 			final @Nonnegative int revision) throws SirixException {
+		assertWritable();
 		final long currentPageTrxID = mPageTrxIDCounter.incrementAndGet();
 		final int lastRev = mLastCommittedUberPage.get().getRevisionNumber();
 		final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWtx = createPageWriteTransaction(
@@ -0,0 +1,148 @@
+package org.sirix.access;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.node.Kind;
+import org.sirix.node.interfaces.Record;
+import org.sirix.page.NamePage;
+import org.sirix.page.PageKind;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+
+/**
+ * Read-only view of the uncommitted state of a write transaction. It consists
+ * of copies of the records and names, which have been modified by the write
+ * transaction up to the creation of the snapshot, on top of a transaction
+ * reading the revision the write transaction is based on.
+ * 
+ * <p>
+ * As the copies are never modified, the snapshot is isolated from subsequent
+ * changes of the write transaction and can be used by another thread. Index,
+ * path summary and revision root pages are read from the revision the write
+ * transaction is based on.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+final class SnapshotPageReadTrx extends AbstractForwardingPageReadTrx {
+
+	/** Transaction reading the revision the write transaction is based on. */
+	private final PageReadTrx mPageReadTrx;
+
+	/** Copies of the modified records. */
+	private final Map<Long, Record> mRecords;
+
+	/** Keys of the removed records. */
+	private final Set<Long> mRemoved;
+
+	/** Copy of the names. */
+	private final NamePage mNamePage;
+
+	/** Keys of the record pages with modified records. */
+	private final Set<Long> mModifiedPages;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param pageReadTrx
+	 *          transaction reading the revision the write transaction is based
+	 *          on
+	 * @param records
+	 *          copies of the modified records, which are never modified
+	 * @param removed
+	 *          keys of the removed records
+	 * @param namePage
+	 *          copy of the names
+	 */
+	SnapshotPageReadTrx(final PageReadTrx pageReadTrx,
+			final Map<Long, Record> records, final Set<Long> removed,
+			final NamePage namePage) {
+		mPageReadTrx = checkNotNull(pageReadTrx);
+		mRecords = checkNotNull(records);
+		mRemoved = checkNotNull(removed);
+		mNamePage = checkNotNull(namePage);
+		mModifiedPages = new HashSet<>();
+		for (final long key : mRecords.keySet()) {
+			mModifiedPages.add(mPageReadTrx.pageKey(key));
+		}
+	}
+
+	@Override
+	public Optional<? extends Record> getRecord(final @Nonnegative long key,
+			final PageKind pageKind, final int index) throws SirixIOException {
+		if (pageKind == PageKind.RECORDPAGE) {
+			if (mRemoved.contains(key)) {
+				return Optional.absent();
+			}
+			final Record record = mRecords.get(key);
+			if (record != null) {
+				return Optional.of(record);
+			}
+		}
+		return mPageReadTrx.getRecord(key, pageKind, index);
+	}
+
+	@Override
+	@Nullable
+	public Record getRecordOrNull(final @Nonnegative long key,
+			final PageKind pageKind, final int index) throws SirixIOException {
+		if (pageKind == PageKind.RECORDPAGE) {
+			if (mRemoved.contains(key)) {
+				return null;
+			}
+			final Record record = mRecords.get(key);
+			if (record != null) {
+				return record;
+			}
+		}
+		return mPageReadTrx.getRecordOrNull(key, pageKind, index);
+	}
+
+	@Override
+	public boolean mightContain(final @Nonnegative long recordPageKey,
+			final long entry) throws SirixIOException {
+		// The filters don't cover the modified records.
+		return mModifiedPages.contains(recordPageKey)
+				|| mPageReadTrx.mightContain(recordPageKey, entry);
+	}
+
+	@Override
+	public String getName(final int nameKey, final @Nonnull Kind kind) {
+		return mNamePage.getName(nameKey, kind);
+	}
+
+	@Override
+	public int getNameCount(final int nameKey, final @Nonnull Kind kind) {
+		return mNamePage.getCount(nameKey, kind);
+	}
+
+	@Override
+	public byte[] getRawName(final int nameKey, final @Nonnull Kind kind) {
+		return mNamePage.getRawName(nameKey, kind);
+	}
+
+	@Override
+	protected PageReadTrx delegate() {
+		return mPageReadTrx;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+				.add("revision", mPageReadTrx.getRevisionNumber())
+				.add("modified", mRecords.size()).add("removed", mRemoved.size())
+				.toString();
+	}
+}
@@ -85,7 +85,10 @@ public final class ResourceConfiguration {
 		CONFIG_BINARY(new File("ressetting.obj"), false),
 
 		/** File to store index definitions. */
-		INDEXES(new File("indexes"), false);
+		INDEXES(new File("indexes"), false),
+
+		/** Files to store change statistics between two revisions. */
+		CHANGES(new File("changes"), false);
 
 		/** Location of the file. */
 		private final File mFile;
@@ -137,14 +140,14 @@ public final class ResourceConfiguration {
 		public static int compareStructure(final File file) {
 			int existing = 0;
 			for (final Paths paths : values()) {
-				if (paths == Paths.INDEXES)
+				if (paths == Paths.INDEXES || paths == Paths.CHANGES)
 					continue;
 				final File currentFile = new File(file, paths.getFile().getName());
 				if (currentFile.exists()) {
 					existing++;
 				}
 			}
-			return existing - values().length + 1;
+			return existing - values().length + 2;
 		}
 	}
 
@@ -202,6 +205,12 @@ public final class ResourceConfiguration {
 	/** Determines if dewey IDs should be stored or not. */
 	public final boolean mDeweyIDsStored;
 
+	/**
+	 * Determines if bloom filters over the names and values of record pages are
+	 * written (default is false).
+	 */
+	public final boolean mBloomFilters;
+
 	// END MEMBERS FOR FIXED FIELDS
 
 	/**
@@ -236,6 +245,7 @@ public final class ResourceConfiguration {
 		mCompression = builder.mCompression;
 		mPathSummary = builder.mPathSummary;
 		mDeweyIDsStored = builder.mUseDeweyIDs;
+		mBloomFilters = builder.mBloomFilters;
 		mPath = new File(new File(mDBConfig.getFile(),
 				DatabaseConfiguration.Paths.DATA.getFile().getName()),
 				builder.mResource);
@@ -315,7 +325,7 @@ public final class ResourceConfiguration {
 	private static final String[] JSONNAMES = { "revisioning",
 			"revisioningClass", "numbersOfRevisiontoRestore", "byteHandlerClasses",
 			"storageKind", "hashKind", "compression", "pathSummary", "resourceID",
-			"deweyIDsStored", "persistenter" };
+			"deweyIDsStored", "persistenter", "bloomFilters" };
 
 	/**
 	 * Serialize the configuration.
@@ -360,6 +370,8 @@ public final class ResourceConfiguration {
 			// Persistenter.
 			jsonWriter.name(JSONNAMES[10]).value(
 					config.mPersistenter.getClass().getName());
+			// Bloom filters written or not.
+			jsonWriter.name(JSONNAMES[11]).value(config.mBloomFilters);
 			jsonWriter.endObject();
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
@@ -406,7 +418,8 @@ public final class ResourceConfiguration {
 			jsonReader.beginArray();
 			while (jsonReader.hasNext()) {
 				final Class<?> handlerClazz = Class.forName(jsonReader.nextString());
-				final Constructor<?> handlerCons = handlerClazz.getConstructors()[0];
+				// Keys of encrypting handlers are set by the session.
+				final Constructor<?> handlerCons = handlerClazz.getConstructor();
 				handlerList.add((ByteHandler) handlerCons.newInstance());
 			}
 			jsonReader.endArray();
@@ -442,6 +455,13 @@ public final class ResourceConfiguration {
 					.getConstructors()[0];
 			final RecordPersistenter persistenter = (RecordPersistenter) persistenterConstr
 					.newInstance();
+			// Bloom filters (missing in configurations of older resources).
+			boolean bloomFilters = false;
+			if (jsonReader.hasNext()) {
+				name = jsonReader.nextName();
+				assert name.equals(JSONNAMES[11]);
+				bloomFilters = jsonReader.nextBoolean();
+			}
 			jsonReader.endObject();
 			jsonReader.close();
 			fileReader.close();
@@ -457,14 +477,15 @@ public final class ResourceConfiguration {
 					.versioningApproach(revisioning)
 					.revisionsToRestore(revisionToRestore).storageType(storage)
 					.persistenter(persistenter).useTextCompression(compression)
-					.buildPathSummary(pathSummary).useDeweyIDs(deweyIDsStored);
+					.buildPathSummary(pathSummary).useDeweyIDs(deweyIDsStored)
+					.useBloomFilters(bloomFilters);
 
 			// Deserialized instance.
 			final ResourceConfiguration config = new ResourceConfiguration(builder);
 			return config.setID(ID);
 		} catch (IOException | ClassNotFoundException | IllegalArgumentException
 				| InstantiationException | IllegalAccessException
-				| InvocationTargetException e) {
+				| InvocationTargetException | NoSuchMethodException e) {
 			throw new SirixIOException(e);
 		}
 	}
@@ -507,6 +528,9 @@ public final class ResourceConfiguration {
 		/** Determines if a path summary should be build or not. */
 		private boolean mPathSummary;
 
+		/** Determines if bloom filters should be written or not. */
+		private boolean mBloomFilters;
+
 		/**
 		 * Constructor, setting the mandatory fields.
 		 * 
@@ -622,6 +646,20 @@ public final class ResourceConfiguration {
 			return this;
 		}
 
+		/**
+		 * Determines if a bloom filter over the names and values of each record
+		 * page should be written alongside the reference to the page, such that
+		 * scans can skip pages, which can't contain a match.
+		 * 
+		 * @param useBloomFilters
+		 *          write bloom filters or not (default: no)
+		 * @return reference to the builder object
+		 */
+		public Builder useBloomFilters(boolean useBloomFilters) {
+			mBloomFilters = useBloomFilters;
+			return this;
+		}
+
 		@Override
 		public String toString() {
 			return Objects.toStringHelper(this).add("Type", mType)
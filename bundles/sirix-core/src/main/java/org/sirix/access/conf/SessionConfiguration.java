@@ -30,6 +30,8 @@ package org.sirix.access.conf;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.security.Key;
+
 import javax.annotation.Nonnegative;
 import javax.annotation.Nullable;
 
@@ -37,9 +39,9 @@ import org.sirix.api.Database;
 import org.sirix.api.NodeReadTrx;
 import org.sirix.api.NodeWriteTrx;
 import org.sirix.api.Session;
-import org.sirix.io.Key;
 
 import com.google.common.base.Objects;
+import com.google.common.base.Optional;
 
 /**
  * <h1>SessionConfiguration</h1>
@@ -72,6 +74,20 @@ public final class SessionConfiguration {
 	 * commit or not.
 	 */
 	public static final boolean DUMP_LOGS = false;
+
+	/** Number of threads serializing pages during a commit. */
+	public static final int COMMIT_THREADS = Runtime.getRuntime()
+			.availableProcessors();
+
+	/** Number of threads traversing the document while an index is built. */
+	public static final int INDEX_BUILD_THREADS = Runtime.getRuntime()
+			.availableProcessors();
+
+	/** Number of record pages read ahead during scans in document order. */
+	public static final int READAHEAD_PAGES = 8;
+
+	/** Milliseconds between two polls of a read-only replica for new revisions. */
+	public static final long REPLICA_POLL_INTERVAL = 100;
 	// END STATIC STANDARD FIELDS
 
 	// MEMBERS FOR FLEXIBLE FIELDS
@@ -86,6 +102,18 @@ public final class SessionConfiguration {
 
 	/** User for this session. */
 	public final String mUser;
+
+	/** Number of threads serializing pages during a commit. */
+	public final int mCommitThreads;
+
+	/** Number of threads traversing the document while an index is built. */
+	public final int mIndexBuildThreads;
+
+	/** Number of record pages read ahead during scans in document order. */
+	public final int mReadaheadPages;
+
+	/** Milliseconds between two polls of a read-only replica for new revisions. */
+	public final long mReplicaPollInterval;
 	// END MEMBERS FOR FIXED FIELDS
 
 	/** ResourceConfiguration for this ResourceConfig. */
@@ -97,6 +125,9 @@ public final class SessionConfiguration {
 	 */
 	private final boolean mDumpLogs;
 
+	/** Key of encrypted resources, {@code null} if none has been set. */
+	private final Key mKey;
+
 	/**
 	 * Convenience constructor using the standard settings.
 	 * 
@@ -108,8 +139,13 @@ public final class SessionConfiguration {
 		mRtxAllowed = builder.mRtxAllowed;
 		mCommitThreshold = builder.mCommitThreshold;
 		mUser = builder.mUser;
+		mCommitThreads = builder.mCommitThreads;
+		mIndexBuildThreads = builder.mIndexBuildThreads;
+		mReadaheadPages = builder.mReadaheadPages;
+		mReplicaPollInterval = builder.mReplicaPollInterval;
 		mResource = builder.mResource;
 		mDumpLogs = builder.mDumpLogs;
+		mKey = builder.mKey;
 	}
 
 	@Override
@@ -136,7 +172,10 @@ public final class SessionConfiguration {
 		return Objects.toStringHelper(this).add("Resource", mResource)
 				.add("RtxAllowed", mRtxAllowed).add("WtxAllowed", mWtxAllowed)
 				.add("Commit threshold", mCommitThreshold).add("User", mUser)
-				.toString();
+				.add("Commit threads", mCommitThreads)
+				.add("Index build threads", mIndexBuildThreads)
+				.add("Readahead pages", mReadaheadPages)
+				.add("Replica poll interval", mReplicaPollInterval).toString();
 	}
 
 	/**
@@ -157,6 +196,16 @@ public final class SessionConfiguration {
 		return mDumpLogs;
 	}
 
+	/**
+	 * Get the key, which is used by the encrypting byte handlers of the
+	 * resource.
+	 * 
+	 * @return the key, if one has been set
+	 */
+	public Optional<Key> getKey() {
+		return Optional.fromNullable(mKey);
+	}
+
 	/**
 	 * Get a new builder instance.
 	 * 
@@ -187,6 +236,18 @@ public final class SessionConfiguration {
 		/** User for this session. */
 		private String mUser = SessionConfiguration.DEFAULT_USER;
 
+		/** Number of threads serializing pages during a commit. */
+		private int mCommitThreads = SessionConfiguration.COMMIT_THREADS;
+
+		/** Number of threads traversing the document while an index is built. */
+		private int mIndexBuildThreads = SessionConfiguration.INDEX_BUILD_THREADS;
+
+		/** Number of record pages read ahead during scans in document order. */
+		private int mReadaheadPages = SessionConfiguration.READAHEAD_PAGES;
+
+		/** Milliseconds between two polls of a read-only replica. */
+		private long mReplicaPollInterval = SessionConfiguration.REPLICA_POLL_INTERVAL;
+
 		/**
 		 * Determines if logs should be dumped to persistent storage at first during
 		 * a commit or not.
@@ -196,6 +257,7 @@ public final class SessionConfiguration {
 		/** Resource for the this session. */
 		private final String mResource;
 
+		/** Key of encrypted resources. */
 		private Key mKey;
 
 		/**
@@ -260,6 +322,67 @@ public final class SessionConfiguration {
 			return this;
 		}
 
+		/**
+		 * Number of threads, which serialize and compress record pages during a
+		 * commit. The pages are written in the same order regardless of the
+		 * number of threads, {@code 1} serializes all pages on the committing
+		 * thread.
+		 * 
+		 * @param commitThreads
+		 *          the number of threads
+		 * @return reference to the builder object
+		 */
+		public Builder commitThreads(final @Nonnegative int commitThreads) {
+			checkArgument(commitThreads > 0, "Value must be > 0!");
+			mCommitThreads = commitThreads;
+			return this;
+		}
+
+		/**
+		 * Number of threads, which traverse the most recent revision, if indexes
+		 * are created by an unmodified write transaction. {@code 1} builds the
+		 * indexes on the thread of the write transaction.
+		 * 
+		 * @param indexBuildThreads
+		 *          the number of threads
+		 * @return reference to the builder object
+		 */
+		public Builder indexBuildThreads(final @Nonnegative int indexBuildThreads) {
+			checkArgument(indexBuildThreads > 0, "Value must be > 0!");
+			mIndexBuildThreads = indexBuildThreads;
+			return this;
+		}
+
+		/**
+		 * Number of record pages, which are read and reconstructed in the
+		 * background, once a read transaction accesses the record pages in
+		 * document order. {@code 0} disables the readahead.
+		 * 
+		 * @param readaheadPages
+		 *          the number of record pages
+		 * @return reference to the builder object
+		 */
+		public Builder readaheadPages(final @Nonnegative int readaheadPages) {
+			checkArgument(readaheadPages >= 0, "Value must be >= 0!");
+			mReadaheadPages = readaheadPages;
+			return this;
+		}
+
+		/**
+		 * Milliseconds between two polls for new revisions, if the resource is
+		 * opened by a read-only replica.
+		 * 
+		 * @param replicaPollInterval
+		 *          the poll interval in milliseconds
+		 * @return reference to the builder object
+		 */
+		public Builder replicaPollInterval(
+				final @Nonnegative long replicaPollInterval) {
+			checkArgument(replicaPollInterval > 0, "Value must be > 0!");
+			mReplicaPollInterval = replicaPollInterval;
+			return this;
+		}
+
 		/**
 		 * Dump transaction-logs to persistent storage at first during a commit.
 		 * 
@@ -271,7 +394,10 @@ public final class SessionConfiguration {
 		}
 
 		/**
-		 * Set key for cipher.
+		 * Set key for cipher, which is used by encrypting byte handlers like
+		 * {@link org.sirix.io.bytepipe.GCMEncryptor} instead of the key passed
+		 * when the resource has been created. The key isn't stored with the
+		 * resource.
 		 * 
 		 * @param key
 		 *          key for cipher
@@ -63,7 +63,8 @@ public interface NodeFactory {
 	 * @param content
 	 *          content of the processing instruction
 	 * @param isCompressed
-	 *          determines if the value is compressed or not
+	 *          determines if the value might be compressed with the dictionary
+	 *          of its record page
 	 * @param pathNodeKey
 	 *          path node key of node
 	 * @return the created node
@@ -88,7 +89,8 @@ public interface NodeFactory {
 	 * @param value
 	 *          value of the node
 	 * @param isCompressed
-	 *          determines if the value is compressed or not
+	 *          determines if the value might be compressed with the dictionary
+	 *          of its record page
 	 * @param id
 	 *          an optional dewey ID
 	 * @return the created node
@@ -138,7 +140,8 @@ public interface NodeFactory {
 	 * @param value
 	 *          value of the node
 	 * @param isCompressed
-	 *          determines if the value should be compressed or not
+	 *          determines if the value should be compressed or not (it is
+	 *          compressed with the dictionary of its record page on commit)
 	 * @param pSiblingPos
 	 *          sibling position
 	 * @return the created node
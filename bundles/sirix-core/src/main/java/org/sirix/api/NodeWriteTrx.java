@@ -674,4 +674,18 @@ public interface NodeWriteTrx extends NodeReadTrx {
 	 * @return the {@link PageWriteTrx} instance
 	 */
 	PageWriteTrx<Long, Record, UnorderedKeyValuePage> getPageTransaction();
+
+	/**
+	 * Begin a read-only transaction, which sees the changes of this transaction
+	 * made so far, without committing them. The read transaction works on a
+	 * snapshot, that is it doesn't see subsequent changes of this transaction,
+	 * and can be used by another thread while this transaction proceeds. Index
+	 * structures and the path summary are read from the revision this
+	 * transaction is based on.
+	 * 
+	 * @return the read transaction, which has to be closed by the caller
+	 * @throws SirixException
+	 *           if the snapshot can't be created
+	 */
+	NodeReadTrx beginSnapshotReadTrx() throws SirixException;
 }
@@ -2,6 +2,7 @@ package org.sirix.api;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.sirix.cache.RecordPageContainer;
 import org.sirix.cache.TransactionLogPageCache;
@@ -60,6 +61,25 @@ public interface PageReadTrx extends AutoCloseable {
 	Optional<? extends Record> getRecord(final @Nonnegative long key,
 			final PageKind pageKind, final int index) throws SirixIOException;
 
+	/**
+	 * Get a record from persistent storage without wrapping it into an
+	 * {@link Optional}. Used on hot paths such as cursor moves, where the
+	 * wrapper would be allocated for every single record.
+	 * 
+	 * @param key
+	 *          the unique record-ID
+	 * @param pageKind
+	 *          the page kind from which to fetch the record
+	 * @param index
+	 *          the index number
+	 * @return the record or {@code null} if it doesn't exist or has been removed
+	 * @throws SirixIOException
+	 *           if an I/O error occured
+	 */
+	@Nullable
+	Record getRecordOrNull(final @Nonnegative long key, final PageKind pageKind,
+			final int index) throws SirixIOException;
+
 	/**
 	 * Current reference to actual revision-root page.
 	 * 
@@ -189,6 +209,25 @@ public interface PageReadTrx extends AutoCloseable {
 	 */
 	long pageKey(@Nonnegative long key);
 
+	/**
+	 * Determines if a record page might contain a record with a given name or
+	 * value, based on the bloom filter written alongside the page.
+	 * 
+	 * @param recordPageKey
+	 *          the key of the record page
+	 * @param entry
+	 *          the filter entry, as created by
+	 *          {@link org.sirix.page.BloomFilters#nameEntry(int)} or
+	 *          {@link org.sirix.page.BloomFilters#valueEntry(byte[])}
+	 * @return {@code false}, if the page definitely doesn't contain such a
+	 *         record, {@code true} otherwise, which is also the case if no
+	 *         filter is available
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	boolean mightContain(@Nonnegative long recordPageKey, long entry)
+			throws SirixIOException;
+
 	/**
 	 * Get the {@link NamePage} associated with the current revision root.
 	 * 
@@ -199,6 +238,19 @@ public interface PageReadTrx extends AutoCloseable {
 	 */
 	NamePage getNamePage(RevisionRootPage revisionRoot) throws SirixIOException;
 
+	/**
+	 * Read the name page of a former revision, which the name page of a later
+	 * revision is based on. The page is shared by all transactions of the
+	 * session and must not be modified.
+	 * 
+	 * @param key
+	 *          the storage key of the name page
+	 * @return the name page
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	NamePage readNamePage(@Nonnegative long key) throws SirixIOException;
+
 	/**
 	 * Get the {@link PathPage} associated with the current revision root.
 	 * 
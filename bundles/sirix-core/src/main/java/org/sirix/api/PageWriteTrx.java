@@ -208,4 +208,21 @@ public interface PageWriteTrx<K extends Comparable<? super K>, V extends Record,
 	 * @return the {@link PageReadTrx} reference
 	 */
 	PageReadTrx getPageReadTrx();
+
+	/**
+	 * Create a read-only snapshot of the records and names modified by this
+	 * transaction so far. The snapshot is isolated from subsequent changes and
+	 * may be used by another thread, whereas this method must be called by the
+	 * thread using this transaction.
+	 * 
+	 * @param pageReadTrx
+	 *          transaction reading the revision this transaction is based on,
+	 *          which is used for all unmodified records and pages
+	 * @return the snapshot
+	 * @throws SirixIOException
+	 *           if the modified records can't be copied
+	 * @throws NullPointerException
+	 *           if {@code pageReadTrx} is {@code null}
+	 */
+	PageReadTrx snapshot(PageReadTrx pageReadTrx) throws SirixIOException;
 }
@@ -27,13 +27,11 @@
 
 package org.sirix.axis;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 import javax.annotation.Nonnegative;
 
 import org.sirix.api.NodeReadTrx;
 import org.sirix.settings.Fixed;
+import org.sirix.utils.LongStack;
 
 /**
  * <h1>DescendantAxis</h1>
@@ -46,7 +44,7 @@ import org.sirix.settings.Fixed;
 public final class DescendantAxis extends AbstractAxis {
 
 	/** Stack for remembering next nodeKey in document order. */
-	private Deque<Long> mRightSiblingKeyStack;
+	private LongStack mRightSiblingKeyStack;
 
 	/** Determines if it's the first call to hasNext(). */
 	private boolean mFirst;
@@ -77,7 +75,11 @@ public final class DescendantAxis extends AbstractAxis {
 	public void reset(final long pNodeKey) {
 		super.reset(pNodeKey);
 		mFirst = true;
-		mRightSiblingKeyStack = new ArrayDeque<>();
+		if (mRightSiblingKeyStack == null) {
+			mRightSiblingKeyStack = new LongStack();
+		} else {
+			mRightSiblingKeyStack.clear();
+		}
 	}
 
 	@Override
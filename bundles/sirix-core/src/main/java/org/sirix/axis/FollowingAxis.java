@@ -27,10 +27,8 @@
 
 package org.sirix.axis;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 import org.sirix.api.NodeReadTrx;
+import org.sirix.utils.LongStack;
 
 /**
  * <h1>FollowingAxis</h1>
@@ -45,8 +43,8 @@ public final class FollowingAxis extends AbstractAxis {
 	/** Determines if it's the first node. */
 	private boolean mIsFirst;
 
-	/** {@link Deque} reference to save right sibling keys. */
-	private Deque<Long> mRightSiblingStack;
+	/** Stack to save right sibling keys. */
+	private LongStack mRightSiblingStack;
 
 	/**
 	 * Constructor initializing internal state.
@@ -57,14 +55,17 @@ public final class FollowingAxis extends AbstractAxis {
 	public FollowingAxis(final NodeReadTrx rtx) {
 		super(rtx);
 		mIsFirst = true;
-		mRightSiblingStack = new ArrayDeque<>();
 	}
 
 	@Override
 	public void reset(final long nodeKey) {
 		super.reset(nodeKey);
 		mIsFirst = true;
-		mRightSiblingStack = new ArrayDeque<>();
+		if (mRightSiblingStack == null) {
+			mRightSiblingStack = new LongStack();
+		} else {
+			mRightSiblingStack.clear();
+		}
 	}
 
 	@Override
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.axis;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.brackit.xquery.atomic.QNm;
+import org.sirix.api.Filter;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.PageReadTrx;
+import org.sirix.axis.filter.NameFilter;
+import org.sirix.axis.filter.ValueFilter;
+import org.sirix.exception.SirixIOException;
+import org.sirix.page.BloomFilters;
+import org.sirix.settings.Constants;
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <h1>PageScanAxis</h1>
+ * 
+ * <p>
+ * Iterate over all nodes of a revision with a given name or value by scanning
+ * the record pages. If the resource has been created with bloom filters,
+ * pages whose filter doesn't contain the name or value are skipped without
+ * being read. Otherwise every page is scanned.
+ * </p>
+ * 
+ * <p>
+ * The nodes are returned in ascending node key order. As node keys are
+ * assigned in preorder during shredding, this is document order for nodes
+ * which haven't been inserted by later updates.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class PageScanAxis extends AbstractAxis {
+
+	/** Logger. */
+	private static final LogWrapper LOGGER = new LogWrapper(
+			LoggerFactory.getLogger(PageScanAxis.class));
+
+	/** The bloom filter entry of the name or value. */
+	private final long mEntry;
+
+	/** Filter matching the nodes of a candidate page. */
+	private final Filter mFilter;
+
+	/** Key of the next node to check. */
+	private long mNextKey;
+
+	/** First node key behind the current page. */
+	private long mPageEnd;
+
+	/**
+	 * Constructor to find the nodes with a given name, as matched by a
+	 * {@link NameFilter}.
+	 * 
+	 * @param rtx
+	 *          exclusive (immutable) trx to iterate with
+	 * @param name
+	 *          the name to find
+	 */
+	public PageScanAxis(final NodeReadTrx rtx, final QNm name) {
+		this(rtx, BloomFilters.nameEntry(rtx.keyForName(name.getLocalName())),
+				new NameFilter(rtx, name));
+	}
+
+	/**
+	 * Constructor to find the text and attribute nodes with a given value, as
+	 * matched by a {@link ValueFilter}.
+	 * 
+	 * @param rtx
+	 *          exclusive (immutable) trx to iterate with
+	 * @param value
+	 *          the value to find
+	 */
+	public PageScanAxis(final NodeReadTrx rtx, final byte[] value) {
+		this(rtx, BloomFilters.valueEntry(checkNotNull(value)), new ValueFilter(
+				rtx, value));
+	}
+
+	private PageScanAxis(final NodeReadTrx rtx, final long entry,
+			final Filter filter) {
+		super(rtx);
+		mEntry = entry;
+		mFilter = filter;
+	}
+
+	@Override
+	public void reset(final long nodeKey) {
+		super.reset(nodeKey);
+		mNextKey = 0;
+		mPageEnd = 0;
+	}
+
+	@Override
+	protected long nextKey() {
+		final NodeReadTrx rtx = getTrx();
+		final long maxNodeKey = rtx.getMaxNodeKey();
+		while (mNextKey <= maxNodeKey) {
+			if (mNextKey == mPageEnd) {
+				// First node of a page.
+				final long pageKey = mNextKey >> Constants.NDP_NODE_COUNT_EXPONENT;
+				mPageEnd = (pageKey + 1) << Constants.NDP_NODE_COUNT_EXPONENT;
+				if (!mightContain(rtx.getPageTrx(), pageKey)) {
+					mNextKey = mPageEnd;
+					continue;
+				}
+			}
+			final long key = mNextKey++;
+			if (rtx.moveTo(key).hasMoved() && mFilter.filter()) {
+				return key;
+			}
+		}
+		return done();
+	}
+
+	private boolean mightContain(final PageReadTrx pageReadTrx,
+			final long pageKey) {
+		try {
+			return pageReadTrx.mightContain(pageKey, mEntry);
+		} catch (final SirixIOException e) {
+			// Scan the page instead.
+			LOGGER.error(e.getMessage(), e);
+			return true;
+		}
+	}
+}
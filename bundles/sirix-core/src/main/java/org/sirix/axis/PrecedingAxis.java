@@ -27,11 +27,9 @@
 
 package org.sirix.axis;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 import org.sirix.api.NodeReadTrx;
 import org.sirix.node.Kind;
+import org.sirix.utils.LongStack;
 
 /**
  * <h1>PrecedingAxis</h1>
@@ -48,7 +46,7 @@ public final class PrecedingAxis extends AbstractAxis {
 	private boolean mIsFirst;
 
 	/** Stack to save nodeKeys. */
-	private Deque<Long> mStack;
+	private LongStack mStack;
 
 	/**
 	 * Constructor initializing internal state.
@@ -59,14 +57,17 @@ public final class PrecedingAxis extends AbstractAxis {
 	public PrecedingAxis(final NodeReadTrx rtx) {
 		super(rtx);
 		mIsFirst = true;
-		mStack = new ArrayDeque<>();
 	}
 
 	@Override
 	public void reset(final long nodeKey) {
 		super.reset(nodeKey);
 		mIsFirst = true;
-		mStack = new ArrayDeque<>();
+		if (mStack == null) {
+			mStack = new LongStack();
+		} else {
+			mStack.clear();
+		}
 	}
 
 	@Override
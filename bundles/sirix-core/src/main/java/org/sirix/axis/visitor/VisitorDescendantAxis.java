@@ -29,9 +29,6 @@ package org.sirix.axis.visitor;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 import javax.annotation.Nonnegative;
 
 import org.sirix.api.NodeCursor;
@@ -43,6 +40,7 @@ import org.sirix.axis.AbstractAxis;
 import org.sirix.axis.DescendantAxis;
 import org.sirix.axis.IncludeSelf;
 import org.sirix.settings.Fixed;
+import org.sirix.utils.LongStack;
 
 import com.google.common.base.Optional;
 
@@ -66,7 +64,7 @@ import com.google.common.base.Optional;
 public final class VisitorDescendantAxis extends AbstractAxis {
 
 	/** Stack for remembering next nodeKey in document order. */
-	private Deque<Long> mRightSiblingKeyStack;
+	private LongStack mRightSiblingKeyStack;
 
 	/** Optional visitor. */
 	private Optional<? extends Visitor> mVisitor = Optional.absent();
@@ -156,7 +154,11 @@ public final class VisitorDescendantAxis extends AbstractAxis {
 	public void reset(final long nodeKey) {
 		super.reset(nodeKey);
 		mFirst = true;
-		mRightSiblingKeyStack = new ArrayDeque<>();
+		if (mRightSiblingKeyStack == null) {
+			mRightSiblingKeyStack = new LongStack();
+		} else {
+			mRightSiblingKeyStack.clear();
+		}
 	}
 
 	@Override
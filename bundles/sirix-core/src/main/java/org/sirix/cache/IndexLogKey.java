@@ -45,7 +45,8 @@ public final class IndexLogKey {
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(mRecordPageKey, mIndex);
+		// Computed without boxing, as keys are hashed on every index lookup.
+		return 31 * (int) (mRecordPageKey ^ (mRecordPageKey >>> 32)) + mIndex;
 	}
 
 	@Override
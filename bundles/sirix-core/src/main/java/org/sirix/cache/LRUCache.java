@@ -37,6 +37,8 @@ import java.util.Map;
 
 import javax.annotation.Nullable;
 
+import org.sirix.metrics.Metrics;
+
 import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableMap;
 
@@ -87,6 +89,7 @@ public final class LRUCache<K, V> implements Cache<K, V> {
 						final V value = eldest.getValue();
 						if (key != null && value != null) {
 							mSecondCache.put(key, value);
+							Metrics.inc(Metrics.LOG_SPILLED);
 						}
 					}
 					returnVal = true;
@@ -114,6 +117,9 @@ public final class LRUCache<K, V> implements Cache<K, V> {
 		V page = (V) mMap.get(key);
 		if (page == null) {
 			page = (V) mSecondCache.get(key);
+			if (page != null) {
+				Metrics.inc(Metrics.LOG_SPILL_READS);
+			}
 		}
 		return page;
 	}
@@ -185,6 +191,7 @@ public final class LRUCache<K, V> implements Cache<K, V> {
 	@Override
 	public void toSecondCache() {
 		mSecondCache.putAll(mMap);
+		Metrics.add(Metrics.LOG_SPILLED, mMap.size());
 	}
 
 	/**
@@ -0,0 +1,333 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.diff;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sirix.node.Utils.getVarLong;
+import static org.sirix.node.Utils.putVarLong;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import javax.annotation.Nonnegative;
+
+import org.sirix.access.HashKind;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.Session;
+import org.sirix.diff.DiffFactory.DiffOptimized;
+import org.sirix.diff.DiffFactory.DiffType;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.settings.Fixed;
+import org.sirix.utils.LongLongHashMap;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Number of modified nodes in the subtree of each node between two revisions
+ * of a resource. The statistics are computed once by a full diff and stored
+ * next to the index definitions of the resource, keyed by the old and the new
+ * revision, such that subsequent requests for the same pair of revisions only
+ * read the stored counts.
+ * 
+ * <p>
+ * As node keys are stable between revisions, a node is looked up by its key
+ * regardless of the revision it belongs to. Inserted and updated nodes are
+ * counted for their ancestors in the new revision, deleted nodes for their
+ * ancestors in the old revision. Nodes without modifications in their
+ * subtree have a count of {@code 0}.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class ChangeStatistics {
+
+	/** Sorted node keys of nodes with modifications in their subtree. */
+	private final long[] mNodeKeys;
+
+	/** Number of modifications, aligned with {@code mNodeKeys}. */
+	private final long[] mCounts;
+
+	/** The old revision. */
+	private final int mOldRevision;
+
+	/** The new revision. */
+	private final int mNewRevision;
+
+	/**
+	 * Private constructor.
+	 * 
+	 * @param oldRevision
+	 *          the old revision
+	 * @param newRevision
+	 *          the new revision
+	 * @param nodeKeys
+	 *          sorted node keys
+	 * @param counts
+	 *          number of modifications for each node key
+	 */
+	private ChangeStatistics(final int oldRevision, final int newRevision,
+			final long[] nodeKeys, final long[] counts) {
+		assert nodeKeys.length == counts.length;
+		mOldRevision = oldRevision;
+		mNewRevision = newRevision;
+		mNodeKeys = nodeKeys;
+		mCounts = counts;
+	}
+
+	/**
+	 * Get the statistics between two revisions. They are read from the resource,
+	 * if they have been stored before, otherwise computed and stored.
+	 * 
+	 * @param session
+	 *          the {@link Session} of the resource
+	 * @param oldRevision
+	 *          the old revision
+	 * @param newRevision
+	 *          the new revision
+	 * @return the statistics
+	 * @throws SirixException
+	 *           if the diff fails or the statistics can't be read or written
+	 * @throws IllegalArgumentException
+	 *           if one of the revisions doesn't exist
+	 */
+	public static ChangeStatistics getInstance(final Session session,
+			final @Nonnegative int oldRevision, final @Nonnegative int newRevision)
+			throws SirixException {
+		checkNotNull(session);
+		final int mostRecent = session.getMostRecentRevisionNumber();
+		checkArgument(oldRevision >= 0 && oldRevision <= mostRecent,
+				"oldRevision doesn't exist!");
+		checkArgument(newRevision >= 0 && newRevision <= mostRecent,
+				"newRevision doesn't exist!");
+		final File file = getFile(session, oldRevision, newRevision);
+		if (file.exists()) {
+			return read(file, oldRevision, newRevision);
+		}
+		final ChangeStatistics statistics = compute(session, oldRevision,
+				newRevision);
+		statistics.write(file);
+		return statistics;
+	}
+
+	/**
+	 * Get the number of modified nodes in the subtree of a node, including the
+	 * node itself.
+	 * 
+	 * @param nodeKey
+	 *          the key of the node in the old or the new revision
+	 * @return number of modified nodes
+	 */
+	public long getModificationCount(final long nodeKey) {
+		final int index = Arrays.binarySearch(mNodeKeys, nodeKey);
+		return index < 0 ? 0 : mCounts[index];
+	}
+
+	/**
+	 * Get the number of modified nodes of the whole resource.
+	 * 
+	 * @return number of modified nodes
+	 */
+	public long getModificationCount() {
+		return getModificationCount(Fixed.DOCUMENT_NODE_KEY.getStandardProperty());
+	}
+
+	/**
+	 * Get the old revision.
+	 * 
+	 * @return the old revision
+	 */
+	public int getOldRevision() {
+		return mOldRevision;
+	}
+
+	/**
+	 * Get the new revision.
+	 * 
+	 * @return the new revision
+	 */
+	public int getNewRevision() {
+		return mNewRevision;
+	}
+
+	private static File getFile(final Session session, final int oldRevision,
+			final int newRevision) {
+		return new File(session.getResourceConfig().mPath,
+				ResourceConfiguration.Paths.CHANGES.getFile().getPath() + oldRevision
+						+ "-" + newRevision);
+	}
+
+	private static ChangeStatistics compute(final Session session,
+			final int oldRevision, final int newRevision) throws SirixException {
+		final HashKind hashKind = session.getResourceConfig().mHashKind;
+		final Collector collector = new Collector();
+		DiffFactory.invokeFullDiff(new DiffFactory.Builder(session, newRevision,
+				oldRevision, hashKind == HashKind.NONE ? DiffOptimized.NO
+						: DiffOptimized.HASHED, ImmutableSet.<DiffObserver> of(collector))
+				.setHashKind(hashKind).setIsGUI(false));
+
+		final LongLongHashMap counts = new LongLongHashMap(0);
+		try (final NodeReadTrx newRtx = session.beginNodeReadTrx(newRevision);
+				final NodeReadTrx oldRtx = session.beginNodeReadTrx(oldRevision)) {
+			countAncestors(newRtx, collector.mNewNodeKeys, collector.mNewSize,
+					counts);
+			countAncestors(oldRtx, collector.mOldNodeKeys, collector.mOldSize,
+					counts);
+		}
+
+		final long[] nodeKeys = counts.keys();
+		Arrays.sort(nodeKeys);
+		final long[] values = new long[nodeKeys.length];
+		for (int i = 0; i < nodeKeys.length; i++) {
+			values[i] = counts.get(nodeKeys[i]);
+		}
+		return new ChangeStatistics(oldRevision, newRevision, nodeKeys, values);
+	}
+
+	/** Add each modified node to the counts of itself and its ancestors. */
+	private static void countAncestors(final NodeReadTrx rtx,
+			final long[] nodeKeys, final int size, final LongLongHashMap counts) {
+		for (int i = 0; i < size; i++) {
+			if (rtx.moveTo(nodeKeys[i]).hasMoved()) {
+				do {
+					final long key = rtx.getNodeKey();
+					counts.put(key, counts.get(key) + 1);
+				} while (rtx.moveToParent().hasMoved());
+			}
+		}
+	}
+
+	private static ChangeStatistics read(final File file,
+			final int oldRevision, final int newRevision) throws SirixIOException {
+		try (final DataInputStream in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			final int size = in.readInt();
+			final long[] nodeKeys = new long[size];
+			final long[] counts = new long[size];
+			long nodeKey = 0;
+			for (int i = 0; i < size; i++) {
+				nodeKey += getVarLong(in);
+				nodeKeys[i] = nodeKey;
+				counts[i] = getVarLong(in);
+			}
+			return new ChangeStatistics(oldRevision, newRevision, nodeKeys, counts);
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	/**
+	 * Write the statistics to a temporary file first, which is moved to its
+	 * final location afterwards, such that concurrent readers never see a
+	 * partially written file.
+	 */
+	private void write(final File file) throws SirixIOException {
+		final File tmp = new File(file.getPath() + ".tmp"
+				+ Thread.currentThread().getId());
+		try {
+			try (final DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(mNodeKeys.length);
+				long previous = 0;
+				for (int i = 0; i < mNodeKeys.length; i++) {
+					putVarLong(out, mNodeKeys[i] - previous);
+					putVarLong(out, mCounts[i]);
+					previous = mNodeKeys[i];
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (final IOException e) {
+			tmp.delete();
+			throw new SirixIOException(e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("oldRevision", mOldRevision)
+				.add("newRevision", mNewRevision)
+				.add("modifications", getModificationCount()).toString();
+	}
+
+	/** Collects the keys of modified nodes reported by the diff. */
+	private static final class Collector implements DiffObserver {
+		/** Keys of inserted or updated nodes in the new revision. */
+		private long[] mNewNodeKeys = new long[16];
+
+		/** Number of keys in {@code mNewNodeKeys}. */
+		private int mNewSize;
+
+		/** Keys of deleted nodes in the old revision. */
+		private long[] mOldNodeKeys = new long[16];
+
+		/** Number of keys in {@code mOldNodeKeys}. */
+		private int mOldSize;
+
+		@Override
+		public void diffListener(final DiffType diffType, final long newNodeKey,
+				final long oldNodeKey, final DiffDepth depth) {
+			switch (diffType) {
+			case SAME:
+			case SAMEHASH:
+				break;
+			case DELETED:
+			case REPLACEDOLD:
+			case MOVEDFROM:
+				if (mOldSize == mOldNodeKeys.length) {
+					mOldNodeKeys = Arrays.copyOf(mOldNodeKeys, mOldSize << 1);
+				}
+				mOldNodeKeys[mOldSize++] = oldNodeKey;
+				break;
+			default:
+				if (mNewSize == mNewNodeKeys.length) {
+					mNewNodeKeys = Arrays.copyOf(mNewNodeKeys, mNewSize << 1);
+				}
+				mNewNodeKeys[mNewSize++] = newNodeKey;
+			}
+		}
+
+		@Override
+		public void diffDone() {
+		}
+	}
+}
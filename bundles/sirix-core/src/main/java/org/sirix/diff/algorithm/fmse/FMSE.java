@@ -28,7 +28,9 @@ package org.sirix.diff.algorithm.fmse;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -130,11 +132,6 @@ public final class FMSE implements ImportDiff, AutoCloseable {
 	 */
 	private Map<Long, Boolean> mAlreadyInserted;
 
-	/**
-	 * This is the matching M between nodes as described in the paper.
-	 */
-	private Matching mFastMatching;
-
 	/**
 	 * This is the total matching M' between nodes as described in the paper.
 	 */
@@ -204,8 +201,9 @@ public final class FMSE implements ImportDiff, AutoCloseable {
 		mLabelNewRevVisitor = new LabelFMSEVisitor(mRtx);
 		init(mWtx, mOldRevVisitor);
 		init(mRtx, mNewRevVisitor);
-		mFastMatching = fastMatch(mWtx, mRtx);
-		mTotalMatching = new Matching(mFastMatching);
+		// The fast matching M is extended to the total matching M' in place, as
+		// it isn't needed afterwards.
+		mTotalMatching = fastMatch(mWtx, mRtx);
 		firstFMESStep(mWtx, mRtx);
 		try {
 			secondFMESStep(mWtx, mRtx);
@@ -440,7 +438,7 @@ public final class FMSE implements ImportDiff, AutoCloseable {
 		assert firstRtx != null;
 		assert secondRtx != null;
 		assert reverse != null;
-		final List<Long> retVal = new LinkedList<>();
+		final List<Long> retVal = new ArrayList<>();
 		firstRtx.moveTo(n);
 		if (firstRtx.hasFirstChild()) {
 			firstRtx.moveToFirstChild();
@@ -977,7 +975,7 @@ public final class FMSE implements ImportDiff, AutoCloseable {
 		final Matching matching = new Matching(wtx, rtx);
 		matching.reset();
 		match(mLabelOldRevVisitor.getLeafLabels(),
-				mLabelNewRevVisitor.getLeafLabels(), matching, new LeafEqual());
+				mLabelNewRevVisitor.getLeafLabels(), matching, new LeafEqual(), true);
 
 		// Remove roots ('/') from labels and append them to mapping.
 		final Map<Kind, List<Long>> oldLabels = mLabelOldRevVisitor.getLabels();
@@ -991,7 +989,7 @@ public final class FMSE implements ImportDiff, AutoCloseable {
 		rtx.moveToParent();
 		matching.add(wtx.getNodeKey(), rtx.getNodeKey());
 
-		match(oldLabels, newLabels, matching, new InnerNodeEqual(matching));
+		match(oldLabels, newLabels, matching, new InnerNodeEqual(matching), false);
 
 		return matching;
 	}
@@ -1009,10 +1007,13 @@ public final class FMSE implements ImportDiff, AutoCloseable {
 	 *          {@link Matching} reference
 	 * @param cmp
 	 *          functional class
+	 * @param leaves
+	 *          determines if leaf nodes are matched, which are first paired by
+	 *          the hash of their values
 	 */
 	private void match(final Map<Kind, List<Long>> oldLabels,
 			final Map<Kind, List<Long>> newLabels, final Matching matching,
-			final Comparator<Long> cmp) {
+			final Comparator<Long> cmp, final boolean leaves) {
 		final Set<Kind> labels = oldLabels.keySet();
 		labels.retainAll(newLabels.keySet()); // intersection
 
@@ -1024,19 +1025,26 @@ public final class FMSE implements ImportDiff, AutoCloseable {
 			// 2(c)
 			final List<Pair<Long, Long>> common = Util.longestCommonSubsequence(
 					first, second, cmp);
-			// Used to remove the nodes in common from s1 and s2 in step 2(e).
-			final Map<Long, Boolean> seen = new HashMap<>();
+			// Used to remove the nodes in common from s1 and s2 in step 2(e). Node
+			// keys of both revisions may be equal, thus they are tracked separately.
+			final Set<Long> seenFirst = new HashSet<>(common.size());
+			final Set<Long> seenSecond = new HashSet<>(common.size());
 
 			// 2(d) - for each pair of nodes in the lcs: add to matching.
 			for (final Pair<Long, Long> p : common) {
 				matching.add(p.getFirst(), p.getSecond());
-				seen.put(p.getFirst(), true);
-				seen.put(p.getSecond(), true);
+				seenFirst.add(p.getFirst());
+				seenSecond.add(p.getSecond());
 			}
 
 			// 2(e) (prepare) - remove nodes in common from s1, s2.
-			removeCommonNodes(first, seen);
-			removeCommonNodes(second, seen);
+			removeCommonNodes(first, seenFirst);
+			removeCommonNodes(second, seenSecond);
+
+			// Pair nodes with equal values first instead of comparing all of them.
+			if (leaves) {
+				matchByValue(first, second, matching, cmp);
+			}
 
 			// 2(e) - For each unmatched node x \in s1.
 			final Iterator<Long> firstIterator = first.iterator();
@@ -1065,25 +1073,93 @@ public final class FMSE implements ImportDiff, AutoCloseable {
 		}
 	}
 
+	/**
+	 * Match unmatched leaf nodes, whose values have the same hash. The nodes of
+	 * the new revision are put into buckets by the hash, such that only the
+	 * nodes of a bucket have to be compared.
+	 * 
+	 * @param first
+	 *          unmatched nodes of the old revision
+	 * @param second
+	 *          unmatched nodes of the new revision
+	 * @param matching
+	 *          {@link Matching} reference
+	 * @param cmp
+	 *          functional class
+	 */
+	private void matchByValue(final List<Long> first, final List<Long> second,
+			final Matching matching, final Comparator<Long> cmp) {
+		final Map<Integer, List<Long>> buckets = new HashMap<>();
+		for (final Long node : second) {
+			final int hash = valueHash(node, mRtx);
+			List<Long> bucket = buckets.get(hash);
+			if (bucket == null) {
+				bucket = new LinkedList<>();
+				buckets.put(hash, bucket);
+			}
+			bucket.add(node);
+		}
+
+		final Set<Long> seenFirst = new HashSet<>();
+		final Set<Long> seenSecond = new HashSet<>();
+		for (final Long node : first) {
+			final List<Long> bucket = buckets.get(valueHash(node, mWtx));
+			if (bucket != null) {
+				for (final Iterator<Long> iter = bucket.iterator(); iter.hasNext();) {
+					final Long candidate = iter.next();
+					if (cmp.isEqual(node, candidate)) {
+						matching.add(node, candidate);
+						seenFirst.add(node);
+						seenSecond.add(candidate);
+						iter.remove();
+						break;
+					}
+				}
+			}
+		}
+
+		removeCommonNodes(first, seenFirst);
+		removeCommonNodes(second, seenSecond);
+	}
+
+	/**
+	 * Get the hash of the characteristic value of a leaf node.
+	 * 
+	 * @param nodeKey
+	 *          the node key
+	 * @param rtx
+	 *          {@link NodeReadTrx} reference
+	 * @return the hash of the value
+	 */
+	private int valueHash(final long nodeKey, final NodeReadTrx rtx) {
+		int hash = getNodeValue(nodeKey, rtx).hashCode();
+		if (rtx.getKind() == Kind.ATTRIBUTE) {
+			hash = 31 * hash + rtx.getValue().hashCode();
+		}
+		return hash;
+	}
+
 	/**
 	 * Remove nodes in common.
 	 * 
 	 * @param list
 	 *          {@link List} of {@link Node}s
 	 * @param seen
-	 *          {@link Map} of {@link Node}s
+	 *          {@link Set} of {@link Node}s
 	 */
-	private void removeCommonNodes(final List<Long> list,
-			final Map<Long, Boolean> seen) {
+	private void removeCommonNodes(final List<Long> list, final Set<Long> seen) {
 		assert list != null;
 		assert seen != null;
 
-		final Iterator<Long> iterator = list.iterator();
-		while (iterator.hasNext()) {
-			final Long item = iterator.next();
-			if (seen.containsKey(item)) {
-				iterator.remove();
+		if (!seen.isEmpty()) {
+			final List<Long> retained = new ArrayList<>(list.size());
+			for (final Long item : list) {
+				if (!seen.contains(item)) {
+					retained.add(item);
+				}
 			}
+			list.clear();
+			list.addAll(retained);
 		}
 	}
 
@@ -28,37 +28,42 @@ package org.sirix.diff.algorithm.fmse;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
 
 import org.sirix.api.Axis;
 import org.sirix.api.NodeReadTrx;
 import org.sirix.axis.DescendantAxis;
 import org.sirix.axis.IncludeSelf;
 import org.sirix.node.Kind;
+import org.sirix.node.SirixDeweyID;
+import org.sirix.utils.LongLongHashMap;
+
+import com.google.common.base.Optional;
 
 /**
  * Keeps track of nodes in a matching.
  * 
+ * <p>
+ * The mappings are stored in primitive hash maps. Whether a node is in the
+ * subtree of another node is determined by comparing their DeweyIDs if
+ * available, or by walking up the ancestors otherwise, instead of storing all
+ * ancestor/descendant pairs.
+ * </p>
+ * 
  * @author Johannes Lichtenberger, University of Konstanz
  * 
  */
 public final class Matching {
 
+	/** Value of the maps for nodes, which aren't matched. */
+	private static final long UNMATCHED = -1;
+
 	/** Forward matching. */
-	private final Map<Long, Long> mMapping;
+	private final LongLongHashMap mMapping;
 
 	/** Backward machting. */
-	private final Map<Long, Long> mReverseMapping;
-
-	/**
-	 * Tracks the (grand-)parent-child relation of nodes. We use this to speed up
-	 * the calculation of the number of nodes in the subtree of two nodes that are
-	 * in the matching.
-	 */
-	private final ConnectionMap<Long> mIsInSubtree;
+	private final LongLongHashMap mReverseMapping;
 
 	/** {@link NodeReadTrx} reference on old revision. */
 	private final NodeReadTrx mRtxOld;
@@ -75,9 +80,8 @@ public final class Matching {
 	 *          {@link NodeReadTrx} reference on new revision.
 	 */
 	public Matching(final NodeReadTrx pRtxOld, final NodeReadTrx pRtxNew) {
-		mMapping = new HashMap<>();
-		mReverseMapping = new HashMap<>();
-		mIsInSubtree = new ConnectionMap<>();
+		mMapping = new LongLongHashMap(UNMATCHED);
+		mReverseMapping = new LongLongHashMap(UNMATCHED);
 		mRtxOld = checkNotNull(pRtxOld);
 		mRtxNew = checkNotNull(pRtxNew);
 	}
@@ -90,9 +94,8 @@ public final class Matching {
 	 *          the original {@link Matching} reference
 	 */
 	public Matching(final Matching match) {
-		mMapping = new HashMap<>(match.mMapping);
-		mReverseMapping = new HashMap<>(match.mReverseMapping);
-		mIsInSubtree = new ConnectionMap<>(match.mIsInSubtree);
+		mMapping = new LongLongHashMap(match.mMapping);
+		mReverseMapping = new LongLongHashMap(match.mReverseMapping);
 		mRtxOld = match.mRtxOld;
 		mRtxNew = match.mRtxNew;
 	}
@@ -113,8 +116,6 @@ public final class Matching {
 		}
 		mMapping.put(nodeX, nodeY);
 		mReverseMapping.put(nodeY, nodeX);
-		updateSubtreeMap(nodeX, mRtxOld);
-		updateSubtreeMap(nodeY, mRtxNew);
 	}
 
 	/**
@@ -124,32 +125,47 @@ public final class Matching {
 	 *          source node for which to remove the connection
 	 */
 	public boolean remove(final @Nonnegative long nodeX) {
-		mReverseMapping.remove(mMapping.get(nodeX));
-		return mMapping.remove(nodeX) == null ? false : true;
+		final long nodeY = mMapping.remove(nodeX);
+		if (nodeY == UNMATCHED) {
+			return false;
+		}
+		mReverseMapping.remove(nodeY);
+		return true;
 	}
 
 	/**
-	 * For each anchestor of n: n is in it's subtree.
+	 * Determines if a node of the new revision is in the subtree of another node
+	 * of the new revision (or the node itself).
 	 * 
+	 * @param root
+	 *          root of the subtree
 	 * @param key
-	 *          key of node in subtree
-	 * @param rtx
-	 *          {@link NodeReadTrx} reference
+	 *          key of the node, which might be in the subtree
+	 * @return {@code true}, if {@code key} is in the subtree of {@code root},
+	 *         {@code false} otherwise
 	 */
-	private void updateSubtreeMap(final @Nonnegative long key,
-			final NodeReadTrx rtx) {
-		assert key >= 0;
-		assert rtx != null;
-
-		mIsInSubtree.set(key, key, true);
-		rtx.moveTo(key);
-		if (rtx.hasParent()) {
-			while (rtx.hasParent()) {
-				rtx.moveToParent();
-				mIsInSubtree.set(rtx.getNodeKey(), key, true);
+	private boolean isInSubtree(final @Nonnegative long root, final long key) {
+		if (key == root) {
+			return true;
+		}
+		if (key == UNMATCHED || !mRtxNew.moveTo(root).hasMoved()) {
+			return false;
+		}
+		final Optional<SirixDeweyID> rootID = mRtxNew.getDeweyID();
+		mRtxNew.moveTo(key);
+		if (rootID.isPresent()) {
+			final Optional<SirixDeweyID> id = mRtxNew.getDeweyID();
+			if (id.isPresent()) {
+				return rootID.get().isAncestorOf(id.get());
+			}
+		}
+		while (mRtxNew.hasParent()) {
+			mRtxNew.moveToParent();
+			if (mRtxNew.getNodeKey() == root) {
+				return true;
 			}
-			rtx.moveTo(key);
 		}
+		return false;
 	}
 
 	/**
@@ -163,8 +179,7 @@ public final class Matching {
 	 */
 	public boolean contains(final @Nonnegative long pNodeX,
 			final @Nonnegative long pNodeY) {
-		return mMapping.get(pNodeX) == null ? false : mMapping.get(pNodeX).equals(
-				pNodeY);
+		return mMapping.get(pNodeX) == pNodeY;
 	}
 
 	/**
@@ -180,28 +195,33 @@ public final class Matching {
 	public long containedDescendants(final @Nonnegative long nodeX,
 			final @Nonnegative long nodeY) {
 		long retVal = 0;
+		final long oldKey = mRtxOld.getNodeKey();
+		final long newKey = mRtxNew.getNodeKey();
 
 		mRtxOld.moveTo(nodeX);
 		for (final Axis axis = new DescendantAxis(mRtxOld, IncludeSelf.YES); axis
 				.hasNext();) {
 			axis.next();
-			retVal += mIsInSubtree.get(nodeY, partner(mRtxOld.getNodeKey())) ? 1 : 0;
+			final long nodeKey = mRtxOld.getNodeKey();
+			retVal += isInSubtree(nodeY, mMapping.get(nodeKey)) ? 1 : 0;
 			if (mRtxOld.getKind() == Kind.ELEMENT) {
 				for (int i = 0, nspCount = mRtxOld.getNamespaceCount(); i < nspCount; i++) {
 					mRtxOld.moveToNamespace(i);
-					retVal += mIsInSubtree
-							.get(nodeY, partner(axis.getTrx().getNodeKey())) ? 1 : 0;
+					retVal += isInSubtree(nodeY, mMapping.get(mRtxOld.getNodeKey())) ? 1
+							: 0;
 					mRtxOld.moveToParent();
 				}
 				for (int i = 0, attCount = mRtxOld.getAttributeCount(); i < attCount; i++) {
 					mRtxOld.moveToAttribute(i);
-					retVal += mIsInSubtree
-							.get(nodeY, partner(axis.getTrx().getNodeKey())) ? 1 : 0;
+					retVal += isInSubtree(nodeY, mMapping.get(mRtxOld.getNodeKey())) ? 1
+							: 0;
 					mRtxOld.moveToParent();
 				}
 			}
 		}
 
+		mRtxOld.moveTo(oldKey);
+		mRtxNew.moveTo(newKey);
 		return retVal;
 	}
 
@@ -212,8 +232,9 @@ public final class Matching {
 	 *          node for which a partner has to be found
 	 * @return the {@code nodeKey} of the other node or {@code null}
 	 */
-	public Long partner(final @Nonnegative long node) {
-		return mMapping.get(node);
+	public @Nullable Long partner(final @Nonnegative long node) {
+		final long partner = mMapping.get(node);
+		return partner == UNMATCHED ? null : partner;
 	}
 
 	/**
@@ -224,14 +245,14 @@ public final class Matching {
 	 *          node for which a reverse partner has to be found
 	 * @return x iff add(x, node) was called before
 	 */
-	public Long reversePartner(final @Nonnegative long node) {
-		return mReverseMapping.get(node);
+	public @Nullable Long reversePartner(final @Nonnegative long node) {
+		final long partner = mReverseMapping.get(node);
+		return partner == UNMATCHED ? null : partner;
 	}
 
 	/** Reset internal datastructures. */
 	public void reset() {
 		mMapping.clear();
 		mReverseMapping.clear();
-		mIsInSubtree.reset();
 	}
 }
@@ -29,6 +29,7 @@ package org.sirix.diff.algorithm.fmse;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.Nonnull;
@@ -79,39 +80,69 @@ public final class Util {
 		final int max = n + m;
 
 		final int v[] = new int[2 * max + 1];
-		final List<List<Pair<T, T>>> common = new ArrayList<>(2 * max + 1);
-		for (int i = 0; i <= 2 * max; i++) {
-			v[i] = 0;
-			common.add(i, new ArrayList<Pair<T, T>>());
-		}
+		// The common subsequence per diagonal is kept as a shared, persistent
+		// list, as copying it for every step needs quadratic memory.
+		@SuppressWarnings("unchecked")
+		final Snake<T>[] common = new Snake[2 * max + 1];
 
 		for (int i = 0; i <= max; i++) {
 			for (int j = -i; j <= i; j += 2) {
 				int idxX;
+				Snake<T> snake;
 				if (j == -i || j != i && v[max + j - 1] < v[max + j + 1]) {
-					// System.err.printf("Array index: %d\n", max + j + 1);
 					idxX = v[max + j + 1];
-					common.set(max + j, new ArrayList<>(common.get(max + j + 1)));
+					snake = common[max + j + 1];
 				} else {
 					idxX = v[max + j - 1] + 1;
-					common.set(max + j, new ArrayList<>(common.get(max + j - 1)));
+					snake = common[max + j - 1];
 				}
 				int idxY = idxX - j;
 				while (idxX < n && idxY < m && pCmp.isEqual(x.get(idxX), y.get(idxY))) {
-					common.get(max + j).add(new Pair<>(x.get(idxX), y.get(idxY)));
+					snake = new Snake<>(new Pair<>(x.get(idxX), y.get(idxY)), snake);
 					idxX++;
 					idxY++;
 				}
 
 				v[max + j] = idxX;
+				common[max + j] = snake;
 				if (idxX >= n && idxY >= m) {
-					return common.get(max + j);
+					return Snake.toList(snake);
 				}
 			}
 		}
 		throw new IllegalStateException("We should never get to this point!");
 	}
 
+	/**
+	 * Immutable list of pairs of the longest common subsequence in reverse
+	 * order, whose tails are shared among the diagonals.
+	 */
+	private static final class Snake<T> {
+		private final Pair<T, T> mPair;
+
+		private final Snake<T> mPrevious;
+
+		private final int mSize;
+
+		Snake(final Pair<T, T> pair, final Snake<T> previous) {
+			mPair = pair;
+			mPrevious = previous;
+			mSize = previous == null ? 1 : previous.mSize + 1;
+		}
+
+		static <T> List<Pair<T, T>> toList(final Snake<T> snake) {
+			if (snake == null) {
+				return new ArrayList<>();
+			}
+			final List<Pair<T, T>> list = new ArrayList<>(snake.mSize);
+			for (Snake<T> current = snake; current != null; current = current.mPrevious) {
+				list.add(current.mPair);
+			}
+			Collections.reverse(list);
+			return list;
+		}
+	}
+
 	/**
 	 * Calculates the similarity of two strings. This is done by comparing the
 	 * frequency of each character occurs in both strings.
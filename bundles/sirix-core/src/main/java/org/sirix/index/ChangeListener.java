@@ -9,4 +9,15 @@ import org.sirix.node.interfaces.immutable.ImmutableNode;
 public interface ChangeListener {
 	void listen(ChangeType type, @Nonnull ImmutableNode node, long pathNodeKey)
 			throws SirixIOException;
+
+	/**
+	 * Apply all buffered changes to the index.
+	 * 
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	void flush() throws SirixIOException;
+
+	/** Discard all buffered changes, for instance on a rollback. */
+	void clear();
 }
@@ -0,0 +1,53 @@
+package org.sirix.index;
+
+import javax.annotation.Nullable;
+
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.visitor.Visitor;
+import org.sirix.exception.SirixIOException;
+import org.sirix.index.path.summary.PathSummaryReader;
+
+/**
+ * A {@link Visitor} used to build an index. Index entries are collected while
+ * visiting and written in key order once {@link #finish()} is called.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public interface IndexBuildVisitor extends Visitor {
+
+	/**
+	 * Create a visitor for the same index, which only collects the entries of
+	 * the nodes visited by another transaction, such that a part of the
+	 * document can be processed by another thread. The collected entries are
+	 * handed back by means of {@link #merge(IndexBuildVisitor)}.
+	 *
+	 * @param rtx
+	 *          the transaction used to visit the nodes
+	 * @param pathSummaryReader
+	 *          the path summary of the same revision, or {@code null}, if none
+	 *          is maintained (path and CAS index builders require it)
+	 * @return the new visitor
+	 */
+	IndexBuildVisitor fork(NodeReadTrx rtx,
+			@Nullable PathSummaryReader pathSummaryReader);
+
+	/**
+	 * Take over the entries collected by a visitor created by
+	 * {@link #fork(NodeReadTrx, PathSummaryReader)}.
+	 *
+	 * @param fork
+	 *          the forked visitor
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	void merge(IndexBuildVisitor fork) throws SirixIOException;
+
+	/**
+	 * Write all collected entries to the index.
+	 *
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	void finish() throws SirixIOException;
+}
@@ -1,29 +1,60 @@
 package org.sirix.index;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nonnegative;
 
 import org.sirix.api.NodeReadTrx;
+import org.sirix.api.Session;
 import org.sirix.api.visitor.Visitor;
 import org.sirix.axis.DescendantAxis;
+import org.sirix.axis.IncludeSelf;
 import org.sirix.axis.NonStructuralWrapperAxis;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
+import org.sirix.exception.SirixThreadedException;
+import org.sirix.index.path.summary.PathSummaryReader;
 
 /**
  * Build an index by traversing the current revision.
- * 
+ *
  * @author Johannes Lichtenberger
- * 
+ *
  */
 public final class IndexBuilder {
 
+	/**
+	 * Maximum number of nodes of a run. The entries collected by the forked
+	 * builders of a run are held in memory until the run is merged, thus the
+	 * memory needed by a build is bounded by the runs in flight, regardless of
+	 * the size of the document.
+	 */
+	static final int MAX_RUN_SIZE = 1 << 14;
+
 	/**
 	 * Build the index.
-	 * 
+	 *
 	 * @param rtx
 	 *          the current {@link NodeReadTrx}
 	 * @param builders
 	 *          the index builders
+	 * @throws SirixIOException
+	 *           if an I/O error occurs while writing the collected entries
 	 */
-	public static void build(final NodeReadTrx rtx, final Set<Visitor> builders) {
+	public static void build(final NodeReadTrx rtx,
+			final Set<? extends Visitor> builders) throws SirixIOException {
 		final long nodeKey = rtx.getNodeKey();
 		rtx.moveToDocumentRoot();
 
@@ -34,6 +65,258 @@ public final class IndexBuilder {
 			}
 		}
 		rtx.moveTo(nodeKey);
+		finish(builders);
+	}
+
+	/**
+	 * Build the index in parallel. The document is split into runs of sibling
+	 * subtrees of about the same number of nodes, but at most
+	 * {@link #MAX_RUN_SIZE} nodes. Subtrees, which are larger, are split into
+	 * runs of their children, whereas their roots are visited by the calling
+	 * thread. The runs are traversed by separate read-only transactions on the
+	 * given revision, whereas the collected entries are handed to the builders
+	 * and written in key order by the calling thread.
+	 *
+	 * @param rtx
+	 *          the transaction the builders are bound to, which must not
+	 *          differ from the given {@code revision}
+	 * @param builders
+	 *          the index builders
+	 * @param session
+	 *          the session to open read-only transactions from
+	 * @param revision
+	 *          the revision to index
+	 * @param threads
+	 *          the number of threads used to traverse the document
+	 * @throws SirixException
+	 *           if a transaction can't be opened or an I/O error occurs
+	 */
+	public static void build(final NodeReadTrx rtx,
+			final Set<? extends IndexBuildVisitor> builders, final Session session,
+			final @Nonnegative int revision, final @Nonnegative int threads)
+			throws SirixException {
+		checkNotNull(session);
+		checkArgument(threads > 0, "threads must be > 0!");
+		final long nodeKey = rtx.getNodeKey();
+		final ExecutorService pool = Executors.newFixedThreadPool(threads);
+		final Deque<Future<List<IndexBuildVisitor>>> futures = new ArrayDeque<>();
+		try {
+			rtx.moveToDocumentRoot();
+			final long runSize = Math.max(1,
+					Math.min(MAX_RUN_SIZE, rtx.getDescendantCount() / (threads * 4)));
+			new Partitioner(rtx, builders, session, revision, pool, futures,
+					runSize, threads * 2).partitionChildren();
+			drain(futures, builders, 0);
+		} finally {
+			// Partitions read with the reader shared by all transactions of the
+			// resource, thus running ones aren't interrupted, as an interrupted read
+			// closes its channel.
+			for (final Future<List<IndexBuildVisitor>> future : futures) {
+				future.cancel(false);
+			}
+			pool.shutdown();
+			rtx.moveTo(nodeKey);
+		}
+		finish(builders);
+	}
+
+	/**
+	 * Visit the current node and its namespaces and attributes.
+	 */
+	private static void visitNonStructural(final NodeReadTrx rtx,
+			final Set<? extends Visitor> builders) {
+		accept(rtx, builders);
+		if (rtx.isElement()) {
+			for (int i = 0, nspCount = rtx.getNamespaceCount(); i < nspCount; i++) {
+				rtx.moveToNamespace(i);
+				accept(rtx, builders);
+				rtx.moveToParent();
+			}
+			for (int i = 0, attCount = rtx.getAttributeCount(); i < attCount; i++) {
+				rtx.moveToAttribute(i);
+				accept(rtx, builders);
+				rtx.moveToParent();
+			}
+		}
+	}
+
+	private static void accept(final NodeReadTrx rtx,
+			final Set<? extends Visitor> builders) {
+		for (final Visitor builder : builders) {
+			rtx.acceptVisitor(builder);
+		}
+	}
+
+	/**
+	 * Hand the entries of completed partitions to the builders in submission
+	 * order, until at most {@code remaining} partitions are pending.
+	 */
+	private static void drain(
+			final Deque<Future<List<IndexBuildVisitor>>> futures,
+			final Set<? extends IndexBuildVisitor> builders, final int remaining)
+			throws SirixException {
+		while (futures.size() > remaining) {
+			try {
+				final List<IndexBuildVisitor> forks = futures.poll().get();
+				int i = 0;
+				for (final IndexBuildVisitor builder : builders) {
+					builder.merge(forks.get(i++));
+				}
+			} catch (final InterruptedException e) {
+				throw new SirixThreadedException(e);
+			} catch (final ExecutionException e) {
+				if (e.getCause() instanceof SirixException) {
+					throw (SirixException) e.getCause();
+				}
+				throw new SirixThreadedException(e);
+			}
+		}
+	}
+
+	private static void finish(final Set<? extends Visitor> builders)
+			throws SirixIOException {
+		for (final Visitor builder : builders) {
+			if (builder instanceof IndexBuildVisitor) {
+				((IndexBuildVisitor) builder).finish();
+			}
+		}
 	}
 
+	/**
+	 * Splits the document into runs and submits them.
+	 */
+	private static final class Partitioner {
+		private final NodeReadTrx mRtx;
+		private final Set<? extends IndexBuildVisitor> mBuilders;
+		private final Session mSession;
+		private final int mRevision;
+		private final ExecutorService mPool;
+		private final Deque<Future<List<IndexBuildVisitor>>> mFutures;
+		private final long mRunSize;
+		private final int mMaxInFlight;
+
+		/** First node of the current run. */
+		private long mFirstKey;
+
+		/** Number of sibling subtrees of the current run. */
+		private int mCount;
+
+		/** Number of nodes of the current run. */
+		private long mSize;
+
+		Partitioner(final NodeReadTrx rtx,
+				final Set<? extends IndexBuildVisitor> builders, final Session session,
+				final int revision, final ExecutorService pool,
+				final Deque<Future<List<IndexBuildVisitor>>> futures,
+				final long runSize, final int maxInFlight) {
+			mRtx = rtx;
+			mBuilders = builders;
+			mSession = session;
+			mRevision = revision;
+			mPool = pool;
+			mFutures = futures;
+			mRunSize = runSize;
+			mMaxInFlight = maxInFlight;
+		}
+
+		/**
+		 * Split the children of the current node into runs. The transaction is
+		 * moved back to the current node afterwards.
+		 */
+		void partitionChildren() throws SirixException {
+			final long parentKey = mRtx.getNodeKey();
+			for (boolean moved = mRtx.moveToFirstChild().hasMoved(); moved; moved = mRtx
+					.moveToRightSibling().hasMoved()) {
+				final long size = mRtx.getDescendantCount() + 1;
+				if (size > mRunSize) {
+					// The subtree is split, its root is visited by this thread.
+					submit();
+					final long key = mRtx.getNodeKey();
+					visitNonStructural(mRtx, mBuilders);
+					partitionChildren();
+					mRtx.moveTo(key);
+					continue;
+				}
+				if (mSize + size > mRunSize) {
+					submit();
+				}
+				if (mCount == 0) {
+					mFirstKey = mRtx.getNodeKey();
+				}
+				mCount++;
+				mSize += size;
+			}
+			// Runs don't span subtrees of different parents.
+			submit();
+			mRtx.moveTo(parentKey);
+		}
+
+		/** Submit the current run, if it isn't empty. */
+		private void submit() throws SirixException {
+			if (mCount == 0) {
+				return;
+			}
+			mFutures.add(mPool.submit(new Partition(mSession, mRevision, mBuilders,
+					mFirstKey, mCount)));
+			mCount = 0;
+			mSize = 0;
+			drain(mFutures, mBuilders, mMaxInFlight);
+		}
+	}
+
+	/**
+	 * A run of sibling subtrees, which is traversed by its own read-only
+	 * transaction.
+	 */
+	private static final class Partition implements
+			Callable<List<IndexBuildVisitor>> {
+		private final Session mSession;
+		private final int mRevision;
+		private final Set<? extends IndexBuildVisitor> mBuilders;
+		private final long mFirstKey;
+		private final int mCount;
+
+		Partition(final Session session, final int revision,
+				final Set<? extends IndexBuildVisitor> builders, final long firstKey,
+				final int count) {
+			mSession = session;
+			mRevision = revision;
+			mBuilders = builders;
+			mFirstKey = firstKey;
+			mCount = count;
+		}
+
+		@Override
+		public List<IndexBuildVisitor> call() throws SirixException {
+			final NodeReadTrx rtx = mSession.beginNodeReadTrx(mRevision);
+			final PathSummaryReader pathSummary = mSession.getResourceConfig().mPathSummary ? mSession
+					.openPathSummary(mRevision) : null;
+			try {
+				// The builders are iterated in the same order by the merging thread.
+				final List<IndexBuildVisitor> forks = new ArrayList<>(mBuilders.size());
+				for (final IndexBuildVisitor builder : mBuilders) {
+					forks.add(builder.fork(rtx, pathSummary));
+				}
+				rtx.moveTo(mFirstKey);
+				for (int i = 0; i < mCount; i++) {
+					final long subtreeKey = rtx.getNodeKey();
+					for (@SuppressWarnings("unused")
+					final long key : new NonStructuralWrapperAxis(new DescendantAxis(rtx,
+							IncludeSelf.YES))) {
+						for (final IndexBuildVisitor fork : forks) {
+							rtx.acceptVisitor(fork);
+						}
+					}
+					rtx.moveTo(subtreeKey);
+					rtx.moveToRightSibling();
+				}
+				return forks;
+			} finally {
+				if (pathSummary != null) {
+					pathSummary.close();
+				}
+				rtx.close();
+			}
+		}
+	}
 }
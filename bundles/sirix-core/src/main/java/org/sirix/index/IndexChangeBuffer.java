@@ -0,0 +1,197 @@
+package org.sirix.index;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.Nonnegative;
+
+import org.sirix.exception.SirixIOException;
+import org.sirix.index.avltree.AVLTreeReader.MoveCursor;
+import org.sirix.index.avltree.AVLTreeWriter;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+
+import com.google.common.base.Optional;
+import com.google.common.primitives.Longs;
+
+/**
+ * Collects the index changes of a write transaction per index key, such that
+ * each touched key is only looked up and rewritten once in the underlying
+ * {@link AVLTreeWriter} instead of once per modified node. Keys are applied
+ * in ascending order, which keeps successive lookups in the same index pages.
+ *
+ * <p>
+ * An insertion and a subsequent deletion of the same node (or vice versa)
+ * cancel each other out. The buffer is not thread safe and is meant to be
+ * used by the thread owning the write transaction.
+ * </p>
+ *
+ * @author Johannes Lichtenberger
+ *
+ * @param <K>
+ *          the index key type
+ */
+public final class IndexChangeBuffer<K extends Comparable<? super K>> {
+
+	/** Default number of buffered node references until the buffer is applied. */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/** Pending changes per index key. */
+	private final Map<K, Delta> mChanges;
+
+	/** Maximum number of buffered node references. */
+	private final int mCapacity;
+
+	/** Number of buffered node references. */
+	private int mSize;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity
+	 *          maximum number of buffered node references, after which
+	 *          {@link #isFull()} returns {@code true}
+	 */
+	public IndexChangeBuffer(final @Nonnegative int capacity) {
+		checkArgument(capacity > 0, "capacity must be > 0!");
+		mChanges = new TreeMap<>();
+		mCapacity = capacity;
+	}
+
+	/**
+	 * Record the insertion of a node reference.
+	 *
+	 * @param key
+	 *          the index key
+	 * @param nodeKey
+	 *          the node key to add
+	 */
+	public void insert(final K key, final @Nonnegative long nodeKey) {
+		final Delta delta = getDelta(key);
+		if (!delta.mDeleted.remove(nodeKey) && delta.mInserted.add(nodeKey)) {
+			mSize++;
+		}
+	}
+
+	/**
+	 * Record the deletion of a node reference.
+	 *
+	 * @param key
+	 *          the index key
+	 * @param nodeKey
+	 *          the node key to remove
+	 */
+	public void delete(final K key, final @Nonnegative long nodeKey) {
+		final Delta delta = getDelta(key);
+		if (!delta.mInserted.remove(nodeKey) && delta.mDeleted.add(nodeKey)) {
+			mSize++;
+		}
+	}
+
+	private Delta getDelta(final K key) {
+		Delta delta = mChanges.get(checkNotNull(key));
+		if (delta == null) {
+			delta = new Delta();
+			mChanges.put(key, delta);
+		}
+		return delta;
+	}
+
+	/**
+	 * Take over all changes of another buffer.
+	 *
+	 * @param other
+	 *          the buffer to merge, which is cleared afterwards
+	 */
+	public void addAll(final IndexChangeBuffer<K> other) {
+		for (final Map.Entry<K, Delta> entry : other.mChanges.entrySet()) {
+			final K key = entry.getKey();
+			for (final long nodeKey : entry.getValue().mInserted) {
+				insert(key, nodeKey);
+			}
+			for (final long nodeKey : entry.getValue().mDeleted) {
+				delete(key, nodeKey);
+			}
+		}
+		other.clear();
+	}
+
+	/**
+	 * Determines if the buffer should be applied.
+	 *
+	 * @return {@code true}, if the capacity is exceeded, {@code false} otherwise
+	 */
+	public boolean isFull() {
+		return mSize >= mCapacity;
+	}
+
+	/**
+	 * Determines if no changes are buffered.
+	 *
+	 * @return {@code true}, if the buffer is empty, {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return mChanges.isEmpty();
+	}
+
+	/**
+	 * Apply all buffered changes to the index and clear the buffer afterwards.
+	 *
+	 * @param writer
+	 *          the index writer
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	public void apply(final AVLTreeWriter<K, NodeReferences> writer)
+			throws SirixIOException {
+		checkNotNull(writer);
+		try {
+			for (final Map.Entry<K, Delta> entry : mChanges.entrySet()) {
+				final Delta delta = entry.getValue();
+				if (delta.mInserted.isEmpty() && delta.mDeleted.isEmpty()) {
+					continue;
+				}
+				final K key = entry.getKey();
+				final Optional<NodeReferences> references = writer
+						.getForModification(key);
+				if (references.isPresent()) {
+					// Merge into the prepared entry, without copying it.
+					final NodeReferences nodeKeys = references.get();
+					for (final long nodeKey : delta.mDeleted) {
+						nodeKeys.removeNodeKey(nodeKey);
+					}
+					// In ascending order, new node keys are mostly appended.
+					final long[] inserted = Longs.toArray(delta.mInserted);
+					Arrays.sort(inserted);
+					for (final long nodeKey : inserted) {
+						nodeKeys.addNodeKey(nodeKey);
+					}
+				} else if (!delta.mInserted.isEmpty()) {
+					// The cursor stays at the node the search ended at.
+					writer.index(key, new NodeReferences(delta.mInserted),
+							MoveCursor.NO_MOVE);
+				}
+			}
+		} finally {
+			clear();
+		}
+	}
+
+	/** Discard all buffered changes. */
+	public void clear() {
+		mChanges.clear();
+		mSize = 0;
+	}
+
+	/** Node keys inserted into and deleted from a single index key. */
+	private static final class Delta {
+		private final Set<Long> mInserted = new HashSet<>();
+
+		private final Set<Long> mDeleted = new HashSet<>();
+	}
+}
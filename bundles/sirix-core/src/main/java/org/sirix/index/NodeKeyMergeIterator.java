@@ -0,0 +1,167 @@
+package org.sirix.index;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+
+/**
+ * Merges the node keys of index entries into a single ascending sequence
+ * without duplicates. The node keys of each {@link NodeReferences} instance
+ * are a sorted run, such that the runs are combined by a k-way merge on a
+ * binary heap, without sorting or boxing the node keys. The result is in node
+ * key order, not in document order: nodes inserted by updates get node keys
+ * greater than the node keys of nodes following them in the document.
+ * 
+ * <p>
+ * The entries are pulled from the underlying iterator once the first node key
+ * is requested, as the smallest node key might be referenced by any entry.
+ * The runs in turn are advanced lazily: only the next node key of each run is
+ * decoded, such that the node keys of an entry are never decoded at once.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class NodeKeyMergeIterator implements Iterator<Long> {
+
+	/** The index entries, or {@code null} once they are consumed. */
+	private Iterator<NodeReferences> mEntries;
+
+	/** Cursors over the sorted runs. */
+	private NodeReferences.Cursor[] mRuns;
+
+	/** The next node key of each run. */
+	private long[] mHeads;
+
+	/** Binary min-heap of run indexes, ordered by the next node key of a run. */
+	private int[] mHeap;
+
+	/** Number of runs in the heap. */
+	private int mHeapSize;
+
+	/** The last returned node key. */
+	private long mLast = -1;
+
+	/** Determines if {@code mLast} has been returned yet. */
+	private boolean mStarted;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param entries
+	 *          the index entries to merge, for instance the result of an
+	 *          {@link IndexFilterAxis}
+	 */
+	public NodeKeyMergeIterator(final Iterator<NodeReferences> entries) {
+		mEntries = checkNotNull(entries);
+	}
+
+	private void init() {
+		if (mEntries == null) {
+			return;
+		}
+		final List<NodeReferences.Cursor> runs = new ArrayList<>();
+		while (mEntries.hasNext()) {
+			final NodeReferences references = mEntries.next();
+			if (references.hasNodeKeys()) {
+				runs.add(references.cursor());
+			}
+		}
+		mEntries = null;
+		mRuns = runs.toArray(new NodeReferences.Cursor[runs.size()]);
+		mHeads = new long[mRuns.length];
+		mHeap = new int[mRuns.length];
+		for (int i = 0; i < mRuns.length; i++) {
+			mHeads[i] = mRuns[i].next();
+			mHeap[i] = i;
+		}
+		mHeapSize = mRuns.length;
+		for (int i = mHeapSize / 2 - 1; i >= 0; i--) {
+			siftDown(i);
+		}
+		skipDuplicates();
+	}
+
+	private long head(final int run) {
+		return mHeads[run];
+	}
+
+	private void siftDown(int index) {
+		final int run = mHeap[index];
+		final long key = head(run);
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= mHeapSize) {
+				break;
+			}
+			if (child + 1 < mHeapSize
+					&& head(mHeap[child + 1]) < head(mHeap[child])) {
+				child++;
+			}
+			if (head(mHeap[child]) >= key) {
+				break;
+			}
+			mHeap[index] = mHeap[child];
+			index = child;
+		}
+		mHeap[index] = run;
+	}
+
+	/** Advance the run on top of the heap. */
+	private void advance() {
+		final int run = mHeap[0];
+		if (mRuns[run].hasNext()) {
+			mHeads[run] = mRuns[run].next();
+			siftDown(0);
+		} else if (--mHeapSize > 0) {
+			mHeap[0] = mHeap[mHeapSize];
+			siftDown(0);
+		}
+	}
+
+	/** Drop node keys referenced by more than one entry. */
+	private void skipDuplicates() {
+		while (mStarted && mHeapSize > 0 && head(mHeap[0]) == mLast) {
+			advance();
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		init();
+		return mHeapSize > 0;
+	}
+
+	/**
+	 * Get the next node key without boxing.
+	 * 
+	 * @return the next node key in ascending order
+	 * @throws NoSuchElementException
+	 *           if no more node keys are available
+	 */
+	public long nextNodeKey() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		mLast = head(mHeap[0]);
+		mStarted = true;
+		advance();
+		skipDuplicates();
+		return mLast;
+	}
+
+	@Override
+	public Long next() {
+		return nextNodeKey();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -4,8 +4,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.PrintStream;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.TreeSet;
 
 import javax.annotation.Nonnegative;
 
@@ -29,6 +30,7 @@ import org.sirix.node.interfaces.immutable.ImmutableNode;
 import org.sirix.page.PageKind;
 import org.sirix.settings.Fixed;
 import org.sirix.utils.LogWrapper;
+import org.sirix.utils.LongStack;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Optional;
@@ -67,6 +69,9 @@ public final class AVLTreeReader<K extends Comparable<? super K>, V extends Refe
 	/** Index number. */
 	final int mIndex;
 
+	/** Result of every successful move, as it only refers to this cursor. */
+	private final Move<AVLTreeReader<K, V>> mMoved = Move.moved(this);
+
 	/** Determines movement of the internal cursor. */
 	public enum MoveCursor {
 		/** Cursor should be moved document root. */
@@ -191,6 +196,25 @@ public final class AVLTreeReader<K extends Comparable<? super K>, V extends Refe
 	 *         which indicates that the value hasn't been found)
 	 */
 	public Optional<V> get(final K key, final SearchMode mode) {
+		final Optional<AVLNode<K, V>> node = find(key, mode);
+		return node.isPresent() ? Optional.fromNullable(node.get().getValue())
+				: Optional.<V> absent();
+	}
+
+	/**
+	 * Seek the node with the specified key by descending from the root of the
+	 * tree, that is with a logarithmic number of node lookups.
+	 * 
+	 * @param key
+	 *          key to be found
+	 * @return {@link Optional} reference to the node with the key, or an absent
+	 *         reference, if the key hasn't been found
+	 */
+	public Optional<AVLNode<K, V>> seek(final K key) {
+		return find(checkNotNull(key), SearchMode.EQUAL);
+	}
+
+	private Optional<AVLNode<K, V>> find(final K key, final SearchMode mode) {
 		moveToDocumentRoot();
 		if (!((DocumentRootNode) getNode()).hasFirstChild()) {
 			return Optional.absent();
@@ -200,7 +224,7 @@ public final class AVLTreeReader<K extends Comparable<? super K>, V extends Refe
 		while (true) {
 			final int c = mode.compare(key, node.getKey());
 			if (c == 0) {
-				return Optional.fromNullable(node.getValue());
+				return Optional.of(node);
 			}
 			final boolean moved = c < 0 ? moveToFirstChild().hasMoved()
 					: moveToLastChild().hasMoved();
@@ -225,7 +249,7 @@ public final class AVLTreeReader<K extends Comparable<? super K>, V extends Refe
 		private boolean mFirst;
 
 		/** All AVLNode keys which are part of the result sequence. */
-		private final Deque<Long> mKeys;
+		private final LongStack mKeys;
 
 		/** Start node key. */
 		private final long mKey;
@@ -240,7 +264,7 @@ public final class AVLTreeReader<K extends Comparable<? super K>, V extends Refe
 		 */
 		public AVLNodeIterator(final long nodeKey) {
 			mFirst = true;
-			mKeys = new ArrayDeque<>();
+			mKeys = new LongStack();
 			checkArgument(nodeKey >= 0, "nodeKey must be >= 0!");
 			mKey = nodeKey;
 		}
@@ -284,6 +308,42 @@ public final class AVLTreeReader<K extends Comparable<? super K>, V extends Refe
 		}
 	}
 
+	/**
+	 * Iterator over the nodes with the specified keys, which are looked up one
+	 * after the other by {@link AVLTreeReader#seek(Comparable)} in ascending key
+	 * order. Keys which aren't in the tree are skipped.
+	 * 
+	 * @author Johannes Lichtenberger
+	 * 
+	 */
+	public final class AVLNodeSeekIterator extends
+			AbstractIterator<AVLNode<K, V>> {
+
+		/** The keys to look up. */
+		private final Iterator<K> mKeys;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param keys
+		 *          the keys to look up
+		 */
+		public AVLNodeSeekIterator(final Collection<? extends K> keys) {
+			mKeys = new TreeSet<K>(checkNotNull(keys)).iterator();
+		}
+
+		@Override
+		protected AVLNode<K, V> computeNext() {
+			while (mKeys.hasNext()) {
+				final Optional<AVLNode<K, V>> node = seek(mKeys.next());
+				if (node.isPresent()) {
+					return node.get();
+				}
+			}
+			return endOfData();
+		}
+	}
+
 	// /**
 	// * Iterator supporting different search modes.
 	// *
@@ -455,24 +515,18 @@ public final class AVLTreeReader<K extends Comparable<? super K>, V extends Refe
 			return Move.notMoved();
 		}
 
-		// Remember old node and fetch new one.
-		final Node oldNode = mCurrentNode;
-		Optional<? extends Node> newNode;
+		// Fetch new node, the current node is kept if it doesn't exist.
+		Node newNode;
 		try {
-			// Immediately return node from item list if node key negative.
-			@SuppressWarnings("unchecked")
-			final Optional<? extends Node> node = (Optional<? extends Node>) mPageReadTrx
-					.getRecord(nodeKey, mPageKind, mIndex);
-			newNode = node;
+			newNode = (Node) mPageReadTrx.getRecordOrNull(nodeKey, mPageKind, mIndex);
 		} catch (final SirixIOException e) {
-			newNode = Optional.absent();
+			newNode = null;
 		}
 
-		if (newNode.isPresent()) {
-			mCurrentNode = newNode.get();
-			return Move.moved(this);
+		if (newNode != null) {
+			mCurrentNode = newNode;
+			return mMoved;
 		} else {
-			mCurrentNode = oldNode;
 			return Move.notMoved();
 		}
 	}
@@ -790,6 +790,30 @@ public final class AVLTreeWriter<K extends Comparable<? super K>, V extends Refe
 		return mAVLTreeReader.get(checkNotNull(key), checkNotNull(mode));
 	}
 
+	/**
+	 * Get the value of the specified key, whose node has been prepared for
+	 * modification, such that the value can be changed in place.
+	 * 
+	 * @param key
+	 *          the key to search for
+	 * @return {@link Optional} reference to the value, or an absent reference,
+	 *         if the key isn't indexed
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	@SuppressWarnings("unchecked")
+	public Optional<V> getForModification(final K key) throws SirixIOException {
+		final Optional<AVLNode<K, V>> node = mAVLTreeReader.seek(key);
+		if (!node.isPresent()) {
+			return Optional.absent();
+		}
+		final AVLNode<K, V> avlNode = (AVLNode<K, V>) mPageWriteTrx
+				.prepareEntryForModification(node.get().getNodeKey(),
+						mAVLTreeReader.mPageKind, mAVLTreeReader.mIndex,
+						Optional.<UnorderedKeyValuePage> absent());
+		return Optional.fromNullable(avlNode.getValue());
+	}
+
 	/**
 	 * Get the {@link AVLTreeReader} used to navigate.
 	 * 
@@ -1,7 +1,16 @@
 package org.sirix.index.avltree.keyvalue;
 
-import java.util.Collections;
-import java.util.HashSet;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sirix.node.Utils.getVarLong;
+import static org.sirix.node.Utils.putVarLong;
+
+import java.io.IOException;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import javax.annotation.Nonnegative;
@@ -11,22 +20,47 @@ import org.sirix.index.avltree.interfaces.References;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Objects.ToStringHelper;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
 
 /**
- * Text node-ID references.
+ * Text node-ID references. The node keys are stored as a sorted run of
+ * primitive longs, such that they can be iterated in ascending order without
+ * boxing and sorting.
+ * 
+ * <p>
+ * Deserialized references keep the encoded node keys together with their
+ * number and only decode them on first access, such that the number of
+ * references of an index entry is available without decoding the node keys.
+ * Concurrent readers may trigger the decoding, whereas modifications still
+ * require exclusive access.
+ * </p>
  * 
  * @author Johannes Lichtenberger
  * 
  */
 public final class NodeReferences implements References {
-	/** A {@link Set} of node-keys. */
-	private final Set<Long> mNodeKeys;
+	/** Sorted node keys, the first {@code mSize} entries are used. */
+	private long[] mNodeKeys;
+
+	/** Number of node keys. */
+	private int mSize;
+
+	/**
+	 * Node keys encoded as the first node key and the gaps between the
+	 * ascending node keys, or {@code null} if decoded. Volatile, as references
+	 * of cached pages are read concurrently: {@link #mNodeKeys} is assigned
+	 * before this field is reset, thus a reader, which finds it {@code null},
+	 * also finds the decoded node keys.
+	 */
+	private volatile byte[] mEncodedNodeKeys;
 
 	/**
 	 * Default constructor.
 	 */
 	public NodeReferences() {
-		mNodeKeys = new HashSet<>();
+		mNodeKeys = new long[4];
 	}
 
 	/**
@@ -36,60 +70,325 @@ public final class NodeReferences implements References {
 	 *          node keys
 	 */
 	public NodeReferences(final Set<Long> nodeKeys) {
+		mNodeKeys = new long[Math.max(4, nodeKeys.size())];
+		for (final long nodeKey : nodeKeys) {
+			mNodeKeys[mSize++] = nodeKey;
+		}
+		Arrays.sort(mNodeKeys, 0, mSize);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param sortedNodeKeys
+	 *          node keys in strictly ascending order, which are used without
+	 *          copying
+	 * @param size
+	 *          number of node keys
+	 */
+	public NodeReferences(final long[] sortedNodeKeys,
+			final @Nonnegative int size) {
+		checkArgument(size >= 0 && size <= sortedNodeKeys.length,
+				"size out of bounds!");
+		mNodeKeys = sortedNodeKeys;
+		mSize = size;
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param size
+	 *          number of node keys
+	 * @param encodedNodeKeys
+	 *          node keys encoded as by {@link #getEncodedNodeKeys()}, which are
+	 *          decoded on first access
+	 */
+	public NodeReferences(final @Nonnegative int size,
+			final byte[] encodedNodeKeys) {
+		checkArgument(size >= 0, "size must be >= 0!");
+		mSize = size;
+		mEncodedNodeKeys = checkNotNull(encodedNodeKeys);
+	}
+
+	/**
+	 * Get the node keys encoded as the first node key and the gaps between the
+	 * ascending node keys, each as a variable length long.
+	 * 
+	 * @return the encoded node keys
+	 */
+	public byte[] getEncodedNodeKeys() {
+		final byte[] encodedNodeKeys = mEncodedNodeKeys;
+		if (encodedNodeKeys != null) {
+			return encodedNodeKeys;
+		}
+		final ByteArrayDataOutput output = ByteStreams.newDataOutput(mSize * 2);
+		try {
+			long previous = 0;
+			for (int i = 0; i < mSize; i++) {
+				putVarLong(output, mNodeKeys[i] - previous);
+				previous = mNodeKeys[i];
+			}
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return output.toByteArray();
+	}
+
+	/**
+	 * Decode the node keys, if not done yet. Concurrent readers might decode
+	 * them at the same time, which yields equal arrays.
+	 */
+	private void decode() {
+		final byte[] encodedNodeKeys = mEncodedNodeKeys;
+		if (encodedNodeKeys == null) {
+			return;
+		}
+		final long[] nodeKeys = new long[Math.max(4, mSize)];
+		final ByteArrayDataInput input = ByteStreams.newDataInput(encodedNodeKeys);
+		try {
+			long nodeKey = 0;
+			for (int i = 0; i < mSize; i++) {
+				nodeKey += getVarLong(input);
+				nodeKeys[i] = nodeKey;
+			}
+		} catch (final IOException e) {
+			throw new IllegalStateException(e);
+		}
 		mNodeKeys = nodeKeys;
+		mEncodedNodeKeys = null;
+	}
+
+	/**
+	 * Get a cursor over the node keys in ascending order. Encoded node keys are
+	 * decoded one at a time by the cursor, without decoding all of them.
+	 * 
+	 * @return the cursor
+	 */
+	public Cursor cursor() {
+		final byte[] encodedNodeKeys = mEncodedNodeKeys;
+		return encodedNodeKeys == null ? new Cursor(mNodeKeys, mSize)
+				: new Cursor(encodedNodeKeys, mSize);
+	}
+
+	/**
+	 * Cursor over the node keys in ascending order.
+	 */
+	public static final class Cursor {
+		/** The decoded node keys or {@code null}. */
+		private final long[] mNodeKeys;
+
+		/** The encoded node keys or {@code null}. */
+		private final ByteArrayDataInput mInput;
+
+		/** Number of node keys. */
+		private final int mSize;
+
+		/** Position of the next node key. */
+		private int mIndex;
+
+		/** The last node key. */
+		private long mNodeKey;
+
+		private Cursor(final long[] nodeKeys, final int size) {
+			mNodeKeys = nodeKeys;
+			mInput = null;
+			mSize = size;
+		}
+
+		private Cursor(final byte[] encodedNodeKeys, final int size) {
+			mNodeKeys = null;
+			mInput = ByteStreams.newDataInput(encodedNodeKeys);
+			mSize = size;
+		}
+
+		/**
+		 * Determines if more node keys are available.
+		 * 
+		 * @return {@code true}, if more node keys are available
+		 */
+		public boolean hasNext() {
+			return mIndex < mSize;
+		}
+
+		/**
+		 * Get the next node key.
+		 * 
+		 * @return the next node key
+		 * @throws NoSuchElementException
+		 *           if no more node keys are available
+		 */
+		public long next() {
+			if (mIndex >= mSize) {
+				throw new NoSuchElementException();
+			}
+			if (mNodeKeys != null) {
+				mNodeKey = mNodeKeys[mIndex];
+			} else {
+				try {
+					mNodeKey += getVarLong(mInput);
+				} catch (final IOException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+			mIndex++;
+			return mNodeKey;
+		}
 	}
 
 	@Override
 	public boolean isPresent(final @Nonnegative long nodeKey) {
-		return mNodeKeys.contains(nodeKey);
+		return indexOf(nodeKey) >= 0;
 	}
 
 	@Override
 	public Set<Long> getNodeKeys() {
-		return Collections.unmodifiableSet(mNodeKeys);
+		return new SortedView();
+	}
+
+	/**
+	 * Get the number of node keys, which doesn't require decoding them.
+	 * 
+	 * @return number of node keys
+	 */
+	public int size() {
+		return mSize;
+	}
+
+	/**
+	 * Get a node key by its position in ascending order.
+	 * 
+	 * @param index
+	 *          the position
+	 * @return the node key
+	 * @throws IndexOutOfBoundsException
+	 *           if {@code index} is out of bounds
+	 */
+	public long getNodeKey(final @Nonnegative int index) {
+		checkElementIndex(index, mSize);
+		decode();
+		return mNodeKeys[index];
 	}
 
 	@Override
 	public NodeReferences addNodeKey(final @Nonnegative long nodeKey) {
-		mNodeKeys.add(nodeKey);
+		decode();
+		final int index = indexOf(nodeKey);
+		if (index < 0) {
+			final int insertion = -(index + 1);
+			if (mSize == mNodeKeys.length) {
+				mNodeKeys = Arrays.copyOf(mNodeKeys, Math.max(4, mSize * 2));
+			}
+			System.arraycopy(mNodeKeys, insertion, mNodeKeys, insertion + 1, mSize
+					- insertion);
+			mNodeKeys[insertion] = nodeKey;
+			mSize++;
+		}
 		return this;
 	}
 
 	@Override
 	public boolean removeNodeKey(@Nonnegative long nodeKey) {
-		return mNodeKeys.remove(nodeKey);
+		decode();
+		final int index = indexOf(nodeKey);
+		if (index < 0) {
+			return false;
+		}
+		System.arraycopy(mNodeKeys, index + 1, mNodeKeys, index, mSize - index
+				- 1);
+		mSize--;
+		return true;
+	}
+
+	private int indexOf(final long nodeKey) {
+		decode();
+		return Arrays.binarySearch(mNodeKeys, 0, mSize, nodeKey);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(mNodeKeys);
+		decode();
+		int hash = 0;
+		for (int i = 0; i < mSize; i++) {
+			hash += Long.valueOf(mNodeKeys[i]).hashCode();
+		}
+		return hash;
 	}
 
 	@Override
 	public boolean equals(final @Nullable Object obj) {
 		if (obj instanceof NodeReferences) {
 			final NodeReferences refs = (NodeReferences) obj;
-			return mNodeKeys.equals(refs.mNodeKeys);
+			if (mSize != refs.mSize) {
+				return false;
+			}
+			decode();
+			refs.decode();
+			for (int i = 0; i < mSize; i++) {
+				if (mNodeKeys[i] != refs.mNodeKeys[i]) {
+					return false;
+				}
+			}
+			return true;
 		}
 		return false;
 	}
 
 	@Override
 	public String toString() {
+		decode();
 		final ToStringHelper helper = Objects.toStringHelper(this);
-		for (final long nodeKey : mNodeKeys) {
-			helper.add("referenced node key", nodeKey);
+		for (int i = 0; i < mSize; i++) {
+			helper.add("referenced node key", mNodeKeys[i]);
 		}
 		return helper.toString();
 	}
 
 	@Override
 	public boolean hasNodeKeys() {
-		return !mNodeKeys.isEmpty();
+		return mSize > 0;
 	}
 
 	@Override
 	public boolean contains(@Nonnegative long nodeKey) {
-		return mNodeKeys.contains(nodeKey);
+		return indexOf(nodeKey) >= 0;
+	}
+
+	/** Unmodifiable set view, which iterates the node keys in ascending order. */
+	private final class SortedView extends AbstractSet<Long> {
+		@Override
+		public Iterator<Long> iterator() {
+			decode();
+			return new Iterator<Long>() {
+				private int mIndex;
+
+				@Override
+				public boolean hasNext() {
+					return mIndex < mSize;
+				}
+
+				@Override
+				public Long next() {
+					if (mIndex >= mSize) {
+						throw new NoSuchElementException();
+					}
+					return mNodeKeys[mIndex++];
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public boolean contains(final @Nullable Object obj) {
+			return obj instanceof Long && indexOf((Long) obj) >= 0;
+		}
+
+		@Override
+		public int size() {
+			return mSize;
+		}
 	}
 }
@@ -1,6 +1,9 @@
 package org.sirix.index.cas;
 
 import java.util.Iterator;
+import java.util.Set;
+
+import javax.annotation.Nullable;
 
 import org.brackit.xquery.atomic.Atomic;
 import org.sirix.api.NodeReadTrx;
@@ -8,6 +11,7 @@ import org.sirix.api.PageReadTrx;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.index.IndexDef;
 import org.sirix.index.SearchMode;
+import org.sirix.index.avltree.AVLNode;
 import org.sirix.index.avltree.interfaces.References;
 import org.sirix.index.path.summary.PathSummaryReader;
 import org.sirix.node.interfaces.Record;
@@ -29,4 +33,22 @@ public interface CASIndex<K extends Comparable<? super K>, V extends References>
 
 	Iterator<V> openIndex(PageReadTrx pageReadTrx, IndexDef indexDef,
 			SearchMode mode, CASFilter filter, Atomic key, boolean incSelf);
+
+	/**
+	 * Open the entries of the index, that is the keys together with their
+	 * references, such that aggregates can be computed without looking up the
+	 * referenced nodes.
+	 * 
+	 * @param pageReadTrx
+	 *          the page read transaction
+	 * @param indexDef
+	 *          the index definition
+	 * @param pcrs
+	 *          the path class records of the entries
+	 * @param key
+	 *          the value of the entries, or {@code null} for all values
+	 * @return the entries
+	 */
+	Iterator<AVLNode<K, V>> openIndexEntries(PageReadTrx pageReadTrx,
+			IndexDef indexDef, Set<Long> pcrs, @Nullable Atomic key);
 }
@@ -17,9 +17,9 @@ import org.sirix.api.visitor.VisitResultType;
 import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.index.AtomicUtil;
+import org.sirix.index.IndexBuildVisitor;
+import org.sirix.index.IndexChangeBuffer;
 import org.sirix.index.IndexDef;
-import org.sirix.index.SearchMode;
-import org.sirix.index.avltree.AVLTreeReader.MoveCursor;
 import org.sirix.index.avltree.AVLTreeWriter;
 import org.sirix.index.avltree.keyvalue.CASValue;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
@@ -36,25 +36,37 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Optional;
 
-final class CASIndexBuilder extends AbstractVisitor {
+final class CASIndexBuilder extends AbstractVisitor implements
+		IndexBuildVisitor {
 
 	private static final LogWrapper LOGGER = new LogWrapper(
 			LoggerFactory.getLogger(CASIndexBuilder.class));
 
 	private final NodeReadTrx mRtx;
+	private final IndexDef mIndexDef;
 	private final Set<Path<QNm>> mPaths;
 	private final PathSummaryReader mPathSummaryReader;
-	private final AVLTreeWriter<CASValue, NodeReferences> mAVLTreeWriter;
+	private final Optional<AVLTreeWriter<CASValue, NodeReferences>> mAVLTreeWriter;
+	private final IndexChangeBuffer<CASValue> mChanges;
 	private final Type mType;
 
 	CASIndexBuilder(final NodeReadTrx rtx,
 			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
 			final PathSummaryReader pathSummaryReader, final IndexDef indexDefinition) {
+		this(rtx, Optional.of(AVLTreeWriter.<CASValue, NodeReferences> getInstance(
+				pageWriteTrx, indexDefinition.getType(), indexDefinition.getID())),
+				pathSummaryReader, indexDefinition);
+	}
+
+	private CASIndexBuilder(final NodeReadTrx rtx,
+			final Optional<AVLTreeWriter<CASValue, NodeReferences>> avlTreeWriter,
+			final PathSummaryReader pathSummaryReader, final IndexDef indexDefinition) {
 		mRtx = checkNotNull(rtx);
+		mIndexDef = indexDefinition;
 		mPathSummaryReader = checkNotNull(pathSummaryReader);
 		mPaths = checkNotNull(indexDefinition.getPaths());
-		mAVLTreeWriter = AVLTreeWriter.getInstance(pageWriteTrx,
-				indexDefinition.getType(), indexDefinition.getID());
+		mAVLTreeWriter = avlTreeWriter;
+		mChanges = new IndexChangeBuffer<>(IndexChangeBuffer.DEFAULT_CAPACITY);
 		mType = checkNotNull(indexDefinition.getContentType());
 	}
 
@@ -88,13 +100,10 @@ final class CASIndexBuilder extends AbstractVisitor {
 				}
 
 				if (isOfType) {
-					final CASValue value = new CASValue(strValue, mType, PCR);
-					final Optional<NodeReferences> textReferences = mAVLTreeWriter.get(
-							value, SearchMode.EQUAL);
-					if (textReferences.isPresent()) {
-						setNodeReferences(node, textReferences.get(), value);
-					} else {
-						setNodeReferences(node, new NodeReferences(), value);
+					mChanges.insert(new CASValue(strValue, mType, PCR),
+							node.getNodeKey());
+					if (mAVLTreeWriter.isPresent() && mChanges.isFull()) {
+						finish();
 					}
 				}
 			}
@@ -105,11 +114,25 @@ final class CASIndexBuilder extends AbstractVisitor {
 		return VisitResultType.CONTINUE;
 	}
 
-	private void setNodeReferences(final ImmutableNode node,
-			final NodeReferences references, final CASValue value)
-			throws SirixIOException {
-		mAVLTreeWriter.index(value, references.addNodeKey(node.getNodeKey()),
-				MoveCursor.NO_MOVE);
+	@Override
+	public IndexBuildVisitor fork(final NodeReadTrx rtx,
+			final PathSummaryReader pathSummaryReader) {
+		return new CASIndexBuilder(rtx,
+				Optional.<AVLTreeWriter<CASValue, NodeReferences>> absent(),
+				pathSummaryReader, mIndexDef);
+	}
+
+	@Override
+	public void merge(final IndexBuildVisitor fork) throws SirixIOException {
+		mChanges.addAll(((CASIndexBuilder) fork).mChanges);
+		if (mChanges.isFull()) {
+			finish();
+		}
+	}
+
+	@Override
+	public void finish() throws SirixIOException {
+		mChanges.apply(mAVLTreeWriter.get());
 	}
 
 }
@@ -1,8 +1,14 @@
 package org.sirix.index.cas;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.Nullable;
 
 import org.brackit.xquery.atomic.Atomic;
+import org.brackit.xquery.atomic.Str;
 import org.sirix.api.NodeReadTrx;
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.PageWriteTrx;
@@ -18,7 +24,9 @@ import org.sirix.node.interfaces.Record;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.settings.Fixed;
 
+import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
 
 public final class CASIndexImpl implements CASIndex<CASValue, NodeReferences> {
 
@@ -61,4 +69,32 @@ public final class CASIndexImpl implements CASIndex<CASValue, NodeReferences> {
 
 		return new IndexFilterAxis<CASValue>(iter, ImmutableSet.of(filter));
 	}
+
+	@Override
+	public Iterator<AVLNode<CASValue, NodeReferences>> openIndexEntries(
+			PageReadTrx pageReadTrx, IndexDef indexDef, final Set<Long> pcrs,
+			@Nullable Atomic key) {
+		final AVLTreeReader<CASValue, NodeReferences> reader = AVLTreeReader
+				.getInstance(pageReadTrx, indexDef.getType(), indexDef.getID());
+
+		if (key != null) {
+			// Values are stored as strings and compared as the content type.
+			final Str value = new Str(key.stringValue());
+			final List<CASValue> keys = new ArrayList<>(pcrs.size());
+			for (final long pcr : pcrs) {
+				keys.add(new CASValue(value, indexDef.getContentType(), pcr));
+			}
+			return reader.new AVLNodeSeekIterator(keys);
+		}
+
+		final Iterator<AVLNode<CASValue, NodeReferences>> iter = reader.new AVLNodeIterator(
+				Fixed.DOCUMENT_NODE_KEY.getStandardProperty());
+		return Iterators.filter(iter,
+				new Predicate<AVLNode<CASValue, NodeReferences>>() {
+					@Override
+					public boolean apply(final AVLNode<CASValue, NodeReferences> node) {
+						return pcrs.contains(node.getKey().getPathNodeKey());
+					}
+				});
+	}
 }
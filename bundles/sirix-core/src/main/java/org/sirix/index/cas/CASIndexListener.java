@@ -15,24 +15,21 @@ import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.index.AtomicUtil;
 import org.sirix.index.ChangeListener;
+import org.sirix.index.IndexChangeBuffer;
 import org.sirix.index.IndexDef;
-import org.sirix.index.SearchMode;
-import org.sirix.index.avltree.AVLTreeReader.MoveCursor;
 import org.sirix.index.avltree.AVLTreeWriter;
 import org.sirix.index.avltree.keyvalue.CASValue;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
 import org.sirix.index.path.summary.PathSummaryReader;
-import org.sirix.node.interfaces.Node;
 import org.sirix.node.interfaces.Record;
 import org.sirix.node.interfaces.ValueNode;
 import org.sirix.node.interfaces.immutable.ImmutableNode;
 import org.sirix.page.UnorderedKeyValuePage;
 
-import com.google.common.base.Optional;
-
 public final class CASIndexListener implements ChangeListener {
 
 	private final AVLTreeWriter<CASValue, NodeReferences> mAVLTreeWriter;
+	private final IndexChangeBuffer<CASValue> mChanges;
 	private final PathSummaryReader mPathSummaryReader;
 	private final Set<Path<QNm>> mPaths;
 	private final Type mType;
@@ -45,6 +42,7 @@ public final class CASIndexListener implements ChangeListener {
 		mPathSummaryReader = checkNotNull(pathSummaryReader);
 		mPaths = checkNotNull(indexDef.getPaths());
 		mType = checkNotNull(indexDef.getContentType());
+		mChanges = new IndexChangeBuffer<>(IndexChangeBuffer.DEFAULT_CAPACITY);
 	}
 
 	@Override
@@ -62,8 +60,8 @@ public final class CASIndexListener implements ChangeListener {
 					break;
 				case DELETE:
 					if (mPathSummaryReader.getPCRsForPaths(mPaths).contains(pathNodeKey)) {
-						mAVLTreeWriter.remove(new CASValue(new Str(valueNode.getValue()),
-								mType, pathNodeKey), node.getNodeKey());
+						mChanges.delete(new CASValue(new Str(valueNode.getValue()), mType,
+								pathNodeKey), node.getNodeKey());
 					}
 					break;
 				default:
@@ -71,9 +69,24 @@ public final class CASIndexListener implements ChangeListener {
 			} catch (final PathException e) {
 				throw new SirixIOException(e);
 			}
+			if (mChanges.isFull()) {
+				flush();
+			}
 		}
 	}
 
+	@Override
+	public void flush() throws SirixIOException {
+		if (!mChanges.isEmpty()) {
+			mChanges.apply(mAVLTreeWriter);
+		}
+	}
+
+	@Override
+	public void clear() {
+		mChanges.clear();
+	}
+
 	private void insert(final ValueNode node, final long pathNodeKey)
 			throws SirixIOException {
 		final Str strValue = new Str(node.getValue());
@@ -86,21 +99,8 @@ public final class CASIndexListener implements ChangeListener {
 		}
 
 		if (isOfType) {
-			final CASValue indexValue = new CASValue(strValue, mType, pathNodeKey);
-			final Optional<NodeReferences> textReferences = mAVLTreeWriter.get(
-					indexValue, SearchMode.EQUAL);
-			if (textReferences.isPresent()) {
-				setNodeReferences(node, textReferences.get(), indexValue);
-			} else {
-				setNodeReferences(node, new NodeReferences(), indexValue);
-			}
+			mChanges.insert(new CASValue(strValue, mType, pathNodeKey),
+					node.getNodeKey());
 		}
 	}
-
-	private void setNodeReferences(final Node node,
-			final NodeReferences references, final CASValue indexValue)
-			throws SirixIOException {
-		mAVLTreeWriter.index(indexValue, references.addNodeKey(node.getNodeKey()),
-				MoveCursor.NO_MOVE);
-	}
 }
@@ -9,6 +9,9 @@ import org.sirix.index.Filter;
 import org.sirix.index.avltree.AVLNode;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
 
+import com.google.common.base.Optional;
+import com.google.common.collect.Sets;
+
 public final class NameFilter implements Filter {
 
 	private final Set<QNm> mIncludes;
@@ -19,6 +22,20 @@ public final class NameFilter implements Filter {
 		mExcludes = checkNotNull(excluded);
 	}
 
+	/**
+	 * Get the names to look up in the index, that is the included names without
+	 * the excluded ones.
+	 * 
+	 * @return the names, or an absent reference if all names are included, such
+	 *         that the index has to be scanned
+	 */
+	public Optional<Set<QNm>> getNames() {
+		if (mIncludes.isEmpty()) {
+			return Optional.absent();
+		}
+		return Optional.<Set<QNm>> of(Sets.difference(mIncludes, mExcludes));
+	}
+
 	@Override
 	public <K extends Comparable<? super K>> boolean filter(
 			final AVLNode<K, NodeReferences> node) {
@@ -6,42 +6,55 @@ import java.util.Set;
 
 import org.brackit.xquery.atomic.QNm;
 import org.sirix.access.AbstractVisitor;
+import org.sirix.api.NodeReadTrx;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.api.visitor.VisitResult;
 import org.sirix.api.visitor.VisitResultType;
 import org.sirix.exception.SirixIOException;
+import org.sirix.index.IndexBuildVisitor;
+import org.sirix.index.IndexChangeBuffer;
 import org.sirix.index.IndexDef;
 import org.sirix.index.IndexType;
-import org.sirix.index.SearchMode;
-import org.sirix.index.avltree.AVLTreeReader.MoveCursor;
 import org.sirix.index.avltree.AVLTreeWriter;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
+import org.sirix.index.path.summary.PathSummaryReader;
 import org.sirix.node.immutable.ImmutableElement;
 import org.sirix.node.interfaces.Record;
-import org.sirix.node.interfaces.immutable.ImmutableNode;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.utils.LogWrapper;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Optional;
 
-final class NameIndexBuilder extends AbstractVisitor {
+final class NameIndexBuilder extends AbstractVisitor implements
+		IndexBuildVisitor {
 
 	private static final LogWrapper LOGGER = new LogWrapper(
 			LoggerFactory.getLogger(NameIndexBuilder.class));
 
+	private final IndexDef mIndexDef;
 	private final Set<QNm> mIncludes;
 	private final Set<QNm> mExcludes;
-	private final AVLTreeWriter<QNm, NodeReferences> mAVLTreeWriter;
+	private final Optional<AVLTreeWriter<QNm, NodeReferences>> mAVLTreeWriter;
+	private final IndexChangeBuffer<QNm> mChanges;
 
 	public NameIndexBuilder(
 			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
 			final IndexDef indexDefinition) {
+		this(Optional.of(AVLTreeWriter.<QNm, NodeReferences> getInstance(
+				pageWriteTrx, indexDefinition.getType(), indexDefinition.getID())),
+				indexDefinition);
+	}
+
+	private NameIndexBuilder(
+			final Optional<AVLTreeWriter<QNm, NodeReferences>> avlTreeWriter,
+			final IndexDef indexDefinition) {
+		mIndexDef = indexDefinition;
 		mIncludes = checkNotNull(indexDefinition.getIncluded());
 		mExcludes = checkNotNull(indexDefinition.getExcluded());
 		assert indexDefinition.getType() == IndexType.NAME;
-		mAVLTreeWriter = AVLTreeWriter.getInstance(pageWriteTrx,
-				indexDefinition.getType(), indexDefinition.getID());
+		mAVLTreeWriter = avlTreeWriter;
+		mChanges = new IndexChangeBuffer<>(IndexChangeBuffer.DEFAULT_CAPACITY);
 	}
 
 	@Override
@@ -54,14 +67,11 @@ final class NameIndexBuilder extends AbstractVisitor {
 			return VisitResultType.CONTINUE;
 		}
 
-		final Optional<NodeReferences> textReferences = mAVLTreeWriter.get(name,
-				SearchMode.EQUAL);
+		mChanges.insert(name, node.getNodeKey());
 
 		try {
-			if (textReferences.isPresent()) {
-				setNodeReferences(node, textReferences.get(), name);
-			} else {
-				setNodeReferences(node, new NodeReferences(), name);
+			if (mAVLTreeWriter.isPresent() && mChanges.isFull()) {
+				finish();
 			}
 		} catch (final SirixIOException e) {
 			LOGGER.error(e.getMessage(), e);
@@ -70,10 +80,24 @@ final class NameIndexBuilder extends AbstractVisitor {
 		return VisitResultType.CONTINUE;
 	}
 
-	private void setNodeReferences(final ImmutableNode node,
-			final NodeReferences references, final QNm name) throws SirixIOException {
-		mAVLTreeWriter.index(name, references.addNodeKey(node.getNodeKey()),
-				MoveCursor.NO_MOVE);
+	@Override
+	public IndexBuildVisitor fork(final NodeReadTrx rtx,
+			final PathSummaryReader pathSummaryReader) {
+		return new NameIndexBuilder(
+				Optional.<AVLTreeWriter<QNm, NodeReferences>> absent(), mIndexDef);
+	}
+
+	@Override
+	public void merge(final IndexBuildVisitor fork) throws SirixIOException {
+		mChanges.addAll(((NameIndexBuilder) fork).mChanges);
+		if (mChanges.isFull()) {
+			finish();
+		}
+	}
+
+	@Override
+	public void finish() throws SirixIOException {
+		mChanges.apply(mAVLTreeWriter.get());
 	}
 
 }
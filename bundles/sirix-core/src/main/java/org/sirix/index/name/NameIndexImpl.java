@@ -16,6 +16,7 @@ import org.sirix.node.interfaces.Record;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.settings.Fixed;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableSet;
 
 public final class NameIndexImpl implements NameIndex<QNm, NodeReferences> {
@@ -40,8 +41,16 @@ public final class NameIndexImpl implements NameIndex<QNm, NodeReferences> {
 		final AVLTreeReader<QNm, NodeReferences> reader = AVLTreeReader
 				.getInstance(pageRtx, indexDef.getType(), indexDef.getID());
 
-		final Iterator<AVLNode<QNm, NodeReferences>> iter = reader.new AVLNodeIterator(
-				Fixed.DOCUMENT_NODE_KEY.getStandardProperty());
+		final Optional<Set<QNm>> names = filter == null ? Optional
+				.<Set<QNm>> absent() : filter.getNames();
+		final Iterator<AVLNode<QNm, NodeReferences>> iter;
+		if (names.isPresent()) {
+			// Look up the names instead of scanning the whole index.
+			iter = reader.new AVLNodeSeekIterator(names.get());
+		} else {
+			iter = reader.new AVLNodeIterator(
+					Fixed.DOCUMENT_NODE_KEY.getStandardProperty());
+		}
 		final Set<Filter> setFilter = filter == null ? ImmutableSet.<Filter> of()
 				: ImmutableSet.<Filter> of(filter);
 
@@ -11,10 +11,9 @@ import org.sirix.access.IndexController.ChangeType;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.exception.SirixIOException;
 import org.sirix.index.ChangeListener;
+import org.sirix.index.IndexChangeBuffer;
 import org.sirix.index.IndexDef;
 import org.sirix.index.IndexType;
-import org.sirix.index.SearchMode;
-import org.sirix.index.avltree.AVLTreeReader.MoveCursor;
 import org.sirix.index.avltree.AVLTreeWriter;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
 import org.sirix.node.interfaces.NameNode;
@@ -22,13 +21,12 @@ import org.sirix.node.interfaces.Record;
 import org.sirix.node.interfaces.immutable.ImmutableNode;
 import org.sirix.page.UnorderedKeyValuePage;
 
-import com.google.common.base.Optional;
-
 final class NameIndexListener implements ChangeListener {
 
 	private final Set<QNm> mIncludes;
 	private final Set<QNm> mExcludes;
 	private final AVLTreeWriter<QNm, NodeReferences> mAVLTreeWriter;
+	private final IndexChangeBuffer<QNm> mChanges;
 
 	public NameIndexListener(
 			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
@@ -38,6 +36,7 @@ final class NameIndexListener implements ChangeListener {
 		assert indexDefinition.getType() == IndexType.NAME;
 		mAVLTreeWriter = AVLTreeWriter.getInstance(pageWriteTrx,
 				indexDefinition.getType(), indexDefinition.getID());
+		mChanges = new IndexChangeBuffer<>(IndexChangeBuffer.DEFAULT_CAPACITY);
 	}
 
 	@Override
@@ -56,26 +55,29 @@ final class NameIndexListener implements ChangeListener {
 
 			switch (type) {
 			case INSERT:
-				final Optional<NodeReferences> textReferences = mAVLTreeWriter.get(
-						name, SearchMode.EQUAL);
-				if (textReferences.isPresent()) {
-					setNodeReferences(node, textReferences.get(), name);
-				} else {
-					setNodeReferences(node, new NodeReferences(), name);
-				}
+				mChanges.insert(name, node.getNodeKey());
 				break;
 			case DELETE:
-				mAVLTreeWriter.remove(name, node.getNodeKey());
+				mChanges.delete(name, node.getNodeKey());
 				break;
 			default:
 			}
+			if (mChanges.isFull()) {
+				flush();
+			}
 		}
 	}
 
-	private void setNodeReferences(final ImmutableNode node,
-			final NodeReferences references, final QNm name) throws SirixIOException {
-		mAVLTreeWriter.index(name, references.addNodeKey(node.getNodeKey()),
-				MoveCursor.NO_MOVE);
+	@Override
+	public void flush() throws SirixIOException {
+		if (!mChanges.isEmpty()) {
+			mChanges.apply(mAVLTreeWriter);
+		}
+	}
+
+	@Override
+	public void clear() {
+		mChanges.clear();
 	}
 
 }
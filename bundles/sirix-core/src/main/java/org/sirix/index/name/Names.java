@@ -2,20 +2,32 @@ package org.sirix.index.name;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.sirix.settings.Constants;
 
-import com.google.common.collect.HashBiMap;
-
 /**
  * Names index structure.
  * 
+ * <p>
+ * Besides the full state, which is written by {@link #serialize(DataOutput)},
+ * the keys changed since the last call of {@link #clearChanges()} are tracked,
+ * such that only these can be written by {@link #serializeChanges(DataOutput)}
+ * and applied on top of an older state by {@link #applyChanges(DataInput)}.
+ * </p>
+ * 
+ * <p>
+ * An instance is modified by a single transaction, but might be read
+ * concurrently, which is why all maps are concurrent.
+ * </p>
+ * 
  * @author Johannes Lichtenberger, University of Konstanz
  * 
  */
@@ -27,12 +39,20 @@ public final class Names {
 	/** Map which is used to count the occurences of a name mapping. */
 	private final Map<Integer, Integer> mCountNameMapping;
 
+	/** Decoded names, to avoid creating a new string on every lookup. */
+	private final Map<Integer, String> mNameCache;
+
+	/** Keys changed since the last call of {@link #clearChanges()}. */
+	private final Set<Integer> mChanged;
+
 	/**
 	 * Constructor creating a new index structure.
 	 */
 	private Names() {
-		mNameMap = new HashMap<>();
-		mCountNameMapping = new HashMap<>();
+		mNameMap = new ConcurrentHashMap<>();
+		mCountNameMapping = new ConcurrentHashMap<>();
+		mNameCache = new ConcurrentHashMap<>();
+		mChanged = new HashSet<>();
 	}
 
 	/**
@@ -41,22 +61,35 @@ public final class Names {
 	 * @param in
 	 *          the persistent storage
 	 */
-	private Names(final DataInputStream in) throws IOException {
+	private Names(final DataInput in) throws IOException {
 		final int mapSize = in.readInt();
-		mNameMap = HashBiMap.create(mapSize);
-		mCountNameMapping = new HashMap<>(mapSize);
+		mNameMap = new ConcurrentHashMap<>(mapSize);
+		mCountNameMapping = new ConcurrentHashMap<>(mapSize);
+		mNameCache = new ConcurrentHashMap<>();
+		mChanged = new HashSet<>();
 		for (int i = 0, l = mapSize; i < l; i++) {
 			final int key = in.readInt();
 			final int valSize = in.readInt();
 			final byte[] bytes = new byte[valSize];
-			for (int j = 0; j < bytes.length; j++) {
-				bytes[j] = in.readByte();
-			}
+			in.readFully(bytes);
 			mNameMap.put(key, bytes);
 			mCountNameMapping.put(key, in.readInt());
 		}
 	}
 
+	/**
+	 * Copy constructor.
+	 * 
+	 * @param names
+	 *          the names to copy
+	 */
+	private Names(final Names names) {
+		mNameMap = new ConcurrentHashMap<>(names.mNameMap);
+		mCountNameMapping = new ConcurrentHashMap<>(names.mCountNameMapping);
+		mNameCache = new ConcurrentHashMap<>(names.mNameCache);
+		mChanged = new HashSet<>();
+	}
+
 	/**
 	 * Serialize name-index.
 	 * 
@@ -69,13 +102,84 @@ public final class Names {
 			out.writeInt(entry.getKey());
 			final byte[] bytes = entry.getValue();
 			out.writeInt(bytes.length);
-			for (final byte byteVal : bytes) {
-				out.writeByte(byteVal);
-			}
+			out.write(bytes);
 			out.writeInt(mCountNameMapping.get(entry.getKey()).intValue());
 		}
 	}
 
+	/**
+	 * Serialize the entries changed since the last call of
+	 * {@link #clearChanges()}. Removed entries are written with a negative
+	 * length.
+	 * 
+	 * @param out
+	 *          the persistent storage
+	 */
+	public void serializeChanges(final DataOutput out) throws IOException {
+		out.writeInt(mChanged.size());
+		for (final int key : mChanged) {
+			out.writeInt(key);
+			final byte[] bytes = mNameMap.get(key);
+			if (bytes == null) {
+				out.writeInt(-1);
+			} else {
+				out.writeInt(bytes.length);
+				out.write(bytes);
+				out.writeInt(mCountNameMapping.get(key).intValue());
+			}
+		}
+	}
+
+	/**
+	 * Apply changes written by {@link #serializeChanges(DataOutput)}. The
+	 * applied keys are tracked as changes of this instance.
+	 * 
+	 * @param in
+	 *          the persistent storage
+	 */
+	public void applyChanges(final DataInput in) throws IOException {
+		final int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			final int key = in.readInt();
+			final int valSize = in.readInt();
+			mNameCache.remove(key);
+			mChanged.add(key);
+			if (valSize < 0) {
+				mNameMap.remove(key);
+				mCountNameMapping.remove(key);
+			} else {
+				final byte[] bytes = new byte[valSize];
+				in.readFully(bytes);
+				mNameMap.put(key, bytes);
+				mCountNameMapping.put(key, in.readInt());
+			}
+		}
+	}
+
+	/**
+	 * Get the number of keys changed since the last call of
+	 * {@link #clearChanges()}.
+	 * 
+	 * @return number of changed keys
+	 */
+	public int getChangeCount() {
+		return mChanged.size();
+	}
+
+	/** Forget the tracked changes, for instance once they are persisted. */
+	public void clearChanges() {
+		mChanged.clear();
+	}
+
+	/**
+	 * Get the number of names.
+	 * 
+	 * @return number of names
+	 */
+	public int size() {
+		return mNameMap.size();
+	}
+
 	/**
 	 * Remove a name.
 	 * 
@@ -85,9 +189,11 @@ public final class Names {
 	public void removeName(final int key) {
 		final Integer prevValue = mCountNameMapping.get(key);
 		if (prevValue != null) {
+			mChanged.add(key);
 			if (prevValue - 1 == 0) {
 				mNameMap.remove(key);
 				mCountNameMapping.remove(key);
+				mNameCache.remove(key);
 			} else {
 				mCountNameMapping.put(key, prevValue - 1);
 			}
@@ -115,6 +221,7 @@ public final class Names {
 	 */
 	public void setName(final int pKey, final String name) {
 		final Integer prevValue = mCountNameMapping.get(pKey);
+		mChanged.add(pKey);
 		if (prevValue == null) {
 			mNameMap.put(pKey, checkNotNull(getBytes(name)));
 			mCountNameMapping.put(pKey, 1);
@@ -131,11 +238,16 @@ public final class Names {
 	 * @return the string the key maps to, or {@code null} if no mapping exists
 	 */
 	public String getName(final int key) {
-		final byte[] name = mNameMap.get(key);
+		String name = mNameCache.get(key);
 		if (name == null) {
-			return null;
+			final byte[] rawName = mNameMap.get(key);
+			if (rawName == null) {
+				return null;
+			}
+			name = new String(rawName, Constants.DEFAULT_ENCODING).intern();
+			mNameCache.put(key, name);
 		}
-		return new String(name, Constants.DEFAULT_ENCODING);
+		return name;
 	}
 
 	/**
@@ -173,6 +285,16 @@ public final class Names {
 		return new Names();
 	}
 
+	/**
+	 * Copy the names, such that the copy can be read while this instance is
+	 * modified. Changes are not copied.
+	 * 
+	 * @return the copy
+	 */
+	public Names copy() {
+		return new Names(this);
+	}
+
 	/**
 	 * Clone an instance.
 	 * 
@@ -180,7 +302,7 @@ public final class Names {
 	 *          input source, the persistent storage
 	 * @return cloned index
 	 */
-	public static Names clone(final DataInputStream in) throws IOException {
+	public static Names clone(final DataInput in) throws IOException {
 		return new Names(in);
 	}
 }
@@ -18,6 +18,8 @@ import org.sirix.index.path.summary.PathSummaryReader;
 import org.sirix.utils.LogWrapper;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Optional;
+
 /**
  * Path filter for {@link PathSummaryReader}, filtering specific path types.
  * 
@@ -84,16 +86,37 @@ public final class PathFilter implements Filter {
 			throw new IllegalStateException();
 
 		if (pcr > mMaxKnownPCR) {
-			try (final PathSummaryReader reader = mRtx instanceof NodeWriteTrx ? ((NodeWriteTrx) mRtx)
-					.getPathSummary() : mRtx.getSession().openPathSummary(
-					mRtx.getRevisionNumber())) {
-				mMaxKnownPCR = reader.getMaxNodeKey();
-				mPCRFilter = reader.getPCRsForPaths(mPaths);
-			} catch (final PathException | SirixException e) {
-				LOGGER.error(e.getMessage(), e);
-			}
+			updatePCRs();
 		}
 
 		return mPCRFilter.contains(pcr);
 	}
+
+	/**
+	 * Get the path class records (PCRs) of the paths to look up in the index.
+	 * 
+	 * @return the PCRs, or an absent reference if all paths match or the PCRs
+	 *         couldn't be determined, such that the index has to be scanned
+	 */
+	public Optional<Set<Long>> getPCRs() {
+		if (mGenericPath) {
+			return Optional.absent();
+		}
+		if (mPCRFilter == null) {
+			updatePCRs();
+		}
+		return Optional.fromNullable(mPCRFilter);
+	}
+
+	/** Determine the PCRs of the paths from the path summary. */
+	private void updatePCRs() {
+		try (final PathSummaryReader reader = mRtx instanceof NodeWriteTrx ? ((NodeWriteTrx) mRtx)
+				.getPathSummary() : mRtx.getSession().openPathSummary(
+				mRtx.getRevisionNumber())) {
+			mMaxKnownPCR = reader.getMaxNodeKey();
+			mPCRFilter = reader.getPCRsForPaths(mPaths);
+		} catch (final PathException | SirixException e) {
+			LOGGER.error(e.getMessage(), e);
+		}
+	}
 }
@@ -8,14 +8,15 @@ import org.brackit.xquery.atomic.QNm;
 import org.brackit.xquery.util.path.Path;
 import org.brackit.xquery.util.path.PathException;
 import org.sirix.access.AbstractVisitor;
+import org.sirix.api.NodeReadTrx;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.api.visitor.VisitResult;
 import org.sirix.api.visitor.VisitResultType;
 import org.sirix.exception.SirixIOException;
+import org.sirix.index.IndexBuildVisitor;
+import org.sirix.index.IndexChangeBuffer;
 import org.sirix.index.IndexDef;
 import org.sirix.index.IndexType;
-import org.sirix.index.SearchMode;
-import org.sirix.index.avltree.AVLTreeReader.MoveCursor;
 import org.sirix.index.avltree.AVLTreeWriter;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
 import org.sirix.index.path.summary.PathSummaryReader;
@@ -23,31 +24,42 @@ import org.sirix.node.immutable.ImmutableAttribute;
 import org.sirix.node.immutable.ImmutableElement;
 import org.sirix.node.interfaces.Record;
 import org.sirix.node.interfaces.immutable.ImmutableNameNode;
-import org.sirix.node.interfaces.immutable.ImmutableNode;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.utils.LogWrapper;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Optional;
 
-final class PathIndexBuilder extends AbstractVisitor {
+final class PathIndexBuilder extends AbstractVisitor implements
+		IndexBuildVisitor {
 
 	private static final LogWrapper LOGGER = new LogWrapper(
 			LoggerFactory.getLogger(PathIndexBuilder.class));
 
+	private final IndexDef mIndexDef;
 	private final Set<Path<QNm>> mPaths;
 	private final PathSummaryReader mPathSummaryReader;
 
-	private final AVLTreeWriter<Long, NodeReferences> mAVLTreeWriter;
+	private final Optional<AVLTreeWriter<Long, NodeReferences>> mAVLTreeWriter;
+	private final IndexChangeBuffer<Long> mChanges;
 
 	PathIndexBuilder(
 			final PageWriteTrx<Long, Record, UnorderedKeyValuePage> pageWriteTrx,
 			final PathSummaryReader pathSummaryReader, final IndexDef indexDef) {
+		this(Optional.of(AVLTreeWriter.<Long, NodeReferences> getInstance(
+				pageWriteTrx, indexDef.getType(), indexDef.getID())),
+				pathSummaryReader, indexDef);
+	}
+
+	private PathIndexBuilder(
+			final Optional<AVLTreeWriter<Long, NodeReferences>> avlTreeWriter,
+			final PathSummaryReader pathSummaryReader, final IndexDef indexDef) {
+		mIndexDef = indexDef;
 		mPathSummaryReader = checkNotNull(pathSummaryReader);
 		mPaths = checkNotNull(indexDef.getPaths());
 		assert indexDef.getType() == IndexType.PATH;
-		mAVLTreeWriter = AVLTreeWriter.getInstance(pageWriteTrx,
-				indexDef.getType(), indexDef.getID());
+		mAVLTreeWriter = avlTreeWriter;
+		mChanges = new IndexChangeBuffer<>(IndexChangeBuffer.DEFAULT_CAPACITY);
 	}
 
 	@Override
@@ -65,12 +77,9 @@ final class PathIndexBuilder extends AbstractVisitor {
 			final long PCR = node.getPathNodeKey();
 			if (mPathSummaryReader.getPCRsForPaths(mPaths).contains(PCR)
 					|| mPaths.isEmpty()) {
-				final Optional<NodeReferences> textReferences = mAVLTreeWriter.get(PCR,
-						SearchMode.EQUAL);
-				if (textReferences.isPresent()) {
-					setNodeReferences(node, textReferences.get(), PCR);
-				} else {
-					setNodeReferences(node, new NodeReferences(), PCR);
+				mChanges.insert(PCR, node.getNodeKey());
+				if (mAVLTreeWriter.isPresent() && mChanges.isFull()) {
+					finish();
 				}
 			}
 		} catch (final PathException | SirixIOException e) {
@@ -80,11 +89,25 @@ final class PathIndexBuilder extends AbstractVisitor {
 
 	}
 
-	private void setNodeReferences(final ImmutableNode node,
-			final NodeReferences references, final long pathNodeKey)
-			throws SirixIOException {
-		mAVLTreeWriter.index(pathNodeKey, references.addNodeKey(node.getNodeKey()),
-				MoveCursor.NO_MOVE);
+	@Override
+	public IndexBuildVisitor fork(final NodeReadTrx rtx,
+			final PathSummaryReader pathSummaryReader) {
+		return new PathIndexBuilder(
+				Optional.<AVLTreeWriter<Long, NodeReferences>> absent(),
+				pathSummaryReader, mIndexDef);
+	}
+
+	@Override
+	public void merge(final IndexBuildVisitor fork) throws SirixIOException {
+		mChanges.addAll(((PathIndexBuilder) fork).mChanges);
+		if (mChanges.isFull()) {
+			finish();
+		}
+	}
+
+	@Override
+	public void finish() throws SirixIOException {
+		mChanges.apply(mAVLTreeWriter.get());
 	}
 
 }
@@ -16,6 +16,7 @@ import org.sirix.node.interfaces.Record;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.settings.Fixed;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableSet;
 
 public final class PathIndexImpl implements PathIndex<Long, NodeReferences> {
@@ -40,8 +41,16 @@ public final class PathIndexImpl implements PathIndex<Long, NodeReferences> {
 		final AVLTreeReader<Long, NodeReferences> reader = AVLTreeReader
 				.getInstance(pageRtx, indexDef.getType(), indexDef.getID());
 
-		final Iterator<AVLNode<Long, NodeReferences>> iter = reader.new AVLNodeIterator(
-				Fixed.DOCUMENT_NODE_KEY.getStandardProperty());
+		final Optional<Set<Long>> pcrs = filter == null ? Optional
+				.<Set<Long>> absent() : filter.getPCRs();
+		final Iterator<AVLNode<Long, NodeReferences>> iter;
+		if (pcrs.isPresent()) {
+			// Look up the PCRs instead of scanning the whole index.
+			iter = reader.new AVLNodeSeekIterator(pcrs.get());
+		} else {
+			iter = reader.new AVLNodeIterator(
+					Fixed.DOCUMENT_NODE_KEY.getStandardProperty());
+		}
 		final Set<Filter> setFilter = filter == null ? ImmutableSet.<Filter> of()
 				: ImmutableSet.<Filter> of(filter);
 
@@ -11,9 +11,8 @@ import org.sirix.access.IndexController.ChangeType;
 import org.sirix.api.PageWriteTrx;
 import org.sirix.exception.SirixIOException;
 import org.sirix.index.ChangeListener;
+import org.sirix.index.IndexChangeBuffer;
 import org.sirix.index.IndexDef;
-import org.sirix.index.SearchMode;
-import org.sirix.index.avltree.AVLTreeReader.MoveCursor;
 import org.sirix.index.avltree.AVLTreeWriter;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
 import org.sirix.index.path.summary.PathSummaryReader;
@@ -22,11 +21,10 @@ import org.sirix.node.interfaces.Record;
 import org.sirix.node.interfaces.immutable.ImmutableNode;
 import org.sirix.page.UnorderedKeyValuePage;
 
-import com.google.common.base.Optional;
-
 final class PathIndexListener implements ChangeListener {
 
 	private final AVLTreeWriter<Long, NodeReferences> mAVLTreeWriter;
+	private final IndexChangeBuffer<Long> mChanges;
 	private final PathSummaryReader mPathSummaryReader;
 	private final Set<Path<QNm>> mPaths;
 
@@ -37,6 +35,7 @@ final class PathIndexListener implements ChangeListener {
 				indexDef.getType(), indexDef.getID());
 		mPathSummaryReader = checkNotNull(pathSummaryReader);
 		mPaths = checkNotNull(indexDef.getPaths());
+		mChanges = new IndexChangeBuffer<>(IndexChangeBuffer.DEFAULT_CAPACITY);
 	}
 
 	@Override
@@ -48,18 +47,12 @@ final class PathIndexListener implements ChangeListener {
 				switch (type) {
 				case INSERT:
 					if (mPathSummaryReader.getPCRsForPaths(mPaths).contains(pathNodeKey)) {
-						final Optional<NodeReferences> textReferences = mAVLTreeWriter.get(
-								pathNodeKey, SearchMode.EQUAL);
-						if (textReferences.isPresent()) {
-							setNodeReferences(node, textReferences.get(), pathNodeKey);
-						} else {
-							setNodeReferences(node, new NodeReferences(), pathNodeKey);
-						}
+						mChanges.insert(pathNodeKey, node.getNodeKey());
 					}
 					break;
 				case DELETE:
 					if (mPathSummaryReader.getPCRsForPaths(mPaths).contains(pathNodeKey)) {
-						mAVLTreeWriter.remove(pathNodeKey, node.getNodeKey());
+						mChanges.delete(pathNodeKey, node.getNodeKey());
 					}
 					break;
 				default:
@@ -67,13 +60,21 @@ final class PathIndexListener implements ChangeListener {
 			} catch (final PathException e) {
 				throw new SirixIOException(e);
 			}
+			if (mChanges.isFull()) {
+				flush();
+			}
 		}
 	}
 
-	private void setNodeReferences(final ImmutableNode node,
-			final NodeReferences references, final long pathNodeKey)
-			throws SirixIOException {
-		mAVLTreeWriter.index(pathNodeKey, references.addNodeKey(node.getNodeKey()),
-				MoveCursor.NO_MOVE);
+	@Override
+	public void flush() throws SirixIOException {
+		if (!mChanges.isEmpty()) {
+			mChanges.apply(mAVLTreeWriter);
+		}
+	}
+
+	@Override
+	public void clear() {
+		mChanges.clear();
 	}
 }
@@ -80,6 +80,9 @@ public final class PathSummaryReader implements NodeReadTrx {
 	/** Determines if path summary is closed or not. */
 	private boolean mClosed;
 
+	/** Result of every successful move, as it only refers to this cursor. */
+	private final Move<PathSummaryReader> mMoved = Move.moved(this);
+
 	/** Mapping of a path node key to the path node/document root node. */
 	private final Map<Long, StructNode> mPathNodeMapping;
 
@@ -360,24 +363,19 @@ public final class PathSummaryReader implements NodeReadTrx {
 	public Move<? extends PathSummaryReader> moveTo(final long nodeKey) {
 		assertNotClosed();
 
-		// Remember old node and fetch new one.
-		final StructNode oldNode = mCurrentNode;
-		Optional<? extends StructNode> newNode;
+		// Fetch new node, the current node is kept if it doesn't exist.
+		StructNode newNode;
 		try {
-			// Immediately return node from item list if node key negative.
-			@SuppressWarnings("unchecked")
-			final Optional<? extends StructNode> node = (Optional<? extends StructNode>) mPageReadTrx
-					.getRecord(nodeKey, PageKind.PATHSUMMARYPAGE, 0);
-			newNode = node;
+			newNode = (StructNode) mPageReadTrx.getRecordOrNull(nodeKey,
+					PageKind.PATHSUMMARYPAGE, 0);
 		} catch (final SirixIOException e) {
-			newNode = Optional.absent();
+			newNode = null;
 		}
 
-		if (newNode.isPresent()) {
-			mCurrentNode = newNode.get();
-			return Move.moved(this);
+		if (newNode != null) {
+			mCurrentNode = newNode;
+			return mMoved;
 		} else {
-			mCurrentNode = oldNode;
 			return Moved.notMoved();
 		}
 	}
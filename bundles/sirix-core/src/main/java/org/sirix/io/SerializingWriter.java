@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.io;
+
+import org.sirix.exception.SirixIOException;
+import org.sirix.page.PageReference;
+import org.sirix.page.interfaces.Page;
+
+/**
+ * A {@link Writer}, which stores pages as bytes. Serializing a page and
+ * running it through the byte handler pipeline is separated from appending
+ * the bytes, such that pages can be serialized in parallel, whereas the bytes
+ * are written sequentially.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public interface SerializingWriter extends Writer {
+
+	/**
+	 * Serialize a page and run it through the byte handler pipeline without
+	 * writing it. The method may be called concurrently for different pages.
+	 * 
+	 * @param page
+	 *          the page to serialize
+	 * @return the bytes to write
+	 * @throws SirixIOException
+	 *           if the page couldn't be serialized
+	 */
+	byte[] serialize(Page page) throws SirixIOException;
+
+	/**
+	 * Write a page, which has been serialized by {@link #serialize(Page)}, and
+	 * set the key of the page reference.
+	 * 
+	 * @param pageReference
+	 *          reference to the page
+	 * @param serializedPage
+	 *          the serialized page
+	 * @throws SirixIOException
+	 *           if the page couldn't be written
+	 */
+	void write(PageReference pageReference, byte[] serializedPage)
+			throws SirixIOException;
+}
@@ -50,7 +50,9 @@ public interface Storage {
 	Writer getWriter() throws SirixIOException;
 
 	/**
-	 * Getting a reader.
+	 * Getting a reader. Implementations may hand out a single instance, which is
+	 * shared between all transactions and thus must be safe for concurrent use.
+	 * Closing such a reader has no effect, it is released in {@link #close()}.
 	 * 
 	 * @return an {@link Reader} instance
 	 * @throws SirixIOException
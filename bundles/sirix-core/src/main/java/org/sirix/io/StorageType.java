@@ -27,10 +27,12 @@
 package org.sirix.io;
 
 import java.io.RandomAccessFile;
+import java.security.Key;
 
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.berkeley.BerkeleyStorage;
+import org.sirix.io.bytepipe.ByteHandlePipeline;
 import org.sirix.io.chronicle.ChronicleStorage;
 import org.sirix.io.file.FileStorage;
 import org.sirix.io.ram.RAMStorage;
@@ -47,36 +49,36 @@ public enum StorageType {
 	/** In memory backend. */
 	IN_MEMORY {
 		@Override
-		public Storage getInstance(final ResourceConfiguration resourceConf)
-				throws SirixIOException {
-			return new RAMStorage(resourceConf);
+		public Storage getInstance(final ResourceConfiguration resourceConf,
+				final ByteHandlePipeline byteHandler) throws SirixIOException {
+			return new RAMStorage(resourceConf, byteHandler);
 		}
 	},
 
 	/** Chronicle backend. */
 	CHRONICLE {
 		@Override
-		public Storage getInstance(final ResourceConfiguration resourceConf)
-				throws SirixIOException {
-			return new ChronicleStorage(resourceConf);
+		public Storage getInstance(final ResourceConfiguration resourceConf,
+				final ByteHandlePipeline byteHandler) throws SirixIOException {
+			return new ChronicleStorage(resourceConf, byteHandler);
 		}
 	},
 
 	/** {@link RandomAccessFile} backend. */
 	FILE {
 		@Override
-		public Storage getInstance(final ResourceConfiguration resourceConf)
-				throws SirixIOException {
-			return new FileStorage(resourceConf);
+		public Storage getInstance(final ResourceConfiguration resourceConf,
+				final ByteHandlePipeline byteHandler) throws SirixIOException {
+			return new FileStorage(resourceConf, byteHandler);
 		}
 	},
 
 	/** BerkeleyDB backend. */
 	BERKELEY_DB {
 		@Override
-		public Storage getInstance(final ResourceConfiguration resourceConf)
-				throws SirixIOException {
-			return new BerkeleyStorage(resourceConf);
+		public Storage getInstance(final ResourceConfiguration resourceConf,
+				final ByteHandlePipeline byteHandler) throws SirixIOException {
+			return new BerkeleyStorage(resourceConf, byteHandler);
 		}
 	};
 
@@ -90,8 +92,27 @@ public enum StorageType {
 	 * @throws SirixIOException
 	 *           if an IO-error occured
 	 */
-	public abstract Storage getInstance(final ResourceConfiguration resourceConf)
-			throws SirixIOException;
+	public Storage getInstance(final ResourceConfiguration resourceConf)
+			throws SirixIOException {
+		return getInstance(resourceConf, resourceConf.mByteHandler);
+	}
+
+	/**
+	 * Get an instance of the storage backend, which uses the given byte handler
+	 * pipeline.
+	 * 
+	 * @param resourceConf
+	 *          {@link ResourceConfiguration} reference
+	 * @param byteHandler
+	 *          the byte handler pipeline
+	 * @return instance of a storage backend specified within the
+	 *         {@link ResourceConfiguration}
+	 * @throws SirixIOException
+	 *           if an IO-error occured
+	 */
+	public abstract Storage getInstance(
+			final ResourceConfiguration resourceConf,
+			final ByteHandlePipeline byteHandler) throws SirixIOException;
 
 	/**
 	 * Factory method to retrieve suitable {@link Storage} instances based upon
@@ -109,4 +130,26 @@ public enum StorageType {
 			final ResourceConfiguration resourceConf) throws SirixIOException {
 		return resourceConf.mStorage.getInstance(resourceConf);
 	}
+
+	/**
+	 * Factory method to retrieve suitable {@link Storage} instances based upon
+	 * the suitable {@link ResourceConfiguration}, whose encrypting byte handlers
+	 * use the given key.
+	 * 
+	 * @param resourceConf
+	 *          determining the storage
+	 * @param key
+	 *          the key of the encrypted resource
+	 * @return an implementation of the {@link Storage} interface
+	 * @throws SirixIOException
+	 *           if an IO-error occurs
+	 * @throws NullPointerException
+	 *           if {@code resourceConf} or {@code key} is {@code null}
+	 */
+	public static final Storage getStorage(
+			final ResourceConfiguration resourceConf, final Key key)
+			throws SirixIOException {
+		return resourceConf.mStorage.getInstance(resourceConf,
+				resourceConf.mByteHandler.getInstance(key));
+	}
 }
@@ -39,6 +39,7 @@ import org.sirix.exception.SirixIOException;
 import org.sirix.io.Reader;
 import org.sirix.io.berkeley.binding.PageBinding;
 import org.sirix.io.bytepipe.ByteHandlePipeline;
+import org.sirix.metrics.Metrics;
 import org.sirix.page.PageReference;
 import org.sirix.page.UberPage;
 import org.sirix.page.interfaces.Page;
@@ -123,10 +124,16 @@ public final class BerkeleyReader implements Reader {
 
 		Page page = null;
 		try {
+			final long start = Metrics.start();
 			final OperationStatus status = mDatabase.get(mTxn, keyEntry, valueEntry,
 					LockMode.DEFAULT);
+			Metrics.stop(Metrics.READ_TIME, start);
 			if (status == OperationStatus.SUCCESS) {
+				Metrics.inc(Metrics.PAGES_READ);
+				Metrics.add(Metrics.BYTES_READ, valueEntry.getSize());
+				final long deserializeStart = Metrics.start();
 				page = mPageBinding.entryToObject(valueEntry);
+				Metrics.stop(Metrics.DESERIALIZE_TIME, deserializeStart);
 			}
 			return page;
 		} catch (final DatabaseException exc) {
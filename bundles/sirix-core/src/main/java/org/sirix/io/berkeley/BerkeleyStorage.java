@@ -99,13 +99,28 @@ public final class BerkeleyStorage implements Storage {
 	 */
 	public BerkeleyStorage(final ResourceConfiguration resourceConfig)
 			throws SirixIOException {
+		this(resourceConfig, resourceConfig.mByteHandler);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param resourceConfig
+	 *          the resource configuration
+	 * @param byteHandler
+	 *          byte handler pipeline to use instead of the one of the resource
+	 * @throws SirixIOException
+	 *           if something odd happens while database-connection
+	 */
+	public BerkeleyStorage(final ResourceConfiguration resourceConfig,
+			final ByteHandlePipeline byteHandler) throws SirixIOException {
 		final File repoFile = new File(checkNotNull(resourceConfig.mPath),
 				ResourceConfiguration.Paths.DATA.getFile().getName());
 		if (!repoFile.exists()) {
 			repoFile.mkdirs();
 		}
 
-		mByteHandler = checkNotNull(resourceConfig.mByteHandler);
+		mByteHandler = checkNotNull(byteHandler);
 
 		final DatabaseConfig conf = generateDBConf();
 		final EnvironmentConfig config = generateEnvConf();
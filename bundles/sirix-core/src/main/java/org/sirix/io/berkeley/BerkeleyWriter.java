@@ -29,6 +29,7 @@ package org.sirix.io.berkeley;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 import javax.annotation.Nonnegative;
@@ -36,9 +37,11 @@ import javax.annotation.Nullable;
 
 import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
+import org.sirix.io.SerializingWriter;
 import org.sirix.io.Writer;
 import org.sirix.io.berkeley.binding.PageBinding;
 import org.sirix.io.bytepipe.ByteHandlePipeline;
+import org.sirix.metrics.Metrics;
 import org.sirix.page.PageReference;
 import org.sirix.page.UnorderedKeyValuePage;
 import org.sirix.page.interfaces.Page;
@@ -60,7 +63,7 @@ import com.sleepycat.je.Transaction;
  * @author Sebastian Graf, University of Konstanz
  * 
  */
-public final class BerkeleyWriter implements Writer {
+public final class BerkeleyWriter implements SerializingWriter {
 
 	/** Current {@link Database} to write to. */
 	private final Database mDatabase;
@@ -113,26 +116,42 @@ public final class BerkeleyWriter implements Writer {
 
 	@Override
 	public void write(final PageReference pageReference) throws SirixIOException {
-		final Page page = pageReference.getPage();
+		write(pageReference, serialize(pageReference.getPage()));
+	}
 
+	@Override
+	public byte[] serialize(final Page page) throws SirixIOException {
 		final DatabaseEntry valueEntry = new DatabaseEntry();
+		final long start = Metrics.start();
+		mPageBinding.objectToEntry(page, valueEntry);
+		Metrics.stop(Metrics.SERIALIZE_TIME, start);
+		return Arrays.copyOfRange(valueEntry.getData(), valueEntry.getOffset(),
+				valueEntry.getOffset() + valueEntry.getSize());
+	}
+
+	@Override
+	public void write(final PageReference pageReference,
+			final byte[] serializedPage) throws SirixIOException {
+		final DatabaseEntry valueEntry = new DatabaseEntry(serializedPage);
 		final DatabaseEntry keyEntry = new DatabaseEntry();
 
 		// TODO make this better
 		mNodepagekey++;
 
-		mPageBinding.objectToEntry(page, valueEntry);
 		TupleBinding.getPrimitiveBinding(Long.class).objectToEntry(mNodepagekey,
 				keyEntry);
 
+		final long writeStart = Metrics.start();
 		final OperationStatus status = mDatabase.put(mTxn, keyEntry, valueEntry);
+		Metrics.stop(Metrics.WRITE_TIME, writeStart);
 		if (status != OperationStatus.SUCCESS) {
 			throw new SirixIOException(new StringBuilder("Write of ")
 					.append(pageReference.toString()).append(" failed!").toString());
 		}
 
+		Metrics.inc(Metrics.PAGES_WRITTEN);
+		Metrics.add(Metrics.BYTES_WRITTEN, valueEntry.getSize());
 		pageReference.setKey(mNodepagekey);
-		// return mNodepagekey;
 	}
 
 	/**
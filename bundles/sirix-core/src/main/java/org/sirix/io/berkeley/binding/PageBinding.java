@@ -28,6 +28,7 @@
 package org.sirix.io.berkeley.binding;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -104,8 +105,10 @@ public final class PageBinding extends TupleBinding<Page> {
 	@Override
 	public Page entryToObject(final TupleInput input) {
 		try {
-			return PagePersistenter.deserializePage(
-					new DataInputStream(mByteHandler.deserialize(input)), mPageReadTrx);
+			final byte[] page = mByteHandler.deserialize(ByteStreams
+					.toByteArray(input));
+			return PagePersistenter.deserializePage(new DataInputStream(
+					new ByteArrayInputStream(page)), mPageReadTrx);
 		} catch (final IOException e) {
 			LOGGER.error(e.getMessage(), e);
 			return null;
@@ -115,12 +118,11 @@ public final class PageBinding extends TupleBinding<Page> {
 	@Override
 	public void objectToEntry(final Page page, final TupleOutput output) {
 		try {
-			final DataOutputStream dataOutput = new DataOutputStream(
-					mByteHandler.serialize(output));
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final DataOutputStream dataOutput = new DataOutputStream(bytes);
 			PagePersistenter.serializePage(dataOutput, page);
-			ByteStreams.copy(new ByteArrayInputStream(output.toByteArray()),
-					dataOutput);
 			dataOutput.close();
+			output.write(mByteHandler.serialize(bytes.toByteArray()));
 		} catch (final IOException e) {
 			LOGGER.error(e.getMessage(), e);
 		}
@@ -3,13 +3,17 @@
  */
 package org.sirix.io.bytepipe;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.Key;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.sirix.metrics.Metrics;
+
 /**
  * Pipeline to handle Bytes before stored in the backends.
  * 
@@ -55,6 +59,10 @@ public final class ByteHandlePipeline implements ByteHandler {
 		for (final ByteHandler part : mParts) {
 			pipeData = part.serialize(pipeData);
 		}
+		if (Metrics.ENABLED) {
+			Metrics.PIPELINE_SERIALIZE.inc();
+			pipeData = new CountingOutputStream(pipeData);
+		}
 		return pipeData;
 	}
 
@@ -65,6 +73,29 @@ public final class ByteHandlePipeline implements ByteHandler {
 		for (final ByteHandler part : mParts) {
 			pipeData = part.deserialize(pipeData);
 		}
+		Metrics.inc(Metrics.PIPELINE_DESERIALIZE);
+		return pipeData;
+	}
+
+	@Override
+	public byte[] serialize(final byte[] toSerialize) throws IOException {
+		// The streams are stacked, that is the last part is applied first.
+		byte[] pipeData = toSerialize;
+		for (int i = mParts.size() - 1; i >= 0; i--) {
+			pipeData = mParts.get(i).serialize(pipeData);
+		}
+		Metrics.inc(Metrics.PIPELINE_SERIALIZE);
+		Metrics.add(Metrics.PIPELINE_BYTES, toSerialize.length);
+		return pipeData;
+	}
+
+	@Override
+	public byte[] deserialize(final byte[] toDeserialize) throws IOException {
+		byte[] pipeData = toDeserialize;
+		for (final ByteHandler part : mParts) {
+			pipeData = part.deserialize(pipeData);
+		}
+		Metrics.inc(Metrics.PIPELINE_DESERIALIZE);
 		return pipeData;
 	}
 
@@ -82,4 +113,53 @@ public final class ByteHandlePipeline implements ByteHandler {
 		return new ByteHandlePipeline();
 	}
 
+	@Override
+	public ByteHandlePipeline getInstance(final Key key) {
+		final ByteHandlePipeline pipeline = new ByteHandlePipeline();
+		for (final ByteHandler handler : mParts) {
+			pipeline.mParts.add(handler.getInstance(key));
+		}
+		return pipeline;
+	}
+
+	/**
+	 * Counts the uncompressed bytes written into the pipeline and adds them to
+	 * {@link Metrics#PIPELINE_BYTES} once the stream is closed.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		/** Number of bytes written so far. */
+		private long mCount;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param out
+		 *          the stream to write to
+		 */
+		CountingOutputStream(final OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			out.write(b);
+			mCount++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len)
+				throws IOException {
+			out.write(b, off, len);
+			mCount += len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			Metrics.PIPELINE_BYTES.add(mCount);
+			mCount = 0;
+			super.close();
+		}
+	}
+
 }
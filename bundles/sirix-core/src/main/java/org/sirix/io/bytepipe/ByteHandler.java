@@ -3,6 +3,7 @@ package org.sirix.io.bytepipe;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.Key;
 
 /**
  * Interface for the decorator, representing any byte representation to be
@@ -35,10 +36,50 @@ public interface ByteHandler {
 	 */
 	InputStream deserialize(InputStream toDeserialize) throws IOException;
 
+	/**
+	 * Method to serialize a whole block of bytes at once, for instance a page.
+	 * In contrast to the stream-based method no decorating streams have to be
+	 * created, such that implementations are able to reuse their codecs and
+	 * buffers. The result is the same as writing the block to the stream
+	 * returned by {@link #serialize(OutputStream)}.
+	 * 
+	 * @param toSerialize
+	 *          bytes to be serialized, which are not modified
+	 * @return result of the serialization
+	 * @throws IOException
+	 *           if a byte handling exception occurs
+	 */
+	byte[] serialize(byte[] toSerialize) throws IOException;
+
+	/**
+	 * Method to deserialize a whole block of bytes at once, which has either
+	 * been serialized by {@link #serialize(byte[])} or by writing to the stream
+	 * returned by {@link #serialize(OutputStream)}.
+	 * 
+	 * @param toDeserialize
+	 *          bytes to deserialize, which are not modified
+	 * @return result of the deserialization
+	 * @throws IOException
+	 *           if a byte handling exception occurs
+	 */
+	byte[] deserialize(byte[] toDeserialize) throws IOException;
+
 	/**
 	 * Method to retrieve a new instance.
 	 * 
 	 * @return new instance
 	 */
 	ByteHandler getInstance();
+
+	/**
+	 * Method to retrieve a new instance, which uses the given key, if the
+	 * handler encrypts its content. Handlers, which don't need a key, ignore it.
+	 * 
+	 * @param key
+	 *          the key
+	 * @return new instance
+	 */
+	default ByteHandler getInstance(final Key key) {
+		return getInstance();
+	}
 }
@@ -6,17 +6,43 @@ package org.sirix.io.bytepipe;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
 import java.util.zip.InflaterInputStream;
 
 /**
  * Decorator to zip any data.
  * 
+ * <p>
+ * Blocks are handled by a {@link Deflater} and an {@link Inflater} per thread,
+ * which are reset instead of allocating new native zlib streams for every
+ * page.
+ * </p>
+ * 
  * @author Sebastian Graf, University of Konstanz
  * 
  */
 public final class DeflateCompressor implements ByteHandler {
 
+	/** Deflater of the current thread. */
+	private static final ThreadLocal<Deflater> DEFLATER = new ThreadLocal<Deflater>() {
+		@Override
+		protected Deflater initialValue() {
+			return new Deflater();
+		}
+	};
+
+	/** Inflater of the current thread. */
+	private static final ThreadLocal<Inflater> INFLATER = new ThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater();
+		}
+	};
+
 	@Override
 	public OutputStream serialize(final OutputStream toSerialize)
 			throws IOException {
@@ -29,6 +55,49 @@ public final class DeflateCompressor implements ByteHandler {
 		return new InflaterInputStream(toDeserialize);
 	}
 
+	@Override
+	public byte[] serialize(final byte[] toSerialize) throws IOException {
+		final Deflater deflater = DEFLATER.get();
+		deflater.reset();
+		deflater.setInput(toSerialize);
+		deflater.finish();
+		byte[] output = new byte[Math.max(64, toSerialize.length / 2)];
+		int length = 0;
+		while (!deflater.finished()) {
+			if (length == output.length) {
+				output = Arrays.copyOf(output, output.length * 2);
+			}
+			length += deflater.deflate(output, length, output.length - length);
+		}
+		return Arrays.copyOf(output, length);
+	}
+
+	@Override
+	public byte[] deserialize(final byte[] toDeserialize) throws IOException {
+		final Inflater inflater = INFLATER.get();
+		inflater.reset();
+		inflater.setInput(toDeserialize);
+		byte[] output = new byte[Math.max(64, toDeserialize.length * 4)];
+		int length = 0;
+		try {
+			while (!inflater.finished()) {
+				if (length == output.length) {
+					output = Arrays.copyOf(output, output.length * 2);
+				}
+				final int inflated = inflater.inflate(output, length, output.length
+						- length);
+				if (inflated == 0 && !inflater.finished()
+						&& (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IOException("Unexpected end of deflated data!");
+				}
+				length += inflated;
+			}
+		} catch (final DataFormatException e) {
+			throw new IOException(e);
+		}
+		return Arrays.copyOf(output, length);
+	}
+
 	@Override
 	public ByteHandler getInstance() {
 		return new DeflateCompressor();
@@ -19,6 +19,12 @@ import org.sirix.exception.SirixIOException;
 /**
  * Decorator for encrypting any content.
  * 
+ * <p>
+ * Blocks are handled by initialized ciphers per thread. As the cipher is reset
+ * to its initial state after each block, no lookup of the provider and no key
+ * setup is needed for a page.
+ * </p>
+ * 
  * @author Sebastian Graf, University of Konstanz
  * 
  */
@@ -34,6 +40,14 @@ public final class Encryptor implements ByteHandler {
 	private static final byte[] KEYVALUE = new byte[] { 'k', 'k', 'k', 'k', 'k',
 			'k', 'k', 'k', 'k', 'k', 'k', 'k', 'k', 'k', 'k', 'k' };
 
+	/** Encrypting cipher of the current thread. */
+	private static final ThreadLocal<Cipher> ENCRYPT = new CipherThreadLocal(
+			Cipher.ENCRYPT_MODE);
+
+	/** Decrypting cipher of the current thread. */
+	private static final ThreadLocal<Cipher> DECRYPT = new CipherThreadLocal(
+			Cipher.DECRYPT_MODE);
+
 	/**
 	 * Constructor.
 	 * 
@@ -68,8 +82,54 @@ public final class Encryptor implements ByteHandler {
 		}
 	}
 
+	@Override
+	public byte[] serialize(final byte[] toSerialize) throws IOException {
+		try {
+			return ENCRYPT.get().doFinal(toSerialize);
+		} catch (final GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public byte[] deserialize(final byte[] toDeserialize) throws IOException {
+		try {
+			return DECRYPT.get().doFinal(toDeserialize);
+		} catch (final GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+	}
+
 	@Override
 	public ByteHandler getInstance() {
 		return new Encryptor();
 	}
+
+	/** Provides a cipher per thread, which is initialized with the key. */
+	private static final class CipherThreadLocal extends ThreadLocal<Cipher> {
+
+		/** Either {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}. */
+		private final int mMode;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param mode
+		 *          the cipher mode
+		 */
+		CipherThreadLocal(final int mode) {
+			mMode = mode;
+		}
+
+		@Override
+		protected Cipher initialValue() {
+			try {
+				final Cipher cipher = Cipher.getInstance(ALGORITHM);
+				cipher.init(mMode, new SecretKeySpec(KEYVALUE, ALGORITHM));
+				return cipher;
+			} catch (final GeneralSecurityException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
 }
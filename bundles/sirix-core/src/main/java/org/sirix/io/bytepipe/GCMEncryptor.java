@@ -0,0 +1,184 @@
+package org.sirix.io.bytepipe;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.SecureRandom;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.spec.GCMParameterSpec;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Decorator for encrypting and authenticating any content with AES in
+ * Galois/Counter mode. Every page is encrypted with a new random
+ * initialization vector, which is stored in front of the cipher text. In
+ * contrast to {@link Encryptor} equal pages result in different cipher texts
+ * and modified or truncated pages are detected during deserialization.
+ * 
+ * <p>
+ * Blocks are handled by a cipher per thread, which only has to be initialized
+ * with the initialization vector of the page.
+ * </p>
+ * 
+ * <p>
+ * The key is not stored with the resource. It is either passed when the
+ * resource is created or set in the session configuration, see
+ * {@link org.sirix.access.conf.SessionConfiguration.Builder#setKey(Key)}.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class GCMEncryptor implements ByteHandler {
+
+	/** Transformation to use. */
+	private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+	/** Length of the initialization vector in bytes. */
+	private static final int IV_LENGTH = 12;
+
+	/** Length of the authentication tag in bits. */
+	private static final int TAG_LENGTH = 128;
+
+	/** Source of the initialization vectors. */
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	/** Cipher of the current thread. */
+	private static final ThreadLocal<Cipher> CIPHER = new ThreadLocal<Cipher>() {
+		@Override
+		protected Cipher initialValue() {
+			try {
+				return Cipher.getInstance(TRANSFORMATION);
+			} catch (final GeneralSecurityException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
+	/** Key for access data, {@code null} if none has been configured. */
+	private final Key mKey;
+
+	/**
+	 * Constructor used if a resource is opened, whose key is set afterwards by
+	 * {@link #getInstance(Key)}.
+	 */
+	public GCMEncryptor() {
+		mKey = null;
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param key
+	 *          the AES key
+	 * @throws NullPointerException
+	 *           if {@code key} is {@code null}
+	 */
+	public GCMEncryptor(final Key key) {
+		mKey = checkNotNull(key);
+	}
+
+	/**
+	 * Get the configured key.
+	 * 
+	 * @return the key
+	 * @throws IOException
+	 *           if no key has been configured
+	 */
+	private Key key() throws IOException {
+		if (mKey == null) {
+			throw new IOException(
+					"No key has been configured for the encrypted resource!");
+		}
+		return mKey;
+	}
+
+	@Override
+	public OutputStream serialize(final OutputStream toSerialize)
+			throws IOException {
+		try {
+			final byte[] iv = newIV();
+			final Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+			cipher.init(Cipher.ENCRYPT_MODE, key(), new GCMParameterSpec(
+					TAG_LENGTH, iv));
+			toSerialize.write(iv);
+			return new CipherOutputStream(toSerialize, cipher);
+		} catch (final GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public InputStream deserialize(final InputStream toDeserialize)
+			throws IOException {
+		try {
+			final byte[] iv = new byte[IV_LENGTH];
+			ByteStreams.readFully(toDeserialize, iv);
+			final Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+			cipher.init(Cipher.DECRYPT_MODE, key(), new GCMParameterSpec(
+					TAG_LENGTH, iv));
+			return new CipherInputStream(toDeserialize, cipher);
+		} catch (final GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public byte[] serialize(final byte[] toSerialize) throws IOException {
+		try {
+			final byte[] iv = newIV();
+			final Cipher cipher = CIPHER.get();
+			cipher.init(Cipher.ENCRYPT_MODE, key(), new GCMParameterSpec(
+					TAG_LENGTH, iv));
+			final byte[] serialized = new byte[IV_LENGTH
+					+ cipher.getOutputSize(toSerialize.length)];
+			System.arraycopy(iv, 0, serialized, 0, IV_LENGTH);
+			final int length = cipher.doFinal(toSerialize, 0, toSerialize.length,
+					serialized, IV_LENGTH);
+			assert IV_LENGTH + length == serialized.length;
+			return serialized;
+		} catch (final GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public byte[] deserialize(final byte[] toDeserialize) throws IOException {
+		if (toDeserialize.length < IV_LENGTH) {
+			throw new IOException("Encrypted page is truncated!");
+		}
+		try {
+			final Cipher cipher = CIPHER.get();
+			cipher.init(Cipher.DECRYPT_MODE, key(), new GCMParameterSpec(
+					TAG_LENGTH, toDeserialize, 0, IV_LENGTH));
+			return cipher.doFinal(toDeserialize, IV_LENGTH, toDeserialize.length
+					- IV_LENGTH);
+		} catch (final GeneralSecurityException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static byte[] newIV() {
+		final byte[] iv = new byte[IV_LENGTH];
+		RANDOM.nextBytes(iv);
+		return iv;
+	}
+
+	@Override
+	public ByteHandler getInstance() {
+		return mKey == null ? new GCMEncryptor() : new GCMEncryptor(mKey);
+	}
+
+	@Override
+	public ByteHandler getInstance(final Key key) {
+		return new GCMEncryptor(key);
+	}
+}
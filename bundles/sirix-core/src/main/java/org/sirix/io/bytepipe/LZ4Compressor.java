@@ -0,0 +1,278 @@
+package org.sirix.io.bytepipe;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Pure Java compression in the LZ4 block format. It trades compression ratio
+ * for speed and doesn't need any native library. The compressed bytes start
+ * with the uncompressed length, followed by a single LZ4 block.
+ * 
+ * <p>
+ * The hash table of the compressor is held per thread and reused for every
+ * page.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class LZ4Compressor implements ByteHandler {
+
+	/** Minimum length of a match. */
+	private static final int MIN_MATCH = 4;
+
+	/** Maximum distance of a match. */
+	private static final int MAX_OFFSET = 0xFFFF;
+
+	/** The last match must start at least this many bytes before the end. */
+	private static final int MF_LIMIT = 12;
+
+	/** The last bytes are always encoded as literals. */
+	private static final int LAST_LITERALS = 5;
+
+	/** Number of bits of the hash table index. */
+	private static final int HASH_LOG = 12;
+
+	/** Length encoded within the token, larger lengths use further bytes. */
+	private static final int RUN_MASK = 0xF;
+
+	/** Hash table of the current thread. */
+	private static final ThreadLocal<int[]> HASH_TABLE = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1 << HASH_LOG];
+		}
+	};
+
+	@Override
+	public OutputStream serialize(final OutputStream toSerialize)
+			throws IOException {
+		return new ByteArrayOutputStream() {
+			private boolean mClosed;
+
+			@Override
+			public void close() throws IOException {
+				if (!mClosed) {
+					mClosed = true;
+					toSerialize.write(LZ4Compressor.this.serialize(toByteArray()));
+					toSerialize.close();
+				}
+			}
+		};
+	}
+
+	@Override
+	public InputStream deserialize(final InputStream toDeserialize)
+			throws IOException {
+		return new ByteArrayInputStream(
+				deserialize(ByteStreams.toByteArray(toDeserialize)));
+	}
+
+	@Override
+	public byte[] serialize(final byte[] toSerialize) throws IOException {
+		final int length = toSerialize.length;
+		final byte[] output = new byte[4 + length + length / 255 + 16];
+		writeInt(output, 0, length);
+		final int compressed = compress(toSerialize, output, 4);
+		return Arrays.copyOf(output, compressed);
+	}
+
+	@Override
+	public byte[] deserialize(final byte[] toDeserialize) throws IOException {
+		if (toDeserialize.length < 5) {
+			throw new IOException("LZ4 block is truncated!");
+		}
+		final int length = readInt(toDeserialize, 0);
+		if (length < 0) {
+			throw new IOException("Invalid length of LZ4 block!");
+		}
+		final byte[] output = new byte[length];
+		try {
+			decompress(toDeserialize, 4, output);
+		} catch (final ArrayIndexOutOfBoundsException e) {
+			throw new IOException("LZ4 block is corrupted!", e);
+		}
+		return output;
+	}
+
+	/**
+	 * Compress the input into the output.
+	 * 
+	 * @return end of the compressed bytes in the output
+	 */
+	private static int compress(final byte[] input, final byte[] output,
+			int outputOffset) {
+		final int length = input.length;
+		int anchor = 0;
+		if (length > MF_LIMIT) {
+			final int[] table = HASH_TABLE.get();
+			Arrays.fill(table, -1);
+			final int matchStartLimit = length - MF_LIMIT;
+			final int matchEndLimit = length - LAST_LITERALS;
+			int pos = 0;
+			while (pos < matchStartLimit) {
+				final int sequence = readInt(input, pos);
+				final int hash = hash(sequence);
+				int ref = table[hash];
+				table[hash] = pos;
+				if (ref < 0 || pos - ref > MAX_OFFSET
+						|| readInt(input, ref) != sequence) {
+					pos++;
+					continue;
+				}
+
+				// Extend the match backwards and forwards.
+				while (pos > anchor && ref > 0 && input[pos - 1] == input[ref - 1]) {
+					pos--;
+					ref--;
+				}
+				int matchLength = MIN_MATCH;
+				while (pos + matchLength < matchEndLimit
+						&& input[pos + matchLength] == input[ref + matchLength]) {
+					matchLength++;
+				}
+
+				outputOffset = writeSequence(input, anchor, pos - anchor, output,
+						outputOffset, pos - ref, matchLength);
+				pos += matchLength;
+				anchor = pos;
+			}
+		}
+
+		// Last literals.
+		return writeSequence(input, anchor, length - anchor, output,
+				outputOffset, 0, 0);
+	}
+
+	/**
+	 * Write a sequence of literals followed by a match, or only literals if the
+	 * match length is {@code 0}.
+	 */
+	private static int writeSequence(final byte[] input, final int literalStart,
+			final int literalLength, final byte[] output, int outputOffset,
+			final int matchOffset, final int matchLength) {
+		final int token = outputOffset++;
+		if (literalLength >= RUN_MASK) {
+			output[token] = (byte) (RUN_MASK << 4);
+			outputOffset = writeLength(output, outputOffset, literalLength
+					- RUN_MASK);
+		} else {
+			output[token] = (byte) (literalLength << 4);
+		}
+		System.arraycopy(input, literalStart, output, outputOffset, literalLength);
+		outputOffset += literalLength;
+		if (matchLength > 0) {
+			output[outputOffset++] = (byte) matchOffset;
+			output[outputOffset++] = (byte) (matchOffset >>> 8);
+			final int length = matchLength - MIN_MATCH;
+			if (length >= RUN_MASK) {
+				output[token] |= RUN_MASK;
+				outputOffset = writeLength(output, outputOffset, length - RUN_MASK);
+			} else {
+				output[token] |= length;
+			}
+		}
+		return outputOffset;
+	}
+
+	private static int writeLength(final byte[] output, int outputOffset,
+			int length) {
+		while (length >= 0xFF) {
+			output[outputOffset++] = (byte) 0xFF;
+			length -= 0xFF;
+		}
+		output[outputOffset++] = (byte) length;
+		return outputOffset;
+	}
+
+	/** Decompress the block starting at the offset into the whole output. */
+	private static void decompress(final byte[] input, int inputOffset,
+			final byte[] output) throws IOException {
+		int outputOffset = 0;
+		while (true) {
+			final int token = input[inputOffset++] & 0xFF;
+
+			// Literals.
+			int literalLength = token >>> 4;
+			if (literalLength == RUN_MASK) {
+				int next;
+				do {
+					next = input[inputOffset++] & 0xFF;
+					literalLength += next;
+				} while (next == 0xFF);
+			}
+			if (literalLength > output.length - outputOffset
+					|| literalLength > input.length - inputOffset) {
+				throw new IOException("LZ4 block is corrupted!");
+			}
+			System.arraycopy(input, inputOffset, output, outputOffset,
+					literalLength);
+			inputOffset += literalLength;
+			outputOffset += literalLength;
+			if (inputOffset == input.length) {
+				break;
+			}
+
+			// Match.
+			final int matchOffset = (input[inputOffset] & 0xFF)
+					| (input[inputOffset + 1] & 0xFF) << 8;
+			inputOffset += 2;
+			int matchLength = token & RUN_MASK;
+			if (matchLength == RUN_MASK) {
+				int next;
+				do {
+					next = input[inputOffset++] & 0xFF;
+					matchLength += next;
+				} while (next == 0xFF);
+			}
+			matchLength += MIN_MATCH;
+			if (matchOffset == 0 || matchOffset > outputOffset
+					|| matchLength > output.length - outputOffset) {
+				throw new IOException("LZ4 block is corrupted!");
+			}
+			if (matchOffset >= matchLength) {
+				System.arraycopy(output, outputOffset - matchOffset, output,
+						outputOffset, matchLength);
+				outputOffset += matchLength;
+			} else {
+				// Overlapping match, which repeats the last bytes.
+				for (int i = 0; i < matchLength; i++, outputOffset++) {
+					output[outputOffset] = output[outputOffset - matchOffset];
+				}
+			}
+		}
+		if (outputOffset != output.length) {
+			throw new IOException("LZ4 block is corrupted!");
+		}
+	}
+
+	private static int hash(final int sequence) {
+		return (sequence * -1640531535) >>> (32 - HASH_LOG);
+	}
+
+	/** Read a little-endian int. */
+	private static int readInt(final byte[] bytes, final int offset) {
+		return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8
+				| (bytes[offset + 2] & 0xFF) << 16 | (bytes[offset + 3] & 0xFF) << 24;
+	}
+
+	/** Write a little-endian int. */
+	private static void writeInt(final byte[] bytes, final int offset,
+			final int value) {
+		bytes[offset] = (byte) value;
+		bytes[offset + 1] = (byte) (value >>> 8);
+		bytes[offset + 2] = (byte) (value >>> 16);
+		bytes[offset + 3] = (byte) (value >>> 24);
+	}
+
+	@Override
+	public ByteHandler getInstance() {
+		return new LZ4Compressor();
+	}
+}
@@ -1,20 +1,34 @@
 package org.sirix.io.bytepipe;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import org.xerial.snappy.Snappy;
 import org.xerial.snappy.SnappyInputStream;
 import org.xerial.snappy.SnappyOutputStream;
 
+import com.google.common.io.ByteStreams;
+
 /**
  * Snappy compression/decompression.
  * 
+ * <p>
+ * Blocks are compressed as a single raw Snappy block without the framing of
+ * {@link SnappyOutputStream}. Both formats are accepted when deserializing, so
+ * pages written through the stream-based methods remain readable.
+ * </p>
+ * 
  * @author Johannes Lichtenberger, University of Konstanz
  * 
  */
 public final class SnappyCompressor implements ByteHandler {
 
+	/** Header written by {@link SnappyOutputStream}. */
+	private static final byte[] STREAM_HEADER = new byte[] { -126, 'S', 'N',
+			'A', 'P', 'P', 'Y', 0 };
+
 	@Override
 	public OutputStream serialize(final OutputStream toSerialize)
 			throws IOException {
@@ -24,7 +38,39 @@ public final class SnappyCompressor implements ByteHandler {
 	@Override
 	public InputStream deserialize(final InputStream toDeserialize)
 			throws IOException {
-		return new SnappyInputStream(toDeserialize);
+		return new ByteArrayInputStream(
+				deserialize(ByteStreams.toByteArray(toDeserialize)));
+	}
+
+	@Override
+	public byte[] serialize(final byte[] toSerialize) throws IOException {
+		return Snappy.compress(toSerialize);
+	}
+
+	@Override
+	public byte[] deserialize(final byte[] toDeserialize) throws IOException {
+		if (isStream(toDeserialize)) {
+			return ByteStreams.toByteArray(new SnappyInputStream(
+					new ByteArrayInputStream(toDeserialize)));
+		}
+		return Snappy.uncompress(toDeserialize);
+	}
+
+	/**
+	 * Determines if the bytes have been written by a {@link SnappyOutputStream}.
+	 * A raw Snappy block can't start with the header, as it would have to start
+	 * with a back reference.
+	 */
+	private static boolean isStream(final byte[] bytes) {
+		if (bytes.length < STREAM_HEADER.length) {
+			return false;
+		}
+		for (int i = 0; i < STREAM_HEADER.length; i++) {
+			if (bytes[i] != STREAM_HEADER[i]) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	@Override
@@ -66,7 +66,7 @@ public final class ChronicleReader implements Reader {
 
 			// Perform byte operations.
 			final DataInputStream input = new DataInputStream(
-					mByteHandler.deserialize(new ByteArrayInputStream(page)));
+					new ByteArrayInputStream(mByteHandler.deserialize(page)));
 
 			// Return reader required to instantiate and deserialize page.
 			return PagePersistenter.deserializePage(input, pageReadTrx);
@@ -39,9 +39,23 @@ public final class ChronicleStorage implements Storage {
 	 */
 	public ChronicleStorage(final ResourceConfiguration resourceConfig)
 			throws SirixIOException {
+		this(resourceConfig, resourceConfig.mByteHandler);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param resourceConfig
+	 *          the resource configuration
+	 * @param byteHandler
+	 *          byte handler pipeline to use instead of the one of the resource
+	 * @throws SirixIOException
+	 */
+	public ChronicleStorage(final ResourceConfiguration resourceConfig,
+			final ByteHandlePipeline byteHandler) throws SirixIOException {
 		assert resourceConfig != null : "resourceConfig must not be null!";
 		mFile = resourceConfig.mPath;
-		mByteHandler = resourceConfig.mByteHandler;
+		mByteHandler = byteHandler;
 	}
 
 	@Override
@@ -11,14 +11,14 @@ import net.openhft.chronicle.IndexedChronicle;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.AbstractForwardingReader;
 import org.sirix.io.Reader;
-import org.sirix.io.Writer;
+import org.sirix.io.SerializingWriter;
 import org.sirix.io.bytepipe.ByteHandler;
 import org.sirix.page.PagePersistenter;
 import org.sirix.page.PageReference;
 import org.sirix.page.interfaces.Page;
 
 public final class ChronicleWriter extends AbstractForwardingReader implements
-		Writer {
+		SerializingWriter {
 
 	private final ChronicleReader mReader;
 	private final ExcerptAppender mExcerpt;
@@ -54,37 +54,42 @@ public final class ChronicleWriter extends AbstractForwardingReader implements
 
 	@Override
 	public void write(final PageReference pageReference) throws SirixIOException {
+		final Page page = pageReference.getPage();
+		assert page != null;
+		write(pageReference, serialize(page));
+	}
+
+	@Override
+	public byte[] serialize(final Page page) throws SirixIOException {
 		// Perform byte operations.
 		try {
 			// Serialize page.
-			final Page page = pageReference.getPage();
-			assert page != null;
 			final ByteArrayOutputStream output = new ByteArrayOutputStream();
-			final DataOutputStream dataOutput = new DataOutputStream(
-					mReader.mByteHandler.serialize(output));
+			final DataOutputStream dataOutput = new DataOutputStream(output);
 			PagePersistenter.serializePage(dataOutput, page);
-
-			output.flush();
-			output.close();
 			dataOutput.close();
 
-			final byte[] serializedPage = output.toByteArray();
-
-			mExcerpt.startExcerpt(serializedPage.length
-					+ ChronicleReader.OTHER_BEACON);
-			mExcerpt.writeInt(serializedPage.length);
-			mExcerpt.write(serializedPage);
-			mExcerpt.finish();
-			final long index = mExcerpt.index();
-			assert index != -1 : "Index nr. not valid!";
-
-			// Remember page coordinates.
-			pageReference.setKey(index);
+			return mReader.mByteHandler.serialize(output.toByteArray());
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
 	}
 
+	@Override
+	public void write(final PageReference pageReference,
+			final byte[] serializedPage) throws SirixIOException {
+		mExcerpt.startExcerpt(serializedPage.length
+				+ ChronicleReader.OTHER_BEACON);
+		mExcerpt.writeInt(serializedPage.length);
+		mExcerpt.write(serializedPage);
+		mExcerpt.finish();
+		final long index = mExcerpt.index();
+		assert index != -1 : "Index nr. not valid!";
+
+		// Remember page coordinates.
+		pageReference.setKey(index);
+	}
+
 	@Override
 	public void writeFirstReference(final PageReference pageReference)
 			throws SirixIOException {
@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.io.file;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.sirix.api.PageReadTrx;
+import org.sirix.exception.SirixIOException;
+import org.sirix.io.Reader;
+import org.sirix.io.bytepipe.ByteHandler;
+import org.sirix.metrics.Metrics;
+import org.sirix.page.PagePersistenter;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
+import org.sirix.page.interfaces.Page;
+
+/**
+ * File reader which is shared between all transactions of a resource. Instead
+ * of seeking on a {@link java.io.RandomAccessFile} it uses positional reads on
+ * a single {@link FileChannel}, which do not modify any shared state and thus
+ * can be issued concurrently. Pages are read into direct buffers taken from a
+ * small pool.
+ * 
+ * <p>
+ * As the instance is shared, {@link #close()} does nothing. The channel is
+ * released once the owning {@link FileStorage} is closed.
+ * </p>
+ * 
+ * <p>
+ * Interrupting a thread during a read closes the channel for all threads. A
+ * read, which finds the channel closed, reopens it and is retried once, unless
+ * the reading thread itself has been interrupted.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+@ThreadSafe
+public final class FileChannelReader implements Reader {
+
+	/** Size of a pooled buffer, pages up to this size are read at once. */
+	static final int BUFFER_SIZE = 1 << 16;
+
+	/** Maximum number of pooled buffers. */
+	private static final int POOL_SIZE = Runtime.getRuntime()
+			.availableProcessors() * 2;
+
+	/** The file to read from. */
+	private final File mFile;
+
+	/** Channel to read from. */
+	private volatile FileChannel mChannel;
+
+	/** Determines if the channel has been closed with the storage. */
+	private boolean mClosed;
+
+	/** Pooled direct buffers. */
+	private final Queue<ByteBuffer> mBuffers;
+
+	/** Byte handler pipeline, which must not hold any per-call state. */
+	private final ByteHandler mByteHandler;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param concreteStorage
+	 *          storage file
+	 * @param handler
+	 *          {@link ByteHandler} instance
+	 * @throws SirixIOException
+	 *           if the file can't be opened
+	 */
+	public FileChannelReader(final File concreteStorage,
+			final ByteHandler handler) throws SirixIOException {
+		mFile = checkNotNull(concreteStorage);
+		mByteHandler = checkNotNull(handler);
+		mBuffers = new ArrayBlockingQueue<>(POOL_SIZE);
+		try {
+			if (!concreteStorage.exists()) {
+				concreteStorage.getParentFile().mkdirs();
+				concreteStorage.createNewFile();
+			}
+			mChannel = open();
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
+
+	private FileChannel open() throws IOException {
+		return FileChannel.open(mFile.toPath(), StandardOpenOption.READ);
+	}
+
+	@Override
+	public Page read(final @Nonnegative long key,
+			final @Nullable PageReadTrx pageReadTrx) throws SirixIOException {
+		final ByteBuffer buffer = acquire();
+		try {
+			// Optimistically read the length and the page at once.
+			final long start = Metrics.start();
+			fill(buffer, key, FileReader.OTHER_BEACON);
+			buffer.flip();
+			final int dataLength = buffer.getInt();
+			final byte[] page = new byte[dataLength];
+			final int available = Math.min(buffer.remaining(), dataLength);
+			buffer.get(page, 0, available);
+			if (available < dataLength) {
+				readFully(ByteBuffer.wrap(page, available, dataLength - available),
+						key + FileReader.OTHER_BEACON + available);
+			}
+			Metrics.stop(Metrics.READ_TIME, start);
+			Metrics.inc(Metrics.PAGES_READ);
+			Metrics.add(Metrics.BYTES_READ, dataLength);
+
+			// Perform byte operations.
+			final long deserializeStart = Metrics.start();
+			final DataInputStream input = new DataInputStream(
+					new ByteArrayInputStream(mByteHandler.deserialize(page)));
+
+			// Return reader required to instantiate and deserialize page.
+			final Page deserializedPage = PagePersistenter.deserializePage(input,
+					pageReadTrx);
+			Metrics.stop(Metrics.DESERIALIZE_TIME, deserializeStart);
+			return deserializedPage;
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		} finally {
+			release(buffer);
+		}
+	}
+
+	@Override
+	public PageReference readUberPageReference() throws SirixIOException {
+		final PageReference uberPageReference = new PageReference();
+		final ByteBuffer buffer = acquire();
+		try {
+			// Read primary beacon.
+			buffer.limit(8);
+			readFully(buffer, 0);
+			buffer.flip();
+			uberPageReference.setKey(buffer.getLong());
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		} finally {
+			release(buffer);
+		}
+		final UberPage page = (UberPage) read(uberPageReference.getKey(), null);
+		uberPageReference.setPage(page);
+		return uberPageReference;
+	}
+
+	/**
+	 * Read from the channel until the buffer contains at least {@code min}
+	 * bytes.
+	 */
+	private void fill(final ByteBuffer buffer, final long position,
+			final int min) throws IOException {
+		while (buffer.position() < min) {
+			if (read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException("Unexpected end of file at position "
+						+ position + "!");
+			}
+		}
+	}
+
+	/** Read from the channel until the buffer is full. */
+	private void readFully(final ByteBuffer buffer, final long position)
+			throws IOException {
+		final int start = buffer.position();
+		while (buffer.hasRemaining()) {
+			if (read(buffer, position + buffer.position() - start) < 0) {
+				throw new EOFException("Unexpected end of file at position "
+						+ position + "!");
+			}
+		}
+	}
+
+	/**
+	 * Positional read from the channel. If the channel has been closed by the
+	 * interrupt of another thread, it's reopened and the read is retried once.
+	 */
+	private int read(final ByteBuffer buffer, final long position)
+			throws IOException {
+		try {
+			return mChannel.read(buffer, position);
+		} catch (final ClosedChannelException e) {
+			// An interrupted read closes the channel for all readers.
+			reopen();
+			if (Thread.currentThread().isInterrupted()) {
+				throw e;
+			}
+			return mChannel.read(buffer, position);
+		}
+	}
+
+	private ByteBuffer acquire() {
+		final ByteBuffer buffer = mBuffers.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocateDirect(BUFFER_SIZE);
+		}
+		buffer.clear();
+		return buffer;
+	}
+
+	private void release(final ByteBuffer buffer) {
+		// If the pool is full, the buffer is left to the garbage collector.
+		mBuffers.offer(buffer);
+	}
+
+	private synchronized void reopen() throws IOException {
+		if (!mClosed && !mChannel.isOpen()) {
+			mChannel = open();
+		}
+	}
+
+	/**
+	 * Does nothing, as the reader is shared between transactions.
+	 */
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * Close the underlying channel.
+	 * 
+	 * @throws SirixIOException
+	 *           if an I/O error occurs
+	 */
+	synchronized void closeChannel() throws SirixIOException {
+		mClosed = true;
+		try {
+			mChannel.close();
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+		mBuffers.clear();
+	}
+}
@@ -42,6 +42,7 @@ import org.sirix.api.PageReadTrx;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.Reader;
 import org.sirix.io.bytepipe.ByteHandler;
+import org.sirix.metrics.Metrics;
 import org.sirix.page.PagePersistenter;
 import org.sirix.page.PageReference;
 import org.sirix.page.UberPage;
@@ -100,17 +101,25 @@ public final class FileReader implements Reader {
 			final @Nullable PageReadTrx pageReadTrx) throws SirixIOException {
 		try {
 			// Read page from file.
+			final long start = Metrics.start();
 			mFile.seek(key);
 			final int dataLength = mFile.readInt();
 			final byte[] page = new byte[dataLength];
 			mFile.read(page);
+			Metrics.stop(Metrics.READ_TIME, start);
+			Metrics.inc(Metrics.PAGES_READ);
+			Metrics.add(Metrics.BYTES_READ, dataLength);
 
 			// Perform byte operations.
+			final long deserializeStart = Metrics.start();
 			final DataInputStream input = new DataInputStream(
-					mByteHandler.deserialize(new ByteArrayInputStream(page)));
+					new ByteArrayInputStream(mByteHandler.deserialize(page)));
 
 			// Return reader required to instantiate and deserialize page.
-			return PagePersistenter.deserializePage(input, pageReadTrx);
+			final Page deserializedPage = PagePersistenter.deserializePage(input,
+					pageReadTrx);
+			Metrics.stop(Metrics.DESERIALIZE_TIME, deserializeStart);
+			return deserializedPage;
 		} catch (final IOException e) {
 			throw new SirixIOException(e);
 		}
@@ -54,6 +54,9 @@ public final class FileStorage implements Storage {
 	/** Byte handler pipeline. */
 	private final ByteHandlePipeline mByteHandler;
 
+	/** Reader shared by all transactions, created on first access. */
+	private FileChannelReader mReader;
+
 	/**
 	 * Constructor.
 	 * 
@@ -63,15 +66,31 @@ public final class FileStorage implements Storage {
 	 *          byte handler pipeline
 	 */
 	public FileStorage(final ResourceConfiguration resourceConfig) {
+		this(resourceConfig, resourceConfig.mByteHandler);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param resourceConfig
+	 *          the resource configuration
+	 * @param byteHandler
+	 *          byte handler pipeline to use instead of the one of the resource
+	 */
+	public FileStorage(final ResourceConfiguration resourceConfig,
+			final ByteHandlePipeline byteHandler) {
 		assert resourceConfig != null : "resourceConfig must not be null!";
 		mFile = resourceConfig.mPath;
-		mByteHandler = resourceConfig.mByteHandler;
+		mByteHandler = byteHandler;
 	}
 
 	@Override
-	public Reader getReader() throws SirixIOException {
-		return new FileReader(getConcreteStorage(), new ByteHandlePipeline(
-				mByteHandler));
+	public synchronized Reader getReader() throws SirixIOException {
+		if (mReader == null) {
+			mReader = new FileChannelReader(getConcreteStorage(),
+					new ByteHandlePipeline(mByteHandler));
+		}
+		return mReader;
 	}
 
 	@Override
@@ -81,8 +100,11 @@ public final class FileStorage implements Storage {
 	}
 
 	@Override
-	public void close() {
-		// not used over here
+	public synchronized void close() throws SirixIOException {
+		if (mReader != null) {
+			mReader.closeChannel();
+			mReader = null;
+		}
 	}
 
 	/**
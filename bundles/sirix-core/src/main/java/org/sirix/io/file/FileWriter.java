@@ -27,7 +27,6 @@
 
 package org.sirix.io.file;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
@@ -39,14 +38,13 @@ import java.nio.ByteBuffer;
 import org.sirix.exception.SirixIOException;
 import org.sirix.io.AbstractForwardingReader;
 import org.sirix.io.Reader;
-import org.sirix.io.Writer;
+import org.sirix.io.SerializingWriter;
 import org.sirix.io.bytepipe.ByteHandler;
+import org.sirix.metrics.Metrics;
 import org.sirix.page.PagePersistenter;
 import org.sirix.page.PageReference;
 import org.sirix.page.interfaces.Page;
 
-import com.google.common.io.ByteStreams;
-
 /**
  * File Writer for providing read/write access for file as a Sirix backend.
  * 
@@ -55,7 +53,7 @@ import com.google.common.io.ByteStreams;
  * 
  */
 public final class FileWriter extends AbstractForwardingReader implements
-		Writer {
+		SerializingWriter {
 
 	/** Random access to work on. */
 	private final RandomAccessFile mFile;
@@ -93,24 +91,35 @@ public final class FileWriter extends AbstractForwardingReader implements
 	 */
 	@Override
 	public void write(final PageReference pageReference) throws SirixIOException {
+		final Page page = pageReference.getPage();
+		assert page != null;
+		write(pageReference, serialize(page));
+	}
+
+	@Override
+	public byte[] serialize(final Page page) throws SirixIOException {
 		// Perform byte operations.
 		try {
 			// Serialize page.
-			final Page page = pageReference.getPage();
-			assert page != null;
+			final long start = Metrics.start();
 			final ByteArrayOutputStream output = new ByteArrayOutputStream();
-			final DataOutputStream dataOutput = new DataOutputStream(
-					mReader.mByteHandler.serialize(output));
+			final DataOutputStream dataOutput = new DataOutputStream(output);
 			PagePersistenter.serializePage(dataOutput, page);
-
-			// ByteStreams.copy(new ByteArrayInputStream(output.toByteArray()),
-			// dataOutput);
-
-			output.close();
 			dataOutput.close();
 
-			final byte[] serializedPage = output.toByteArray();
+			final byte[] serializedPage = mReader.mByteHandler.serialize(output
+					.toByteArray());
+			Metrics.stop(Metrics.SERIALIZE_TIME, start);
+			return serializedPage;
+		} catch (final IOException e) {
+			throw new SirixIOException(e);
+		}
+	}
 
+	@Override
+	public void write(final PageReference pageReference,
+			final byte[] serializedPage) throws SirixIOException {
+		try {
 			final byte[] writtenPage = new byte[serializedPage.length
 					+ FileReader.OTHER_BEACON];
 			final ByteBuffer buffer = ByteBuffer.allocate(writtenPage.length);
@@ -121,10 +130,14 @@ public final class FileWriter extends AbstractForwardingReader implements
 
 			// Getting actual offset and appending to the end of the current
 			// file.
+			final long writeStart = Metrics.start();
 			final long fileSize = mFile.length();
 			final long offset = fileSize == 0 ? FileReader.FIRST_BEACON : fileSize;
 			mFile.seek(offset);
 			mFile.write(writtenPage);
+			Metrics.stop(Metrics.WRITE_TIME, writeStart);
+			Metrics.inc(Metrics.PAGES_WRITTEN);
+			Metrics.add(Metrics.BYTES_WRITTEN, writtenPage.length);
 
 			// Remember page coordinates.
 			pageReference.setKey(offset);
@@ -48,8 +48,21 @@ public final class RAMStorage implements Storage {
 	 *          {@link ResourceConfiguration} reference
 	 */
 	public RAMStorage(final ResourceConfiguration resourceConfig) {
+		this(resourceConfig, resourceConfig.mByteHandler);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param resourceConfig
+	 *          {@link ResourceConfiguration} reference
+	 * @param byteHandler
+	 *          byte handler pipeline to use instead of the one of the resource
+	 */
+	public RAMStorage(final ResourceConfiguration resourceConfig,
+			final ByteHandlePipeline byteHandler) {
 		mStorage = new ConcurrentHashMap<String, Map<Long, Page>>();
-		mHandler = resourceConfig.mByteHandler;
+		mHandler = byteHandler;
 		final String resource = resourceConfig.getResource().getName();
 		final Map<Long, Page> resourceStorage = mStorage.get(resource);
 		if (resourceStorage == null) {
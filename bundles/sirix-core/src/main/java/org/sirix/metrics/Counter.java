@@ -24,82 +24,64 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.sirix.diff.algorithm.fmse;
+package org.sirix.metrics;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Stores whether two objects have a (unidirectional) connection. /!\ The
- * identities of the objects are used, not equals()!
+ * Monotonically increasing counter. Increments are spread over several cells
+ * by a {@link LongAdder}, such that concurrent transactions don't contend on a
+ * single memory location.
+ * 
+ * @author Johannes Lichtenberger
  * 
- * @param <T>
  */
-public final class ConnectionMap<T> {
+public final class Counter {
+
+	/** The count. */
+	private final LongAdder mCount = new LongAdder();
 
 	/**
-	 * First, we search the first node in the map, then the second in the returned
-	 * map.
+	 * Constructor.
 	 */
-	private final Map<T, HashMap<T, Boolean>> mMap;
+	Counter() {
+	}
 
 	/**
-	 * Creates a new connection map.
+	 * Increment the counter by one.
 	 */
-	public ConnectionMap() {
-		mMap = new HashMap<>();
+	public void inc() {
+		mCount.increment();
 	}
 
 	/**
-	 * Copy constructor.
+	 * Increment the counter.
 	 * 
-	 * @param map
-	 *          the original {@link ConnectionMap}
+	 * @param value
+	 *          the value to add
 	 */
-	public ConnectionMap(final ConnectionMap<T> map) {
-		mMap = new HashMap<>(map.mMap);
+	public void add(final long value) {
+		mCount.add(value);
 	}
 
 	/**
-	 * Sets the connection between a and b.
+	 * Get the current count.
 	 * 
-	 * @param origin
-	 *          origin object
-	 * @param destination
-	 *          destination object
-	 * @param bool
-	 *          if connection is established or not
+	 * @return the count
 	 */
-	public void set(final T origin, final T destination, final boolean bool) {
-		checkNotNull(destination);
-		if (!mMap.containsKey(checkNotNull(origin))) {
-			mMap.put(origin, new HashMap<T, Boolean>());
-		}
-		mMap.get(origin).put(destination, bool);
+	public long getCount() {
+		return mCount.sum();
 	}
 
 	/**
-	 * Returns whether there is a connection between a and b. Unknown objects do
-	 * never have a connection.
-	 * 
-	 * @param origin
-	 *          origin object
-	 * @param destination
-	 *          destination object
-	 * @return true, iff there is a connection from a to b
+	 * Reset the counter to zero.
 	 */
-	public boolean get(final T origin, final T destination) {
-		if (!mMap.containsKey(origin)) {
-			return false;
-		}
-		final Boolean bool = mMap.get(origin).get(destination);
-		return bool != null && bool;
+	public void reset() {
+		mCount.reset();
 	}
 
-	/** Reset datastructure. */
-	public void reset() {
-		mMap.clear();
+	@Override
+	public String toString() {
+		return String.valueOf(getCount());
 	}
 }
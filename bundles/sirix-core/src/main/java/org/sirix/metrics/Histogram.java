@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnegative;
+
+import com.google.common.base.Objects;
+
+/**
+ * Lock-free histogram of non-negative values, for instance latencies in
+ * nanoseconds or the number of page fragments read per reconstruction. Values
+ * are counted in buckets of powers of two, such that recording a value is a
+ * few atomic increments and percentiles are accurate up to a factor of two,
+ * which suffices to spot outliers and trends.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class Histogram {
+
+	/** Number of buckets, bucket {@code i} holds values below {@code 2^i}. */
+	private static final int BUCKETS = 64;
+
+	/** Number of recorded values. */
+	private final LongAdder mCount = new LongAdder();
+
+	/** Sum of the recorded values. */
+	private final LongAdder mSum = new LongAdder();
+
+	/** Maximum recorded value. */
+	private final AtomicLong mMax = new AtomicLong();
+
+	/** Number of values per bucket. */
+	private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Constructor.
+	 */
+	Histogram() {
+	}
+
+	/**
+	 * Record a value.
+	 * 
+	 * @param value
+	 *          the value, negative values are treated as {@code 0}
+	 */
+	public void update(final long value) {
+		final long val = Math.max(0, value);
+		mCount.increment();
+		mSum.add(val);
+		mBuckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(val));
+		long max = mMax.get();
+		while (val > max && !mMax.compareAndSet(max, val)) {
+			max = mMax.get();
+		}
+	}
+
+	/**
+	 * Record the time elapsed since {@code startNanos}.
+	 * 
+	 * @param startNanos
+	 *          start time as returned by {@link System#nanoTime()}
+	 */
+	public void updateSince(final long startNanos) {
+		update(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Get the number of recorded values.
+	 * 
+	 * @return number of recorded values
+	 */
+	public long getCount() {
+		return mCount.sum();
+	}
+
+	/**
+	 * Get the sum of the recorded values.
+	 * 
+	 * @return sum of the recorded values
+	 */
+	public long getSum() {
+		return mSum.sum();
+	}
+
+	/**
+	 * Get the maximum recorded value.
+	 * 
+	 * @return maximum recorded value or {@code 0}, if no value has been recorded
+	 */
+	public long getMax() {
+		return mMax.get();
+	}
+
+	/**
+	 * Get the mean of the recorded values.
+	 * 
+	 * @return mean or {@code 0}, if no value has been recorded
+	 */
+	public double getMean() {
+		final long count = getCount();
+		return count == 0 ? 0 : (double) getSum() / count;
+	}
+
+	/**
+	 * Get an approximation of a percentile, that is the upper bound of the
+	 * bucket the percentile falls into (but never more than the maximum).
+	 * 
+	 * @param percentile
+	 *          the percentile in the range of {@code 0} to {@code 100}
+	 * @return the approximate percentile or {@code 0}, if no value has been
+	 *         recorded
+	 */
+	public long getPercentile(final @Nonnegative double percentile) {
+		checkArgument(percentile >= 0 && percentile <= 100,
+				"percentile must be in the range of 0 to 100!");
+		final long[] buckets = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = mBuckets.get(i);
+			count += buckets[i];
+		}
+		if (count == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets[i];
+			if (seen >= rank) {
+				return Math.min((1L << i) - 1, getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Reset the histogram. Values recorded concurrently might be lost.
+	 */
+	public void reset() {
+		mCount.reset();
+		mSum.reset();
+		mMax.set(0);
+		for (int i = 0; i < BUCKETS; i++) {
+			mBuckets.set(i, 0);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("count", getCount())
+				.add("mean", getMean()).add("p50", getPercentile(50))
+				.add("p99", getPercentile(99)).add("max", getMax()).toString();
+	}
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.metrics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports the metrics as MXBeans named
+ * {@code org.sirix:type=Metrics,name=<metric name>}. The MXBeans read the
+ * live values, such that each metric is registered once, when it is reported
+ * for the first time. Schedule the reporter with
+ * {@link MetricRegistry#scheduleReports} to pick up metrics, which are
+ * created later on.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class JmxReporter implements Reporter {
+
+	/** {@link LogWrapper} reference. */
+	private static final LogWrapper LOGWRAPPER = new LogWrapper(
+			LoggerFactory.getLogger(JmxReporter.class));
+
+	/** Management interface of a {@link Counter}. */
+	public interface CounterMXBean {
+		/**
+		 * Get the count.
+		 * 
+		 * @return the count
+		 */
+		long getCount();
+	}
+
+	/** Management interface of a {@link Histogram}. */
+	public interface HistogramMXBean {
+		/**
+		 * Get the number of recorded values.
+		 * 
+		 * @return number of recorded values
+		 */
+		long getCount();
+
+		/**
+		 * Get the mean.
+		 * 
+		 * @return the mean
+		 */
+		double getMean();
+
+		/**
+		 * Get the maximum.
+		 * 
+		 * @return the maximum
+		 */
+		long getMax();
+
+		/**
+		 * Get the approximate median.
+		 * 
+		 * @return the approximate median
+		 */
+		long get50thPercentile();
+
+		/**
+		 * Get the approximate 99th percentile.
+		 * 
+		 * @return the approximate 99th percentile
+		 */
+		long get99thPercentile();
+	}
+
+	/** The server to register the MXBeans with. */
+	private final MBeanServer mServer;
+
+	/** Names of the registered MXBeans. */
+	private final Set<ObjectName> mRegistered;
+
+	/**
+	 * Constructor, which uses the platform MBean server.
+	 */
+	public JmxReporter() {
+		this(ManagementFactory.getPlatformMBeanServer());
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param server
+	 *          the server to register the MXBeans with
+	 */
+	public JmxReporter(final MBeanServer server) {
+		mServer = checkNotNull(server);
+		mRegistered = ConcurrentHashMap.newKeySet();
+	}
+
+	@Override
+	public void report(final SortedMap<String, Counter> counters,
+			final SortedMap<String, Histogram> histograms) {
+		for (final Map.Entry<String, Counter> entry : counters.entrySet()) {
+			final ObjectName name = register(entry.getKey());
+			if (name == null) {
+				continue;
+			}
+			final Counter counter = entry.getValue();
+			register(name, new StandardMBean(new CounterMXBean() {
+				@Override
+				public long getCount() {
+					return counter.getCount();
+				}
+			}, CounterMXBean.class, true));
+		}
+		for (final Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+			final ObjectName name = register(entry.getKey());
+			if (name == null) {
+				continue;
+			}
+			final Histogram histogram = entry.getValue();
+			register(name, new StandardMBean(new HistogramMXBean() {
+				@Override
+				public long getCount() {
+					return histogram.getCount();
+				}
+
+				@Override
+				public double getMean() {
+					return histogram.getMean();
+				}
+
+				@Override
+				public long getMax() {
+					return histogram.getMax();
+				}
+
+				@Override
+				public long get50thPercentile() {
+					return histogram.getPercentile(50);
+				}
+
+				@Override
+				public long get99thPercentile() {
+					return histogram.getPercentile(99);
+				}
+			}, HistogramMXBean.class, true));
+		}
+	}
+
+	/**
+	 * Reserve the name of a metric's MXBean.
+	 * 
+	 * @param metric
+	 *          name of the metric
+	 * @return the name of the MXBean or {@code null}, if it is already
+	 *         registered or the name is invalid
+	 */
+	private ObjectName register(final String metric) {
+		try {
+			final ObjectName name = new ObjectName("org.sirix:type=Metrics,name="
+					+ ObjectName.quote(metric));
+			return mRegistered.add(name) && !mServer.isRegistered(name) ? name
+					: null;
+		} catch (final JMException e) {
+			LOGWRAPPER.error(e);
+			return null;
+		}
+	}
+
+	private void register(final ObjectName name, final StandardMBean bean) {
+		try {
+			mServer.registerMBean(bean, name);
+		} catch (final JMException e) {
+			LOGWRAPPER.error(e);
+		}
+	}
+
+	/**
+	 * Unregister all MXBeans registered by this reporter.
+	 */
+	public void close() {
+		for (final ObjectName name : mRegistered) {
+			try {
+				if (mServer.isRegistered(name)) {
+					mServer.unregisterMBean(name);
+				}
+			} catch (final JMException e) {
+				LOGWRAPPER.error(e);
+			}
+		}
+		mRegistered.clear();
+	}
+}
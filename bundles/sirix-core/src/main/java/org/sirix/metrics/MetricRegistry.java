@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnegative;
+
+import org.sirix.utils.LogWrapper;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Registry of named {@link Counter}s and {@link Histogram}s. Metrics are
+ * created on first access and live as long as the registry, such that hot
+ * paths keep a reference to them instead of looking them up by name.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class MetricRegistry {
+
+	/** {@link LogWrapper} reference. */
+	private static final LogWrapper LOGWRAPPER = new LogWrapper(
+			LoggerFactory.getLogger(MetricRegistry.class));
+
+	/** Counters by name. */
+	private final ConcurrentMap<String, Counter> mCounters;
+
+	/** Histograms by name. */
+	private final ConcurrentMap<String, Histogram> mHistograms;
+
+	/** Executor for periodic reports, created on demand. */
+	private ScheduledExecutorService mScheduler;
+
+	/**
+	 * Constructor.
+	 */
+	public MetricRegistry() {
+		mCounters = new ConcurrentHashMap<>();
+		mHistograms = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Get the counter with the given name, which is created if it doesn't exist.
+	 * 
+	 * @param name
+	 *          name of the counter
+	 * @return the counter
+	 */
+	public Counter counter(final String name) {
+		checkNotNull(name);
+		Counter counter = mCounters.get(name);
+		if (counter == null) {
+			final Counter newCounter = new Counter();
+			counter = mCounters.putIfAbsent(name, newCounter);
+			if (counter == null) {
+				counter = newCounter;
+			}
+		}
+		return counter;
+	}
+
+	/**
+	 * Get the histogram with the given name, which is created if it doesn't
+	 * exist.
+	 * 
+	 * @param name
+	 *          name of the histogram
+	 * @return the histogram
+	 */
+	public Histogram histogram(final String name) {
+		checkNotNull(name);
+		Histogram histogram = mHistograms.get(name);
+		if (histogram == null) {
+			final Histogram newHistogram = new Histogram();
+			histogram = mHistograms.putIfAbsent(name, newHistogram);
+			if (histogram == null) {
+				histogram = newHistogram;
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Get the counters.
+	 * 
+	 * @return the counters, sorted by name
+	 */
+	public SortedMap<String, Counter> getCounters() {
+		return new TreeMap<>(mCounters);
+	}
+
+	/**
+	 * Get the histograms.
+	 * 
+	 * @return the histograms, sorted by name
+	 */
+	public SortedMap<String, Histogram> getHistograms() {
+		return new TreeMap<>(mHistograms);
+	}
+
+	/**
+	 * Reset all metrics.
+	 */
+	public void reset() {
+		for (final Counter counter : mCounters.values()) {
+			counter.reset();
+		}
+		for (final Histogram histogram : mHistograms.values()) {
+			histogram.reset();
+		}
+	}
+
+	/**
+	 * Report the current values of all metrics.
+	 * 
+	 * @param reporter
+	 *          the reporter
+	 */
+	public void report(final Reporter reporter) {
+		reporter.report(getCounters(), getHistograms());
+	}
+
+	/**
+	 * Periodically report the metrics from a daemon thread.
+	 * 
+	 * @param reporter
+	 *          the reporter
+	 * @param period
+	 *          the period between two reports
+	 * @param unit
+	 *          unit of the period
+	 * @return a future to cancel the reports
+	 */
+	public synchronized ScheduledFuture<?> scheduleReports(
+			final Reporter reporter, final @Nonnegative long period,
+			final TimeUnit unit) {
+		checkNotNull(reporter);
+		checkNotNull(unit);
+		checkArgument(period > 0, "period must be > 0!");
+		if (mScheduler == null) {
+			mScheduler = Executors
+					.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+							.setDaemon(true).setNameFormat("sirix-metrics-reporter")
+							.build());
+		}
+		return mScheduler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					report(reporter);
+				} catch (final RuntimeException e) {
+					LOGWRAPPER.error(e);
+				}
+			}
+		}, period, period, unit);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		for (final Map.Entry<String, Counter> entry : getCounters().entrySet()) {
+			builder.append(entry.getKey()).append(": ").append(entry.getValue())
+					.append('\n');
+		}
+		for (final Map.Entry<String, Histogram> entry : getHistograms()
+				.entrySet()) {
+			builder.append(entry.getKey()).append(": ").append(entry.getValue())
+					.append('\n');
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.metrics;
+
+/**
+ * Metrics of the storage layer, which are recorded in the
+ * {@link #REGISTRY default registry}. Durations are recorded in nanoseconds.
+ * Recording is enabled by default and can be switched off with the system
+ * property {@code org.sirix.metrics.disabled}, in which case the hot paths
+ * skip taking timestamps.
+ * 
+ * <p>
+ * To export the metrics use for instance
+ * {@code Metrics.REGISTRY.scheduleReports(new JmxReporter(), 10, TimeUnit.SECONDS)}
+ * .
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class Metrics {
+
+	/** Determines if metrics are recorded. */
+	public static final boolean ENABLED = !Boolean
+			.getBoolean("org.sirix.metrics.disabled");
+
+	/** The default registry. */
+	public static final MetricRegistry REGISTRY = new MetricRegistry();
+
+	/** Number of pages read from a storage. */
+	public static final Counter PAGES_READ = REGISTRY.counter("io.pages.read");
+
+	/** Number of (compressed/encrypted) bytes read from a storage. */
+	public static final Counter BYTES_READ = REGISTRY.counter("io.bytes.read");
+
+	/** Time to read the bytes of a page from a storage. */
+	public static final Histogram READ_TIME = REGISTRY
+			.histogram("io.read.time");
+
+	/**
+	 * Time to deserialize a page, including the byte handler pipeline
+	 * (decompression, decryption), which is applied while reading the stream.
+	 */
+	public static final Histogram DESERIALIZE_TIME = REGISTRY
+			.histogram("io.deserialize.time");
+
+	/** Number of pages written to a storage. */
+	public static final Counter PAGES_WRITTEN = REGISTRY
+			.counter("io.pages.written");
+
+	/** Number of (compressed/encrypted) bytes written to a storage. */
+	public static final Counter BYTES_WRITTEN = REGISTRY
+			.counter("io.bytes.written");
+
+	/**
+	 * Time to serialize a page, including the byte handler pipeline (compression,
+	 * encryption).
+	 */
+	public static final Histogram SERIALIZE_TIME = REGISTRY
+			.histogram("io.serialize.time");
+
+	/** Time to write the bytes of a page to a storage. */
+	public static final Histogram WRITE_TIME = REGISTRY
+			.histogram("io.write.time");
+
+	/**
+	 * Number of pages or streams handled by byte handler pipelines for
+	 * writing.
+	 */
+	public static final Counter PIPELINE_SERIALIZE = REGISTRY
+			.counter("bytepipe.serialize");
+
+	/**
+	 * Number of pages or streams handled by byte handler pipelines for
+	 * reading.
+	 */
+	public static final Counter PIPELINE_DESERIALIZE = REGISTRY
+			.counter("bytepipe.deserialize");
+
+	/** Number of uncompressed bytes written through byte handler pipelines. */
+	public static final Counter PIPELINE_BYTES = REGISTRY
+			.counter("bytepipe.uncompressed.bytes.written");
+
+	/** Number of page fragments read to reconstruct a record page. */
+	public static final Histogram FRAGMENTS = REGISTRY
+			.histogram("versioning.fragments");
+
+	/** Time to read the page fragments of a record page. */
+	public static final Histogram SNAPSHOT_TIME = REGISTRY
+			.histogram("versioning.snapshot.time");
+
+	/** Time to combine the page fragments of a record page. */
+	public static final Histogram COMBINE_TIME = REGISTRY
+			.histogram("versioning.combine.time");
+
+	/** Number of record pages written as full dumps by adaptive versioning. */
+	public static final Counter ADAPTIVE_FULL_DUMPS = REGISTRY
+			.counter("versioning.adaptive.fulldumps");
+
+	/** Number of record pages written as deltas by adaptive versioning. */
+	public static final Counter ADAPTIVE_DELTAS = REGISTRY
+			.counter("versioning.adaptive.deltas");
+
+	/** Number of record pages probed with a bloom filter. */
+	public static final Counter BLOOM_FILTER_PROBES = REGISTRY
+			.counter("filter.bloom.probes");
+
+	/** Number of record pages skipped, as their bloom filter didn't match. */
+	public static final Counter BLOOM_FILTER_SKIPS = REGISTRY
+			.counter("filter.bloom.skips");
+
+	/** Number of record page lookups in the node cache. */
+	public static final Counter NODE_CACHE_REQUESTS = REGISTRY
+			.counter("cache.node.requests");
+
+	/** Number of node cache misses. */
+	public static final Counter NODE_CACHE_MISSES = REGISTRY
+			.counter("cache.node.misses");
+
+	/** Number of record page lookups in the path summary and index caches. */
+	public static final Counter INDEX_CACHE_REQUESTS = REGISTRY
+			.counter("cache.index.requests");
+
+	/** Number of path summary and index cache misses. */
+	public static final Counter INDEX_CACHE_MISSES = REGISTRY
+			.counter("cache.index.misses");
+
+	/** Number of lookups in the page cache. */
+	public static final Counter PAGE_CACHE_REQUESTS = REGISTRY
+			.counter("cache.page.requests");
+
+	/** Number of page cache misses. */
+	public static final Counter PAGE_CACHE_MISSES = REGISTRY
+			.counter("cache.page.misses");
+
+	/** Number of record pages read ahead of a scan. */
+	public static final Counter READAHEAD_PAGES = REGISTRY
+			.counter("readahead.pages");
+
+	/** Number of record pages loaded into the node cache from the readahead. */
+	public static final Counter READAHEAD_HITS = REGISTRY
+			.counter("readahead.hits");
+
+	/** Number of committed revisions exposed by read-only replicas. */
+	public static final Counter REPLICA_REVISIONS = REGISTRY
+			.counter("replica.revisions");
+
+	/** Number of entries spilled from transaction logs to their second level. */
+	public static final Counter LOG_SPILLED = REGISTRY
+			.counter("txlog.spilled.entries");
+
+	/** Number of entries read back from the second level of transaction logs. */
+	public static final Counter LOG_SPILL_READS = REGISTRY
+			.counter("txlog.spill.reads");
+
+	/** Time to flush the transaction logs during a commit. */
+	public static final Histogram COMMIT_FLUSH_TIME = REGISTRY
+			.histogram("commit.flush.time");
+
+	/** Time to write the pages during a commit. */
+	public static final Histogram COMMIT_WRITE_TIME = REGISTRY
+			.histogram("commit.write.time");
+
+	/** Time to wait for synchronizing other write transactions. */
+	public static final Histogram COMMIT_SYNC_TIME = REGISTRY
+			.histogram("commit.sync.time");
+
+	/** Total time of a commit, including waiting for the commit lock. */
+	public static final Histogram COMMIT_TIME = REGISTRY
+			.histogram("commit.time");
+
+	/**
+	 * Get a timestamp to measure a duration.
+	 * 
+	 * @return {@link System#nanoTime()} or {@code 0}, if metrics are disabled
+	 */
+	public static long start() {
+		return ENABLED ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Record the duration since a timestamp returned by {@link #start()}.
+	 * 
+	 * @param histogram
+	 *          the histogram to update
+	 * @param start
+	 *          the timestamp
+	 */
+	public static void stop(final Histogram histogram, final long start) {
+		if (ENABLED) {
+			histogram.updateSince(start);
+		}
+	}
+
+	/**
+	 * Increment a counter, if metrics are enabled.
+	 * 
+	 * @param counter
+	 *          the counter
+	 * @param value
+	 *          the value to add
+	 */
+	public static void add(final Counter counter, final long value) {
+		if (ENABLED) {
+			counter.add(value);
+		}
+	}
+
+	/**
+	 * Increment a counter by one, if metrics are enabled.
+	 * 
+	 * @param counter
+	 *          the counter
+	 */
+	public static void inc(final Counter counter) {
+		if (ENABLED) {
+			counter.inc();
+		}
+	}
+
+	/**
+	 * Record a value, if metrics are enabled.
+	 * 
+	 * @param histogram
+	 *          the histogram
+	 * @param value
+	 *          the value
+	 */
+	public static void update(final Histogram histogram, final long value) {
+		if (ENABLED) {
+			histogram.update(value);
+		}
+	}
+
+	/** Utility methods. */
+	private Metrics() {
+		throw new AssertionError("May not be instantiated!");
+	}
+}
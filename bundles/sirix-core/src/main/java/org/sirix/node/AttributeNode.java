@@ -38,8 +38,8 @@ import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.delegates.StructNodeDelegate;
 import org.sirix.node.delegates.ValNodeDelegate;
 import org.sirix.node.immutable.ImmutableAttribute;
+import org.sirix.node.interfaces.DelegatingValueNode;
 import org.sirix.node.interfaces.NameNode;
-import org.sirix.node.interfaces.ValueNode;
 import org.sirix.settings.Constants;
 
 import com.google.common.base.Objects;
@@ -52,7 +52,7 @@ import com.google.common.base.Objects;
  * </p>
  */
 public final class AttributeNode extends AbstractForwardingNode implements
-		ValueNode, NameNode {
+		DelegatingValueNode, NameNode {
 
 	/** Delegate for name node information. */
 	private final NameNodeDelegate mNameDel;
@@ -185,7 +185,8 @@ public final class AttributeNode extends AbstractForwardingNode implements
 	 * 
 	 * @return the {@link ValNodeDelegate} instance
 	 */
-	ValNodeDelegate getValNodeDelegate() {
+	@Override
+	public ValNodeDelegate getValNodeDelegate() {
 		return mValDel;
 	}
 
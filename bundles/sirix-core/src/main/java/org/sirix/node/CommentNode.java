@@ -10,6 +10,7 @@ import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.delegates.StructNodeDelegate;
 import org.sirix.node.delegates.ValNodeDelegate;
 import org.sirix.node.immutable.ImmutableComment;
+import org.sirix.node.interfaces.DelegatingValueNode;
 import org.sirix.node.interfaces.Node;
 import org.sirix.node.interfaces.StructNode;
 import org.sirix.node.interfaces.ValueNode;
@@ -25,7 +26,7 @@ import com.google.common.base.Objects;
  * 
  */
 public class CommentNode extends AbstractStructForwardingNode implements
-		ValueNode {
+		DelegatingValueNode {
 
 	/** {@link StructNodeDelegate} reference. */
 	private final StructNodeDelegate mStructNodeDel;
@@ -134,6 +135,7 @@ public class CommentNode extends AbstractStructForwardingNode implements
 				.add("value delegate", mValDel).toString();
 	}
 
+	@Override
 	public ValNodeDelegate getValNodeDelegate() {
 		return mValDel;
 	}
@@ -32,15 +32,11 @@ import static org.sirix.node.Utils.putVarLong;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import javax.annotation.Nonnegative;
 
@@ -160,11 +156,7 @@ public enum Kind implements NodePersistenter {
 			final NameNodeDelegate nameDel = deserializeNameDelegate(nodeDel, source);
 
 			// Val delegate.
-			final boolean isCompressed = source.readByte() == (byte) 1 ? true : false;
-			final byte[] vals = new byte[source.readInt()];
-			source.readFully(vals, 0, vals.length);
-			final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals,
-					isCompressed);
+			final ValNodeDelegate valDel = deserializeValDelegate(nodeDel, source);
 
 			final String uri = pageReadTrx.getName(nameDel.getURIKey(),
 					Kind.NAMESPACE);
@@ -238,11 +230,7 @@ public enum Kind implements NodePersistenter {
 					deweyID, pageReadTrx);
 
 			// Val delegate.
-			final boolean isCompressed = source.readByte() == (byte) 1 ? true : false;
-			final byte[] vals = new byte[source.readInt()];
-			source.readFully(vals, 0, vals.length);
-			final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals,
-					isCompressed);
+			final ValNodeDelegate valDel = deserializeValDelegate(nodeDel, source);
 
 			// Struct delegate.
 			final long nodeKey = nodeDel.getNodeKey();
@@ -284,11 +272,7 @@ public enum Kind implements NodePersistenter {
 			final NameNodeDelegate nameDel = deserializeNameDelegate(nodeDel, source);
 
 			// Val delegate.
-			final boolean isCompressed = source.readByte() == (byte) 1 ? true : false;
-			final byte[] vals = new byte[source.readInt()];
-			source.readFully(vals, 0, vals.length);
-			final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals,
-					isCompressed);
+			final ValNodeDelegate valDel = deserializeValDelegate(nodeDel, source);
 
 			// Returning an instance.
 			return new PINode(structDel, nameDel, valDel, pageReadTrx);
@@ -316,11 +300,7 @@ public enum Kind implements NodePersistenter {
 					deweyID, pageReadTrx);
 
 			// Val delegate.
-			final boolean isCompressed = source.readByte() == (byte) 1 ? true : false;
-			final byte[] vals = new byte[source.readInt()];
-			source.readFully(vals, 0, vals.length);
-			final ValNodeDelegate valDel = new ValNodeDelegate(nodeDel, vals,
-					isCompressed);
+			final ValNodeDelegate valDel = deserializeValDelegate(nodeDel, source);
 
 			// Struct delegate.
 			final long nodeKey = nodeDel.getNodeKey();
@@ -595,16 +575,8 @@ public enum Kind implements NodePersistenter {
 			final int typeSize = source.readInt();
 			final byte[] type = new byte[typeSize];
 			source.readFully(type, 0, typeSize);
-			final int keySize = source.readInt();
-			final Set<Long> nodeKeys = new HashSet<>(keySize);
-			long key = getVarLong(source);
-			nodeKeys.add(key);
-			for (int i = 1; i < keySize; i++) {
-				if (i + 1 < keySize) {
-					key += getVarLong(source);
-					nodeKeys.add(key);
-				}
-			}
+			final NodeReferences nodeReferences = deserializeNodeReferences(source,
+					true);
 			final Type atomicType = resolveType(new String(type,
 					Constants.DEFAULT_ENCODING));
 
@@ -620,7 +592,7 @@ public enum Kind implements NodePersistenter {
 				final Atomic atomic = AtomicUtil.fromBytes(value, atomicType);
 				AVLNode<CASValue, NodeReferences> node;
 				node = new AVLNode<CASValue, NodeReferences>(new CASValue(atomic,
-						atomicType, pathNodeKey), new NodeReferences(nodeKeys), nodeDel);
+						atomicType, pathNodeKey), nodeReferences, nodeDel);
 
 				node.setLeftChildKey(leftChild);
 				node.setRightChildKey(rightChild);
@@ -644,20 +616,7 @@ public enum Kind implements NodePersistenter {
 					.getBytes(Constants.DEFAULT_ENCODING);
 			sink.writeInt(type.length);
 			sink.write(type);
-			final NodeReferences value = node.getValue();
-			final Set<Long> nodeKeys = value.getNodeKeys();
-
-			// Store in a list and sort the list.
-			final List<Long> listNodeKeys = new ArrayList<>(nodeKeys);
-			Collections.sort(listNodeKeys);
-			sink.writeInt(listNodeKeys.size());
-			putVarLong(sink, listNodeKeys.get(0));
-			for (int i = 0; i < listNodeKeys.size(); i++) {
-				if (i + 1 < listNodeKeys.size()) {
-					final long diff = listNodeKeys.get(i + 1) - listNodeKeys.get(i);
-					putVarLong(sink, diff);
-				}
-			}
+			serializeNodeReferences(sink, node.getValue());
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
 			putVarLong(sink, node.getLeftChildKey());
 			putVarLong(sink, node.getRightChildKey());
@@ -698,11 +657,8 @@ public enum Kind implements NodePersistenter {
 				final @Nonnegative long recordID, final Optional<SirixDeweyID> deweyID,
 				final PageReadTrx pageReadTrx) throws IOException {
 			final long key = getVarLong(source);
-			final int keySize = source.readInt();
-			final Set<Long> nodeKeys = new HashSet<>(keySize);
-			for (int i = 0; i < keySize; i++) {
-				nodeKeys.add(source.readLong());
-			}
+			final NodeReferences nodeReferences = deserializeNodeReferences(source,
+					false);
 			// Node delegate.
 			final NodeDelegate nodeDel = deserializeNodeDelegateWithoutIDs(source,
 					recordID, pageReadTrx);
@@ -710,7 +666,7 @@ public enum Kind implements NodePersistenter {
 			final long rightChild = getVarLong(source);
 			final boolean isChanged = source.readBoolean();
 			final AVLNode<Long, NodeReferences> node = new AVLNode<>(key,
-					new NodeReferences(nodeKeys), nodeDel);
+					nodeReferences, nodeDel);
 			node.setLeftChildKey(leftChild);
 			node.setRightChildKey(rightChild);
 			node.setChanged(isChanged);
@@ -723,12 +679,7 @@ public enum Kind implements NodePersistenter {
 			@SuppressWarnings("unchecked")
 			final AVLNode<Long, NodeReferences> node = (AVLNode<Long, NodeReferences>) record;
 			putVarLong(sink, node.getKey().longValue());
-			final NodeReferences value = node.getValue();
-			final Set<Long> nodeKeys = value.getNodeKeys();
-			sink.writeInt(nodeKeys.size());
-			for (final long nodeKey : nodeKeys) {
-				sink.writeLong(nodeKey);
-			}
+			serializeNodeReferences(sink, node.getValue());
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
 			putVarLong(sink, node.getLeftChildKey());
 			putVarLong(sink, node.getRightChildKey());
@@ -766,11 +717,8 @@ public enum Kind implements NodePersistenter {
 					new String(nspBytes, Constants.DEFAULT_ENCODING), new String(
 							prefixBytes, Constants.DEFAULT_ENCODING), new String(
 							localNameBytes, Constants.DEFAULT_ENCODING));
-			final int keySize = source.readInt();
-			final Set<Long> nodeKeys = new HashSet<>(keySize);
-			for (int i = 0; i < keySize; i++) {
-				nodeKeys.add(source.readLong());
-			}
+			final NodeReferences nodeReferences = deserializeNodeReferences(source,
+					false);
 			// Node delegate.
 			final NodeDelegate nodeDel = deserializeNodeDelegateWithoutIDs(source,
 					recordID, pageReadTrx);
@@ -778,7 +726,7 @@ public enum Kind implements NodePersistenter {
 			final long rightChild = getVarLong(source);
 			final boolean isChanged = source.readBoolean();
 			final AVLNode<QNm, NodeReferences> node = new AVLNode<>(name,
-					new NodeReferences(nodeKeys), nodeDel);
+					nodeReferences, nodeDel);
 			node.setLeftChildKey(leftChild);
 			node.setRightChildKey(rightChild);
 			node.setChanged(isChanged);
@@ -799,12 +747,7 @@ public enum Kind implements NodePersistenter {
 			final byte[] localNameBytes = node.getKey().getLocalName().getBytes();
 			sink.writeInt(localNameBytes.length);
 			sink.write(localNameBytes);
-			final NodeReferences value = node.getValue();
-			final Set<Long> nodeKeys = value.getNodeKeys();
-			sink.writeInt(nodeKeys.size());
-			for (final long nodeKey : nodeKeys) {
-				sink.writeLong(nodeKey);
-			}
+			serializeNodeReferences(sink, node.getValue());
 			serializeDelegate(node.getNodeDelegate(), sink, pageReadTrx);
 			putVarLong(sink, node.getLeftChildKey());
 			putVarLong(sink, node.getRightChildKey());
@@ -892,6 +835,13 @@ public enum Kind implements NodePersistenter {
 	/** Class. */
 	private final Class<? extends Record> mClass;
 
+	/**
+	 * Format of serialized node references. It's written in place of the number
+	 * of node keys, with which the references of the previous formats start, and
+	 * is therefore negative.
+	 */
+	private static final int NODE_REFERENCES_FORMAT = -1;
+
 	/** Mapping of keys -> nodes. */
 	private static final Map<Byte, Kind> INSTANCEFORID = new HashMap<>();
 
@@ -970,10 +920,12 @@ public enum Kind implements NodePersistenter {
 				final byte[] deweyIDBytes = new byte[size];
 				source.readFully(deweyIDBytes);
 
+				// The bytes of the previous deweyID are cached, so they are neither
+				// encoded again nor copied twice.
 				final byte[] bytes = new byte[cutOffSize + deweyIDBytes.length];
-				final ByteBuffer target = ByteBuffer.wrap(bytes);
-				target.put(Arrays.copyOfRange(previousDeweyIDBytes, 0, cutOffSize));
-				target.put(deweyIDBytes);
+				System.arraycopy(previousDeweyIDBytes, 0, bytes, 0, cutOffSize);
+				System.arraycopy(deweyIDBytes, 0, bytes, cutOffSize,
+						deweyIDBytes.length);
 
 				return Optional.of(new SirixDeweyID(bytes));
 			} else {
@@ -1013,6 +965,91 @@ public enum Kind implements NodePersistenter {
 		}
 	}
 
+	/**
+	 * Serialize node references as {@link #NODE_REFERENCES_FORMAT}, the number
+	 * of node keys, and the length and the bytes of the encoded node keys, that
+	 * is the first node key and the gaps between the ascending node keys.
+	 * 
+	 * @param sink
+	 *          the output
+	 * @param references
+	 *          the node references to serialize
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private static void serializeNodeReferences(final DataOutput sink,
+			final NodeReferences references) throws IOException {
+		final byte[] nodeKeys = references.getEncodedNodeKeys();
+		sink.writeInt(NODE_REFERENCES_FORMAT);
+		sink.writeInt(references.size());
+		sink.writeInt(nodeKeys.length);
+		sink.write(nodeKeys);
+	}
+
+	/**
+	 * Deserialize node references written by
+	 * {@link #serializeNodeReferences(DataOutput, NodeReferences)}. The node
+	 * keys are only decoded on first access, such that the number of references
+	 * is available without decoding them. References of the previous format,
+	 * which starts with the number of node keys, are decoded immediately.
+	 * 
+	 * @param source
+	 *          the input
+	 * @param gaps
+	 *          determines if the node keys of the previous format are encoded as
+	 *          the first node key and the gaps between them (CAS index), or
+	 *          as plain longs in arbitrary order (path and name index)
+	 * @return the node references
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private static NodeReferences deserializeNodeReferences(
+			final DataInput source, final boolean gaps) throws IOException {
+		final int format = source.readInt();
+		if (format >= 0) {
+			return deserializePreviousNodeReferences(source, format, gaps);
+		}
+		if (format != NODE_REFERENCES_FORMAT) {
+			throw new IOException("Unknown format of node references: " + format);
+		}
+		final int size = source.readInt();
+		final byte[] nodeKeys = new byte[source.readInt()];
+		source.readFully(nodeKeys);
+		return new NodeReferences(size, nodeKeys);
+	}
+
+	/**
+	 * Deserialize node references of the previous format, which doesn't store
+	 * the length of the encoded node keys.
+	 * 
+	 * @param source
+	 *          the input
+	 * @param size
+	 *          the number of node keys, which has already been read
+	 * @param gaps
+	 *          determines if the node keys are encoded as the first node key and
+	 *          the gaps between them, or as plain longs in arbitrary order
+	 * @return the node references
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private static NodeReferences deserializePreviousNodeReferences(
+			final DataInput source, final @Nonnegative int size, final boolean gaps)
+			throws IOException {
+		final long[] nodeKeys = new long[size];
+		long nodeKey = 0;
+		for (int i = 0; i < size; i++) {
+			if (gaps) {
+				nodeKey += getVarLong(source);
+				nodeKeys[i] = nodeKey;
+			} else {
+				nodeKeys[i] = source.readLong();
+			}
+		}
+		Arrays.sort(nodeKeys);
+		return new NodeReferences(nodeKeys, size);
+	}
+
 	/**
 	 * Deserialize node delegate without stored dewey IDs.
 	 *
@@ -1087,7 +1124,7 @@ public enum Kind implements NodePersistenter {
 			final @Nonnegative int i) throws IOException {
 		sink.writeByte(i);
 		sink.writeByte(deweyID.length - i);
-		sink.write(Arrays.copyOfRange(deweyID, i, deweyID.length));
+		sink.write(deweyID, i, deweyID.length - i);
 	}
 
 	/**
@@ -1173,14 +1210,38 @@ public enum Kind implements NodePersistenter {
 	 */
 	private static final void serializeValDelegate(
 			final ValNodeDelegate valueDel, final DataOutput sink) throws IOException {
-		final boolean isCompressed = valueDel.isCompressed();
-		sink.writeByte(isCompressed ? (byte) 1 : (byte) 0);
-		final byte[] value = isCompressed ? valueDel.getCompressed() : valueDel
-				.getRawValue();
+		final byte encoding;
+		final byte[] value;
+		// Encoding and value have to match, even if the value is compressed
+		// concurrently.
+		synchronized (valueDel) {
+			encoding = valueDel.getEncoding().getID();
+			value = valueDel.getCompressed();
+		}
+		sink.writeByte(encoding);
 		sink.writeInt(value.length);
 		sink.write(value);
 	}
 
+	/**
+	 * Deserializing a {@link ValNodeDelegate} instance. A dictionary compressed
+	 * value is decompressed lazily, once the record page has set its dictionary.
+	 *
+	 * @param nodeDel
+	 *          the {@link NodeDelegate} of the node
+	 * @param source
+	 *          to deserialize from
+	 * @return the {@link ValNodeDelegate} instance
+	 */
+	private static final ValNodeDelegate deserializeValDelegate(
+			final NodeDelegate nodeDel, final DataInput source) throws IOException {
+		final ValNodeDelegate.Encoding encoding = ValNodeDelegate.Encoding
+				.getEncoding(source.readByte());
+		final byte[] vals = new byte[source.readInt()];
+		source.readFully(vals, 0, vals.length);
+		return new ValNodeDelegate(nodeDel, vals, encoding);
+	}
+
 	/**
 	 * Simple DumbNode just for testing the {@link UnorderedKeyValuePage}s.
 	 *
@@ -12,8 +12,8 @@ import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.delegates.StructNodeDelegate;
 import org.sirix.node.delegates.ValNodeDelegate;
 import org.sirix.node.immutable.ImmutablePI;
+import org.sirix.node.interfaces.DelegatingValueNode;
 import org.sirix.node.interfaces.NameNode;
-import org.sirix.node.interfaces.ValueNode;
 import org.sirix.settings.Constants;
 
 import com.google.common.base.Objects;
@@ -26,7 +26,7 @@ import com.google.common.base.Objects;
  * </p>
  */
 public final class PINode extends AbstractStructForwardingNode implements
-		ValueNode, NameNode {
+		DelegatingValueNode, NameNode {
 
 	/** Delegate for name node information. */
 	private final NameNodeDelegate mNameDel;
@@ -159,7 +159,8 @@ public final class PINode extends AbstractStructForwardingNode implements
 	 * 
 	 * @return the {@link ValNodeDelegate} instance
 	 */
-	ValNodeDelegate getValNodeDelegate() {
+	@Override
+	public ValNodeDelegate getValNodeDelegate() {
 		return mValDel;
 	}
 
@@ -59,6 +59,10 @@ public class SirixDeweyID implements Comparable<SirixDeweyID>, SimpleDeweyID {
 	private final int[] divisionValues;
 	private final int level;
 
+	// the encoded divisions, which are compared byte-wise; set lazily if the
+	// deweyID hasn't been created from its bytes
+	private byte[] bytes;
+
 	// possible bitlength for one division
 	// private final static byte[] divisionLengthArray =
 	// {3,4,6,8,12,16,20,24,31};
@@ -315,6 +319,9 @@ public class SirixDeweyID implements Comparable<SirixDeweyID>, SimpleDeweyID {
 		this.level = currentLevel;
 		this.divisionValues = new int[division];
 		System.arraycopy(tempDivision, 0, divisionValues, 0, division);
+		if (deweyIDbytes.length == byteLength(divisionValues)) {
+			this.bytes = deweyIDbytes.clone();
+		}
 	}
 
 	public SirixDeweyID(byte[] deweyIDbytes, int offset, int length) {
@@ -418,6 +425,9 @@ public class SirixDeweyID implements Comparable<SirixDeweyID>, SimpleDeweyID {
 		this.level = currentLevel;
 		this.divisionValues = new int[division];
 		System.arraycopy(tempDivision, 0, divisionValues, 0, division);
+		if (length == byteLength(divisionValues)) {
+			this.bytes = Arrays.copyOfRange(deweyIDbytes, offset, offset + length);
+		}
 	}
 
 	public SirixDeweyID(int[] divisionValues) {
@@ -618,8 +628,20 @@ public class SirixDeweyID implements Comparable<SirixDeweyID>, SimpleDeweyID {
 		return bitIndex;
 	}
 
+	/**
+	 * Get the encoded divisions. The bytes are computed once and shared, thus
+	 * they must not be modified.
+	 * 
+	 * @return the encoded divisions, which are ordered byte-wise in document
+	 *         order
+	 */
 	public byte[] toBytes() {
-		return toBytes(divisionValues);
+		byte[] bytes = this.bytes;
+		if (bytes == null) {
+			bytes = toBytes(divisionValues);
+			this.bytes = bytes;
+		}
+		return bytes;
 	}
 
 	public byte[] toAttributeRootBytes() {
@@ -629,7 +651,8 @@ public class SirixDeweyID implements Comparable<SirixDeweyID>, SimpleDeweyID {
 		return toBytes(attRootDivisions);
 	}
 
-	private byte[] toBytes(int[] divisionValues) {
+	// calculates the number of bytes needed to store the divisions
+	private static int byteLength(int[] divisionValues) {
 		// calculate needed bits for deweyID
 		int numberOfDivisionBits = 0;
 
@@ -655,12 +678,15 @@ public class SirixDeweyID implements Comparable<SirixDeweyID>, SimpleDeweyID {
 				numberOfDivisionBits += completeDivisionLengthArray[8];
 		}
 
-		byte[] deweyIDbytes;
 		if (numberOfDivisionBits % 8 == 0) {
-			deweyIDbytes = new byte[(numberOfDivisionBits / 8)];
+			return numberOfDivisionBits / 8;
 		} else {
-			deweyIDbytes = new byte[(numberOfDivisionBits / 8) + 1];
+			return (numberOfDivisionBits / 8) + 1;
 		}
+	}
+
+	private byte[] toBytes(int[] divisionValues) {
+		byte[] deweyIDbytes = new byte[byteLength(divisionValues)];
 
 		int bitIndex = 0;
 		for (int i = 1; i < this.divisionValues.length; i++) {
@@ -690,25 +716,18 @@ public class SirixDeweyID implements Comparable<SirixDeweyID>, SimpleDeweyID {
 			return 0;
 		}
 
-		int[] myD = this.divisionValues;
-		int[] oD = deweyID.divisionValues;
-		int myLen = myD.length;
-		int oLen = oD.length;
-		int len = ((myLen <= oLen) ? myLen : oLen);
-
-		int pos = -1;
-		while (++pos < len) {
-			if (myD[pos] != oD[pos]) {
-				return myD[pos] - oD[pos];
-			}
-		}
-
-		return (myLen == oLen) ? 0 : (myLen < oLen) ? -1 : 1;
+		// the encoding preserves the document order, thus the divisions don't
+		// have to be decoded
+		return compare(toBytes(), deweyID.toBytes());
 	}
 
 	@Override
 	public boolean equals(Object object) {
-		return ((object instanceof SirixDeweyID) && (compareTo((SirixDeweyID) object) == 0));
+		if (this == object) {
+			return true;
+		}
+		return ((object instanceof SirixDeweyID) && Arrays.equals(toBytes(),
+				((SirixDeweyID) object).toBytes()));
 	}
 
 	public static int compare(byte[] deweyID1, byte[] deweyID2) {
@@ -820,19 +839,13 @@ public class SirixDeweyID implements Comparable<SirixDeweyID>, SimpleDeweyID {
 		int myLen = myD.length;
 		int oLen = oD.length;
 
-		if ((myLen - oLen != -1) && ((myLen != oLen - 2) || (oD[oLen - 2] != 1))) {
+		// a child might have additional even divisions in between
+		if ((deweyID.level != level + 1)
+				&& ((myLen != oLen - 2) || (oD[oLen - 2] != 1))) {
 			return false;
 		}
 
-		int len = myLen;
-		int pos = -1;
-		while (++pos < len) {
-			if (myD[pos] != oD[pos]) {
-				return false;
-			}
-		}
-
-		return true;
+		return isAncestorOf(deweyID);
 	}
 
 	public boolean isPrecedingSiblingOf(SirixDeweyID deweyID) {
@@ -37,6 +37,7 @@ import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.delegates.StructNodeDelegate;
 import org.sirix.node.delegates.ValNodeDelegate;
 import org.sirix.node.immutable.ImmutableText;
+import org.sirix.node.interfaces.DelegatingValueNode;
 import org.sirix.node.interfaces.Node;
 import org.sirix.node.interfaces.StructNode;
 import org.sirix.node.interfaces.ValueNode;
@@ -53,7 +54,7 @@ import com.google.common.base.Objects;
  * </p>
  */
 public final class TextNode extends AbstractStructForwardingNode implements
-		ValueNode {
+		DelegatingValueNode {
 
 	/** Delegate for common value node information. */
 	private final ValNodeDelegate mValDel;
@@ -163,6 +164,7 @@ public final class TextNode extends AbstractStructForwardingNode implements
 				.toString();
 	}
 
+	@Override
 	public ValNodeDelegate getValNodeDelegate() {
 		return mValDel;
 	}
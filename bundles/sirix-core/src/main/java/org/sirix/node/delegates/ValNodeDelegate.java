@@ -27,7 +27,6 @@
 package org.sirix.node.delegates;
 
 import java.util.Arrays;
-import java.util.zip.Deflater;
 
 import javax.annotation.Nullable;
 
@@ -39,6 +38,7 @@ import org.sirix.node.interfaces.Node;
 import org.sirix.node.interfaces.ValueNode;
 import org.sirix.settings.Constants;
 import org.sirix.utils.Compression;
+import org.sirix.utils.ValueDictionary;
 
 import com.google.common.base.Objects;
 
@@ -47,20 +47,98 @@ import com.google.common.base.Objects;
  * independent values are stored by the nodes delegating the calls of the
  * interface {@link ValueNode} to this class.
  * 
+ * <p>
+ * Values are held uncompressed in memory. They are compressed with the
+ * {@link ValueDictionary} of the record page once the page is serialized, and
+ * decompressed lazily and only once after the page has been read.
+ * </p>
+ * 
+ * <p>
+ * Records are shared between transactions through the page caches, thus the
+ * stored value, its encoding and its dictionary are guarded by the delegate
+ * itself, whereas the uncompressed value is published through a volatile
+ * field.
+ * </p>
+ * 
  * @author Sebastian Graf, University of Konstanz
  * 
  */
 public class ValNodeDelegate extends AbstractForwardingNode implements
 		ValueNode {
 
+	/** The encoding of a stored value. */
+	public enum Encoding {
+		/** Value is stored uncompressed. */
+		NONE((byte) 0),
+
+		/** Value is compressed with a per value {@code Deflater}. */
+		DEFLATE((byte) 1),
+
+		/** Value is compressed with the dictionary of the record page. */
+		DICTIONARY((byte) 2);
+
+		/** Identifier of the encoding. */
+		private final byte mID;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param id
+		 *          identifier of the encoding
+		 */
+		private Encoding(final byte id) {
+			mID = id;
+		}
+
+		/**
+		 * Get the identifier.
+		 * 
+		 * @return identifier of the encoding
+		 */
+		public byte getID() {
+			return mID;
+		}
+
+		/**
+		 * Get the encoding based on its identifier.
+		 * 
+		 * @param id
+		 *          the identifier
+		 * @return the encoding
+		 * @throws IllegalArgumentException
+		 *           if the identifier is unknown
+		 */
+		public static Encoding getEncoding(final byte id) {
+			switch (id) {
+			case 0:
+				return NONE;
+			case 1:
+				return DEFLATE;
+			case 2:
+				return DICTIONARY;
+			default:
+				throw new IllegalArgumentException("Unknown encoding: " + id);
+			}
+		}
+	}
+
 	/** Delegate for common node information. */
 	private NodeDelegate mDelegate;
 
-	/** Storing the value. */
-	private byte[] mVal;
+	/** The uncompressed value, {@code null} if not decompressed yet. */
+	private volatile byte[] mVal;
+
+	/** The stored (compressed) value, {@code null} if not compressed. */
+	private byte[] mCompressedVal;
+
+	/** Encoding of the stored value. */
+	private Encoding mEncoding;
 
-	/** Determines if input has been compressed. */
-	private boolean mCompressed;
+	/** Dictionary of the record page, if the value is dictionary compressed. */
+	private ValueDictionary mDictionary;
+
+	/** Determines if the value might be compressed with a page dictionary. */
+	private final boolean mCompressible;
 
 	/**
 	 * Constructor
@@ -70,15 +148,59 @@ public class ValNodeDelegate extends AbstractForwardingNode implements
 	 * @param val
 	 *          the value
 	 * @param compressed
-	 *          compress value or not
+	 *          determines if the value has been compressed with a per value
+	 *          {@code Deflater}
 	 */
 	public ValNodeDelegate(final NodeDelegate nodeDel, final byte[] val,
 			final boolean compressed) {
+		this(nodeDel, val, compressed ? Encoding.DEFLATE : Encoding.NONE);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param nodeDel
+	 *          {@link NodeDelegate} reference
+	 * @param val
+	 *          the value as stored
+	 * @param encoding
+	 *          the encoding of the stored value (in case of
+	 *          {@link Encoding#DICTIONARY} the page dictionary has to be set
+	 *          through {@link #setDictionary(ValueDictionary)} afterwards)
+	 */
+	public ValNodeDelegate(final NodeDelegate nodeDel, final byte[] val,
+			final Encoding encoding) {
+		this(nodeDel, val, encoding, true);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param nodeDel
+	 *          {@link NodeDelegate} reference
+	 * @param val
+	 *          the value as stored
+	 * @param encoding
+	 *          the encoding of the stored value (in case of
+	 *          {@link Encoding#DICTIONARY} the page dictionary has to be set
+	 *          through {@link #setDictionary(ValueDictionary)} afterwards)
+	 * @param compressible
+	 *          determines if the value might be compressed with the dictionary
+	 *          of its record page, once the page is serialized
+	 */
+	public ValNodeDelegate(final NodeDelegate nodeDel, final byte[] val,
+			final Encoding encoding, final boolean compressible) {
 		assert nodeDel != null : "nodeDel must not be null!";
 		assert val != null : "val must not be null!";
+		assert encoding != null : "encoding must not be null!";
 		mDelegate = nodeDel;
-		mVal = val;
-		mCompressed = compressed;
+		mEncoding = encoding;
+		mCompressible = compressible;
+		if (encoding == Encoding.NONE) {
+			mVal = val;
+		} else {
+			mCompressedVal = val;
+		}
 	}
 
 	@Override
@@ -88,7 +210,31 @@ public class ValNodeDelegate extends AbstractForwardingNode implements
 
 	@Override
 	public byte[] getRawValue() {
-		return mCompressed ? Compression.decompress(mVal) : mVal;
+		final byte[] value = mVal;
+		return value == null ? decompress() : value;
+	}
+
+	/** Decompress the stored value and cache the uncompressed value. */
+	private synchronized byte[] decompress() {
+		byte[] value = mVal;
+		if (value == null) {
+			switch (mEncoding) {
+			case DEFLATE:
+				value = Compression.decompress(mCompressedVal);
+				break;
+			case DICTIONARY:
+				if (mDictionary == null) {
+					throw new IllegalStateException(
+							"The dictionary of the record page has not been set!");
+				}
+				value = mDictionary.decompress(mCompressedVal);
+				break;
+			default:
+				throw new AssertionError();
+			}
+			mVal = value;
+		}
+		return value;
 	}
 
 	@Override
@@ -101,15 +247,70 @@ public class ValNodeDelegate extends AbstractForwardingNode implements
 	 * 
 	 * @return {@code value} which might be compressed
 	 */
-	public byte[] getCompressed() {
-		return mVal;
+	public synchronized byte[] getCompressed() {
+		return mEncoding == Encoding.NONE ? getRawValue() : mCompressedVal;
 	}
 
 	@Override
-	public void setValue(final byte[] value) {
-		mCompressed = new String(value).length() > 10 ? true : false;
-		mVal = mCompressed ? Compression.compress(value,
-				Deflater.DEFAULT_COMPRESSION) : value;
+	public synchronized void setValue(final byte[] value) {
+		mVal = value;
+		mCompressedVal = null;
+		mEncoding = Encoding.NONE;
+		mDictionary = null;
+	}
+
+	/**
+	 * Compress the value with the dictionary of the record page. The value is
+	 * kept uncompressed if it isn't compressible, if it is too short or if the
+	 * compressed value isn't shorter.
+	 * 
+	 * @param dictionary
+	 *          the dictionary of the record page
+	 */
+	public synchronized void compress(final ValueDictionary dictionary) {
+		assert dictionary != null : "dictionary must not be null!";
+		if (mEncoding == Encoding.DICTIONARY && dictionary.equals(mDictionary)) {
+			return;
+		}
+		final byte[] value = getRawValue();
+		if (mCompressible && !dictionary.isEmpty()
+				&& value.length >= ValueDictionary.MIN_VALUE_LENGTH) {
+			final byte[] compressed = dictionary.compress(value);
+			if (compressed.length < value.length) {
+				mCompressedVal = compressed;
+				mEncoding = Encoding.DICTIONARY;
+				mDictionary = dictionary;
+				return;
+			}
+		}
+		mCompressedVal = null;
+		mEncoding = Encoding.NONE;
+		mDictionary = null;
+	}
+
+	/**
+	 * Set the dictionary of the record page to decompress a
+	 * {@link Encoding#DICTIONARY} encoded value.
+	 * 
+	 * @param dictionary
+	 *          the dictionary of the record page
+	 */
+	public synchronized void setDictionary(final ValueDictionary dictionary) {
+		assert dictionary != null : "dictionary must not be null!";
+		if (mEncoding == Encoding.DICTIONARY) {
+			mDictionary = dictionary;
+		}
+	}
+
+	/**
+	 * Get the dictionary of the record page a {@link Encoding#DICTIONARY}
+	 * encoded value is decompressed with.
+	 * 
+	 * @return the dictionary or {@code null}, if the value isn't encoded with a
+	 *         dictionary or it hasn't been set
+	 */
+	public synchronized ValueDictionary getDictionary() {
+		return mDictionary;
 	}
 
 	/**
@@ -117,23 +318,22 @@ public class ValNodeDelegate extends AbstractForwardingNode implements
 	 * 
 	 * @return {@code true}, if it has been compressed, {@code false} otherwise
 	 */
-	public boolean isCompressed() {
-		return mCompressed;
+	public synchronized boolean isCompressed() {
+		return mEncoding != Encoding.NONE;
 	}
 
 	/**
-	 * Set compression.
+	 * Get the encoding of the stored value.
 	 * 
-	 * @param compressed
-	 *          determines if value is compressed or not
+	 * @return the encoding
 	 */
-	public void setCompressed(final boolean compressed) {
-		mCompressed = compressed;
+	public synchronized Encoding getEncoding() {
+		return mEncoding;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(mDelegate, mVal);
+		return Objects.hashCode(mDelegate, Arrays.hashCode(getRawValue()));
 	}
 
 	@Override
@@ -141,14 +341,14 @@ public class ValNodeDelegate extends AbstractForwardingNode implements
 		if (obj instanceof ValNodeDelegate) {
 			final ValNodeDelegate other = (ValNodeDelegate) obj;
 			return Objects.equal(mDelegate, other.mDelegate)
-					&& Arrays.equals(mVal, other.mVal);
+					&& Arrays.equals(getRawValue(), other.getRawValue());
 		}
 		return false;
 	}
 
 	@Override
 	public String toString() {
-		return Objects.toStringHelper(this).add("value", new String(mVal))
+		return Objects.toStringHelper(this).add("value", new String(getRawValue()))
 				.toString();
 	}
 
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.page;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.sirix.node.Kind;
+import org.sirix.node.interfaces.NameNode;
+import org.sirix.node.interfaces.Record;
+import org.sirix.node.interfaces.ValueNode;
+import org.sirix.page.interfaces.KeyValuePage;
+import org.sirix.utils.LongLongHashMap;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Bloom filters over the local names and values of the records of a record
+ * page. A filter is written alongside the reference to the page in the parent
+ * {@link IndirectPage}, such that a page, which can't contain a record with a
+ * given name or value, is skipped without reading any of its fragments.
+ * 
+ * <p>
+ * Names are added by their local name key and values by a 32 bit hash of the
+ * raw value. Both are mapped to disjoint ranges of long entries.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class BloomFilters {
+
+	/** False positive probability the filters are sized for. */
+	private static final double FPP = 0.01;
+
+	/** Hash function for the values. */
+	private static final HashFunction VALUE_HASH = Hashing.murmur3_32();
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private BloomFilters() {
+		throw new AssertionError("May never be instantiated!");
+	}
+
+	/**
+	 * Get the filter entry of a local name.
+	 * 
+	 * @param localNameKey
+	 *          the key of the local name
+	 * @return the filter entry
+	 */
+	public static long nameEntry(final int localNameKey) {
+		return (1L << 32) | (localNameKey & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Get the filter entry of a value.
+	 * 
+	 * @param value
+	 *          the raw value
+	 * @return the filter entry
+	 */
+	public static long valueEntry(final @Nonnull byte[] value) {
+		return VALUE_HASH.hashBytes(value).asInt() & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Create a filter over the records of a record page, that is over the
+	 * records of the modified page and the records of the complete page, which
+	 * have not been modified. Thus, the filter covers the whole page, even if
+	 * only a delta is written.
+	 * 
+	 * @param complete
+	 *          the complete page
+	 * @param modified
+	 *          the modified page
+	 * @return the filter
+	 */
+	public static BloomFilter<Long> create(
+			final @Nonnull KeyValuePage<Long, Record> complete,
+			final @Nonnull KeyValuePage<Long, Record> modified) {
+		final LongLongHashMap entries = new LongLongHashMap(0, modified.size());
+		for (final long key : keys(modified)) {
+			add(entries, modified.getValue(key));
+		}
+		for (final long key : keys(complete)) {
+			if (modified.getValue(key) == null) {
+				add(entries, complete.getValue(key));
+			}
+		}
+		final long[] keys = entries.keys();
+		final BloomFilter<Long> filter = BloomFilter.create(Funnels.longFunnel(),
+				Math.max(1, keys.length), FPP);
+		for (final long entry : keys) {
+			filter.put(entry);
+		}
+		return filter;
+	}
+
+	/**
+	 * Get the keys of the records of a page, including the records stored in
+	 * overflow pages, which are loaded on demand.
+	 */
+	private static List<Long> keys(final KeyValuePage<Long, Record> page) {
+		final List<Long> keys = new ArrayList<>(page.size());
+		for (final Entry<Long, Record> entry : page.entrySet()) {
+			keys.add(entry.getKey());
+		}
+		for (final Entry<Long, PageReference> entry : page.referenceEntrySet()) {
+			keys.add(entry.getKey());
+		}
+		return keys;
+	}
+
+	private static void add(final LongLongHashMap entries,
+			final @Nullable Record record) {
+		if (record == null || record.getKind() == Kind.DELETE) {
+			return;
+		}
+		if (record instanceof NameNode) {
+			entries.put(nameEntry(((NameNode) record).getLocalNameKey()), 0);
+		}
+		if (record instanceof ValueNode) {
+			entries.put(valueEntry(((ValueNode) record).getRawValue()), 0);
+		}
+	}
+
+	/**
+	 * Serialize a filter.
+	 * 
+	 * @param out
+	 *          the output to write to
+	 * @param filter
+	 *          the filter to serialize
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public static void serialize(final DataOutput out,
+			final BloomFilter<Long> filter) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		filter.writeTo(bytes);
+		out.writeInt(bytes.size());
+		out.write(bytes.toByteArray());
+	}
+
+	/**
+	 * Deserialize a filter.
+	 * 
+	 * @param in
+	 *          the input to read from
+	 * @return the filter
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public static BloomFilter<Long> deserialize(final DataInput in)
+			throws IOException {
+		final byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return BloomFilter.readFrom(new ByteArrayInputStream(bytes),
+				Funnels.longFunnel());
+	}
+}
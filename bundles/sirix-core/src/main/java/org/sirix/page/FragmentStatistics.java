@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.page;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.sirix.node.Utils.getVarLong;
+import static org.sirix.node.Utils.putVarLong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+import org.sirix.settings.Versioning;
+
+import com.google.common.base.Objects;
+
+/**
+ * Statistics of a record page fragment, which are maintained by
+ * {@link Versioning#ADAPTIVE} to decide whether a modified page is written as
+ * a delta or as a full dump.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class FragmentStatistics {
+
+	/** Statistics of a page, which hasn't been written yet. */
+	public static final FragmentStatistics EMPTY = new FragmentStatistics(0, 0,
+			0f);
+
+	/**
+	 * Number of fragments to read in order to reconstruct the page, that is
+	 * {@code 1} for a full dump.
+	 */
+	private final int mFragments;
+
+	/** Number of records in the delta fragments since the last full dump. */
+	private final int mDeltaRecords;
+
+	/**
+	 * Exponentially weighted moving average of the fraction of records, which
+	 * have been changed per modifying revision.
+	 */
+	private final float mChangeRate;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param fragments
+	 *          number of fragments to read in order to reconstruct the page
+	 * @param deltaRecords
+	 *          number of records in the delta fragments since the last full dump
+	 * @param changeRate
+	 *          average fraction of records changed per modifying revision
+	 */
+	public FragmentStatistics(final @Nonnegative int fragments,
+			final @Nonnegative int deltaRecords, final float changeRate) {
+		checkArgument(fragments >= 0, "fragments must be >= 0!");
+		checkArgument(deltaRecords >= 0, "deltaRecords must be >= 0!");
+		checkArgument(changeRate >= 0 && changeRate <= 1,
+				"changeRate must be in the range of 0 to 1!");
+		mFragments = fragments;
+		mDeltaRecords = deltaRecords;
+		mChangeRate = changeRate;
+	}
+
+	/**
+	 * Read the statistics.
+	 * 
+	 * @param in
+	 *          input to read from
+	 * @return the statistics
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public static FragmentStatistics deserialize(final DataInput in)
+			throws IOException {
+		final int fragments = (int) getVarLong(in);
+		final int deltaRecords = (int) getVarLong(in);
+		final float changeRate = in.readFloat();
+		return new FragmentStatistics(fragments, deltaRecords, changeRate);
+	}
+
+	/**
+	 * Write the statistics.
+	 * 
+	 * @param out
+	 *          output to write to
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	public void serialize(final DataOutput out) throws IOException {
+		putVarLong(out, mFragments);
+		putVarLong(out, mDeltaRecords);
+		out.writeFloat(mChangeRate);
+	}
+
+	/**
+	 * Get the number of fragments to read in order to reconstruct the page.
+	 * 
+	 * @return number of fragments, {@code 0} if the page hasn't been written yet
+	 */
+	public int getFragments() {
+		return mFragments;
+	}
+
+	/**
+	 * Get the number of records in the delta fragments since the last full dump.
+	 * 
+	 * @return number of records in the delta fragments
+	 */
+	public int getDeltaRecords() {
+		return mDeltaRecords;
+	}
+
+	/**
+	 * Get the average fraction of records changed per modifying revision.
+	 * 
+	 * @return the change rate in the range of {@code 0} to {@code 1}
+	 */
+	public float getChangeRate() {
+		return mChangeRate;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(mFragments, mDeltaRecords, mChangeRate);
+	}
+
+	@Override
+	public boolean equals(final @Nullable Object obj) {
+		if (obj instanceof FragmentStatistics) {
+			final FragmentStatistics other = (FragmentStatistics) obj;
+			return mFragments == other.mFragments
+					&& mDeltaRecords == other.mDeltaRecords
+					&& mChangeRate == other.mChangeRate;
+		}
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("fragments", mFragments)
+				.add("deltaRecords", mDeltaRecords).add("changeRate", mChangeRate)
+				.toString();
+	}
+}
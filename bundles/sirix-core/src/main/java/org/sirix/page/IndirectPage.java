@@ -28,6 +28,7 @@
 package org.sirix.page;
 
 import java.io.DataInputStream;
+import java.io.DataOutput;
 import java.io.IOException;
 
 import org.sirix.page.delegates.PageDelegate;
@@ -40,9 +41,18 @@ import org.sirix.settings.Constants;
  * <p>
  * Indirect page holds a set of references to build a reference tree.
  * </p>
+ * 
+ * <p>
+ * The bloom filters of referenced record pages are appended after the
+ * references, if any. As indirect pages are always stored on their own, older
+ * pages without filters are recognized by the end of the input.
+ * </p>
  */
 public final class IndirectPage extends AbstractForwardingPage {
 
+	/** Marks that bloom filters follow the references. */
+	private static final int FILTERS = 1;
+
 	/** {@link PageDelegate} reference. */
 	private final PageDelegate mDelegate;
 
@@ -62,6 +72,12 @@ public final class IndirectPage extends AbstractForwardingPage {
 	 */
 	protected IndirectPage(final DataInputStream in) throws IOException {
 		mDelegate = new PageDelegate(Constants.INP_REFERENCE_COUNT, in);
+		if (in.read() == FILTERS) {
+			final PageReference[] references = mDelegate.getReferences();
+			for (int i = 0, size = in.readShort(); i < size; i++) {
+				references[in.readShort()].setFilter(BloomFilters.deserialize(in));
+			}
+		}
 	}
 
 	/**
@@ -79,6 +95,28 @@ public final class IndirectPage extends AbstractForwardingPage {
 		return mDelegate;
 	}
 
+	@Override
+	public void serialize(final DataOutput out) throws IOException {
+		mDelegate.serialize(out);
+		final PageReference[] references = mDelegate.getReferences();
+		int filters = 0;
+		for (final PageReference reference : references) {
+			if (reference.getFilter() != null) {
+				filters++;
+			}
+		}
+		if (filters > 0) {
+			out.writeByte(FILTERS);
+			out.writeShort(filters);
+			for (int offset = 0; offset < references.length; offset++) {
+				if (references[offset].getFilter() != null) {
+					out.writeShort(offset);
+					BloomFilters.serialize(out, references[offset].getFilter());
+				}
+			}
+		}
+	}
+
 	@Override
 	public Page setDirty(final boolean isDirty) {
 		mDelegate.setDirty(isDirty);
@@ -34,9 +34,11 @@ import java.util.HashMap;
 import java.util.Map;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.sirix.api.PageReadTrx;
 import org.sirix.api.PageWriteTrx;
+import org.sirix.exception.SirixIOException;
 import org.sirix.index.name.Names;
 import org.sirix.node.Kind;
 import org.sirix.node.interfaces.Record;
@@ -53,9 +55,25 @@ import com.google.common.base.Objects;
  * <p>
  * Name page holds all names and their keys for a revision.
  * </p>
+ * 
+ * <p>
+ * To avoid rewriting all names on every commit, a name page usually only
+ * stores the names changed since the name page of the previous revision,
+ * together with a reference to that page. The full dictionary is written
+ * every {@link #MAX_DELTA_DEPTH} revisions, or if most names changed.
+ * </p>
  */
 public final class NamePage extends AbstractForwardingPage {
 
+	/** Maximum number of name pages, which have to be read to restore names. */
+	public static final int MAX_DELTA_DEPTH = 16;
+
+	/**
+	 * Marks a page, which only stores changes, in place of the number of
+	 * maximum node keys. Pages storing all names keep the original layout.
+	 */
+	private static final int DELTA_FORMAT = -1;
+
 	/** Attribute names. */
 	private final Names mAttributes;
 
@@ -74,6 +92,15 @@ public final class NamePage extends AbstractForwardingPage {
 	/** Maximum node keys. */
 	private final Map<Integer, Long> mMaxNodeKeys;
 
+	/**
+	 * Key of the name page the changes are based on, or {@link Constants#NULL_ID}
+	 * if all names are stored.
+	 */
+	private long mPreviousKey;
+
+	/** Number of name pages, which store changes only, down to a full one. */
+	private int mDepth;
+
 	/**
 	 * Create name page.
 	 */
@@ -84,6 +111,7 @@ public final class NamePage extends AbstractForwardingPage {
 		mElements = Names.getInstance();
 		mNamespaces = Names.getInstance();
 		mPIs = Names.getInstance();
+		mPreviousKey = Constants.NULL_ID;
 	}
 
 	/**
@@ -91,18 +119,114 @@ public final class NamePage extends AbstractForwardingPage {
 	 * 
 	 * @param in
 	 *          input bytes to read from
+	 * @param pageReadTrx
+	 *          transaction used to read the name pages of former revisions, if
+	 *          only changes are stored
 	 */
-	protected NamePage(final DataInputStream in) throws IOException {
+	protected NamePage(final DataInputStream in,
+			final @Nullable PageReadTrx pageReadTrx) throws IOException {
 		mDelegate = new PageDelegate(PageConstants.MAX_INDEX_NR, in);
-		final int size = in.readInt();
+		int size = in.readInt();
+		final boolean delta = size == DELTA_FORMAT;
+		if (delta) {
+			size = in.readInt();
+		}
 		mMaxNodeKeys = new HashMap<>(size);
 		for (int i = 0; i < size; i++) {
 			mMaxNodeKeys.put(i, in.readLong());
 		}
-		mElements = Names.clone(in);
-		mNamespaces = Names.clone(in);
-		mAttributes = Names.clone(in);
-		mPIs = Names.clone(in);
+		if (delta) {
+			mPreviousKey = in.readLong();
+			mDepth = in.readInt();
+			if (pageReadTrx == null) {
+				throw new IOException(
+						"A transaction is needed to read the names of former revisions!");
+			}
+			final NamePage previous;
+			try {
+				previous = pageReadTrx.readNamePage(mPreviousKey);
+			} catch (final SirixIOException e) {
+				throw new IOException(e);
+			}
+			// The previous page is shared, thus its names are copied.
+			mElements = previous.mElements.copy();
+			mNamespaces = previous.mNamespaces.copy();
+			mAttributes = previous.mAttributes.copy();
+			mPIs = previous.mPIs.copy();
+			for (final Names names : new Names[] { mElements, mNamespaces,
+					mAttributes, mPIs }) {
+				names.applyChanges(in);
+			}
+		} else {
+			mPreviousKey = Constants.NULL_ID;
+			mElements = Names.clone(in);
+			mNamespaces = Names.clone(in);
+			mAttributes = Names.clone(in);
+			mPIs = Names.clone(in);
+		}
+	}
+
+	/**
+	 * Copy constructor, which copies the names only.
+	 * 
+	 * @param page
+	 *          the page to copy
+	 */
+	private NamePage(final NamePage page) {
+		mDelegate = new PageDelegate(PageConstants.MAX_INDEX_NR);
+		mMaxNodeKeys = new HashMap<>(page.mMaxNodeKeys);
+		mElements = page.mElements.copy();
+		mNamespaces = page.mNamespaces.copy();
+		mAttributes = page.mAttributes.copy();
+		mPIs = page.mPIs.copy();
+		mPreviousKey = page.mPreviousKey;
+		mDepth = page.mDepth;
+	}
+
+	/**
+	 * Copy the names of this page, such that they can be looked up while this
+	 * page is modified, for instance by readers of uncommitted changes. The
+	 * references to the name indexes are not copied.
+	 * 
+	 * @return the copy
+	 */
+	public NamePage copy() {
+		return new NamePage(this);
+	}
+
+	/**
+	 * Base the names of the next revision on this page, such that only
+	 * subsequent changes have to be written.
+	 * 
+	 * @param key
+	 *          the key under which this page is stored, or
+	 *          {@link Constants#NULL_ID} if it hasn't been written yet
+	 */
+	public void setPreviousKey(final long key) {
+		// Check how this page has been written before the changes are cleared.
+		mDepth = isDelta() ? mDepth + 1 : 1;
+		mPreviousKey = key;
+		for (final Names names : new Names[] { mElements, mNamespaces,
+				mAttributes, mPIs }) {
+			names.clearChanges();
+		}
+	}
+
+	/**
+	 * Determines if only the changes are written.
+	 */
+	private boolean isDelta() {
+		if (mPreviousKey == Constants.NULL_ID || mDepth >= MAX_DELTA_DEPTH) {
+			return false;
+		}
+		int changes = 0;
+		int size = 0;
+		for (final Names names : new Names[] { mElements, mNamespaces,
+				mAttributes, mPIs }) {
+			changes += names.getChangeCount();
+			size += names.size();
+		}
+		return changes * 2 <= size;
 	}
 
 	/**
@@ -221,16 +345,29 @@ public final class NamePage extends AbstractForwardingPage {
 	@Override
 	public void serialize(final DataOutput out) throws IOException {
 		super.serialize(out);
+		final boolean delta = isDelta();
+		if (delta) {
+			out.writeInt(DELTA_FORMAT);
+		}
 		final int size = mMaxNodeKeys.size();
 		out.writeInt(size);
 		for (int i = 0; i < size; i++) {
 			final long keys = mMaxNodeKeys.get(i);
 			out.writeLong(keys);
 		}
-		mElements.serialize(out);
-		mNamespaces.serialize(out);
-		mAttributes.serialize(out);
-		mPIs.serialize(out);
+		if (delta) {
+			out.writeLong(mPreviousKey);
+			out.writeInt(mDepth);
+			mElements.serializeChanges(out);
+			mNamespaces.serializeChanges(out);
+			mAttributes.serializeChanges(out);
+			mPIs.serializeChanges(out);
+		} else {
+			mElements.serialize(out);
+			mNamespaces.serialize(out);
+			mAttributes.serialize(out);
+			mPIs.serialize(out);
+		}
 	}
 
 	@Override
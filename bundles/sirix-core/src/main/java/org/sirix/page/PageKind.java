@@ -77,7 +77,7 @@ public enum PageKind {
 		@Nonnull
 		Page deserializePage(final DataInputStream source,
 				final PageReadTrx pageReadTrx) throws IOException {
-			return new NamePage(source);
+			return new NamePage(source, pageReadTrx);
 		}
 
 		@Override
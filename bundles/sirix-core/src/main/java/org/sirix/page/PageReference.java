@@ -34,6 +34,7 @@ import org.sirix.page.interfaces.Page;
 import org.sirix.settings.Constants;
 
 import com.google.common.base.Objects;
+import com.google.common.hash.BloomFilter;
 
 /**
  * <h1>PageReference</h1>
@@ -58,6 +59,9 @@ public final class PageReference {
 	/** Key in persistent storage. */
 	private long mKey = Constants.NULL_ID;
 
+	/** Bloom filter over the names and values of the referenced record page. */
+	private BloomFilter<Long> mFilter;
+
 	/**
 	 * Default constructor setting up an uninitialized page reference.
 	 */
@@ -75,6 +79,7 @@ public final class PageReference {
 		mPage = reference.mPage;
 		mKeyValuePageKey = reference.mKeyValuePageKey;
 		mKey = reference.mKey;
+		mFilter = reference.mFilter;
 	}
 
 	/**
@@ -115,6 +120,27 @@ public final class PageReference {
 		mKey = key;
 	}
 
+	/**
+	 * Get the bloom filter over the names and values of the referenced record
+	 * page.
+	 * 
+	 * @return the filter or {@code null}, if no filter has been written
+	 */
+	public BloomFilter<Long> getFilter() {
+		return mFilter;
+	}
+
+	/**
+	 * Set the bloom filter over the names and values of the referenced record
+	 * page.
+	 * 
+	 * @param filter
+	 *          the filter or {@code null} to remove it
+	 */
+	public void setFilter(final @Nullable BloomFilter<Long> filter) {
+		mFilter = filter;
+	}
+
 	@Override
 	public String toString() {
 		return Objects.toStringHelper(this).add("keyValuePage", mKeyValuePageKey)
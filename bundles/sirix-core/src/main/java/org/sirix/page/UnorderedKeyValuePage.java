@@ -58,6 +58,7 @@ import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
 import org.sirix.node.Kind;
 import org.sirix.node.SirixDeweyID;
+import org.sirix.node.interfaces.DelegatingValueNode;
 import org.sirix.node.interfaces.Node;
 import org.sirix.node.interfaces.NodePersistenter;
 import org.sirix.node.interfaces.Record;
@@ -65,6 +66,8 @@ import org.sirix.node.interfaces.RecordPersistenter;
 import org.sirix.page.interfaces.KeyValuePage;
 import org.sirix.page.interfaces.Page;
 import org.sirix.settings.Constants;
+import org.sirix.settings.Versioning;
+import org.sirix.utils.ValueDictionary;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Objects.ToStringHelper;
@@ -81,12 +84,26 @@ import com.google.common.primitives.UnsignedBytes;
  * unordered datastructure.
  * </p>
  * <p>
+ * If text compression is enabled for the resource, a {@link ValueDictionary}
+ * is trained from the values of the page, once the page is serialized. It is
+ * stored in front of the records and used to compress each value. A page with
+ * a dictionary starts with the {@link #DICTIONARY_FORMAT} marker instead of
+ * its key, such that pages without a dictionary keep the original layout and
+ * pages written before dictionaries were introduced remain readable.
+ * </p>
+ * <p>
  * The page currently is not thread safe (might have to be for concurrent
  * write-transactions)!
  * </p>
  */
 public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 
+	/**
+	 * Marker in front of the page key of a page, which stores a value
+	 * dictionary (page keys are never negative).
+	 */
+	private static final long DICTIONARY_FORMAT = -1;
+
 	private boolean mAddedReferences;
 
 	/** References to overflow pages. */
@@ -122,6 +139,18 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 	/** Reference to the previous page if any. */
 	private Optional<PageReference> mPreviousPageReference;
 
+	/** Determines if values are compressed with a page dictionary. */
+	private final boolean mCompression;
+
+	/** Dictionary to compress values, {@code null} if not trained yet. */
+	private ValueDictionary mDictionary;
+
+	/** Determines if the resource uses adaptive versioning. */
+	private final boolean mAdaptive;
+
+	/** Statistics of this fragment, used by adaptive versioning. */
+	private FragmentStatistics mFragmentStatistics;
+
 	/**
 	 * Constructor which initializes a new {@link UnorderedKeyValuePage}.
 	 *
@@ -152,6 +181,10 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 		mPageKind = pageKind;
 		mPersistenter = pageReadTrx.getSession().getResourceConfig().mPersistenter;
 		mPreviousPageReference = previousPageRef;
+		mCompression = pageReadTrx.getSession().getResourceConfig().mCompression;
+		mAdaptive = Versioning.ADAPTIVE == pageReadTrx.getSession()
+				.getResourceConfig().mRevisionKind;
+		mFragmentStatistics = FragmentStatistics.EMPTY;
 
 		if (mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored
 				&& mPersistenter instanceof NodePersistenter) {
@@ -171,10 +204,27 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 	 */
 	protected UnorderedKeyValuePage(final DataInput in,
 			final PageReadTrx pageReadTrx) throws IOException {
-		mRecordPageKey = getVarLong(in);
+		long recordPageKey = getVarLong(in);
+		final boolean hasDictionary = recordPageKey == DICTIONARY_FORMAT;
+		if (hasDictionary) {
+			recordPageKey = getVarLong(in);
+		}
+		mRecordPageKey = recordPageKey;
 		mPersistenter = pageReadTrx.getSession().getResourceConfig().mPersistenter;
 		mPageReadTrx = pageReadTrx;
 		mSlots = new LinkedHashMap<>();
+		mCompression = pageReadTrx.getSession().getResourceConfig().mCompression;
+		mAdaptive = Versioning.ADAPTIVE == pageReadTrx.getSession()
+				.getResourceConfig().mRevisionKind;
+
+		if (hasDictionary) {
+			final byte[] dictionary = new byte[in.readInt()];
+			in.readFully(dictionary);
+			mDictionary = ValueDictionary.of(dictionary);
+		} else if (mCompression) {
+			// Values are uncompressed or deflated one by one.
+			mDictionary = ValueDictionary.EMPTY;
+		}
 
 		if (mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored
 				&& mPersistenter instanceof NodePersistenter) {
@@ -201,6 +251,7 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 					in.readFully(data);
 					final Record record = mPersistenter.deserialize(new DataInputStream(
 							new ByteArrayInputStream(data)), key, id, mPageReadTrx);
+					setDictionary(record);
 					mRecords.put(key, record);
 				}
 			}
@@ -217,6 +268,7 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 			final Record record = mPersistenter
 					.deserialize(new DataInputStream(new ByteArrayInputStream(data)),
 							key, Optional.absent(), mPageReadTrx);
+			setDictionary(record);
 			mRecords.put(key, record);
 		}
 		final int overlongEntrySize = in.readInt();
@@ -237,6 +289,8 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 			mPreviousPageReference = Optional.absent();
 		}
 		mPageKind = PageKind.getKind(in.readByte());
+		mFragmentStatistics = mAdaptive ? FragmentStatistics.deserialize(in)
+				: FragmentStatistics.EMPTY;
 	}
 
 	@Override
@@ -268,6 +322,7 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 			} catch (final IOException e) {
 				return null;
 			}
+			setDictionary(record);
 			mRecords.put(key, record);
 		}
 		return record;
@@ -285,8 +340,19 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 		if (!mAddedReferences) {
 			addReferences();
 		}
+		final boolean hasDictionary = mDictionary != null
+				&& !mDictionary.isEmpty();
+		if (hasDictionary) {
+			putVarLong(out, DICTIONARY_FORMAT);
+		}
 		// Write page key.
 		putVarLong(out, mRecordPageKey);
+		// Write value dictionary.
+		if (hasDictionary) {
+			final byte[] dictionary = mDictionary.getBytes();
+			out.writeInt(dictionary.length);
+			out.write(dictionary);
+		}
 		// Write dewey IDs.
 		if (mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored
 				&& mPersistenter instanceof NodePersistenter) {
@@ -336,6 +402,9 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 			out.writeLong(mPreviousPageReference.get().getKey());
 		}
 		out.writeByte(mPageKind.getID());
+		if (mAdaptive) {
+			mFragmentStatistics.serialize(out);
+		}
 	}
 
 	private void serializeDeweyRecord(SirixDeweyID id, DataOutput out)
@@ -407,10 +476,44 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 		}
 	}
 
+	/**
+	 * Set the dictionary of this page in a deserialized record, such that its
+	 * value can be decompressed.
+	 *
+	 * @param record
+	 *          the deserialized record
+	 */
+	private void setDictionary(final Record record) {
+		if (mDictionary != null && record instanceof DelegatingValueNode) {
+			((DelegatingValueNode) record).getValNodeDelegate().setDictionary(
+					mDictionary);
+		}
+	}
+
+	/**
+	 * Train the dictionary of this page from the values of all records which
+	 * are not serialized yet. The dictionary is trained only once, as already
+	 * serialized records depend on it.
+	 */
+	private void trainDictionary() {
+		final List<byte[]> values = new ArrayList<>();
+		for (final Record record : mRecords.values()) {
+			if (record instanceof DelegatingValueNode
+					&& mSlots.get(record.getNodeKey()) == null) {
+				values.add(((DelegatingValueNode) record).getRawValue());
+			}
+		}
+		mDictionary = ValueDictionary.train(values);
+	}
+
 	// Add references to OverflowPages.
 	private void addReferences() throws IOException {
 		final boolean storeDeweyIDs = mPageReadTrx.getSession().getResourceConfig().mDeweyIDsStored;
 
+		if (mCompression && mDictionary == null) {
+			trainDictionary();
+		}
+
 		final List<Entry<Long, Record>> entries = sort();
 		final Iterator<Entry<Long, Record>> it = entries.iterator();
 		while (it.hasNext()) {
@@ -418,6 +521,10 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 			final Record record = entry.getValue();
 			final long recordID = record.getNodeKey();
 			if (mSlots.get(recordID) == null) {
+				if (mCompression && record instanceof DelegatingValueNode) {
+					((DelegatingValueNode) record).getValNodeDelegate().compress(
+							mDictionary);
+				}
 				// Must be either a normal record or one which requires an
 				// Overflow page.
 				final ByteArrayOutputStream output = new ByteArrayOutputStream();
@@ -545,4 +652,15 @@ public final class UnorderedKeyValuePage implements KeyValuePage<Long, Record> {
 		return mPreviousPageReference;
 	}
 
+	@Override
+	public FragmentStatistics getFragmentStatistics() {
+		return mFragmentStatistics;
+	}
+
+	@Override
+	public void setFragmentStatistics(final FragmentStatistics statistics) {
+		assert statistics != null : "statistics must not be null!";
+		mFragmentStatistics = statistics;
+	}
+
 }
@@ -9,6 +9,7 @@ import javax.annotation.Nonnull;
 
 import org.sirix.api.PageReadTrx;
 import org.sirix.node.interfaces.Record;
+import org.sirix.page.FragmentStatistics;
 import org.sirix.page.PageKind;
 import org.sirix.page.PageReference;
 
@@ -127,4 +128,25 @@ public interface KeyValuePage<K extends Comparable<? super K>, V extends Record>
 	 *         the page
 	 */
 	Optional<PageReference> getPreviousReference();
+
+	/**
+	 * Get the statistics of the page fragment, which are maintained if the
+	 * resource uses adaptive versioning.
+	 *
+	 * @return the statistics, {@link FragmentStatistics#EMPTY} if the page hasn't
+	 *         been written yet or doesn't maintain statistics
+	 */
+	default FragmentStatistics getFragmentStatistics() {
+		return FragmentStatistics.EMPTY;
+	}
+
+	/**
+	 * Set the statistics of the page fragment. Pages, which don't maintain
+	 * statistics, ignore them.
+	 *
+	 * @param statistics
+	 *          the statistics
+	 */
+	default void setFragmentStatistics(@Nonnull FragmentStatistics statistics) {
+	}
 }
@@ -29,8 +29,6 @@ package org.sirix.service.xml.serialize;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.concurrent.Callable;
 
 import javax.annotation.Nonnegative;
@@ -42,6 +40,7 @@ import org.sirix.axis.DescendantAxis;
 import org.sirix.axis.IncludeSelf;
 import org.sirix.exception.SirixException;
 import org.sirix.node.Kind;
+import org.sirix.utils.LongStack;
 
 /**
  * Class implements main serialization algorithm. Other classes can extend it.
@@ -54,8 +53,21 @@ public abstract class AbstractSerializer implements Callable<Void> {
 	/** Sirix session {@link Session}. */
 	protected final Session mSession;
 
-	/** Stack for reading end element. */
-	protected final Deque<Long> mStack;
+	/**
+	 * Stack for reading end element, which holds the keys of the elements whose
+	 * end tags haven't been emitted yet.
+	 * 
+	 * <p>
+	 * <b>Note:</b> the stack used to be a {@code Deque<Long>}. Subclasses calling
+	 * {@code push}, {@code pop}, {@code peek}, {@code isEmpty} or {@code size}
+	 * compile unchanged, as {@link LongStack} provides these methods for
+	 * primitive keys. In contrast to {@code Deque#peek()},
+	 * {@link LongStack#peek()} throws an exception instead of returning
+	 * {@code null} on an empty stack. Subclasses iterating over the stack get
+	 * the keys with {@link LongStack#toArray()}.
+	 * </p>
+	 */
+	protected final LongStack mStack;
 
 	/** Array with versions to print. */
 	protected final int[] mRevisions;
@@ -75,7 +87,7 @@ public abstract class AbstractSerializer implements Callable<Void> {
 	 */
 	public AbstractSerializer(final Session session,
 			final @Nonnegative int revision, final int... revisions) {
-		mStack = new ArrayDeque<>();
+		mStack = new LongStack();
 		mRevisions = revisions == null ? new int[1] : new int[revisions.length + 1];
 		initialize(revision, revisions);
 		mSession = checkNotNull(session);
@@ -96,7 +108,7 @@ public abstract class AbstractSerializer implements Callable<Void> {
 	 */
 	public AbstractSerializer(final Session session, final @Nonnegative long key,
 			final @Nonnegative int revision, final int... revisions) {
-		mStack = new ArrayDeque<>();
+		mStack = new LongStack();
 		mRevisions = revisions == null ? new int[1] : new int[revisions.length + 1];
 		initialize(revision, revisions);
 		mSession = checkNotNull(session);
@@ -132,70 +144,19 @@ public abstract class AbstractSerializer implements Callable<Void> {
 	public Void call() throws SirixException {
 		emitStartDocument();
 
-		final int nrOfRevisions = mRevisions.length;
-		final int length = (nrOfRevisions == 1 && mRevisions[0] < 0) ? (int) mSession
-				.getMostRecentRevisionNumber() : nrOfRevisions;
+		final int[] revisions = getRevisionsToSerialize();
+		final int length = revisions.length;
 		if (length > 1) {
 			emitStartManualRootElement();
 		}
 		for (int i = 1; i <= length; i++) {
 			try (final NodeReadTrx rtx = mSession
-					.beginNodeReadTrx((nrOfRevisions == 1 && mRevisions[0] < 0) ? i
-							: mRevisions[i - 1])) {
+					.beginNodeReadTrx(revisions[i - 1])) {
 				if (length > 1) {
 					emitStartManualElement(i);
 				}
 
-				rtx.moveTo(mNodeKey);
-
-				final Axis descAxis = new DescendantAxis(rtx, IncludeSelf.YES);
-
-				// Setup primitives.
-				boolean closeElements = false;
-				long key = rtx.getNodeKey();
-
-				// Iterate over all nodes of the subtree including self.
-				while (descAxis.hasNext()) {
-					key = descAxis.next();
-
-					// Emit all pending end elements.
-					if (closeElements) {
-						while (!mStack.isEmpty()
-								&& mStack.peek() != rtx.getLeftSiblingKey()) {
-							rtx.moveTo(mStack.pop());
-							emitEndElement(rtx);
-							rtx.moveTo(key);
-						}
-						if (!mStack.isEmpty()) {
-							rtx.moveTo(mStack.pop());
-							emitEndElement(rtx);
-						}
-						rtx.moveTo(key);
-						closeElements = false;
-					}
-
-					// Emit node.
-					emitStartElement(rtx);
-
-					// Push end element to stack if we are a start element with
-					// children.
-					if (rtx.getKind() == Kind.ELEMENT && rtx.hasFirstChild()) {
-						mStack.push(rtx.getNodeKey());
-					}
-
-					// Remember to emit all pending end elements from stack if
-					// required.
-					if (!rtx.hasFirstChild() && !rtx.hasRightSibling()) {
-						closeElements = true;
-					}
-
-				}
-
-				// Finally emit all pending end elements.
-				while (!mStack.isEmpty()) {
-					rtx.moveTo(mStack.pop());
-					emitEndElement(rtx);
-				}
+				serializeSubtree(rtx, mNodeKey);
 
 				if (length > 1) {
 					emitEndManualElement(i);
@@ -210,6 +171,100 @@ public abstract class AbstractSerializer implements Callable<Void> {
 		return null;
 	}
 
+	/**
+	 * Get the revisions to serialize, that is all revisions if a single negative
+	 * revision has been specified.
+	 * 
+	 * @return the revisions to serialize
+	 */
+	protected final int[] getRevisionsToSerialize() {
+		if (mRevisions.length == 1 && mRevisions[0] < 0) {
+			final int length = mSession.getMostRecentRevisionNumber();
+			final int[] revisions = new int[length];
+			for (int i = 0; i < length; i++) {
+				revisions[i] = i + 1;
+			}
+			return revisions;
+		}
+		return mRevisions;
+	}
+
+	/**
+	 * Serialize the subtree rooted at the given node.
+	 * 
+	 * @param rtx
+	 *          Sirix {@link NodeReadTrx}
+	 * @param nodeKey
+	 *          root node key of the subtree to serialize
+	 */
+	protected final void serializeSubtree(final NodeReadTrx rtx,
+			final long nodeKey) {
+		rtx.moveTo(nodeKey);
+
+		final Axis descAxis = new DescendantAxis(rtx, IncludeSelf.YES);
+
+		// Setup primitives.
+		boolean closeElements = false;
+		long key = rtx.getNodeKey();
+
+		// Iterate over all nodes of the subtree including self.
+		while (descAxis.hasNext()) {
+			key = descAxis.next();
+
+			// Emit all pending end elements.
+			if (closeElements) {
+				final long leftSiblingKey = rtx.getLeftSiblingKey();
+				while (!mStack.isEmpty() && mStack.peek() != leftSiblingKey) {
+					emitEndElement(rtx, mStack.pop());
+				}
+				if (!mStack.isEmpty()) {
+					emitEndElement(rtx, mStack.pop());
+				}
+				if (rtx.getNodeKey() != key) {
+					rtx.moveTo(key);
+				}
+				closeElements = false;
+			}
+
+			// Emit node.
+			emitStartElement(rtx);
+
+			// Push end element to stack if we are a start element with
+			// children.
+			if (rtx.getKind() == Kind.ELEMENT && rtx.hasFirstChild()) {
+				mStack.push(rtx.getNodeKey());
+			}
+
+			// Remember to emit all pending end elements from stack if
+			// required.
+			if (!rtx.hasFirstChild() && !rtx.hasRightSibling()) {
+				closeElements = true;
+			}
+		}
+
+		// Finally emit all pending end elements.
+		while (!mStack.isEmpty()) {
+			emitEndElement(rtx, mStack.pop());
+		}
+	}
+
+	/**
+	 * Emit the end tag of an element. Moves the cursor to the element and
+	 * delegates to {@link #emitEndElement(NodeReadTrx)}. Serializers which
+	 * remember the names of open elements override this method to avoid moving
+	 * the cursor.
+	 * 
+	 * @param rtx
+	 *          Sirix {@link NodeReadTrx}
+	 * @param nodeKey
+	 *          node key of the element, which has just been popped from the
+	 *          stack
+	 */
+	protected void emitEndElement(final NodeReadTrx rtx, final long nodeKey) {
+		rtx.moveTo(nodeKey);
+		emitEndElement(rtx);
+	}
+
 	/** Emit start document. */
 	protected abstract void emitStartDocument();
 
@@ -30,8 +30,6 @@ package org.sirix.service.xml.serialize;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -53,6 +51,7 @@ import org.sirix.axis.filter.FilterAxis;
 import org.sirix.axis.filter.TextFilter;
 import org.sirix.exception.SirixException;
 import org.sirix.node.Kind;
+import org.sirix.utils.LongStack;
 import org.sirix.utils.XMLToken;
 
 /**
@@ -92,7 +91,7 @@ public final class StAXSerializer implements XMLEventReader {
 	private final Axis mAxis;
 
 	/** Stack for reading end element. */
-	private final Deque<Long> mStack;
+	private final LongStack mStack;
 
 	/**
 	 * Determines if the cursor has to move back after empty elements or go up in
@@ -158,7 +157,7 @@ public final class StAXSerializer implements XMLEventReader {
 		mNextTag = false;
 		mAxis = new DescendantAxis(checkNotNull(pRtx), IncludeSelf.YES);
 		mCloseRtx = pCloseRtx;
-		mStack = new ArrayDeque<Long>();
+		mStack = new LongStack();
 		mFirst = true;
 		mEmitEndDocument = true;
 		mHasNext = true;
@@ -36,12 +36,22 @@ import static org.sirix.service.xml.serialize.XMLSerializerProperties.S_REST;
 import static org.sirix.service.xml.serialize.XMLSerializerProperties.S_XMLDECL;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nonnegative;
 
@@ -52,6 +62,9 @@ import org.sirix.access.conf.SessionConfiguration;
 import org.sirix.api.Database;
 import org.sirix.api.NodeReadTrx;
 import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixThreadedException;
+import org.sirix.node.Kind;
 import org.sirix.settings.CharsForSerializing;
 import org.sirix.settings.Constants;
 import org.sirix.utils.Files;
@@ -68,6 +81,13 @@ import org.slf4j.LoggerFactory;
  * BufferedOutputStream. There is no need to buffer it again outside of this
  * class.
  * </p>
+ * <p>
+ * If more than one thread is specified, several revisions are serialized in
+ * parallel, whereas a single revision is partitioned into runs of top-level
+ * subtrees, which are serialized in parallel. Each partition is serialized
+ * into its own buffer, which is written to the OutputStream in document
+ * order.
+ * </p>
  */
 public final class XMLSerializer extends AbstractSerializer {
 
@@ -85,9 +105,27 @@ public final class XMLSerializer extends AbstractSerializer {
 			1000000000000000L, 10000000000000000L, 100000000000000000L,
 			1000000000000000000L };
 
+	/** Size of the buffer wrapping the OutputStream. */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Maximum initial size of a partition buffer. */
+	private static final int MAX_PARTITION_BUFFER_SIZE = 1 << 22;
+
+	/** Estimated number of bytes per serialized node. */
+	private static final int BYTES_PER_NODE = 48;
+
 	/** OutputStream to write to. */
 	private final OutputStream mOut;
 
+	/** Qualified names of open elements, to emit end tags without moving. */
+	private final Deque<byte[]> mNames;
+
+	/** Depth of the partition root, used for indentation. */
+	private final int mDepth;
+
+	/** Number of threads to serialize partitions. */
+	private final int mThreads;
+
 	/** Indent output. */
 	private final boolean mIndent;
 
@@ -122,12 +160,274 @@ public final class XMLSerializer extends AbstractSerializer {
 			final XMLSerializerBuilder builder, final @Nonnegative int revision,
 			final int... revsions) {
 		super(session, nodeKey, revision, revsions);
-		mOut = new BufferedOutputStream(builder.mStream, 4096);
+		mOut = new BufferedOutputStream(builder.mStream,
+				builder.mThreads > 1 ? BUFFER_SIZE : 4096);
 		mIndent = builder.mIndent;
 		mSerializeXMLDeclaration = builder.mDeclaration;
 		mSerializeRest = builder.mREST;
 		mSerializeId = builder.mID;
 		mIndentSpaces = builder.mIndentSpaces;
+		mNames = new ArrayDeque<>();
+		mDepth = 0;
+		mThreads = builder.mThreads;
+	}
+
+	/**
+	 * Constructor for serializing a partition into a buffer.
+	 * 
+	 * @param parent
+	 *          the serializer which partitions the output
+	 * @param out
+	 *          the buffer to write to
+	 * @param revision
+	 *          the revision to serialize
+	 * @param depth
+	 *          depth of the partition root
+	 */
+	private XMLSerializer(final XMLSerializer parent, final OutputStream out,
+			final @Nonnegative int revision, final @Nonnegative int depth) {
+		super(parent.mSession, parent.mNodeKey, revision);
+		mOut = out;
+		mIndent = parent.mIndent;
+		mSerializeXMLDeclaration = false;
+		mSerializeRest = parent.mSerializeRest;
+		mSerializeId = parent.mSerializeId;
+		mIndentSpaces = parent.mIndentSpaces;
+		mNames = new ArrayDeque<>();
+		mDepth = depth;
+		mThreads = 1;
+	}
+
+	@Override
+	public Void call() throws SirixException {
+		if (mThreads <= 1) {
+			return super.call();
+		}
+
+		final ExecutorService pool = Executors.newFixedThreadPool(mThreads);
+		final Deque<Future<ByteArrayOutputStream>> partitions = new ArrayDeque<>();
+		try {
+			emitStartDocument();
+
+			final int[] revisions = getRevisionsToSerialize();
+			final int length = revisions.length;
+			if (length > 1) {
+				emitStartManualRootElement();
+				for (int i = 1; i <= length; i++) {
+					final List<Long> keys = new ArrayList<>(1);
+					keys.add(mNodeKey);
+					submit(pool, partitions, new Partition(revisions[i - 1], i, keys, 0,
+							MAX_PARTITION_BUFFER_SIZE / mThreads));
+				}
+				drain(partitions, 0);
+				emitEndManualRootElement();
+			} else {
+				try (final NodeReadTrx rtx = mSession.beginNodeReadTrx(revisions[0])) {
+					rtx.moveTo(mNodeKey);
+					if (rtx.getKind() == Kind.DOCUMENT) {
+						emitStartElement(rtx);
+						for (boolean moved = rtx.moveToFirstChild().hasMoved(); moved; moved = rtx
+								.moveToRightSibling().hasMoved()) {
+							serializePartitioned(rtx, revisions[0], pool, partitions);
+						}
+					} else {
+						serializePartitioned(rtx, revisions[0], pool, partitions);
+					}
+				}
+			}
+
+			emitEndDocument();
+		} finally {
+			// Partitions read with the reader shared by all transactions of the
+			// resource, thus running ones aren't interrupted, as an interrupted read
+			// closes its channel.
+			for (final Future<ByteArrayOutputStream> partition : partitions) {
+				partition.cancel(false);
+			}
+			pool.shutdown();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Serialize the subtree rooted at the current node of the cursor. If it is
+	 * an element with children, the children are partitioned into runs of
+	 * siblings, which are serialized in parallel.
+	 * 
+	 * @param rtx
+	 *          Sirix {@link NodeReadTrx}, the cursor is located at the same node
+	 *          afterwards
+	 * @param revision
+	 *          the revision to serialize
+	 * @param pool
+	 *          the pool to serialize partitions
+	 * @param partitions
+	 *          the partitions, which are not written yet
+	 * @throws SirixException
+	 *           if a partition couldn't be serialized
+	 */
+	private void serializePartitioned(final NodeReadTrx rtx,
+			final @Nonnegative int revision, final ExecutorService pool,
+			final Deque<Future<ByteArrayOutputStream>> partitions)
+			throws SirixException {
+		final long key = rtx.getNodeKey();
+		if (rtx.getKind() != Kind.ELEMENT || !rtx.hasFirstChild()) {
+			serializeSubtree(rtx, key);
+			rtx.moveTo(key);
+			return;
+		}
+
+		emitStartElement(rtx);
+		mStack.push(key);
+
+		final long partitionSize = Math.max(1,
+				rtx.getDescendantCount() / (mThreads * 4));
+		List<Long> keys = new ArrayList<>();
+		long descendants = 0;
+		for (boolean moved = rtx.moveToFirstChild().hasMoved(); moved; moved = rtx
+				.moveToRightSibling().hasMoved()) {
+			keys.add(rtx.getNodeKey());
+			descendants += rtx.getDescendantCount() + 1;
+			if (descendants >= partitionSize) {
+				submit(pool, partitions, new Partition(revision, 0, keys, 1,
+						bufferSize(descendants)));
+				keys = new ArrayList<>();
+				descendants = 0;
+			}
+		}
+		if (!keys.isEmpty()) {
+			submit(pool, partitions, new Partition(revision, 0, keys, 1,
+					bufferSize(descendants)));
+		}
+		drain(partitions, 0);
+
+		mStack.pop();
+		rtx.moveTo(key);
+		emitEndElement(rtx, key);
+	}
+
+	/**
+	 * Get the initial size of a partition buffer.
+	 * 
+	 * @param descendants
+	 *          number of nodes in the partition
+	 * @return the initial buffer size
+	 */
+	private static int bufferSize(final long descendants) {
+		return (int) Math.min(MAX_PARTITION_BUFFER_SIZE, descendants
+				* BYTES_PER_NODE);
+	}
+
+	/**
+	 * Submit a partition. If too many partitions are pending, the first ones are
+	 * written to the output beforehand.
+	 * 
+	 * @param pool
+	 *          the pool to serialize partitions
+	 * @param partitions
+	 *          the partitions, which are not written yet
+	 * @param partition
+	 *          the partition to submit
+	 * @throws SirixException
+	 *           if a partition couldn't be serialized
+	 */
+	private void submit(final ExecutorService pool,
+			final Deque<Future<ByteArrayOutputStream>> partitions,
+			final Partition partition) throws SirixException {
+		drain(partitions, mThreads * 2 - 1);
+		partitions.add(pool.submit(partition));
+	}
+
+	/**
+	 * Write the pending partitions in order, until at most {@code pending}
+	 * partitions are left.
+	 * 
+	 * @param partitions
+	 *          the partitions, which are not written yet
+	 * @param pending
+	 *          maximum number of partitions to leave pending
+	 * @throws SirixException
+	 *           if a partition couldn't be serialized
+	 */
+	private void drain(final Deque<Future<ByteArrayOutputStream>> partitions,
+			final @Nonnegative int pending) throws SirixException {
+		while (partitions.size() > pending) {
+			try {
+				partitions.poll().get().writeTo(mOut);
+			} catch (final InterruptedException e) {
+				throw new SirixThreadedException(e);
+			} catch (final ExecutionException e) {
+				throw new SirixThreadedException(e);
+			} catch (final IOException e) {
+				LOGWRAPPER.error(e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * A run of sibling subtrees, which is serialized into a buffer.
+	 */
+	private final class Partition implements Callable<ByteArrayOutputStream> {
+
+		/** The revision to serialize. */
+		private final int mRevision;
+
+		/** Number of the enclosing revision element, {@code 0} for none. */
+		private final int mRevisionElement;
+
+		/** Node keys of the subtree roots. */
+		private final List<Long> mKeys;
+
+		/** Depth of the subtree roots. */
+		private final int mPartitionDepth;
+
+		/** Initial size of the buffer. */
+		private final int mBufferSize;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param revision
+		 *          the revision to serialize
+		 * @param revisionElement
+		 *          number of the enclosing revision element, {@code 0} for none
+		 * @param keys
+		 *          node keys of the subtree roots
+		 * @param depth
+		 *          depth of the subtree roots
+		 * @param bufferSize
+		 *          initial size of the buffer
+		 */
+		private Partition(final @Nonnegative int revision,
+				final @Nonnegative int revisionElement, final List<Long> keys,
+				final @Nonnegative int depth, final @Nonnegative int bufferSize) {
+			mRevision = revision;
+			mRevisionElement = revisionElement;
+			mKeys = keys;
+			mPartitionDepth = depth;
+			mBufferSize = bufferSize;
+		}
+
+		@Override
+		public ByteArrayOutputStream call() throws SirixException {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(
+					mBufferSize, 32));
+			final XMLSerializer serializer = new XMLSerializer(XMLSerializer.this,
+					out, mRevision, mPartitionDepth);
+			try (final NodeReadTrx rtx = mSession.beginNodeReadTrx(mRevision)) {
+				if (mRevisionElement > 0) {
+					serializer.emitStartManualElement(mRevisionElement);
+				}
+				for (final long key : mKeys) {
+					serializer.serializeSubtree(rtx, key);
+				}
+				if (mRevisionElement > 0) {
+					serializer.emitEndManualElement(mRevisionElement);
+				}
+			}
+			return out;
+		}
 	}
 
 	/**
@@ -194,6 +494,7 @@ public final class XMLSerializer extends AbstractSerializer {
 				}
 				if (rtx.hasFirstChild()) {
 					mOut.write(CharsForSerializing.CLOSE.getBytes());
+					mNames.push(qNameBytes(rtx));
 				} else {
 					mOut.write(CharsForSerializing.SLASH_CLOSE.getBytes());
 				}
@@ -260,6 +561,47 @@ public final class XMLSerializer extends AbstractSerializer {
 		}
 	}
 
+	/**
+	 * Emit end element from the remembered name of the element, without moving
+	 * the cursor.
+	 * 
+	 * @param rtx
+	 *          Sirix {@link NodeReadTrx}
+	 * @param nodeKey
+	 *          node key of the element
+	 */
+	@Override
+	protected void emitEndElement(final NodeReadTrx rtx, final long nodeKey) {
+		try {
+			indent();
+			mOut.write(CharsForSerializing.OPEN_SLASH.getBytes());
+			mOut.write(mNames.pop());
+			mOut.write(CharsForSerializing.CLOSE.getBytes());
+			if (mIndent) {
+				mOut.write(CharsForSerializing.NEWLINE.getBytes());
+			}
+		} catch (final IOException e) {
+			LOGWRAPPER.error(e.getMessage(), e);
+		}
+	}
+
+	// Get the bytes of a QName.
+	private byte[] qNameBytes(final NodeReadTrx rtx) {
+		final byte[] localName = rtx.rawNameForKey(rtx.getLocalNameKey());
+		if (rtx.getPrefixKey() == -1) {
+			return localName;
+		}
+		final byte[] prefix = rtx.rawNameForKey(rtx.getPrefixKey());
+		final byte[] colon = CharsForSerializing.COLON.getBytes();
+		final byte[] qName = new byte[prefix.length + colon.length
+				+ localName.length];
+		System.arraycopy(prefix, 0, qName, 0, prefix.length);
+		System.arraycopy(colon, 0, qName, prefix.length, colon.length);
+		System.arraycopy(localName, 0, qName, prefix.length + colon.length,
+				localName.length);
+		return qName;
+	}
+
 	// Write a QName.
 	private void writeQName(final NodeReadTrx rtx) throws IOException {
 		if (rtx.getPrefixKey() != -1) {
@@ -341,7 +683,7 @@ public final class XMLSerializer extends AbstractSerializer {
 	 */
 	private void indent() throws IOException {
 		if (mIndent) {
-			for (int i = 0; i < mStack.size() * mIndentSpaces; i++) {
+			for (int i = 0; i < (mDepth + mStack.size()) * mIndentSpaces; i++) {
 				mOut.write(" ".getBytes(Constants.DEFAULT_ENCODING));
 			}
 		}
@@ -502,6 +844,9 @@ public final class XMLSerializer extends AbstractSerializer {
 		/** Node key of subtree to shredder. */
 		private long mNodeKey;
 
+		/** Number of threads to serialize partitions. */
+		private int mThreads = 1;
+
 		/**
 		 * Constructor, setting the necessary stuff.
 		 * 
@@ -631,6 +976,20 @@ public final class XMLSerializer extends AbstractSerializer {
 			return this;
 		}
 
+		/**
+		 * Serialize revisions, or top-level subtrees of a single revision, in
+		 * parallel.
+		 * 
+		 * @param threads
+		 *          number of threads to use
+		 * @return XMLSerializerBuilder reference
+		 */
+		public XMLSerializerBuilder parallel(final @Nonnegative int threads) {
+			checkArgument(threads > 0, "threads must be > 0!");
+			mThreads = threads;
+			return this;
+		}
+
 		/**
 		 * Building new {@link Serializer} instance.
 		 * 
@@ -2,14 +2,12 @@ package org.sirix.service.xml.shredder;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.NodeWriteTrx;
 import org.sirix.exception.SirixException;
 import org.sirix.node.Kind;
 import org.sirix.settings.Fixed;
+import org.sirix.utils.LongStack;
 
 /**
  * Skeleton implementation of {@link Shredder} interface methods.
@@ -28,7 +26,7 @@ public abstract class AbstractShredder implements Shredder<String, QNm> {
 	private final NodeWriteTrx mWtx;
 
 	/** Keeps track of visited keys. */
-	private final Deque<Long> mParents;
+	private final LongStack mParents;
 
 	/** Determines the import location of a new node. */
 	private Insert mInsertLocation;
@@ -42,7 +40,7 @@ public abstract class AbstractShredder implements Shredder<String, QNm> {
 	public AbstractShredder(final NodeWriteTrx wtx, final Insert insertLocation) {
 		mWtx = checkNotNull(wtx);
 		mInsertLocation = checkNotNull(insertLocation);
-		mParents = new ArrayDeque<>();
+		mParents = new LongStack();
 		mParents.push(Fixed.NULL_NODE_KEY.getStandardProperty());
 	}
 
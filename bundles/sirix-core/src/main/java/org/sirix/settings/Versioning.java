@@ -37,7 +37,9 @@ import javax.annotation.Nonnegative;
 
 import org.sirix.api.PageReadTrx;
 import org.sirix.cache.RecordPageContainer;
+import org.sirix.metrics.Metrics;
 import org.sirix.node.interfaces.Record;
+import org.sirix.page.FragmentStatistics;
 import org.sirix.page.PageReference;
 import org.sirix.page.interfaces.KeyValuePage;
 
@@ -382,6 +384,147 @@ public enum Versioning {
 		}
 	},
 
+	/**
+	 * Adaptive versioning. Like {@link #INCREMENTAL}, pages are reconstructed
+	 * from a chain of fragments, but the decision whether a modified page is
+	 * written as a delta or as a full dump is made per page at commit time (see
+	 * {@link #getPageToCommit(RecordPageContainer, int)}). Rarely modified pages
+	 * accumulate small deltas, whereas frequently or heavily modified pages are
+	 * dumped completely, such that the chain of a page never exceeds the number
+	 * of revisions to restore.
+	 */
+	ADAPTIVE {
+		/**
+		 * Change rate, above which a page is considered hot and always written as
+		 * a full dump, as a delta would contain most records anyway.
+		 */
+		private static final float HOT_PAGE_CHANGE_RATE = 0.5f;
+
+		/** Weight of the latest revision in the average change rate. */
+		private static final float CHANGE_RATE_WEIGHT = 0.3f;
+
+		@Override
+		public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> T combineRecordPages(
+				final List<T> pages, final @Nonnegative int revToRestore,
+				final PageReadTrx pageReadTrx) {
+			return INCREMENTAL.combineRecordPages(pages, revToRestore, pageReadTrx);
+		}
+
+		@Override
+		public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> RecordPageContainer<T> combineRecordPagesForModification(
+				final List<T> pages, final int revToRestore,
+				final PageReadTrx pageReadTrx, final PageReference reference) {
+			final T firstPage = pages.get(0);
+			final long recordPageKey = firstPage.getPageKey();
+			final T complete = firstPage.<T> newInstance(recordPageKey,
+					firstPage.getPageKind(), Optional.of(reference), pageReadTrx);
+
+			// The modified page starts as a delta, which is turned into a full dump
+			// during the commit if necessary.
+			final T modified = firstPage.<T> newInstance(recordPageKey,
+					firstPage.getPageKind(), Optional.of(reference), pageReadTrx);
+			modified.setFragmentStatistics(firstPage.getFragmentStatistics());
+
+			for (final T page : pages) {
+				assert page.getPageKey() == recordPageKey;
+				for (final Entry<K, V> entry : page.entrySet()) {
+					if (complete.getValue(entry.getKey()) == null) {
+						complete.setEntry(entry.getKey(), entry.getValue());
+					}
+				}
+				for (final Entry<K, PageReference> entry : page.referenceEntrySet()) {
+					if (complete.getPageReference(entry.getKey()) == null
+							&& complete.getValue(entry.getKey()) == null) {
+						complete.setPageReference(entry.getKey(), entry.getValue());
+					}
+				}
+				if (complete.size() == Constants.NDP_NODE_COUNT) {
+					break;
+				}
+			}
+
+			return new RecordPageContainer<>(complete, modified);
+		}
+
+		@Override
+		public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> T getPageToCommit(
+				final RecordPageContainer<T> container,
+				final @Nonnegative int revsToRestore) {
+			final T modified = container.getModified();
+			final T complete = container.getComplete();
+			final FragmentStatistics previous = modified.getFragmentStatistics();
+
+			// Records of the page after the commit, including new ones, which are
+			// only stored in the modified page.
+			final int changed = modified.size();
+			int records = complete.size();
+			for (final Entry<K, V> entry : modified.entrySet()) {
+				if (complete.getPageReference(entry.getKey()) == null
+						&& complete.getValue(entry.getKey()) == null) {
+					records++;
+				}
+			}
+			final float rate = records == 0 ? 1f : (float) changed / records;
+			final float changeRate = previous.getFragments() == 0 ? rate
+					: CHANGE_RATE_WEIGHT * rate + (1 - CHANGE_RATE_WEIGHT)
+							* previous.getChangeRate();
+
+			if (!modified.getPreviousReference().isPresent()) {
+				// New page, which is a full dump anyway.
+				modified.setFragmentStatistics(new FragmentStatistics(1, 0,
+						changeRate));
+				return modified;
+			}
+
+			final int deltaRecords = previous.getDeltaRecords() + changed;
+			if (previous.getFragments() == 0
+					|| previous.getFragments() >= revsToRestore
+					|| deltaRecords >= records || changeRate >= HOT_PAGE_CHANGE_RATE) {
+				// Either the chain would get too long, reading the deltas would be
+				// more expensive than reading the page twice, or most records of
+				// the page are modified in each revision.
+				final T fullDump = modified.<T> newInstance(modified.getPageKey(),
+						modified.getPageKind(), Optional.<PageReference> absent(),
+						modified.getPageReadTrx());
+				for (final Entry<K, V> entry : modified.entrySet()) {
+					fullDump.setEntry(entry.getKey(), entry.getValue());
+				}
+				for (final Entry<K, PageReference> entry : modified
+						.referenceEntrySet()) {
+					fullDump.setPageReference(entry.getKey(), entry.getValue());
+				}
+				for (final Entry<K, V> entry : complete.entrySet()) {
+					if (fullDump.getPageReference(entry.getKey()) == null
+							&& fullDump.getValue(entry.getKey()) == null) {
+						fullDump.setEntry(entry.getKey(), entry.getValue());
+					}
+				}
+				for (final Entry<K, PageReference> entry : complete
+						.referenceEntrySet()) {
+					if (fullDump.getPageReference(entry.getKey()) == null
+							&& fullDump.getValue(entry.getKey()) == null) {
+						fullDump.setPageReference(entry.getKey(), entry.getValue());
+					}
+				}
+				fullDump.setFragmentStatistics(new FragmentStatistics(1, 0,
+						changeRate));
+				Metrics.inc(Metrics.ADAPTIVE_FULL_DUMPS);
+				return fullDump;
+			}
+
+			modified.setFragmentStatistics(new FragmentStatistics(
+					previous.getFragments() + 1, deltaRecords, changeRate));
+			Metrics.inc(Metrics.ADAPTIVE_DELTAS);
+			return modified;
+		}
+
+		@Override
+		public int[] getRevisionRoots(final @Nonnegative int previousRevision,
+				final @Nonnegative int revsToRestore) {
+			return INCREMENTAL.getRevisionRoots(previousRevision, revsToRestore);
+		}
+	},
+
 	/**
 	 * Sliding snapshot versioning using a window.
 	 */
@@ -560,6 +703,21 @@ public enum Versioning {
 			final List<T> pages, final @Nonnegative int revsToRestore,
 			final PageReadTrx pageReadTrx, final PageReference reference);
 
+	/**
+	 * Get the page to write for a modified record page during a commit.
+	 * 
+	 * @param container
+	 *          the container holding the complete and the modified page
+	 * @param revsToRestore
+	 *          the number of revisions needed to build the complete record page
+	 * @return the page to write, by default the modified page
+	 */
+	public <K extends Comparable<? super K>, V extends Record, T extends KeyValuePage<K, V>> T getPageToCommit(
+			final RecordPageContainer<T> container,
+			final @Nonnegative int revsToRestore) {
+		return container.getModified();
+	}
+
 	/**
 	 * Get all revision root page numbers which are needed to restore a
 	 * {@link KeyValuePage}.
@@ -39,7 +39,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Compression/Decompression for text values or any other data.
+ * Compression/Decompression for text values or any other data. The
+ * {@link Deflater} and {@link Inflater} instances are kept per thread, such
+ * that the methods are thread safe.
  * 
  * @author Johannes Lichtenberger, University of Konstanz
  * 
@@ -54,10 +56,20 @@ public class Compression {
 	public static final int BUFFER_SIZE = 1024;
 
 	/** Compressor. */
-	private static final Deflater mCompressor = new Deflater();
+	private static final ThreadLocal<Deflater> mCompressor = new ThreadLocal<Deflater>() {
+		@Override
+		protected Deflater initialValue() {
+			return new Deflater();
+		}
+	};
 
 	/** Decompressor. */
-	private static final Inflater mDecompressor = new Inflater();
+	private static final ThreadLocal<Inflater> mDecompressor = new ThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater();
+		}
+	};
 
 	/**
 	 * Compress data based on the {@link Deflater}.
@@ -79,13 +91,15 @@ public class Compression {
 		// Compressed result.
 		byte[] compressed = new byte[] {};
 
+		final Deflater compressor = mCompressor.get();
+
 		// Set compression level.
-		mCompressor.setLevel(pLevel);
+		compressor.setLevel(pLevel);
 
 		// Give the compressor the data to compress.
-		mCompressor.reset();
-		mCompressor.setInput(toCompress);
-		mCompressor.finish();
+		compressor.reset();
+		compressor.setInput(toCompress);
+		compressor.finish();
 
 		/*
 		 * Create an expandable byte array to hold the compressed data. You cannot
@@ -97,8 +111,8 @@ public class Compression {
 				toCompress.length)) {
 			// Compress the data.
 			final byte[] buf = new byte[BUFFER_SIZE];
-			while (!mCompressor.finished()) {
-				final int count = mCompressor.deflate(buf);
+			while (!compressor.finished()) {
+				final int count = compressor.deflate(buf);
 				bos.write(buf, 0, count);
 			}
 
@@ -123,9 +137,11 @@ public class Compression {
 	public static byte[] decompress(final byte[] compressed) {
 		checkNotNull(compressed);
 
+		final Inflater decompressor = mDecompressor.get();
+
 		// Reset the decompressor and give it the data to compress.
-		mDecompressor.reset();
-		mDecompressor.setInput(compressed);
+		decompressor.reset();
+		decompressor.setInput(compressed);
 
 		byte[] decompressed = new byte[] {};
 
@@ -134,9 +150,9 @@ public class Compression {
 				compressed.length);
 		// Decompress the data.
 		final byte[] buf = new byte[BUFFER_SIZE];
-		while (!mDecompressor.finished()) {
+		while (!decompressor.finished()) {
 			try {
-				final int count = mDecompressor.inflate(buf);
+				final int count = decompressor.inflate(buf);
 				bos.write(buf, 0, count);
 			} catch (final DataFormatException e) {
 				LOGWRAPPER.error(e.getMessage(), e);
@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnegative;
+
+/**
+ * Hash map from primitive longs to primitive longs, using open addressing with
+ * linear probing. It avoids the boxing and per-entry objects of a
+ * {@code HashMap<Long, Long>}, which matters for maps with millions of
+ * entries.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class LongLongHashMap {
+
+	/** Marks a free slot, which is why it can't be used as a key. */
+	private static final long FREE = Long.MIN_VALUE;
+
+	/** Maximum load factor before the table is grown. */
+	private static final float LOAD_FACTOR = 0.6f;
+
+	/** Value returned if a key is not present. */
+	private final long mMissingValue;
+
+	/** Keys, {@link #FREE} marks an unused slot. */
+	private long[] mKeys;
+
+	/** Values of the keys at the same position. */
+	private long[] mValues;
+
+	/** Number of entries. */
+	private int mSize;
+
+	/** Number of entries, after which the table is grown. */
+	private int mThreshold;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param missingValue
+	 *          the value returned by {@link #get(long)} and
+	 *          {@link #remove(long)} if the key is not present
+	 */
+	public LongLongHashMap(final long missingValue) {
+		this(missingValue, 16);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param missingValue
+	 *          the value returned by {@link #get(long)} and
+	 *          {@link #remove(long)} if the key is not present
+	 * @param expectedSize
+	 *          expected number of entries
+	 */
+	public LongLongHashMap(final long missingValue,
+			final @Nonnegative int expectedSize) {
+		checkArgument(expectedSize >= 0, "expectedSize must be >= 0!");
+		mMissingValue = missingValue;
+		allocate(Integer.highestOneBit(Math.max(8,
+				(int) (expectedSize / LOAD_FACTOR) + 1) - 1) << 1);
+	}
+
+	/**
+	 * Copy constructor.
+	 * 
+	 * @param map
+	 *          the map to copy
+	 */
+	public LongLongHashMap(final LongLongHashMap map) {
+		mMissingValue = map.mMissingValue;
+		mKeys = map.mKeys.clone();
+		mValues = map.mValues.clone();
+		mSize = map.mSize;
+		mThreshold = map.mThreshold;
+	}
+
+	private void allocate(final int capacity) {
+		mKeys = new long[capacity];
+		Arrays.fill(mKeys, FREE);
+		mValues = new long[capacity];
+		mThreshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int hash(final long key) {
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	private int indexOf(final long key) {
+		final int mask = mKeys.length - 1;
+		int index = hash(key) & mask;
+		while (mKeys[index] != FREE && mKeys[index] != key) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	/**
+	 * Get the value of a key.
+	 * 
+	 * @param key
+	 *          the key
+	 * @return the value or the missing value, if the key is not present
+	 */
+	public long get(final long key) {
+		checkKey(key);
+		final int index = indexOf(key);
+		return mKeys[index] == FREE ? mMissingValue : mValues[index];
+	}
+
+	/**
+	 * Determines if a key is present.
+	 * 
+	 * @param key
+	 *          the key
+	 * @return {@code true}, if the key is present, {@code false} otherwise
+	 */
+	public boolean containsKey(final long key) {
+		checkKey(key);
+		return mKeys[indexOf(key)] != FREE;
+	}
+
+	/**
+	 * Associate a value with a key.
+	 * 
+	 * @param key
+	 *          the key
+	 * @param value
+	 *          the value
+	 * @return the previous value or the missing value, if the key was not present
+	 */
+	public long put(final long key, final long value) {
+		checkKey(key);
+		int index = indexOf(key);
+		if (mKeys[index] == key) {
+			final long previous = mValues[index];
+			mValues[index] = value;
+			return previous;
+		}
+		if (mSize >= mThreshold) {
+			grow();
+			index = indexOf(key);
+		}
+		mKeys[index] = key;
+		mValues[index] = value;
+		mSize++;
+		return mMissingValue;
+	}
+
+	/**
+	 * Remove a key.
+	 * 
+	 * @param key
+	 *          the key
+	 * @return the removed value or the missing value, if the key was not present
+	 */
+	public long remove(final long key) {
+		checkKey(key);
+		final int mask = mKeys.length - 1;
+		int index = indexOf(key);
+		if (mKeys[index] == FREE) {
+			return mMissingValue;
+		}
+		final long previous = mValues[index];
+		mSize--;
+		// Shift back following entries of the probe sequence.
+		int next = (index + 1) & mask;
+		while (mKeys[next] != FREE) {
+			final int home = hash(mKeys[next]) & mask;
+			if (((next - home) & mask) >= ((next - index) & mask)) {
+				mKeys[index] = mKeys[next];
+				mValues[index] = mValues[next];
+				index = next;
+			}
+			next = (next + 1) & mask;
+		}
+		mKeys[index] = FREE;
+		return previous;
+	}
+
+	private void grow() {
+		final long[] keys = mKeys;
+		final long[] values = mValues;
+		allocate(keys.length << 1);
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != FREE) {
+				final int index = indexOf(keys[i]);
+				mKeys[index] = keys[i];
+				mValues[index] = values[i];
+			}
+		}
+	}
+
+	private static void checkKey(final long key) {
+		checkArgument(key != FREE, "Long.MIN_VALUE can't be used as a key!");
+	}
+
+	/**
+	 * Get the number of entries.
+	 * 
+	 * @return number of entries
+	 */
+	public int size() {
+		return mSize;
+	}
+
+	/**
+	 * Determines if the map is empty.
+	 * 
+	 * @return {@code true}, if the map is empty, {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return mSize == 0;
+	}
+
+	/**
+	 * Get the keys.
+	 * 
+	 * @return a new array containing the keys in no particular order
+	 */
+	public long[] keys() {
+		final long[] keys = new long[mSize];
+		int i = 0;
+		for (final long key : mKeys) {
+			if (key != FREE) {
+				keys[i++] = key;
+			}
+		}
+		return keys;
+	}
+
+	/** Remove all entries. */
+	public void clear() {
+		Arrays.fill(mKeys, FREE);
+		mSize = 0;
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import javax.annotation.Nonnegative;
+
+import com.google.common.base.Objects;
+
+/**
+ * Stack of primitive longs, which is backed by a growing array. In contrast to
+ * a {@code Deque<Long>} pushing and popping keys doesn't box them, which
+ * matters for axes and serializers traversing millions of nodes.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class LongStack {
+
+	/** Elements, the top of the stack is at {@code mSize - 1}. */
+	private long[] mElements;
+
+	/** Number of elements. */
+	private int mSize;
+
+	/**
+	 * Constructor.
+	 */
+	public LongStack() {
+		this(16);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param initialCapacity
+	 *          the initial capacity
+	 */
+	public LongStack(final @Nonnegative int initialCapacity) {
+		checkArgument(initialCapacity >= 0, "initialCapacity must be >= 0!");
+		mElements = new long[initialCapacity];
+	}
+
+	/**
+	 * Push an element onto the stack.
+	 * 
+	 * @param element
+	 *          the element to push
+	 */
+	public void push(final long element) {
+		if (mSize == mElements.length) {
+			mElements = Arrays.copyOf(mElements, Math.max(16, mSize << 1));
+		}
+		mElements[mSize++] = element;
+	}
+
+	/**
+	 * Remove the top element from the stack.
+	 * 
+	 * @return the top element
+	 * @throws NoSuchElementException
+	 *           if the stack is empty
+	 */
+	public long pop() {
+		if (mSize == 0) {
+			throw new NoSuchElementException();
+		}
+		return mElements[--mSize];
+	}
+
+	/**
+	 * Get the top element without removing it.
+	 * 
+	 * @return the top element
+	 * @throws NoSuchElementException
+	 *           if the stack is empty
+	 */
+	public long peek() {
+		if (mSize == 0) {
+			throw new NoSuchElementException();
+		}
+		return mElements[mSize - 1];
+	}
+
+	/**
+	 * Get the number of elements.
+	 * 
+	 * @return number of elements
+	 */
+	public int size() {
+		return mSize;
+	}
+
+	/**
+	 * Determines if the stack is empty.
+	 * 
+	 * @return {@code true} if the stack is empty, {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return mSize == 0;
+	}
+
+	/**
+	 * Get the elements, from the bottom to the top of the stack.
+	 * 
+	 * @return a copy of the elements
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(mElements, mSize);
+	}
+
+	/**
+	 * Remove all elements. The array is kept, so that the stack can be reused
+	 * without allocating.
+	 */
+	public void clear() {
+		mSize = 0;
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this)
+				.add("elements", Arrays.toString(toArray())).toString();
+	}
+}
@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.sirix.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nullable;
+
+/**
+ * <h1>ValueDictionary</h1>
+ * 
+ * <p>
+ * A preset dictionary for compressing many short and repetitive text or
+ * attribute values. The dictionary is trained once per record page from the
+ * values it holds and is stored alongside the page. Every value is then
+ * compressed with a raw {@link Deflater} which is primed with the dictionary,
+ * such that values which (partly) occur in the dictionary are encoded as a few
+ * back-references.
+ * </p>
+ * <p>
+ * Instances are immutable and thread safe. The codecs are kept per thread and
+ * reused.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class ValueDictionary {
+
+	/** Values shorter than this are never compressed. */
+	public static final int MIN_VALUE_LENGTH = 8;
+
+	/** Maximum size of a trained dictionary in bytes. */
+	public static final int MAX_DICTIONARY_SIZE = 8192;
+
+	/** Length of value prefixes which are considered during training. */
+	private static final int PREFIX_LENGTH = 16;
+
+	/** Empty dictionary, that is plain raw deflate compression. */
+	public static final ValueDictionary EMPTY = new ValueDictionary(new byte[0]);
+
+	/** Thread local compressor. */
+	private static final ThreadLocal<Deflater> COMPRESSOR = new ThreadLocal<Deflater>() {
+		@Override
+		protected Deflater initialValue() {
+			return new Deflater(Deflater.BEST_SPEED, true);
+		}
+	};
+
+	/** Thread local decompressor. */
+	private static final ThreadLocal<Inflater> DECOMPRESSOR = new ThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater(true);
+		}
+	};
+
+	/** Thread local buffer. */
+	private static final ThreadLocal<byte[]> BUFFER = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[Compression.BUFFER_SIZE];
+		}
+	};
+
+	/** The dictionary bytes. */
+	private final byte[] mDictionary;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param dictionary
+	 *          the dictionary bytes
+	 */
+	private ValueDictionary(final byte[] dictionary) {
+		mDictionary = dictionary;
+	}
+
+	/**
+	 * Get a dictionary which is backed by the given bytes, for instance read
+	 * from a page.
+	 * 
+	 * @param dictionary
+	 *          the dictionary bytes
+	 * @return the dictionary
+	 */
+	public static ValueDictionary of(final byte[] dictionary) {
+		checkNotNull(dictionary);
+		return dictionary.length == 0 ? EMPTY : new ValueDictionary(dictionary);
+	}
+
+	/**
+	 * Train a dictionary from sample values. Values and value prefixes which
+	 * occur more than once are put into the dictionary, the most valuable ones
+	 * last, as the deflate encoding of near back-references is shorter.
+	 * 
+	 * @param values
+	 *          the sample values
+	 * @return the trained dictionary, or {@link #EMPTY} if no value repeats
+	 */
+	public static ValueDictionary train(final Iterable<byte[]> values) {
+		checkNotNull(values);
+		final Map<ByteBuffer, int[]> frequencies = new HashMap<>();
+		for (final byte[] value : values) {
+			if (value.length >= MIN_VALUE_LENGTH
+					&& value.length <= MAX_DICTIONARY_SIZE / 4) {
+				count(frequencies, ByteBuffer.wrap(value));
+				if (value.length > PREFIX_LENGTH) {
+					count(frequencies, ByteBuffer.wrap(value, 0, PREFIX_LENGTH).slice());
+				}
+			}
+		}
+
+		final List<Map.Entry<ByteBuffer, int[]>> candidates = new ArrayList<>();
+		for (final Map.Entry<ByteBuffer, int[]> entry : frequencies.entrySet()) {
+			if (entry.getValue()[0] > 1) {
+				candidates.add(entry);
+			}
+		}
+		if (candidates.isEmpty()) {
+			return EMPTY;
+		}
+
+		// Most valuable (saved bytes) first.
+		candidates.sort((first, second) -> Long.compare(
+				(long) second.getValue()[0] * second.getKey().remaining(),
+				(long) first.getValue()[0] * first.getKey().remaining()));
+
+		final List<ByteBuffer> selected = new ArrayList<>();
+		int size = 0;
+		for (final Map.Entry<ByteBuffer, int[]> entry : candidates) {
+			final int length = entry.getKey().remaining();
+			if (size + length <= MAX_DICTIONARY_SIZE) {
+				selected.add(entry.getKey());
+				size += length;
+			}
+		}
+
+		// Least valuable values at the start of the dictionary.
+		final byte[] dictionary = new byte[size];
+		int offset = size;
+		for (final ByteBuffer value : selected) {
+			final int length = value.remaining();
+			offset -= length;
+			value.duplicate().get(dictionary, offset, length);
+		}
+		return new ValueDictionary(dictionary);
+	}
+
+	/**
+	 * Increment the frequency of a candidate.
+	 * 
+	 * @param frequencies
+	 *          the frequencies of all candidates
+	 * @param candidate
+	 *          the candidate
+	 */
+	private static void count(final Map<ByteBuffer, int[]> frequencies,
+			final ByteBuffer candidate) {
+		final int[] frequency = frequencies.get(candidate);
+		if (frequency == null) {
+			frequencies.put(candidate, new int[] { 1 });
+		} else {
+			frequency[0]++;
+		}
+	}
+
+	/**
+	 * Get the dictionary bytes.
+	 * 
+	 * @return the dictionary bytes (must not be modified)
+	 */
+	public byte[] getBytes() {
+		return mDictionary;
+	}
+
+	/**
+	 * Determines if the dictionary is empty.
+	 * 
+	 * @return {@code true}, if it is empty, {@code false} otherwise
+	 */
+	public boolean isEmpty() {
+		return mDictionary.length == 0;
+	}
+
+	/**
+	 * Compress a value.
+	 * 
+	 * @param value
+	 *          the value to compress
+	 * @return the compressed value (might be longer than the value itself)
+	 */
+	public byte[] compress(final byte[] value) {
+		final Deflater compressor = COMPRESSOR.get();
+		final byte[] buffer = BUFFER.get();
+		compressor.reset();
+		if (mDictionary.length > 0) {
+			compressor.setDictionary(mDictionary);
+		}
+		compressor.setInput(value);
+		compressor.finish();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(
+				value.length + 16);
+		while (!compressor.finished()) {
+			final int count = compressor.deflate(buffer);
+			out.write(buffer, 0, count);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Decompress a value.
+	 * 
+	 * @param compressed
+	 *          the compressed value
+	 * @return the decompressed value
+	 * @throws IllegalStateException
+	 *           if the value has not been compressed with this dictionary
+	 */
+	public byte[] decompress(final byte[] compressed) {
+		final Inflater decompressor = DECOMPRESSOR.get();
+		final byte[] buffer = BUFFER.get();
+		decompressor.reset();
+		if (mDictionary.length > 0) {
+			decompressor.setDictionary(mDictionary);
+		}
+		decompressor.setInput(compressed);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(
+				compressed.length * 2);
+		try {
+			while (!decompressor.finished()) {
+				final int count = decompressor.inflate(buffer);
+				if (count == 0
+						&& (decompressor.needsInput() || decompressor.needsDictionary())) {
+					throw new IllegalStateException("Truncated compressed value!");
+				}
+				out.write(buffer, 0, count);
+			}
+		} catch (final DataFormatException e) {
+			throw new IllegalStateException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Get the serialized size of the dictionary.
+	 * 
+	 * @return size in bytes
+	 */
+	@Nonnegative
+	public int size() {
+		return mDictionary.length;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(mDictionary);
+	}
+
+	@Override
+	public boolean equals(final @Nullable Object obj) {
+		if (obj instanceof ValueDictionary) {
+			final ValueDictionary other = (ValueDictionary) obj;
+			return Arrays.equals(mDictionary, other.mDictionary);
+		}
+		return false;
+	}
+}
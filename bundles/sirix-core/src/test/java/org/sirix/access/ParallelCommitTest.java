@@ -0,0 +1,104 @@
+package org.sirix.access;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.page.PageConstants;
+
+/**
+ * Test commits, which serialize record pages with several threads.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public class ParallelCommitTest {
+
+	/** Number of elements inserted before the overlong text node. */
+	private static final int ELEMENTS = 3000;
+
+	/** {@link Holder} reference. */
+	private Holder holder;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		holder = Holder.generateSession();
+		holder.getSession().close();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		holder.close();
+		TestHelper.closeEverything();
+	}
+
+	@Test
+	public void testOverflowRecord() throws SirixException {
+		testOverflowRecord(4);
+	}
+
+	@Test
+	public void testOverflowRecordSequential() throws SirixException {
+		testOverflowRecord(1);
+	}
+
+	/**
+	 * Commit a text node, which is stored in an overflow page, behind record
+	 * pages which are still serialized, and read it with a new session.
+	 */
+	private void testOverflowRecord(final int commitThreads)
+			throws SirixException {
+		final String value = randomValue(3 * PageConstants.MAX_RECORD_SIZE);
+		final long textKey;
+		try (final Session session = holder.getDatabase().getSession(
+				new SessionConfiguration.Builder(TestHelper.RESOURCE).commitThreads(
+						commitThreads).build());
+				final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+			wtx.insertElementAsFirstChild(new QNm("root"));
+			final long rootKey = wtx.getNodeKey();
+			wtx.insertElementAsFirstChild(new QNm("e0"));
+			for (int i = 1; i < ELEMENTS; i++) {
+				wtx.insertElementAsRightSibling(new QNm("e" + i));
+			}
+			wtx.moveTo(rootKey);
+			wtx.insertTextAsFirstChild(value);
+			textKey = wtx.getNodeKey();
+			wtx.commit();
+		}
+
+		try (final Session session = holder.getDatabase().getSession(
+				new SessionConfiguration.Builder(TestHelper.RESOURCE).build());
+				final NodeReadTrx rtx = session.beginNodeReadTrx()) {
+			assertTrue(rtx.moveTo(textKey).hasMoved());
+			assertEquals(value, rtx.getValue());
+			assertTrue(rtx.moveToRightSibling().hasMoved());
+			assertEquals("e0", rtx.getName().getLocalName());
+			assertTrue(rtx.moveToParent().hasMoved());
+			assertTrue(rtx.moveToLastChild().hasMoved());
+			assertEquals("e" + (ELEMENTS - 1), rtx.getName().getLocalName());
+		}
+	}
+
+	/** Random letters, which are still too long once compressed. */
+	private static String randomValue(final int length) {
+		final Random random = new Random(0);
+		final StringBuilder value = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			value.append((char) ('a' + random.nextInt(26)));
+		}
+		return value.toString();
+	}
+}
@@ -33,18 +33,22 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.sirix.Holder;
 import org.sirix.TestHelper;
 import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.conf.SessionConfiguration;
 import org.sirix.api.Database;
 import org.sirix.api.NodeReadTrx;
 import org.sirix.api.NodeWriteTrx;
 import org.sirix.api.Session;
 import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixUsageException;
 import org.sirix.node.Kind;
 import org.sirix.settings.Constants;
 import org.sirix.utils.DocumentCreater;
@@ -239,6 +243,40 @@ public class SessionTest {
 		holder.getSession().close();
 	}
 
+	@Test
+	public void testReplica() throws SirixException, InterruptedException {
+		final Database replica = Databases.openReplica(PATHS.PATH1.getFile());
+		final Session session = replica.getSession(new SessionConfiguration.Builder(
+				TestHelper.RESOURCE).replicaPollInterval(10).build());
+		assertEquals(0, session.getMostRecentRevisionNumber());
+		try {
+			session.beginNodeWriteTrx();
+			fail();
+		} catch (final SirixUsageException e) {
+			// Must fail.
+		}
+
+		final NodeWriteTrx wtx = holder.getSession().beginNodeWriteTrx();
+		DocumentCreater.create(wtx);
+		wtx.commit();
+		wtx.close();
+
+		for (int i = 0; i < 500 && session.getMostRecentRevisionNumber() == 0; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(1, session.getMostRecentRevisionNumber());
+		// The index definitions of a revision exist, once it's exposed.
+		assertTrue(new File(session.getResourceConfig().mPath,
+				ResourceConfiguration.Paths.INDEXES.getFile().getPath() + 1 + ".xml")
+				.exists());
+		final NodeReadTrx rtx = session.beginNodeReadTrx();
+		assertTrue(rtx.moveToFirstChild().hasMoved());
+		assertEquals("p:a", new StringBuilder(rtx.getName().getPrefix())
+				.append(":").append(rtx.getName().getLocalName()).toString());
+		rtx.close();
+		replica.close();
+	}
+
 	@Test
 	public void testAutoCommit() throws SirixException {
 		final NodeWriteTrx wtx = holder.getSession().beginNodeWriteTrx();
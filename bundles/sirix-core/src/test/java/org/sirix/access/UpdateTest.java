@@ -97,6 +97,34 @@ public class UpdateTest {
 		rtx.close();
 	}
 
+	@Test
+	public void testSnapshotReadTrx() throws SirixException {
+		final NodeWriteTrx wtx = holder.getSession().beginNodeWriteTrx();
+		DocumentCreater.create(wtx);
+		wtx.commit();
+		wtx.moveTo(4);
+		wtx.insertElementAsRightSibling(new QNm("blabla"));
+		final long nodeKey = wtx.getNodeKey();
+		final NodeReadTrx snapshot = wtx.beginSnapshotReadTrx();
+
+		// Changes after the snapshot has been created are not visible.
+		wtx.moveTo(5);
+		wtx.remove();
+		assertTrue(snapshot.moveTo(nodeKey).hasMoved());
+		assertEquals(new QNm("blabla"), snapshot.getName());
+		assertTrue(snapshot.moveTo(4).hasMoved());
+		assertEquals(nodeKey, snapshot.getRightSiblingKey());
+		assertTrue(snapshot.moveTo(5).hasMoved());
+		snapshot.close();
+
+		final NodeReadTrx rtx = wtx.beginSnapshotReadTrx();
+		assertFalse(rtx.moveTo(5).hasMoved());
+		assertTrue(rtx.moveTo(nodeKey).hasMoved());
+		rtx.close();
+		wtx.rollback();
+		wtx.close();
+	}
+
 	private final static void testDelete(final NodeReadTrx rtx) {
 		assertFalse(rtx.moveTo(5).hasMoved());
 		assertTrue(rtx.moveTo(1).hasMoved());
@@ -27,16 +27,30 @@
 
 package org.sirix.axis;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+
+import org.brackit.xquery.atomic.QNm;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.sirix.Holder;
 import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.Database;
 import org.sirix.api.NodeReadTrx;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.Session;
 import org.sirix.exception.SirixException;
+import org.sirix.metrics.Metrics;
+import org.sirix.settings.Constants;
 import org.sirix.settings.Fixed;
 
 import com.google.common.collect.ImmutableList;
@@ -207,4 +221,43 @@ public class DescendantAxisTest {
 			}
 		}.test();
 	}
+
+	@Test
+	public void testIterateWithReadahead() throws SirixException {
+		final Database database = TestHelper.getDatabase(PATHS.PATH2.getFile());
+		try (final Session session = database
+				.getSession(new SessionConfiguration.Builder(TestHelper.RESOURCE)
+						.build());
+				final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+			// Several record pages of siblings, scanned in document order.
+			wtx.insertElementAsFirstChild(new QNm("root"));
+			wtx.insertElementAsFirstChild(new QNm("child"));
+			for (int i = 0; i < 6 * Constants.NDP_NODE_COUNT; i++) {
+				wtx.insertElementAsRightSibling(new QNm("child"));
+			}
+			wtx.commit();
+		}
+
+		final long hits = Metrics.READAHEAD_HITS.getCount();
+		final List<Long> withReadahead = descendants(database, 2);
+		if (Metrics.ENABLED) {
+			assertTrue(Metrics.READAHEAD_HITS.getCount() > hits);
+		}
+		assertEquals(6 * Constants.NDP_NODE_COUNT + 2, withReadahead.size());
+		assertEquals(descendants(database, 0), withReadahead);
+	}
+
+	private static List<Long> descendants(final Database database,
+			final int readaheadPages) throws SirixException {
+		try (final Session session = database
+				.getSession(new SessionConfiguration.Builder(TestHelper.RESOURCE)
+						.readaheadPages(readaheadPages).build());
+				final NodeReadTrx rtx = session.beginNodeReadTrx()) {
+			final List<Long> keys = new ArrayList<>();
+			for (final long key : new DescendantAxis(rtx)) {
+				keys.add(key);
+			}
+			return keys;
+		}
+	}
 }
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.axis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.access.Databases;
+import org.sirix.access.HashKind;
+import org.sirix.access.conf.DatabaseConfiguration;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.Axis;
+import org.sirix.api.Database;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.metrics.Metrics;
+import org.sirix.settings.Constants;
+import org.sirix.settings.Versioning;
+import org.sirix.utils.TypedValue;
+
+/** Test the {@link PageScanAxis} with and without bloom filters. */
+public class PageScanAxisTest {
+
+	/** {@link Database} instance. */
+	private Database mDatabase;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		Databases.createDatabase(new DatabaseConfiguration(TestHelper.PATHS.PATH1
+				.getFile()));
+		mDatabase = Databases.openDatabase(TestHelper.PATHS.PATH1.getFile());
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		mDatabase.close();
+	}
+
+	@Test
+	public void testWithBloomFilters() throws SirixException {
+		mDatabase.createResource(new ResourceConfiguration.Builder(
+				TestHelper.RESOURCE, mDatabase.getDatabaseConfig())
+				.versioningApproach(Versioning.INCREMENTAL).hashKind(HashKind.NONE)
+				.revisionsToRestore(3).useBloomFilters(true).build());
+		final long skips = Metrics.BLOOM_FILTER_SKIPS.getCount();
+		test();
+		if (Metrics.ENABLED) {
+			assertTrue(Metrics.BLOOM_FILTER_SKIPS.getCount() > skips);
+		}
+	}
+
+	@Test
+	public void testWithoutBloomFilters() throws SirixException {
+		mDatabase.createResource(new ResourceConfiguration.Builder(
+				TestHelper.RESOURCE, mDatabase.getDatabaseConfig())
+				.versioningApproach(Versioning.INCREMENTAL).hashKind(HashKind.NONE)
+				.revisionsToRestore(3).build());
+		test();
+	}
+
+	private void test() throws SirixException {
+		try (final Session session = mDatabase
+				.getSession(new SessionConfiguration.Builder(TestHelper.RESOURCE)
+						.build())) {
+			try (final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+				// Four pages of nested elements with a rare name in the third page.
+				for (int i = 0; i < 4 * Constants.NDP_NODE_COUNT - 2; i++) {
+					wtx.insertElementAsFirstChild(new QNm(
+							i == 2 * Constants.NDP_NODE_COUNT ? "bar" : "foo"));
+				}
+				final long bar = wtx.getNodeKey() - 2 * Constants.NDP_NODE_COUNT + 3;
+				wtx.insertTextAsFirstChild("needle");
+				final long needle = wtx.getNodeKey();
+				wtx.commit();
+
+				try (final NodeReadTrx rtx = session.beginNodeReadTrx()) {
+					assertEquals(Arrays.asList(bar), keys(new PageScanAxis(rtx,
+							new QNm("bar"))));
+					assertEquals(Arrays.asList(needle), keys(new PageScanAxis(rtx,
+							TypedValue.getBytes("needle"))));
+					assertEquals(Arrays.<Long> asList(), keys(new PageScanAxis(rtx,
+							new QNm("baz"))));
+				}
+
+				// Modify the first page, which is written as a delta.
+				wtx.moveTo(2);
+				wtx.insertElementAsRightSibling(new QNm("bar"));
+				final long bar2 = wtx.getNodeKey();
+				wtx.moveTo(3);
+				wtx.setName(new QNm("baz"));
+
+				// Uncommitted changes are found, too.
+				assertEquals(Arrays.asList(bar, bar2), keys(new PageScanAxis(wtx,
+						new QNm("bar"))));
+				wtx.commit();
+
+				try (final NodeReadTrx rtx = session.beginNodeReadTrx()) {
+					assertEquals(Arrays.asList(bar, bar2), keys(new PageScanAxis(rtx,
+							new QNm("bar"))));
+					assertEquals(Arrays.asList(3L), keys(new PageScanAxis(rtx,
+							new QNm("baz"))));
+					assertEquals(Arrays.asList(needle), keys(new PageScanAxis(rtx,
+							TypedValue.getBytes("needle"))));
+				}
+			}
+		}
+	}
+
+	private static List<Long> keys(final Axis axis) {
+		final List<Long> keys = new ArrayList<>();
+		while (axis.hasNext()) {
+			keys.add(axis.next());
+		}
+		return keys;
+	}
+}
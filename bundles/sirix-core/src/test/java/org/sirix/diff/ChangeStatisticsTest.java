@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.diff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.exception.SirixException;
+
+/**
+ * Test {@link ChangeStatistics}.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public class ChangeStatisticsTest {
+
+	/** Holder for testing. */
+	private Holder mHolder;
+
+	@Before
+	public void setUp() throws SirixException {
+		DiffTestHelper.setUp();
+		mHolder = Holder.generateWtx();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		TestHelper.closeEverything();
+	}
+
+	@Test
+	public void testModificationCounts() throws SirixException {
+		DiffTestHelper.setUpFirst(mHolder);
+		final ChangeStatistics statistics = ChangeStatistics.getInstance(
+				mHolder.getSession(), 1, 2);
+
+		// An element with a text node has been inserted below the root element.
+		assertEquals(2, statistics.getModificationCount());
+		assertEquals(2, statistics.getModificationCount(1));
+		assertEquals(0, statistics.getModificationCount(5));
+
+		final File file = new File(mHolder.getSession().getResourceConfig().mPath,
+				ResourceConfiguration.Paths.CHANGES.getFile().getPath() + "1-2");
+		assertTrue(file.exists());
+
+		final ChangeStatistics stored = ChangeStatistics.getInstance(
+				mHolder.getSession(), 1, 2);
+		assertEquals(2, stored.getModificationCount());
+		assertEquals(2, stored.getModificationCount(1));
+		assertEquals(0, stored.getModificationCount(5));
+	}
+}
@@ -17,18 +17,22 @@ import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.sirix.Holder;
 import org.sirix.TestHelper;
 import org.sirix.TestHelper.PATHS;
 import org.sirix.access.conf.SessionConfiguration;
 import org.sirix.api.Database;
+import org.sirix.api.NodeReadTrx;
 import org.sirix.api.NodeWriteTrx;
 import org.sirix.api.Session;
+import org.sirix.diff.algorithm.fmse.Matching;
 import org.sirix.diff.service.FMSEImport;
 import org.sirix.exception.SirixException;
 import org.sirix.service.xml.serialize.XMLSerializer;
 import org.sirix.service.xml.serialize.XMLSerializer.XMLSerializerBuilder;
 import org.sirix.service.xml.shredder.Insert;
 import org.sirix.service.xml.shredder.XMLShredder;
+import org.sirix.utils.DocumentCreater;
 
 /**
  * Test the FMSE implementation.
@@ -102,6 +106,9 @@ public final class FMSETest extends XMLTestCase {
 	private static final String XMLLINGUISTICS = RESOURCES + File.separator
 			+ "linguistics";
 
+	private static final String XMLVALUES = RESOURCES + File.separator
+			+ "revXMLsValues";
+
 	static {
 		XMLUnit.setIgnoreComments(true);
 		XMLUnit.setIgnoreWhitespace(true);
@@ -224,6 +231,71 @@ public final class FMSETest extends XMLTestCase {
 		test(XMLLINGUISTICS);
 	}
 
+	@Test
+	public void testValues() throws Exception {
+		// Leaves, which aren't in the longest common subsequence, are paired by
+		// the hash of their values. "Aa" and "BB" have the same hash.
+		test(XMLVALUES);
+	}
+
+	@Test
+	public void testMatchingSubtrees() throws Exception {
+		final Holder holder = Holder.generateSession();
+		try {
+			testMatchingSubtrees(holder.getSession());
+		} finally {
+			holder.close();
+		}
+	}
+
+	@Test
+	public void testMatchingSubtreesDeweyIDs() throws Exception {
+		final Holder holder = Holder.generateDeweyIDSession();
+		try {
+			testMatchingSubtrees(holder.getSession());
+		} finally {
+			holder.close();
+		}
+	}
+
+	/**
+	 * Test the descendants of matched subtrees, which are determined by the
+	 * DeweyIDs if stored, or by the ancestors otherwise.
+	 * 
+	 * @param session
+	 *          the session of the test document
+	 * @throws Exception
+	 *           if any exception occurs
+	 */
+	private void testMatchingSubtrees(final Session session) throws Exception {
+		try (final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+			DocumentCreater.create(wtx);
+			wtx.commit();
+		}
+		try (final NodeReadTrx oldRtx = session.beginNodeReadTrx();
+				final NodeReadTrx newRtx = session.beginNodeReadTrx()) {
+			// Match each node with itself, including the namespace and attributes.
+			final Matching matching = new Matching(oldRtx, newRtx);
+			for (long key = 1; key <= 13; key++) {
+				matching.add(key, key);
+			}
+			assertEquals(13, matching.containedDescendants(1, 1));
+			assertEquals(3, matching.containedDescendants(5, 5));
+			// The attribute of the second b element is in its subtree.
+			assertEquals(4, matching.containedDescendants(9, 9));
+			assertEquals(4, matching.containedDescendants(9, 1));
+			assertEquals(0, matching.containedDescendants(5, 9));
+			assertEquals(3, matching.containedDescendants(1, 5));
+
+			// Unmatched nodes and partners in another subtree aren't counted.
+			assertTrue(matching.remove(7));
+			assertEquals(2, matching.containedDescendants(5, 5));
+			matching.add(6, 12);
+			assertEquals(1, matching.containedDescendants(5, 5));
+			assertEquals(1, matching.containedDescendants(5, 9));
+		}
+	}
+
 	/**
 	 * Test a folder of XML files.
 	 * 
@@ -1,19 +1,30 @@
 package org.sirix.indexes;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Iterator;
 import java.util.Set;
 
+import org.brackit.xquery.atomic.QNm;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.sirix.Holder;
 import org.sirix.TestHelper;
+import org.sirix.access.IndexController;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.NodeWriteTrx;
 import org.sirix.exception.SirixException;
+import org.sirix.index.IndexDef;
+import org.sirix.index.IndexDefs;
+import org.sirix.index.IndexType;
+import org.sirix.index.avltree.AVLTreeReader;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
 
 /**
  * Test the AVLTree implementation.
@@ -74,6 +85,48 @@ public class AVLTreeTest {
 		// .getTextValueIndex();
 	}
 
+	@Test
+	public void testNameIndexSeek() throws SirixException {
+		try (final NodeWriteTrx wtx = holder.getSession().beginNodeWriteTrx()) {
+			wtx.insertElementAsFirstChild(new QNm("a"));
+			wtx.insertElementAsFirstChild(new QNm("b"));
+			wtx.insertElementAsRightSibling(new QNm("c"));
+			wtx.insertElementAsRightSibling(new QNm("b"));
+			final IndexController controller = holder.getSession()
+					.getWtxIndexController(wtx.getRevisionNumber() - 1);
+			controller.createIndexes(ImmutableSet.of(IndexDefs.createNameIdxDef(0)),
+					wtx);
+			wtx.commit();
+		}
+		try (final NodeReadTrx rtx = holder.getSession().beginNodeReadTrx()) {
+			final IndexController controller = holder.getSession()
+					.getRtxIndexController(rtx.getRevisionNumber());
+			final IndexDef indexDef = controller.getIndexes().getIndexDef(0,
+					IndexType.NAME);
+
+			// Single and multiple keys, including a missing one.
+			final AVLTreeReader<QNm, NodeReferences> reader = AVLTreeReader
+					.getInstance(rtx.getPageTrx(), IndexType.NAME, 0);
+			assertEquals(ImmutableSet.of(3L), reader.seek(new QNm("c")).get()
+					.getValue().getNodeKeys());
+			assertFalse(reader.seek(new QNm("d")).isPresent());
+			Iterator<NodeReferences> refs = controller.openNameIndex(
+					rtx.getPageTrx(), indexDef,
+					controller.createNameFilter(new String[] { "d", "b" }));
+			check(Optional.of(refs.next()), ImmutableSet.of(2L, 4L));
+			assertFalse(refs.hasNext());
+
+			// Without names the whole index is scanned.
+			refs = controller.openNameIndex(rtx.getPageTrx(), indexDef, null);
+			int entries = 0;
+			while (refs.hasNext()) {
+				refs.next();
+				entries++;
+			}
+			assertEquals(3, entries);
+		}
+	}
+
 	private void check(final Optional<NodeReferences> barRefs,
 			final Set<Long> keys) {
 		assertTrue(barRefs.isPresent());
@@ -0,0 +1,174 @@
+package org.sirix.indexes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.util.path.Path;
+import org.brackit.xquery.util.path.PathException;
+import org.brackit.xquery.xdm.Type;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.access.IndexController;
+import org.sirix.access.Movement;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.index.IndexDef;
+import org.sirix.index.IndexDefs;
+import org.sirix.index.IndexType;
+import org.sirix.index.avltree.AVLNode;
+import org.sirix.index.avltree.AVLTreeReader;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+import org.sirix.settings.Fixed;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Test that indexes built in parallel equal the indexes built by a single
+ * thread.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public class IndexBuilderTest {
+
+	/** Number of items of the test document. */
+	private static final int ITEMS = 500;
+
+	/** {@link Holder} reference. */
+	private Holder holder;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		holder = Holder.generatePathSummarySession();
+		try (final NodeWriteTrx wtx = holder.getSession().beginNodeWriteTrx()) {
+			wtx.insertElementAsFirstChild(new QNm("site"));
+			for (int i = 0; i < ITEMS; i++) {
+				if (i == 0) {
+					wtx.insertElementAsFirstChild(new QNm("item"));
+				} else {
+					wtx.insertElementAsRightSibling(new QNm("item"));
+				}
+				wtx.insertAttribute(new QNm("price"), String.valueOf(i % 7),
+						Movement.TOPARENT);
+				if (i % 3 == 0) {
+					wtx.insertElementAsFirstChild(new QNm("name"));
+					wtx.insertTextAsFirstChild("item" + i);
+					wtx.moveToParent();
+					wtx.moveToParent();
+				}
+			}
+			wtx.commit();
+		}
+		holder.getSession().close();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		holder.close();
+		TestHelper.closeEverything();
+	}
+
+	@Test
+	public void testParallelBuild() throws SirixException, PathException {
+		assertParallelBuild(4);
+	}
+
+	@Test
+	public void testSplitSubtrees() throws SirixException, PathException {
+		// The runs of so many threads are single nodes, thus all subtrees with
+		// descendants are split.
+		assertParallelBuild(128);
+	}
+
+	/**
+	 * Assert that indexes built with the given number of threads equal the
+	 * indexes built by a single thread.
+	 */
+	private void assertParallelBuild(final int threads) throws SirixException,
+			PathException {
+		final Set<Path<QNm>> paths = ImmutableSet.of(Path.parse("//item/@price"));
+		createIndexes(threads, ImmutableSet.of(IndexDefs.createNameIdxDef(0),
+				IndexDefs.createPathIdxDef(ImmutableSet.<Path<QNm>> of(), 0),
+				IndexDefs.createCASIdxDef(false, Optional.of(Type.STR), paths, 0)));
+		createIndexes(1, ImmutableSet.of(IndexDefs.createNameIdxDef(1),
+				IndexDefs.createPathIdxDef(ImmutableSet.<Path<QNm>> of(), 1),
+				IndexDefs.createCASIdxDef(false, Optional.of(Type.STR), paths, 1)));
+
+		try (final Session session = holder.getDatabase().getSession(
+				new SessionConfiguration.Builder(TestHelper.RESOURCE).build());
+				final NodeReadTrx rtx = session.beginNodeReadTrx()) {
+			for (final IndexType type : new IndexType[] { IndexType.NAME,
+					IndexType.PATH, IndexType.CAS }) {
+				final Map<Object, Set<Long>> parallel = entries(rtx, type, 0);
+				assertFalse(parallel.isEmpty());
+				assertEquals(parallel, entries(rtx, type, 1));
+			}
+			final IndexController controller = session.getRtxIndexController(rtx
+					.getRevisionNumber());
+			final IndexDef nameIndex = controller.getIndexes().getIndexDef(0,
+					IndexType.NAME);
+			final Iterator<NodeReferences> items = controller.openNameIndex(
+					rtx.getPageTrx(), nameIndex,
+					controller.createNameFilter(new String[] { "item" }));
+			assertEquals(ITEMS, items.next().size());
+		}
+	}
+
+	@Test
+	public void testNameIndexWithoutPathSummary() throws SirixException {
+		// A name index doesn't need the path summary in the forked builders.
+		createIndexes(4, ImmutableSet.of(IndexDefs.createNameIdxDef(0)));
+		try (final Session session = holder.getDatabase().getSession(
+				new SessionConfiguration.Builder(TestHelper.RESOURCE).build());
+				final NodeReadTrx rtx = session.beginNodeReadTrx()) {
+			final Map<Object, Set<Long>> entries = entries(rtx, IndexType.NAME, 0);
+			assertEquals(ITEMS, entries.get(new QNm("item")).size());
+			assertEquals((ITEMS + 2) / 3, entries.get(new QNm("name")).size());
+		}
+	}
+
+	/**
+	 * Create indexes with a new session and the given number of threads in an
+	 * unmodified write transaction, which builds them in parallel.
+	 */
+	private void createIndexes(final int threads, final Set<IndexDef> indexDefs)
+			throws SirixException {
+		try (final Session session = holder.getDatabase().getSession(
+				new SessionConfiguration.Builder(TestHelper.RESOURCE)
+						.indexBuildThreads(threads).build());
+				final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+			final IndexController controller = session.getWtxIndexController(wtx
+					.getRevisionNumber() - 1);
+			controller.createIndexes(indexDefs, wtx);
+			wtx.commit();
+		}
+	}
+
+	/** Collect all entries of an index. */
+	private static Map<Object, Set<Long>> entries(final NodeReadTrx rtx,
+			final IndexType type, final int index) {
+		final AVLTreeReader<Comparable<Object>, NodeReferences> reader = AVLTreeReader
+				.getInstance(rtx.getPageTrx(), type, index);
+		final Map<Object, Set<Long>> entries = new HashMap<>();
+		for (final Iterator<AVLNode<Comparable<Object>, NodeReferences>> it = reader.new AVLNodeIterator(
+				Fixed.DOCUMENT_NODE_KEY.getStandardProperty()); it.hasNext();) {
+			final AVLNode<Comparable<Object>, NodeReferences> node = it.next();
+			entries.put(node.getKey(), node.getValue().getNodeKeys());
+		}
+		return entries;
+	}
+}
@@ -0,0 +1,124 @@
+package org.sirix.indexes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.access.IndexController;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.index.IndexChangeBuffer;
+import org.sirix.index.IndexDef;
+import org.sirix.index.IndexDefs;
+import org.sirix.index.IndexType;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Test the buffering of index changes.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public class IndexChangeBufferTest {
+
+	/** {@link Holder} reference. */
+	private Holder holder;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		holder = Holder.generateSession();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		holder.close();
+		TestHelper.closeEverything();
+	}
+
+	@Test
+	public void testCapacity() {
+		final IndexChangeBuffer<String> buffer = new IndexChangeBuffer<>(3);
+		assertTrue(buffer.isEmpty());
+		buffer.insert("a", 1);
+		buffer.insert("a", 1);
+		buffer.delete("b", 2);
+		assertFalse(buffer.isEmpty());
+		assertFalse(buffer.isFull());
+		buffer.insert("b", 3);
+		assertTrue(buffer.isFull());
+		buffer.clear();
+		assertTrue(buffer.isEmpty());
+		assertFalse(buffer.isFull());
+	}
+
+	@Test
+	public void testAddAll() {
+		final IndexChangeBuffer<String> buffer = new IndexChangeBuffer<>(2);
+		final IndexChangeBuffer<String> other = new IndexChangeBuffer<>(
+				IndexChangeBuffer.DEFAULT_CAPACITY);
+		other.insert("a", 1);
+		other.insert("a", 2);
+		buffer.addAll(other);
+		assertTrue(other.isEmpty());
+		assertTrue(buffer.isFull());
+	}
+
+	@Test
+	public void testReadOwnWrites() throws SirixException {
+		try (final NodeWriteTrx wtx = holder.getSession().beginNodeWriteTrx()) {
+			wtx.insertElementAsFirstChild(new QNm("a"));
+			final IndexController controller = holder.getSession()
+					.getWtxIndexController(wtx.getRevisionNumber() - 1);
+			controller.createIndexes(ImmutableSet.of(IndexDefs.createNameIdxDef(0)),
+					wtx);
+			final IndexDef indexDef = controller.getIndexes().getIndexDef(0,
+					IndexType.NAME);
+
+			// Buffered insertions are visible before the commit.
+			wtx.insertElementAsFirstChild(new QNm("b"));
+			wtx.insertElementAsRightSibling(new QNm("c"));
+			wtx.insertElementAsRightSibling(new QNm("b"));
+			check(controller, wtx, indexDef, "b", ImmutableSet.of(2L, 4L));
+
+			// An insertion and a deletion of the same node cancel each other out.
+			wtx.insertElementAsRightSibling(new QNm("b"));
+			wtx.remove();
+			wtx.moveTo(2);
+			wtx.remove();
+			check(controller, wtx, indexDef, "b", ImmutableSet.of(4L));
+			wtx.commit();
+		}
+		try (final NodeReadTrx rtx = holder.getSession().beginNodeReadTrx()) {
+			final IndexController controller = holder.getSession()
+					.getRtxIndexController(rtx.getRevisionNumber());
+			final IndexDef indexDef = controller.getIndexes().getIndexDef(0,
+					IndexType.NAME);
+			check(controller, rtx, indexDef, "b", ImmutableSet.of(4L));
+			check(controller, rtx, indexDef, "c", ImmutableSet.of(3L));
+		}
+	}
+
+	private static void check(final IndexController controller,
+			final NodeReadTrx rtx, final IndexDef indexDef, final String name,
+			final Set<Long> keys) {
+		final Iterator<NodeReferences> refs = controller.openNameIndex(
+				rtx.getPageTrx(), indexDef,
+				controller.createNameFilter(new String[] { name }));
+		assertTrue(refs.hasNext());
+		assertEquals(keys, refs.next().getNodeKeys());
+		assertFalse(refs.hasNext());
+	}
+}
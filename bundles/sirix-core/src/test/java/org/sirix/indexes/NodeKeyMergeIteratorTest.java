@@ -0,0 +1,61 @@
+package org.sirix.indexes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.sirix.index.NodeKeyMergeIterator;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Test the {@link NodeKeyMergeIterator}.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public class NodeKeyMergeIteratorTest {
+
+	@Test
+	public void testMerge() {
+		final NodeReferences first = new NodeReferences(ImmutableSet.of(9L, 1L, 5L));
+		final NodeReferences second = new NodeReferences(ImmutableSet.of(4L, 5L,
+				12L, 2L));
+		final NodeReferences third = new NodeReferences(
+				Collections.<Long> emptySet());
+		final NodeReferences fourth = new NodeReferences(new long[] { 3L }, 1);
+		final NodeKeyMergeIterator iter = new NodeKeyMergeIterator(Arrays.asList(
+				first, second, third, fourth).iterator());
+		for (final long expected : new long[] { 1, 2, 3, 4, 5, 9, 12 }) {
+			assertEquals(expected, iter.nextNodeKey());
+		}
+		assertFalse(iter.hasNext());
+	}
+
+	@Test
+	public void testEncoded() {
+		final NodeReferences first = new NodeReferences(ImmutableSet.of(7L, 300L,
+				70000L));
+		final NodeReferences second = new NodeReferences(ImmutableSet.of(8L, 300L));
+		final NodeKeyMergeIterator iter = new NodeKeyMergeIterator(Arrays.asList(
+				new NodeReferences(first.size(), first.getEncodedNodeKeys()),
+				new NodeReferences(second.size(), second.getEncodedNodeKeys()))
+				.iterator());
+		for (final long expected : new long[] { 7, 8, 300, 70000 }) {
+			assertTrue(iter.hasNext());
+			assertEquals(expected, iter.nextNodeKey());
+		}
+		assertFalse(iter.hasNext());
+	}
+
+	@Test
+	public void testEmpty() {
+		assertFalse(new NodeKeyMergeIterator(Collections
+				.<NodeReferences> emptyIterator()).hasNext());
+	}
+}
@@ -0,0 +1,159 @@
+package org.sirix.indexes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.sirix.node.Utils.putVarLong;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.sirix.index.avltree.AVLNode;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+import org.sirix.node.Kind;
+import org.sirix.node.SirixDeweyID;
+import org.sirix.node.delegates.NodeDelegate;
+import org.sirix.node.interfaces.Record;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Test the encoding and the serialization of {@link NodeReferences}.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public class NodeReferencesTest {
+
+	@Test
+	public void testEncoded() {
+		final NodeReferences references = new NodeReferences(ImmutableSet.of(
+				300L, 1L, 70000L, 2L));
+		final NodeReferences encoded = new NodeReferences(references.size(),
+				references.getEncodedNodeKeys());
+		assertEquals(4, encoded.size());
+		assertEquals(references, encoded);
+		assertEquals(70000L, encoded.getNodeKey(3));
+		assertTrue(encoded.isPresent(300L));
+		assertFalse(encoded.isPresent(3L));
+	}
+
+	@Test
+	public void testModifyEncoded() {
+		final NodeReferences references = new NodeReferences(ImmutableSet.of(5L,
+				9L));
+		final NodeReferences encoded = new NodeReferences(references.size(),
+				references.getEncodedNodeKeys());
+		encoded.addNodeKey(7L);
+		assertTrue(encoded.removeNodeKey(5L));
+		assertEquals(ImmutableSet.of(7L, 9L), encoded.getNodeKeys());
+		assertEquals(encoded, new NodeReferences(encoded.size(),
+				encoded.getEncodedNodeKeys()));
+	}
+
+	@Test
+	public void testConcurrentDecode() throws InterruptedException,
+			ExecutionException {
+		final int size = 10000;
+		final Set<Long> nodeKeys = new HashSet<>();
+		for (long i = 0; i < size; i++) {
+			nodeKeys.add(i * 3);
+		}
+		final byte[] encodedNodeKeys = new NodeReferences(nodeKeys)
+				.getEncodedNodeKeys();
+		final ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			for (int round = 0; round < 20; round++) {
+				// The readers decode the node keys of the same instance concurrently.
+				final NodeReferences references = new NodeReferences(size,
+						encodedNodeKeys);
+				final List<Callable<Boolean>> readers = new ArrayList<>();
+				for (int i = 0; i < 4; i++) {
+					readers.add(new Callable<Boolean>() {
+						@Override
+						public Boolean call() {
+							final NodeReferences.Cursor cursor = references.cursor();
+							for (int j = 0; j < size; j++) {
+								if (references.getNodeKey(j) != j * 3L
+										|| cursor.next() != j * 3L) {
+									return false;
+								}
+							}
+							return references.isPresent(3L) && !cursor.hasNext();
+						}
+					});
+				}
+				for (final Future<Boolean> reader : pool.invokeAll(readers)) {
+					assertTrue(reader.get());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSerialize() throws IOException {
+		final NodeReferences references = new NodeReferences(ImmutableSet.of(
+				300L, 1L, 70000L));
+		final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+		Kind.PATHAVL.serialize(output, new AVLNode<>(5L, references, delegate()),
+				null);
+		assertEquals(references, deserialize(output.toByteArray()).getValue());
+	}
+
+	@Test
+	public void testDeserializePreviousFormat() throws IOException {
+		// The number of node keys, followed by the node keys in arbitrary order.
+		final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+		putVarLong(output, 5L);
+		output.writeInt(3);
+		output.writeLong(70000L);
+		output.writeLong(1L);
+		output.writeLong(300L);
+		putVarLong(output, 8L);
+		output.writeLong(0L);
+		putVarLong(output, 0L);
+		putVarLong(output, 0L);
+		putVarLong(output, 0L);
+		output.writeBoolean(true);
+		final AVLNode<Long, NodeReferences> node = deserialize(output
+				.toByteArray());
+		assertEquals(new NodeReferences(ImmutableSet.of(1L, 300L, 70000L)),
+				node.getValue());
+		assertTrue(node.isChanged());
+	}
+
+	@Test(expected = IOException.class)
+	public void testDeserializeUnknownFormat() throws IOException {
+		final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+		putVarLong(output, 5L);
+		output.writeInt(-2);
+		deserialize(output.toByteArray());
+	}
+
+	private static NodeDelegate delegate() {
+		return new NodeDelegate(10L, 2L, 0L, 0L, Optional.<SirixDeweyID> absent());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static AVLNode<Long, NodeReferences> deserialize(final byte[] bytes)
+			throws IOException {
+		final Record record = Kind.PATHAVL.deserialize(
+				ByteStreams.newDataInput(bytes), 10L,
+				Optional.<SirixDeweyID> absent(), null);
+		return (AVLNode<Long, NodeReferences>) record;
+	}
+}
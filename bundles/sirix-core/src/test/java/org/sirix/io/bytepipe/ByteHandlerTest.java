@@ -1,20 +1,49 @@
 package org.sirix.io.bytepipe;
 
+import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.Key;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
+import javax.crypto.spec.SecretKeySpec;
+
+import org.brackit.xquery.atomic.QNm;
+import org.sirix.Holder;
 import org.sirix.TestHelper;
+import org.sirix.TestHelper.PATHS;
+import org.sirix.access.Movement;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.PageReadTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
 import org.sirix.exception.SirixIOException;
+import org.sirix.node.interfaces.Record;
+import org.sirix.page.PageKind;
+import org.sirix.page.PagePersistenter;
+import org.sirix.page.PageReference;
+import org.sirix.page.UnorderedKeyValuePage;
+import org.sirix.settings.Fixed;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import com.google.common.base.Optional;
 import com.google.common.io.ByteStreams;
 
 /**
@@ -25,6 +54,85 @@ import com.google.common.io.ByteStreams;
  */
 public class ByteHandlerTest {
 
+	/** Key of the encrypting handlers. */
+	private static final Key KEY = new SecretKeySpec(new byte[] { 0, 1, 2, 3, 4,
+			5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15 }, "AES");
+
+	/**
+	 * Random, repetitive and serialized page bytes, such that compressors find
+	 * no matches as well as many matches.
+	 */
+	private List<byte[]> mData;
+
+	@BeforeClass
+	public void setUp() throws SirixException, IOException {
+		TestHelper.closeEverything();
+		TestHelper.deleteEverything();
+		mData = new ArrayList<>();
+		mData.add(TestHelper.generateRandomBytes(10000));
+		final byte[] pattern = "<item price=\"7\">".getBytes("UTF-8");
+		final byte[] repetitive = new byte[10000];
+		for (int i = 0; i < repetitive.length; i++) {
+			repetitive[i] = pattern[i % pattern.length];
+		}
+		mData.add(repetitive);
+		mData.add(new byte[10000]);
+		mData.add(serializedPage());
+	}
+
+	@AfterClass
+	public void tearDown() throws SirixException {
+		TestHelper.closeEverything();
+		TestHelper.deleteEverything();
+	}
+
+	/**
+	 * Serialize a record page with the records of a small document.
+	 */
+	private static byte[] serializedPage() throws SirixException, IOException {
+		final Holder holder = Holder.generateSession();
+		try {
+			try (final NodeWriteTrx wtx = holder.getSession()
+					.beginNodeWriteTrx()) {
+				wtx.insertElementAsFirstChild(new QNm("site"));
+				for (int i = 0; i < 200; i++) {
+					if (i == 0) {
+						wtx.insertElementAsFirstChild(new QNm("item"));
+					} else {
+						wtx.insertElementAsRightSibling(new QNm("item"));
+					}
+					wtx.insertAttribute(new QNm("price"), String.valueOf(i % 7),
+							Movement.TOPARENT);
+					wtx.insertTextAsFirstChild("item" + i);
+					wtx.moveToParent();
+				}
+				wtx.commit();
+			}
+			try (final PageReadTrx pageTrx = holder.getSession()
+					.beginPageReadTrx()) {
+				final UnorderedKeyValuePage page = new UnorderedKeyValuePage(0,
+						PageKind.RECORDPAGE, Optional.<PageReference> absent(), pageTrx);
+				for (long key = Fixed.DOCUMENT_NODE_KEY.getStandardProperty();; key++) {
+					final Optional<? extends Record> record = pageTrx.getRecord(key,
+							PageKind.RECORDPAGE, -1);
+					if (!record.isPresent()) {
+						break;
+					}
+					page.setEntry(key, record.get());
+				}
+				final ByteArrayOutputStream output = new ByteArrayOutputStream();
+				try (final DataOutputStream dataOutput = new DataOutputStream(
+						output)) {
+					PagePersistenter.serializePage(dataOutput, page);
+				}
+				return output.toByteArray();
+			}
+		} finally {
+			holder.close();
+			TestHelper.closeEverything();
+		}
+	}
+
 	/**
 	 * Test method for
 	 * {@link org.ByteHandler.io.bytepipe.IByteHandler#deserialize(byte[])} and
@@ -38,37 +146,157 @@ public class ByteHandlerTest {
 	public void testSerializeAndDeserialize(Class<ByteHandler> clazz,
 			ByteHandler[] handlers) throws SirixIOException, IOException {
 		for (final ByteHandler handler : handlers) {
-			final int datasize = 10000;
-			final byte[] bytes = TestHelper.generateRandomBytes(datasize);
-
-			ByteArrayOutputStream output = new ByteArrayOutputStream();
-			OutputStream handledOutout = handler.serialize(output);
-			handledOutout.flush();
-
-			ByteArrayInputStream input = new ByteArrayInputStream(bytes);
-			ByteStreams.copy(input, handledOutout);
-			output.flush();
-			output.close();
-			handledOutout.flush();
-			handledOutout.close();
-			input.close();
-
-			final byte[] encoded = output.toByteArray();
-			assertFalse(new StringBuilder("Check for ").append(handler.getClass())
-					.append(" failed.").toString(), Arrays.equals(bytes, encoded));
-
-			input = new ByteArrayInputStream(encoded);
-			InputStream handledInput = handler.deserialize(input);
-			output = new ByteArrayOutputStream();
-			ByteStreams.copy(handledInput, output);
-			output.flush();
-			output.close();
-			handledInput.close();
-			input.close();
-
-			final byte[] decoded = output.toByteArray();
-			assertTrue(new StringBuilder("Check for ").append(handler.getClass())
-					.append(" failed.").toString(), Arrays.equals(bytes, decoded));
+			for (final byte[] bytes : mData) {
+				testSerializeAndDeserialize(handler, bytes);
+			}
+		}
+	}
+
+	private static void testSerializeAndDeserialize(final ByteHandler handler,
+			final byte[] bytes) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		OutputStream handledOutout = handler.serialize(output);
+		handledOutout.flush();
+
+		ByteArrayInputStream input = new ByteArrayInputStream(bytes);
+		ByteStreams.copy(input, handledOutout);
+		output.flush();
+		output.close();
+		handledOutout.flush();
+		handledOutout.close();
+		input.close();
+
+		final byte[] encoded = output.toByteArray();
+		assertFalse(new StringBuilder("Check for ").append(handler.getClass())
+				.append(" failed.").toString(), Arrays.equals(bytes, encoded));
+
+		input = new ByteArrayInputStream(encoded);
+		InputStream handledInput = handler.deserialize(input);
+		output = new ByteArrayOutputStream();
+		ByteStreams.copy(handledInput, output);
+		output.flush();
+		output.close();
+		handledInput.close();
+		input.close();
+
+		final byte[] decoded = output.toByteArray();
+		assertTrue(new StringBuilder("Check for ").append(handler.getClass())
+				.append(" failed.").toString(), Arrays.equals(bytes, decoded));
+	}
+
+	/**
+	 * Test method for {@link ByteHandler#serialize(byte[])} and
+	 * {@link ByteHandler#deserialize(byte[])}, which must be interchangeable
+	 * with the stream-based methods.
+	 * 
+	 * @throws IOException
+	 *           if a byte handling exception occurs
+	 */
+	@Test(dataProvider = "instantiateByteHandler")
+	public void testBlockSerializeAndDeserialize(Class<ByteHandler> clazz,
+			ByteHandler[] handlers) throws IOException {
+		for (final ByteHandler handler : handlers) {
+			final List<byte[]> data = new ArrayList<>(mData);
+			data.add(new byte[0]);
+			data.add(TestHelper.generateRandomBytes(10));
+			for (final byte[] bytes : data) {
+				final byte[] encoded = handler.serialize(bytes);
+				assertTrue(Arrays.equals(bytes, handler.deserialize(encoded)));
+				assertTrue(Arrays.equals(bytes, ByteStreams.toByteArray(handler
+						.deserialize(new ByteArrayInputStream(encoded)))));
+
+				final ByteArrayOutputStream output = new ByteArrayOutputStream();
+				final OutputStream handledOutput = handler.serialize(output);
+				handledOutput.write(bytes);
+				handledOutput.close();
+				assertTrue(new StringBuilder("Check for ")
+						.append(handler.getClass()).append(" failed.").toString(),
+						Arrays.equals(bytes, handler.deserialize(output.toByteArray())));
+			}
+		}
+	}
+
+	/**
+	 * Repetitive input and serialized pages must be compressed by finding
+	 * matches.
+	 * 
+	 * @throws IOException
+	 *           if a byte handling exception occurs
+	 */
+	@Test
+	public void testCompression() throws IOException {
+		for (final ByteHandler handler : new ByteHandler[] {
+				new DeflateCompressor(), new SnappyCompressor(),
+				new LZ4Compressor() }) {
+			for (final byte[] bytes : mData.subList(1, mData.size())) {
+				final byte[] encoded = handler.serialize(bytes);
+				assertTrue(new StringBuilder("Check for ").append(handler.getClass())
+						.append(" failed.").toString(),
+						encoded.length < bytes.length);
+				assertTrue(Arrays.equals(bytes, handler.deserialize(encoded)));
+			}
+		}
+	}
+
+	/**
+	 * Without a key or with another key pages can't be decrypted.
+	 * 
+	 * @throws IOException
+	 *           if a byte handling exception occurs
+	 */
+	@Test
+	public void testKey() throws IOException {
+		final byte[] bytes = mData.get(0);
+		final ByteHandler handler = new GCMEncryptor().getInstance(KEY);
+		final byte[] encoded = handler.serialize(bytes);
+		assertTrue(Arrays.equals(bytes, new ByteHandlePipeline(
+				new GCMEncryptor()).getInstance(KEY).deserialize(encoded)));
+		assertTrue(Arrays.equals(bytes,
+				handler.getInstance().deserialize(encoded)));
+		try {
+			new GCMEncryptor().deserialize(encoded);
+			fail();
+		} catch (final IOException e) {
+		}
+		try {
+			new GCMEncryptor(new SecretKeySpec(new byte[16], "AES"))
+					.deserialize(encoded);
+			fail();
+		} catch (final IOException e) {
+		}
+	}
+
+	/**
+	 * The key of an encrypted resource is set by the session configuration.
+	 * 
+	 * @throws SirixException
+	 *           if a Sirix operation fails
+	 */
+	@Test
+	public void testEncryptedResource() throws SirixException {
+		final String resource = "encrypted";
+		final Database database = TestHelper.getDatabase(PATHS.PATH1.getFile());
+		database.createResource(new ResourceConfiguration.Builder(resource,
+				PATHS.PATH1.getConfig()).byteHandlerPipeline(
+				new ByteHandlePipeline(new LZ4Compressor(), new GCMEncryptor(KEY)))
+				.build());
+		try (final Session session = database
+				.getSession(new SessionConfiguration.Builder(resource).setKey(KEY)
+						.build());
+				final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+			wtx.insertElementAsFirstChild(new QNm("root"));
+			wtx.insertTextAsFirstChild("text");
+			wtx.commit();
+		}
+		// The handlers of the stored resource configuration don't have a key.
+		try (final Session session = database
+				.getSession(new SessionConfiguration.Builder(resource).setKey(KEY)
+						.build());
+				final NodeReadTrx rtx = session.beginNodeReadTrx()) {
+			rtx.moveToFirstChild();
+			assertEquals("root", rtx.getName().getLocalName());
+			rtx.moveToFirstChild();
+			assertEquals("text", rtx.getValue());
 		}
 	}
 
@@ -85,11 +313,13 @@ public class ByteHandlerTest {
 		Object[][] returnVal = { {
 				ByteHandler.class,
 				new ByteHandler[] { new Encryptor(), new DeflateCompressor(),
-						new SnappyCompressor(),
+						new SnappyCompressor(), new LZ4Compressor(), new GCMEncryptor(KEY),
 						new ByteHandlePipeline(new Encryptor(), new DeflateCompressor()),
 						new ByteHandlePipeline(new DeflateCompressor(), new Encryptor()),
 						new ByteHandlePipeline(new Encryptor(), new SnappyCompressor()),
-						new ByteHandlePipeline(new SnappyCompressor(), new Encryptor()), } } };
+						new ByteHandlePipeline(new SnappyCompressor(), new Encryptor()),
+						new ByteHandlePipeline(new LZ4Compressor(), new GCMEncryptor(KEY)),
+						new ByteHandlePipeline(new GCMEncryptor(KEY), new LZ4Compressor()), } } };
 		return returnVal;
 	}
 
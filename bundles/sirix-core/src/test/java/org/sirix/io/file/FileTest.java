@@ -27,6 +27,18 @@
 
 package org.sirix.io.file;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -34,8 +46,14 @@ import org.sirix.Holder;
 import org.sirix.TestHelper;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.exception.SirixException;
+import org.sirix.exception.SirixIOException;
 import org.sirix.io.IOTestHelper;
+import org.sirix.io.Reader;
+import org.sirix.io.Storage;
 import org.sirix.io.StorageType;
+import org.sirix.io.Writer;
+import org.sirix.page.PageReference;
+import org.sirix.page.UberPage;
 
 public class FileTest {
 	private ResourceConfiguration resourceConf;
@@ -52,6 +70,101 @@ public class FileTest {
 		IOTestHelper.testReadWriteFirstRef(resourceConf);
 	}
 
+	@Test
+	public void testSharedReader() throws Exception {
+		final Storage storage = StorageType.getStorage(resourceConf);
+		final PageReference reference = new PageReference();
+		reference.setPage(new UberPage());
+		try (final Writer writer = storage.getWriter()) {
+			writer.writeFirstReference(reference);
+		}
+
+		final Reader reader = storage.getReader();
+		assertSame(reader, storage.getReader());
+		final ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				results.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						return ((UberPage) reader.readUberPageReference().getPage())
+								.getRevisionCount();
+					}
+				}));
+			}
+			for (final Future<Integer> result : results) {
+				assertEquals(((UberPage) reference.getPage()).getRevisionCount(),
+						result.get().intValue());
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		// Closing the shared reader must not affect other transactions.
+		reader.close();
+		reader.readUberPageReference();
+		storage.close();
+	}
+
+	@Test
+	public void testInterruptedReader() throws Exception {
+		final Storage storage = StorageType.getStorage(resourceConf);
+		final PageReference reference = new PageReference();
+		reference.setPage(new UberPage());
+		try (final Writer writer = storage.getWriter()) {
+			writer.writeFirstReference(reference);
+		}
+
+		final Reader reader = storage.getReader();
+		final int revisionCount = ((UberPage) reference.getPage())
+				.getRevisionCount();
+		final ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			// Another thread keeps reading, while the channel is closed by interrupts.
+			final Future<Integer> reads = pool.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					int reads = 0;
+					for (int i = 0; i < 5000; i++) {
+						assertEquals(revisionCount, ((UberPage) reader
+								.readUberPageReference().getPage()).getRevisionCount());
+						reads++;
+					}
+					return reads;
+				}
+			});
+			final Future<Integer> interrupts = pool.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					int interrupts = 0;
+					for (int i = 0; i < 20; i++) {
+						Thread.currentThread().interrupt();
+						try {
+							reader.readUberPageReference();
+							fail("The read of an interrupted thread must fail!");
+						} catch (final SirixIOException e) {
+							assertTrue(Thread.interrupted());
+							interrupts++;
+						}
+						Thread.sleep(2);
+					}
+					return interrupts;
+				}
+			});
+			assertEquals(20, interrupts.get().intValue());
+			assertEquals(5000, reads.get().intValue());
+		} finally {
+			pool.shutdown();
+		}
+
+		// The channel is usable after the interrupts.
+		assertEquals(revisionCount,
+				((UberPage) reader.readUberPageReference().getPage())
+						.getRevisionCount());
+		storage.close();
+	}
+
 	@After
 	public void tearDown() throws SirixException {
 		IOTestHelper.clean();
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.node;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.sirix.exception.SirixException;
+
+/**
+ * Test the {@link SirixDeweyID}.
+ */
+public class SirixDeweyIDTest {
+
+	/** DeweyIDs in document order. */
+	private static final String[] ORDERED = { "1", "1.3", "1.3.1.3", "1.3.1.5",
+			"1.3.3", "1.3.4.3", "1.3.4.3.3", "1.3.5", "1.3.127", "1.3.129",
+			"1.3.70001", "1.5", "1.17.3", "1.4097" };
+
+	@Test
+	public void testCompareTo() throws SirixException {
+		for (int i = 0; i < ORDERED.length; i++) {
+			final SirixDeweyID first = new SirixDeweyID(ORDERED[i]);
+			for (int j = 0; j < ORDERED.length; j++) {
+				final SirixDeweyID second = new SirixDeweyID(ORDERED[j]);
+				assertEquals(Integer.signum(Integer.compare(i, j)),
+						Integer.signum(first.compareTo(second)));
+				assertEquals(i == j, first.equals(second));
+			}
+		}
+	}
+
+	@Test
+	public void testBytes() throws SirixException {
+		for (final String id : ORDERED) {
+			final SirixDeweyID deweyID = new SirixDeweyID(id);
+			final SirixDeweyID fromBytes = new SirixDeweyID(deweyID.toBytes());
+			assertEquals(deweyID, fromBytes);
+			assertEquals(deweyID.hashCode(), fromBytes.hashCode());
+			assertArrayEquals(deweyID.toBytes(), fromBytes.toBytes());
+			assertEquals(id, fromBytes.toString());
+		}
+	}
+
+	@Test
+	public void testIsParentOf() throws SirixException {
+		final SirixDeweyID parent = new SirixDeweyID("1.3");
+		assertTrue(parent.isParentOf(new SirixDeweyID("1.3.5")));
+		assertTrue(parent.isParentOf(new SirixDeweyID("1.3.4.3")));
+		assertTrue(parent.isParentOf(new SirixDeweyID("1.3.1.3")));
+		assertFalse(parent.isParentOf(new SirixDeweyID("1.3.5.3")));
+		assertFalse(parent.isParentOf(new SirixDeweyID("1.5")));
+		assertTrue(new SirixDeweyID("1.3.4.3").isChildOf(parent));
+	}
+}
@@ -27,13 +27,17 @@
 
 package org.sirix.node;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.After;
 import org.junit.Before;
@@ -45,8 +49,10 @@ import org.sirix.exception.SirixException;
 import org.sirix.node.delegates.NodeDelegate;
 import org.sirix.node.delegates.StructNodeDelegate;
 import org.sirix.node.delegates.ValNodeDelegate;
+import org.sirix.settings.Constants;
 import org.sirix.settings.Fixed;
 import org.sirix.utils.NamePageHash;
+import org.sirix.utils.ValueDictionary;
 
 import com.google.common.base.Optional;
 
@@ -97,6 +103,51 @@ public class TextNodeTest {
 		check(node2);
 	}
 
+	@Test
+	public void testDictionaryCompression() throws IOException {
+		final List<byte[]> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			values.add(("http://www.example.org/item/" + i)
+					.getBytes(Constants.DEFAULT_ENCODING));
+		}
+		final ValueDictionary dictionary = ValueDictionary.train(values);
+		final byte[] value = values.get(42);
+
+		// Values of resources without compression are kept as is.
+		final ValNodeDelegate plainDel = new ValNodeDelegate(new NodeDelegate(13,
+				14, 0, 0, Optional.<SirixDeweyID> absent()), value,
+				ValNodeDelegate.Encoding.NONE, false);
+		plainDel.compress(dictionary);
+		assertEquals(ValNodeDelegate.Encoding.NONE, plainDel.getEncoding());
+		assertArrayEquals(value, plainDel.getCompressed());
+
+		// An empty dictionary doesn't compress anything.
+		final NodeDelegate del = new NodeDelegate(13, 14, 0, 0,
+				Optional.<SirixDeweyID> absent());
+		final ValNodeDelegate valDel = new ValNodeDelegate(del, value,
+				ValNodeDelegate.Encoding.NONE, true);
+		valDel.compress(ValueDictionary.EMPTY);
+		assertEquals(ValNodeDelegate.Encoding.NONE, valDel.getEncoding());
+
+		valDel.compress(dictionary);
+		assertEquals(ValNodeDelegate.Encoding.DICTIONARY, valDel.getEncoding());
+		assertTrue(valDel.getCompressed().length < value.length);
+		assertArrayEquals(value, valDel.getRawValue());
+
+		// Serialize and deserialize the compressed value.
+		final TextNode node = new TextNode(valDel, new StructNodeDelegate(del,
+				Fixed.NULL_NODE_KEY.getStandardProperty(), 16l, 15l, 0l, 0l));
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		node.getKind().serialize(new DataOutputStream(out), node, mPageReadTrx);
+		final TextNode node2 = (TextNode) Kind.TEXT.deserialize(
+				new DataInputStream(new ByteArrayInputStream(out.toByteArray())),
+				node.getNodeKey(), node.getDeweyID(), mPageReadTrx);
+		final ValNodeDelegate valDel2 = node2.getValNodeDelegate();
+		assertEquals(ValNodeDelegate.Encoding.DICTIONARY, valDel2.getEncoding());
+		valDel2.setDictionary(ValueDictionary.of(dictionary.getBytes()));
+		assertArrayEquals(value, node2.getRawValue());
+	}
+
 	private final static void check(final TextNode node) {
 		// Now compare.
 		assertEquals(13L, node.getNodeKey());
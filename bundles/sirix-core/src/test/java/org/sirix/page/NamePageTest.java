@@ -0,0 +1,96 @@
+package org.sirix.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.brackit.xquery.atomic.QNm;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.node.Kind;
+import org.sirix.utils.NamePageHash;
+
+/**
+ * Test the restoration of names from name pages, which only store the changes
+ * of a revision.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public class NamePageTest {
+
+	/** Number of revisions, such that several full name pages are written. */
+	private static final int REVISIONS = NamePage.MAX_DELTA_DEPTH * 2 + 3;
+
+	/** {@link Holder} reference. */
+	private Holder holder;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		holder = Holder.generateSession();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		holder.close();
+		TestHelper.closeEverything();
+	}
+
+	@Test
+	public void testDeltaChain() throws SirixException {
+		final Map<Integer, Set<String>> expected = new HashMap<>();
+		final Set<String> names = new HashSet<>();
+		try (final NodeWriteTrx wtx = holder.getSession().beginNodeWriteTrx()) {
+			wtx.insertElementAsFirstChild(new QNm("root"));
+			final long rootKey = wtx.getNodeKey();
+			names.add("root");
+			for (int i = 1; i < REVISIONS; i++) {
+				wtx.moveTo(rootKey);
+				wtx.insertElementAsFirstChild(new QNm("e" + i));
+				names.add("e" + i);
+				if (i % 5 == 0) {
+					// Remove the element inserted in the previous revision.
+					wtx.moveToRightSibling();
+					wtx.remove();
+					names.remove("e" + (i - 1));
+				}
+				expected.put(wtx.getRevisionNumber(), new HashSet<>(names));
+				wtx.commit();
+			}
+		}
+		holder.getSession().close();
+
+		// Read the name pages with a new session, that is from the storage.
+		try (final Session session = holder.getDatabase().getSession(
+				new SessionConfiguration.Builder(TestHelper.RESOURCE).build())) {
+			for (final Map.Entry<Integer, Set<String>> entry : expected.entrySet()) {
+				try (final NodeReadTrx rtx = session.beginNodeReadTrx(entry.getKey())) {
+					for (int i = 1; i < REVISIONS; i++) {
+						final String name = rtx.getPageTrx().getName(
+								NamePageHash.generateHashForString("e" + i), Kind.ELEMENT);
+						if (entry.getValue().contains("e" + i)) {
+							assertEquals("e" + i, name);
+						} else {
+							assertNull(name);
+						}
+					}
+					assertEquals("root", rtx.getPageTrx().getName(
+							NamePageHash.generateHashForString("root"), Kind.ELEMENT));
+				}
+			}
+		}
+	}
+}
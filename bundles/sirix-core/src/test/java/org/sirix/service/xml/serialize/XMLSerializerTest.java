@@ -143,6 +143,31 @@ public class XMLSerializerTest {
 		session.close();
 	}
 
+	@Test
+	public void testParallelSerializer() throws Exception {
+		final Database database = TestHelper.getDatabase(PATHS.PATH1.getFile());
+		final Session session = database
+				.getSession(new SessionConfiguration.Builder(TestHelper.RESOURCE)
+						.build());
+		final NodeWriteTrx wtx = session.beginNodeWriteTrx();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		DocumentCreater.createVersioned(wtx);
+		wtx.close();
+
+		XMLSerializer serializer = new XMLSerializerBuilder(session, out, 1, 2, 3)
+				.emitXMLDeclaration().parallel(2).build();
+		serializer.call();
+		assertEquals(DocumentCreater.VERSIONEDXML, out.toString());
+		out.reset();
+
+		serializer = new XMLSerializerBuilder(session, out, 1).emitIDs()
+				.emitXMLDeclaration().parallel(2).build();
+		serializer.call();
+		assertEquals(DocumentCreater.ID, out.toString());
+		session.close();
+	}
+
 	/**
 	 * This test check the XPath //books expression and expects 6 books as result.
 	 * But the failure is, that only the children of the books will be serialized
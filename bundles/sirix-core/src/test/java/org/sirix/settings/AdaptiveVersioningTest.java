@@ -0,0 +1,153 @@
+package org.sirix.settings;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.Holder;
+import org.sirix.TestHelper;
+import org.sirix.api.PageReadTrx;
+import org.sirix.cache.RecordPageContainer;
+import org.sirix.exception.SirixException;
+import org.sirix.node.DeletedNode;
+import org.sirix.node.SirixDeweyID;
+import org.sirix.node.delegates.NodeDelegate;
+import org.sirix.node.interfaces.Record;
+import org.sirix.page.FragmentStatistics;
+import org.sirix.page.PageKind;
+import org.sirix.page.PageReference;
+import org.sirix.page.UnorderedKeyValuePage;
+
+import com.google.common.base.Optional;
+
+/**
+ * Test the decision of {@link Versioning#ADAPTIVE}, whether a modified page is
+ * written as a delta or as a full dump.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public class AdaptiveVersioningTest {
+
+	/** Number of records of the complete page. */
+	private static final int RECORDS = 100;
+
+	/** Number of revisions to restore. */
+	private static final int REVISIONS = 4;
+
+	/** {@link Holder} reference. */
+	private Holder mHolder;
+
+	/** {@link PageReadTrx} used by the pages. */
+	private PageReadTrx mPageReadTrx;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		mHolder = Holder.generateSession();
+		mPageReadTrx = mHolder.getSession().beginPageReadTrx();
+	}
+
+	@After
+	public void tearDown() throws SirixException {
+		mPageReadTrx.close();
+		mHolder.close();
+		TestHelper.closeEverything();
+	}
+
+	@Test
+	public void testNewPage() {
+		final RecordPageContainer<UnorderedKeyValuePage> container = container(
+				false, 10, FragmentStatistics.EMPTY);
+		final UnorderedKeyValuePage page = Versioning.ADAPTIVE.getPageToCommit(
+				container, REVISIONS);
+		assertSame(container.getModified(), page);
+		assertStatistics(page, 1, 0);
+	}
+
+	@Test
+	public void testDelta() {
+		final RecordPageContainer<UnorderedKeyValuePage> container = container(
+				true, 2, new FragmentStatistics(2, 3, 0.02f));
+		final UnorderedKeyValuePage page = Versioning.ADAPTIVE.getPageToCommit(
+				container, REVISIONS);
+		assertSame(container.getModified(), page);
+		assertEquals(2, page.size());
+		assertStatistics(page, 3, 5);
+	}
+
+	@Test
+	public void testChainTooLong() {
+		assertFullDump(container(true, 2, new FragmentStatistics(REVISIONS, 6,
+				0.02f)));
+	}
+
+	@Test
+	public void testTooManyDeltaRecords() {
+		assertFullDump(container(true, 2, new FragmentStatistics(2, RECORDS - 1,
+				0.02f)));
+	}
+
+	@Test
+	public void testHotPage() {
+		assertFullDump(container(true, RECORDS * 3 / 5, new FragmentStatistics(1,
+				0, 0.6f)));
+	}
+
+	@Test
+	public void testUnknownStatistics() {
+		// Pages written before adaptive versioning don't have statistics.
+		assertFullDump(container(true, 2, FragmentStatistics.EMPTY));
+	}
+
+	private void assertFullDump(
+			final RecordPageContainer<UnorderedKeyValuePage> container) {
+		final UnorderedKeyValuePage page = Versioning.ADAPTIVE.getPageToCommit(
+				container, REVISIONS);
+		assertNotSame(container.getModified(), page);
+		assertFalse(page.getPreviousReference().isPresent());
+		assertEquals(RECORDS, page.size());
+		for (final Record record : container.getModified().values()) {
+			assertSame(record, page.getValue(record.getNodeKey()));
+		}
+		assertStatistics(page, 1, 0);
+	}
+
+	private static void assertStatistics(final UnorderedKeyValuePage page,
+			final int fragments, final int deltaRecords) {
+		assertEquals(fragments, page.getFragmentStatistics().getFragments());
+		assertEquals(deltaRecords, page.getFragmentStatistics().getDeltaRecords());
+	}
+
+	/**
+	 * Create a container of a complete page with {@link #RECORDS} records,
+	 * whose first {@code changed} records are modified.
+	 */
+	private RecordPageContainer<UnorderedKeyValuePage> container(
+			final boolean previous, final int changed,
+			final FragmentStatistics statistics) {
+		final Optional<PageReference> reference = previous ? Optional
+				.of(new PageReference()) : Optional.<PageReference> absent();
+		final UnorderedKeyValuePage complete = new UnorderedKeyValuePage(0,
+				PageKind.RECORDPAGE, reference, mPageReadTrx);
+		final UnorderedKeyValuePage modified = new UnorderedKeyValuePage(0,
+				PageKind.RECORDPAGE, reference, mPageReadTrx);
+		for (int i = 0; i < RECORDS; i++) {
+			complete.setEntry((long) i, record(i));
+		}
+		for (int i = 0; i < changed; i++) {
+			modified.setEntry((long) i, record(i));
+		}
+		modified.setFragmentStatistics(statistics);
+		return new RecordPageContainer<>(complete, modified);
+	}
+
+	private static Record record(final long nodeKey) {
+		return new DeletedNode(new NodeDelegate(nodeKey, 0, 0, 0,
+				Optional.<SirixDeweyID> absent()));
+	}
+}
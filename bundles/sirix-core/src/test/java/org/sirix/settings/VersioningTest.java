@@ -164,6 +164,33 @@ public class VersioningTest {
 		test2();
 	}
 
+	@Test
+	public void testAdaptive() throws SirixException {
+		mDatabase.createResource(new ResourceConfiguration.Builder(
+				TestHelper.RESOURCE, mDatabase.getDatabaseConfig())
+				.versioningApproach(Versioning.ADAPTIVE).hashKind(HashKind.NONE)
+				.revisionsToRestore(3).build());
+		test();
+	}
+
+	@Test
+	public void testAdaptive1() throws SirixException {
+		mDatabase.createResource(new ResourceConfiguration.Builder(
+				TestHelper.RESOURCE, mDatabase.getDatabaseConfig())
+				.versioningApproach(Versioning.ADAPTIVE).hashKind(HashKind.NONE)
+				.revisionsToRestore(3).build());
+		test1();
+	}
+
+	@Test
+	public void testAdaptive2() throws SirixException {
+		mDatabase.createResource(new ResourceConfiguration.Builder(
+				TestHelper.RESOURCE, mDatabase.getDatabaseConfig())
+				.versioningApproach(Versioning.ADAPTIVE).hashKind(HashKind.NONE)
+				.revisionsToRestore(3).build());
+		test2();
+	}
+
 	/**
 	 * Test revisioning.
 	 * 
@@ -0,0 +1,170 @@
+package org.sirix.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LongLongHashMapTest {
+
+	/** Value returned for missing keys. */
+	private static final long MISSING = -1;
+
+	/** Capacity of a map created for no entries. */
+	private static final int CAPACITY = 8;
+
+	@Test
+	public void testPutGetRemove() {
+		final LongLongHashMap map = new LongLongHashMap(MISSING);
+		assertTrue(map.isEmpty());
+		assertEquals(MISSING, map.put(1, 10));
+		assertEquals(MISSING, map.put(-5, 50));
+		assertEquals(MISSING, map.put(Long.MAX_VALUE, 0));
+		assertEquals(3, map.size());
+		assertFalse(map.isEmpty());
+		assertEquals(10, map.get(1));
+		assertEquals(50, map.get(-5));
+		assertEquals(0, map.get(Long.MAX_VALUE));
+		assertEquals(10, map.put(1, 11));
+		assertEquals(11, map.get(1));
+		assertEquals(3, map.size());
+		assertEquals(50, map.remove(-5));
+		assertFalse(map.containsKey(-5));
+		assertEquals(2, map.size());
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertFalse(map.containsKey(1));
+	}
+
+	@Test
+	public void testMissingKeys() {
+		final LongLongHashMap map = new LongLongHashMap(MISSING, 0);
+		assertEquals(MISSING, map.get(42));
+		assertEquals(MISSING, map.remove(42));
+		assertFalse(map.containsKey(42));
+		map.put(42, 1);
+		assertEquals(MISSING, map.get(43));
+		assertEquals(MISSING, map.remove(43));
+		assertEquals(1, map.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidKey() {
+		new LongLongHashMap(MISSING).put(Long.MIN_VALUE, 1);
+	}
+
+	@Test
+	public void testCollisionsAndWrapAround() {
+		// Keys, whose home is the last slot, wrap around to the first slots.
+		final long[] last = keysWithHome(CAPACITY - 1, 3);
+		final long first = keysWithHome(0, 1)[0];
+		final LongLongHashMap map = new LongLongHashMap(MISSING, 0);
+		map.put(last[0], 0);
+		map.put(last[1], 1);
+		map.put(first, 100);
+		map.put(last[2], 2);
+		assertEquals(4, map.size());
+		for (int i = 0; i < last.length; i++) {
+			assertEquals(i, map.get(last[i]));
+		}
+		assertEquals(100, map.get(first));
+
+		// Removing the first key shifts back the following keys of all probe
+		// sequences, including the key displaced from its home.
+		assertEquals(0, map.remove(last[0]));
+		assertFalse(map.containsKey(last[0]));
+		assertEquals(1, map.get(last[1]));
+		assertEquals(2, map.get(last[2]));
+		assertEquals(100, map.get(first));
+		assertEquals(1, map.remove(last[1]));
+		assertEquals(2, map.get(last[2]));
+		assertEquals(100, map.get(first));
+		assertEquals(100, map.remove(first));
+		assertEquals(2, map.get(last[2]));
+		assertEquals(1, map.size());
+		assertEquals(MISSING, map.put(last[0], 3));
+		assertEquals(3, map.get(last[0]));
+		assertEquals(2, map.get(last[2]));
+	}
+
+	@Test
+	public void testResize() {
+		final LongLongHashMap map = new LongLongHashMap(MISSING, 0);
+		final int size = 10000;
+		for (int i = 0; i < size; i++) {
+			map.put(i * 7L, i);
+		}
+		assertEquals(size, map.size());
+		for (int i = 0; i < size; i++) {
+			assertEquals(i, map.get(i * 7L));
+			assertFalse(map.containsKey(i * 7L + 1));
+		}
+		final long[] keys = map.keys();
+		Arrays.sort(keys);
+		assertEquals(size, keys.length);
+		for (int i = 0; i < size; i++) {
+			assertEquals(i * 7L, keys[i]);
+		}
+	}
+
+	@Test
+	public void testCopy() {
+		final LongLongHashMap map = new LongLongHashMap(MISSING);
+		map.put(1, 2);
+		final LongLongHashMap copy = new LongLongHashMap(map);
+		copy.put(3, 4);
+		map.remove(1);
+		assertEquals(2, copy.get(1));
+		assertEquals(4, copy.get(3));
+		assertFalse(map.containsKey(3));
+		assertArrayEquals(new long[0], map.keys());
+	}
+
+	@Test
+	public void testRandomOperations() {
+		// Few keys in a small table cause many collisions and removals within
+		// probe sequences.
+		final Random random = new Random(17);
+		final LongLongHashMap map = new LongLongHashMap(MISSING, 0);
+		final Map<Long, Long> expected = new HashMap<>();
+		for (int i = 0; i < 100000; i++) {
+			final long key = random.nextInt(64) - 16;
+			if (random.nextInt(3) == 0) {
+				final Long removed = expected.remove(key);
+				assertEquals(removed == null ? MISSING : removed, map.remove(key));
+			} else {
+				final Long previous = expected.put(key, (long) i);
+				assertEquals(previous == null ? MISSING : previous, map.put(key, i));
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		for (long key = -16; key < 48; key++) {
+			final Long value = expected.get(key);
+			assertEquals(value == null ? MISSING : value, map.get(key));
+			assertEquals(value != null, map.containsKey(key));
+		}
+	}
+
+	/**
+	 * Find keys, whose home slot in a table of {@link #CAPACITY} slots is the
+	 * given slot. The hash function is the one of {@link LongLongHashMap}.
+	 */
+	private static long[] keysWithHome(final int slot, final int count) {
+		final long[] keys = new long[count];
+		int found = 0;
+		for (long key = 0; found < count; key++) {
+			final long hash = key * 0x9E3779B97F4A7C15L;
+			if (((int) (hash ^ (hash >>> 32)) & (CAPACITY - 1)) == slot) {
+				keys[found++] = key;
+			}
+		}
+		return keys;
+	}
+}
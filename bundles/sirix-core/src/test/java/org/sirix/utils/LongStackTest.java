@@ -0,0 +1,88 @@
+package org.sirix.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+public class LongStackTest {
+
+	@Test
+	public void testPushPopPeek() {
+		final LongStack stack = new LongStack();
+		assertTrue(stack.isEmpty());
+		assertEquals(0, stack.size());
+		stack.push(1);
+		stack.push(Long.MAX_VALUE);
+		stack.push(-1);
+		assertFalse(stack.isEmpty());
+		assertEquals(3, stack.size());
+		assertEquals(-1, stack.peek());
+		assertEquals(3, stack.size());
+		assertEquals(-1, stack.pop());
+		assertEquals(Long.MAX_VALUE, stack.peek());
+		assertEquals(Long.MAX_VALUE, stack.pop());
+		assertEquals(1, stack.pop());
+		assertTrue(stack.isEmpty());
+		assertEquals(0, stack.size());
+	}
+
+	@Test
+	public void testGrowth() {
+		for (final int initialCapacity : new int[] { 0, 1, 16 }) {
+			final LongStack stack = new LongStack(initialCapacity);
+			final int size = 1000;
+			for (int i = 0; i < size; i++) {
+				stack.push(i);
+				assertEquals(i, stack.peek());
+				assertEquals(i + 1, stack.size());
+			}
+			final long[] elements = stack.toArray();
+			assertEquals(size, elements.length);
+			for (int i = 0; i < size; i++) {
+				assertEquals(i, elements[i]);
+			}
+			for (int i = size - 1; i >= 0; i--) {
+				assertEquals(i, stack.pop());
+			}
+			assertTrue(stack.isEmpty());
+		}
+	}
+
+	@Test
+	public void testClear() {
+		final LongStack stack = new LongStack();
+		for (int i = 0; i < 100; i++) {
+			stack.push(i);
+		}
+		stack.clear();
+		assertTrue(stack.isEmpty());
+		assertArrayEquals(new long[0], stack.toArray());
+		// The stack is reusable after it has been cleared.
+		stack.push(42);
+		assertEquals(1, stack.size());
+		assertEquals(42, stack.pop());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testPopEmpty() {
+		final LongStack stack = new LongStack();
+		stack.push(1);
+		stack.pop();
+		stack.pop();
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testPeekEmpty() {
+		new LongStack().peek();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeCapacity() {
+		new LongStack(-1);
+	}
+}
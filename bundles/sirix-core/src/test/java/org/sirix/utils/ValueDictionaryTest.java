@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2011, University of Konstanz, Distributed Systems Group
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * * Redistributions of source code must retain the above copyright
+ * notice, this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright
+ * notice, this list of conditions and the following disclaimer in the
+ * documentation and/or other materials provided with the distribution.
+ * * Neither the name of the University of Konstanz nor the
+ * names of its contributors may be used to endorse or promote products
+ * derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.sirix.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.sirix.settings.Constants;
+
+public class ValueDictionaryTest {
+
+	@Test
+	public void testTrainEmpty() {
+		final List<byte[]> values = new ArrayList<>();
+		values.add("foo".getBytes(Constants.DEFAULT_ENCODING));
+		values.add("bar".getBytes(Constants.DEFAULT_ENCODING));
+		assertSame(ValueDictionary.EMPTY, ValueDictionary.train(values));
+	}
+
+	@Test
+	public void testRoundtrip() {
+		final List<byte[]> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			values.add(("category-" + (i % 5)).getBytes(Constants.DEFAULT_ENCODING));
+			values.add(("http://www.example.org/item/" + i)
+					.getBytes(Constants.DEFAULT_ENCODING));
+		}
+		final ValueDictionary dictionary = ValueDictionary.train(values);
+		assertFalse(dictionary.isEmpty());
+
+		int length = 0;
+		int compressedLength = 0;
+		for (final byte[] value : values) {
+			final byte[] compressed = dictionary.compress(value);
+			assertArrayEquals(value, dictionary.decompress(compressed));
+			length += value.length;
+			compressedLength += compressed.length;
+		}
+		assertTrue(compressedLength < length);
+
+		final ValueDictionary read = ValueDictionary.of(dictionary.getBytes());
+		assertArrayEquals(values.get(1), read.decompress(dictionary.compress(values
+				.get(1))));
+	}
+}
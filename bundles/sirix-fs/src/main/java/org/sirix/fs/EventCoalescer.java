@@ -0,0 +1,182 @@
+package org.sirix.fs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Collects the events of a time window per path, such that bursts of events
+ * for the same path result in at most one change (or a deletion followed by
+ * an insertion, if an entry is replaced).
+ * 
+ * <p>
+ * The coalesced changes are handed out in an order, in which they can be
+ * applied one after the other: deletions first, children before their
+ * parents, followed by insertions and updates, parents before their children.
+ * Paths are sorted by their name elements, such that the descendants of a path
+ * directly follow the path.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger, University of Konstanz
+ * 
+ */
+final class EventCoalescer {
+
+	/** The coalesced change of a path. */
+	private enum Change {
+		/** The path has been created. */
+		INSERT,
+
+		/** The path has been modified. */
+		UPDATE,
+
+		/** The path has been deleted. */
+		DELETE,
+
+		/** The path has been deleted and created again. */
+		REPLACE
+	}
+
+	/** Orders paths by their name elements. */
+	private static final Comparator<Path> PATH_ORDER = new Comparator<Path>() {
+		@Override
+		public int compare(final Path first, final Path second) {
+			final Path firstRoot = first.getRoot();
+			final Path secondRoot = second.getRoot();
+			if (firstRoot == null || secondRoot == null) {
+				if (firstRoot != secondRoot) {
+					return firstRoot == null ? -1 : 1;
+				}
+			} else {
+				final int result = firstRoot.compareTo(secondRoot);
+				if (result != 0) {
+					return result;
+				}
+			}
+			final int count = Math.min(first.getNameCount(), second.getNameCount());
+			for (int i = 0; i < count; i++) {
+				final int result = first.getName(i).compareTo(second.getName(i));
+				if (result != 0) {
+					return result;
+				}
+			}
+			return Integer.compare(first.getNameCount(), second.getNameCount());
+		}
+	};
+
+	/** Pending changes, sorted by path. */
+	private final NavigableMap<Path, Change> mChanges;
+
+	/**
+	 * Constructor.
+	 */
+	EventCoalescer() {
+		mChanges = new TreeMap<>(PATH_ORDER);
+	}
+
+	/**
+	 * Add an event.
+	 * 
+	 * @param kind
+	 *          the kind of event
+	 * @param path
+	 *          the path the event refers to
+	 */
+	void add(final WatchEvent.Kind<?> kind, final Path path) {
+		checkNotNull(kind);
+		checkNotNull(path);
+		final Change previous = mChanges.get(path);
+		if (kind == ENTRY_CREATE) {
+			mChanges.put(path,
+					previous == null || previous == Change.INSERT ? Change.INSERT
+							: Change.REPLACE);
+		} else if (kind == ENTRY_MODIFY) {
+			if (previous == null) {
+				mChanges.put(path, Change.UPDATE);
+			}
+		} else if (kind == ENTRY_DELETE) {
+			// Changes below the path are superseded by removing its subtree.
+			removeDescendants(path);
+			if (previous == Change.INSERT) {
+				mChanges.remove(path);
+			} else {
+				mChanges.put(path, Change.DELETE);
+			}
+		}
+	}
+
+	private void removeDescendants(final Path path) {
+		final Iterator<Path> iter = mChanges.tailMap(path, false).keySet()
+				.iterator();
+		while (iter.hasNext() && iter.next().startsWith(path)) {
+			iter.remove();
+		}
+	}
+
+	/**
+	 * Get the number of pending changes.
+	 * 
+	 * @return number of pending changes
+	 */
+	int size() {
+		return mChanges.size();
+	}
+
+	/**
+	 * Determines if changes are pending.
+	 * 
+	 * @return {@code true}, if no changes are pending, {@code false} otherwise
+	 */
+	boolean isEmpty() {
+		return mChanges.isEmpty();
+	}
+
+	/**
+	 * Get the pending changes in the order they have to be applied and clear
+	 * them.
+	 * 
+	 * @return the operations to apply together with their paths
+	 */
+	List<Map.Entry<Path, OperationType>> drain() {
+		final List<Map.Entry<Path, OperationType>> operations = new ArrayList<>(
+				mChanges.size());
+		for (final Map.Entry<Path, Change> entry : mChanges.descendingMap()
+				.entrySet()) {
+			if (entry.getValue() == Change.DELETE
+					|| entry.getValue() == Change.REPLACE) {
+				operations.add(Maps.immutableEntry(entry.getKey(),
+						OperationType.DELETE));
+			}
+		}
+		for (final Map.Entry<Path, Change> entry : mChanges.entrySet()) {
+			switch (entry.getValue()) {
+			case INSERT:
+			case REPLACE:
+				operations.add(Maps.immutableEntry(entry.getKey(),
+						OperationType.INSERT));
+				break;
+			case UPDATE:
+				operations.add(Maps.immutableEntry(entry.getKey(),
+						OperationType.UPDATE));
+				break;
+			default:
+				break;
+			}
+		}
+		mChanges.clear();
+		return operations;
+	}
+}
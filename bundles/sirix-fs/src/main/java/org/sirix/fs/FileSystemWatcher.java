@@ -26,6 +26,7 @@
  */
 package org.sirix.fs;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
@@ -49,10 +50,10 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nonnegative;
+
 import org.sirix.access.Databases;
 import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
@@ -84,17 +85,25 @@ import com.google.common.base.Optional;
  * notifications currently don't use any extractors.
  * </p>
  * 
+ * <p>
+ * Events are coalesced per path during a short time window and applied as a
+ * sorted batch. Changes are committed by the watching thread once a number of
+ * changes has been applied or a time interval elapsed.
+ * </p>
+ * 
  * @author Johannes Lichtenberger, University of Konstanz
  * 
  */
 public class FileSystemWatcher implements AutoCloseable {
 
-	/**
-	 * Pool to handle transactional time, that is to commit changes after a
-	 * specific time interval. One thread in the pool is sufficient.
-	 */
-	public final ScheduledExecutorService mPool = Executors
-			.newSingleThreadScheduledExecutor();
+	/** Default time window in milliseconds, during which events are coalesced. */
+	public static final long DEFAULT_WINDOW = 100;
+
+	/** Default number of applied changes, after which a revision is committed. */
+	public static final int DEFAULT_COMMIT_SIZE = 10_000;
+
+	/** Default time interval in seconds, after which changes are committed. */
+	public static final long DEFAULT_COMMIT_INTERVAL = 60;
 
 	/**
 	 * Mapping of {@code {@link Path}/{@link Database} to
@@ -121,6 +130,24 @@ public class FileSystemWatcher implements AutoCloseable {
 	/** sirix {@link NodeWriteTrx}. */
 	private NodeWriteTrx mWtx;
 
+	/** Coalesces the events of the current time window. */
+	private final EventCoalescer mCoalescer;
+
+	/** Time window in nanoseconds, during which events are coalesced. */
+	private long mWindow;
+
+	/** Number of applied changes, after which a revision is committed. */
+	private int mCommitSize;
+
+	/** Time interval in nanoseconds, after which changes are committed. */
+	private long mCommitInterval;
+
+	/** Number of applied, but uncommitted changes. */
+	private int mUncommitted;
+
+	/** Time of the last commit. */
+	private long mLastCommit;
+
 	/** Possible states. */
 	public enum EState {
 		/** Loops and waits for events. */
@@ -147,17 +174,47 @@ public class FileSystemWatcher implements AutoCloseable {
 				.getSession(new SessionConfiguration.Builder("shredded").build());
 		mWtx = mSession.beginNodeWriteTrx();
 		mState = EState.LOOP;
+		mCoalescer = new EventCoalescer();
+		mWindow = TimeUnit.MILLISECONDS.toNanos(DEFAULT_WINDOW);
+		mCommitSize = DEFAULT_COMMIT_SIZE;
+		mCommitInterval = TimeUnit.SECONDS.toNanos(DEFAULT_COMMIT_INTERVAL);
+		mLastCommit = System.nanoTime();
+	}
 
-		mPool.scheduleAtFixedRate(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					mWtx.commit();
-				} catch (final SirixException e) {
-					LOGWRAPPER.error(e.getMessage(), e);
-				}
-			}
-		}, 60, 60, TimeUnit.SECONDS);
+	/**
+	 * Set the time window, during which events are coalesced per path.
+	 * 
+	 * @param window
+	 *          the time window
+	 * @param unit
+	 *          the time unit of the window
+	 * @throws NullPointerException
+	 *           if {@code unit} is {@code null}
+	 */
+	public void setCoalescingWindow(final @Nonnegative long window,
+			final TimeUnit unit) {
+		checkArgument(window >= 0, "window must be >= 0!");
+		mWindow = unit.toNanos(window);
+	}
+
+	/**
+	 * Set the thresholds, after which applied changes are committed.
+	 * 
+	 * @param size
+	 *          number of changes, after which a revision is committed
+	 * @param interval
+	 *          time interval, after which changes are committed
+	 * @param unit
+	 *          the time unit of the interval
+	 * @throws NullPointerException
+	 *           if {@code unit} is {@code null}
+	 */
+	public void setCommitThresholds(final @Nonnegative int size,
+			final @Nonnegative long interval, final TimeUnit unit) {
+		checkArgument(size > 0, "size must be > 0!");
+		checkArgument(interval >= 0, "interval must be >= 0!");
+		mCommitSize = size;
+		mCommitInterval = unit.toNanos(interval);
 	}
 
 	/**
@@ -205,89 +262,176 @@ public class FileSystemWatcher implements AutoCloseable {
 		Files.walkFileTree(mPath, fileVisitor);
 		final Map<Path, org.sirix.fs.Path> index = checkNotNull(pIndex);
 
+		long windowEnd = 0;
 		for (; mState == EState.LOOP;) {
-			// Wait for key to be signaled.
+			// Wait for key to be signaled or the next deadline.
+			long timeout = Long.MAX_VALUE;
+			if (!mCoalescer.isEmpty()) {
+				timeout = windowEnd - System.nanoTime();
+			}
+			if (mUncommitted > 0) {
+				timeout = Math.min(timeout, mLastCommit + mCommitInterval
+						- System.nanoTime());
+			}
 			WatchKey key;
 			try {
-				key = watcher.take();
+				key = timeout == Long.MAX_VALUE ? watcher.take() : watcher.poll(
+						Math.max(0, timeout), TimeUnit.NANOSECONDS);
 			} catch (InterruptedException x) {
-				return;
+				Thread.currentThread().interrupt();
+				break;
 			}
 
-			final Map<WatchKey, Path> keys = fileVisitor.getKeys();
-			final Path dir = keys.get(key);
-			if (dir == null) {
-				LOGWRAPPER.error("WatchKey not recognized!!");
-				continue;
+			if (key != null) {
+				if (mCoalescer.isEmpty()) {
+					windowEnd = System.nanoTime() + mWindow;
+				}
+				processKey(key, watcher, fileVisitor);
 			}
 
-			for (WatchEvent<?> event : key.pollEvents()) {
-				final WatchEvent.Kind<?> kind = event.kind();
+			if (!mCoalescer.isEmpty()
+					&& (System.nanoTime() - windowEnd >= 0 || mCoalescer
+							.size() >= mCommitSize)) {
+				applyChanges(pVisitor, index);
+			}
+			commitIfNecessary();
+		}
 
-				/*
-				 * This key is registered only for ENTRY_CREATE events, but an OVERFLOW
-				 * event can occur regardless if events are lost or discarded.
-				 */
-				if (kind == OVERFLOW) {
-					continue;
-				}
+		applyChanges(pVisitor, index);
+		watcher.close();
+	}
 
-				/*
-				 * The filename is the context of the event. Cast is safe because we
-				 * registered a path instance.
-				 */
-				WatchEvent<?> ev = event;
-
-				for (int i = 0; i < ev.count(); i++) {
-					final Path name = (Path) ev.context();
-					final Path child = dir.resolve(name);
-
-					if (kind == ENTRY_CREATE && Files.isDirectory(child, NOFOLLOW_LINKS)) {
-						Files.walkFileTree(child, new SimpleFileVisitor<Path>() {
-							@Override
-							public FileVisitResult preVisitDirectory(final Path pDir,
-									final BasicFileAttributes pAttrs) throws IOException {
-								checkNotNull(pDir);
-								checkNotNull(pAttrs);
-								final WatchKey key = pDir.register(watcher, ENTRY_CREATE,
-										ENTRY_DELETE, ENTRY_MODIFY);
-								keys.put(key, pDir);
-								entryCreated(pVisitor, index, pDir);
-								return FileVisitResult.CONTINUE;
-							}
-
-							@Override
-							public FileVisitResult visitFile(final Path pFile,
-									final BasicFileAttributes pAttrs) throws IOException {
-								checkNotNull(pFile);
-								checkNotNull(pAttrs);
-								entryCreated(pVisitor, index, pFile);
-								return FileVisitResult.CONTINUE;
-							}
-						});
-					} else {
-						processEvent(ev, pVisitor, index, watcher, child);
-					}
-				}
+	/**
+	 * Add the events of a signaled key to the coalescer.
+	 * 
+	 * @param key
+	 *          the signaled key
+	 * @param watcher
+	 *          the watch service
+	 * @param fileVisitor
+	 *          the visitor, which registered the directories
+	 * @throws IOException
+	 *           if an I/O error occurs
+	 */
+	private void processKey(final WatchKey key, final WatchService watcher,
+			final WatchRecursivelyVisitor fileVisitor) throws IOException {
+		final Map<WatchKey, Path> keys = fileVisitor.getKeys();
+		final Path dir = keys.get(key);
+		if (dir == null) {
+			LOGWRAPPER.error("WatchKey not recognized!!");
+			return;
+		}
+
+		for (WatchEvent<?> event : key.pollEvents()) {
+			final WatchEvent.Kind<?> kind = event.kind();
+
+			/*
+			 * This key is registered only for ENTRY_CREATE events, but an OVERFLOW
+			 * event can occur regardless if events are lost or discarded.
+			 */
+			if (kind == OVERFLOW) {
+				continue;
 			}
 
 			/*
-			 * Reset the key -- this step is critical if you want to receive further
-			 * watch events. If the key is no longer valid, the directory is
-			 * inaccessible so exit the loop.
+			 * The filename is the context of the event. Cast is safe because we
+			 * registered a path instance.
 			 */
-			final boolean valid = key.reset();
-			if (!valid) {
-				keys.remove(key);
+			final Path name = (Path) event.context();
+			if (name == null) {
+				LOGWRAPPER.info("no path associated with the context!");
+				continue;
+			}
+			final Path child = dir.resolve(name);
+
+			if (kind == ENTRY_CREATE && Files.isDirectory(child, NOFOLLOW_LINKS)) {
+				Files.walkFileTree(child, new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult preVisitDirectory(final Path pDir,
+							final BasicFileAttributes pAttrs) throws IOException {
+						checkNotNull(pDir);
+						checkNotNull(pAttrs);
+						final WatchKey key = pDir.register(watcher, ENTRY_CREATE,
+								ENTRY_DELETE, ENTRY_MODIFY);
+						keys.put(key, pDir);
+						mCoalescer.add(ENTRY_CREATE, pDir);
+						return FileVisitResult.CONTINUE;
+					}
 
-				// All directories are inaccessible.
-				if (keys.isEmpty()) {
-					mState = EState.NOLOOP;
-				}
+					@Override
+					public FileVisitResult visitFile(final Path pFile,
+							final BasicFileAttributes pAttrs) throws IOException {
+						checkNotNull(pFile);
+						checkNotNull(pAttrs);
+						mCoalescer.add(ENTRY_CREATE, pFile);
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			} else if (kind != ENTRY_DELETE
+					|| !Files.exists(child, NOFOLLOW_LINKS)) {
+				// Deletions of paths, which have been created again, are ignored.
+				mCoalescer.add(kind, child);
 			}
 		}
 
-		watcher.close();
+		/*
+		 * Reset the key -- this step is critical if you want to receive further
+		 * watch events. If the key is no longer valid, the directory is
+		 * inaccessible so exit the loop.
+		 */
+		final boolean valid = key.reset();
+		if (!valid) {
+			keys.remove(key);
+
+			// All directories are inaccessible.
+			if (keys.isEmpty()) {
+				mState = EState.NOLOOP;
+			}
+		}
+	}
+
+	/**
+	 * Apply the coalesced changes in a sorted batch.
+	 * 
+	 * @param pVisitor
+	 *          optional visitor
+	 * @param pIndex
+	 *          simple path index
+	 */
+	private void applyChanges(final Optional<Visitor<NodeWriteTrx>> pVisitor,
+			final Map<Path, org.sirix.fs.Path> pIndex) {
+		for (final Map.Entry<Path, OperationType> change : mCoalescer.drain()) {
+			final Path path = change.getKey();
+			final OperationType operation = change.getValue();
+			if (operation != OperationType.DELETE
+					&& !Files.exists(path, NOFOLLOW_LINKS)) {
+				// Deleted in the meantime, the deletion is handled with the next batch.
+				continue;
+			}
+			try {
+				execute(operation, pVisitor, pIndex, path);
+				mUncommitted++;
+			} catch (final SirixException e) {
+				LOGWRAPPER.error(e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Commit the applied changes, if the size or time threshold is exceeded.
+	 */
+	private void commitIfNecessary() {
+		if (mUncommitted > 0
+				&& (mUncommitted >= mCommitSize || System.nanoTime() - mLastCommit
+						>= mCommitInterval)) {
+			try {
+				mWtx.commit();
+			} catch (final SirixException e) {
+				LOGWRAPPER.error(e.getMessage(), e);
+			}
+			mUncommitted = 0;
+			mLastCommit = System.nanoTime();
+		}
 	}
 
 	/**
@@ -302,51 +446,19 @@ public class FileSystemWatcher implements AutoCloseable {
 		mState = checkNotNull(pState);
 	}
 
-	/**
-	 * Process an event if the {@link Path} context is available.
-	 * 
-	 * @param pEvent
-	 *          {@link WatchEvent<Path>} reference
-	 * @param pVisitor
-	 *          optional visitor
-	 * @param pIndex
-	 *          simple path index
-	 * @throws IOException
-	 *           if an I/O error occurs
-	 */
-	private void processEvent(final WatchEvent<?> pEvent,
-			final Optional<Visitor<NodeWriteTrx>> pVisitor,
-			final Map<Path, org.sirix.fs.Path> pIndex, final WatchService pWatcher,
-			final Path pPath) throws IOException {
-		assert pEvent != null;
-		final Kind<?> type = pEvent.kind();
-
-		Optional<?> optional = Optional.fromNullable(pEvent.context());
-		if (optional.isPresent()) {
-			if (type == ENTRY_CREATE) {
-				entryCreated(pVisitor, pIndex, pPath);
-			} else if (type == ENTRY_DELETE && !Files.exists(pPath)) {
-				entryDeletes(pVisitor, pIndex, pPath);
-			} else if (type == ENTRY_MODIFY) {
-				entryModified(pVisitor, pIndex, pPath);
-			}
-		} else {
-			LOGWRAPPER.info("no path associated with the context!");
-		}
-	}
-
 	/**
 	 * Find node corresponding to the path. The {@link NodeWriteTrx} globally used
 	 * is moved to the found node.
 	 * 
 	 * @param pXPath
 	 *          xpath expression
+	 * @return {@code true}, if the node has been found, {@code false} otherwise
 	 * @throws SirixXPathException
 	 *           if expression isn't valid
 	 * @throws NullPointerException
 	 *           if {@code pXPath} is {@code null}
 	 */
-	private void findNode(final String pXPath) throws SirixXPathException {
+	private boolean findNode(final String pXPath) throws SirixXPathException {
 		final Axis axis = new XPathAxis(mWtx, checkNotNull(pXPath));
 		int countResults = 0;
 		long resultNodeKey = (Long) Fixed.NULL_NODE_KEY.getStandardProperty();
@@ -355,46 +467,7 @@ public class FileSystemWatcher implements AutoCloseable {
 			countResults++;
 			assert countResults == 1 : "At maximum one item should be found!";
 		}
-		mWtx.moveTo(resultNodeKey);
-	}
-
-	/**
-	 * Process an {@link java.nio.file.StandardWatchEventKinds#ENTRY_MODIFY
-	 * ENTRY_MODIFY} event.
-	 */
-	private void entryModified(final Optional<Visitor<NodeWriteTrx>> pVisitor,
-			final Map<Path, org.sirix.fs.Path> pIndex, final Path pPath) {
-		try {
-			execute(OperationType.UPDATE, pVisitor, pIndex, pPath);
-		} catch (final SirixException e) {
-			LOGWRAPPER.error(e.getMessage(), e);
-		}
-	}
-
-	/**
-	 * Process an {@link java.nio.file.StandardWatchEventKinds#ENTRY_DELETE
-	 * ENTRY_DELETE} event.
-	 */
-	private void entryDeletes(final Optional<Visitor<NodeWriteTrx>> pVisitor,
-			final Map<Path, org.sirix.fs.Path> pIndex, final Path pPath) {
-		try {
-			execute(OperationType.DELETE, pVisitor, pIndex, pPath);
-		} catch (final SirixException e) {
-			LOGWRAPPER.error(e.getMessage(), e);
-		}
-	}
-
-	/**
-	 * Process an {@link java.nio.file.StandardWatchEventKinds#ENTRY_CREATE
-	 * ENTRY_CREATE} event.
-	 */
-	private void entryCreated(final Optional<Visitor<NodeWriteTrx>> pVisitor,
-			final Map<Path, org.sirix.fs.Path> pIndex, final Path pPath) {
-		try {
-			execute(OperationType.INSERT, pVisitor, pIndex, pPath);
-		} catch (final SirixException e) {
-			LOGWRAPPER.error(e.getMessage(), e);
-		}
+		return mWtx.moveTo(resultNodeKey).hasMoved();
 	}
 
 	/**
@@ -437,7 +510,10 @@ public class FileSystemWatcher implements AutoCloseable {
 						// DELETED.
 						LOGWRAPPER.debug("path: " + path);
 						final org.sirix.fs.Path kind = pIndex.remove(path);
-						assert kind != null;
+						if (kind == null) {
+							LOGWRAPPER.debug("[execute] unknown path: " + path);
+							return;
+						}
 						kind.append(queryBuilder);
 					}
 					queryBuilder
@@ -450,8 +526,11 @@ public class FileSystemWatcher implements AutoCloseable {
 			}
 			final String query = queryBuilder.toString();
 			LOGWRAPPER.debug("[execute] path: " + query);
-			findNode(query);
-			pOperation.execute(mWtx, pVisitor, pIndex, pPath);
+			if (findNode(query)) {
+				pOperation.execute(mWtx, pVisitor, pIndex, pPath);
+			} else {
+				LOGWRAPPER.debug("[execute] no node found for: " + query);
+			}
 		}
 	}
 
@@ -460,7 +539,6 @@ public class FileSystemWatcher implements AutoCloseable {
 		mWtx.commit();
 		mWtx.close();
 		mSession.close();
-		mPool.shutdown();
 	}
 
 	@Override
@@ -0,0 +1,113 @@
+package org.sirix.fs;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Test the {@link EventCoalescer}.
+ * 
+ * @author Johannes Lichtenberger, University of Konstanz
+ * 
+ */
+public class EventCoalescerTest {
+
+	/** The coalescer. */
+	private EventCoalescer mCoalescer;
+
+	@Before
+	public void setUp() {
+		mCoalescer = new EventCoalescer();
+	}
+
+	@Test
+	public void testBurst() {
+		final Path file = Paths.get("/dir/file");
+		mCoalescer.add(ENTRY_CREATE, file);
+		mCoalescer.add(ENTRY_MODIFY, file);
+		mCoalescer.add(ENTRY_MODIFY, file);
+		assertEquals(1, mCoalescer.size());
+		assertEquals(Arrays.asList(change(file, OperationType.INSERT)),
+				mCoalescer.drain());
+		assertTrue(mCoalescer.isEmpty());
+
+		mCoalescer.add(ENTRY_MODIFY, file);
+		mCoalescer.add(ENTRY_MODIFY, file);
+		assertEquals(Arrays.asList(change(file, OperationType.UPDATE)),
+				mCoalescer.drain());
+	}
+
+	@Test
+	public void testInsertAndDelete() {
+		final Path file = Paths.get("/dir/file");
+		mCoalescer.add(ENTRY_CREATE, file);
+		mCoalescer.add(ENTRY_MODIFY, file);
+		mCoalescer.add(ENTRY_DELETE, file);
+		assertTrue(mCoalescer.isEmpty());
+	}
+
+	@Test
+	public void testReplace() {
+		final Path file = Paths.get("/dir/file");
+		mCoalescer.add(ENTRY_MODIFY, file);
+		mCoalescer.add(ENTRY_DELETE, file);
+		mCoalescer.add(ENTRY_CREATE, file);
+		assertEquals(Arrays.asList(change(file, OperationType.DELETE),
+				change(file, OperationType.INSERT)), mCoalescer.drain());
+	}
+
+	@Test
+	public void testDeleteSubtree() {
+		final Path dir = Paths.get("/dir/sub");
+		mCoalescer.add(ENTRY_MODIFY, dir.resolve("a"));
+		mCoalescer.add(ENTRY_CREATE, dir.resolve("b/c"));
+		// Siblings, which sort between the path and its descendants as strings.
+		final Path sibling = Paths.get("/dir/sub-1");
+		final Path other = Paths.get("/dir/sub.txt");
+		mCoalescer.add(ENTRY_MODIFY, sibling);
+		mCoalescer.add(ENTRY_MODIFY, other);
+		mCoalescer.add(ENTRY_DELETE, dir);
+		assertEquals(Arrays.asList(change(dir, OperationType.DELETE),
+				change(sibling, OperationType.UPDATE),
+				change(other, OperationType.UPDATE)), mCoalescer.drain());
+	}
+
+	@Test
+	public void testOrder() {
+		final Path dir = Paths.get("/dir/sub");
+		final Path file = Paths.get("/dir/sub/file");
+		final Path deletedDir = Paths.get("/dir/old");
+		final Path deletedFile = Paths.get("/dir/old-file");
+		mCoalescer.add(ENTRY_CREATE, file);
+		mCoalescer.add(ENTRY_CREATE, dir);
+		mCoalescer.add(ENTRY_DELETE, deletedFile);
+		mCoalescer.add(ENTRY_DELETE, Paths.get("/dir/old/file"));
+		mCoalescer.add(ENTRY_DELETE, deletedDir);
+
+		// Deletions first, children before their parents, followed by the
+		// insertions, parents before their children.
+		final List<Map.Entry<Path, OperationType>> changes = mCoalescer.drain();
+		assertEquals(Arrays.asList(change(deletedFile, OperationType.DELETE),
+				change(deletedDir, OperationType.DELETE),
+				change(dir, OperationType.INSERT), change(file, OperationType.INSERT)),
+				changes);
+	}
+
+	private static Map.Entry<Path, OperationType> change(final Path path,
+			final OperationType operation) {
+		return Maps.immutableEntry(path, operation);
+	}
+}
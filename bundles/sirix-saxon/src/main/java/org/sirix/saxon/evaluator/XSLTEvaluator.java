@@ -37,7 +37,6 @@ import javax.annotation.Nullable;
 import javax.xml.transform.stream.StreamSource;
 
 import net.sf.saxon.Configuration;
-import net.sf.saxon.om.NodeInfo;
 import net.sf.saxon.s9api.Processor;
 import net.sf.saxon.s9api.SaxonApiException;
 import net.sf.saxon.s9api.Serializer;
@@ -128,10 +127,11 @@ public final class XSLTEvaluator implements Callable<OutputStream> {
 		final XsltCompiler comp = proc.newXsltCompiler();
 		XsltExecutable exp;
 		XdmNode source;
+		DocumentWrapper doc = null;
 
 		try {
 			final Configuration config = proc.getUnderlyingConfiguration();
-			final NodeInfo doc = new DocumentWrapper(mSession, config);
+			doc = new DocumentWrapper(mSession, config);
 			exp = comp.compile(new StreamSource(mStylesheet));
 			source = proc.newDocumentBuilder().build(doc);
 
@@ -153,6 +153,15 @@ public final class XSLTEvaluator implements Callable<OutputStream> {
 			LOGGER.error("Saxon exception: " + e.getMessage(), e);
 		} catch (final SirixException e) {
 			LOGGER.error("TT exception: " + e.getMessage(), e);
+		} finally {
+			if (doc != null) {
+				try {
+					// Close the transactions pooled during the transformation.
+					doc.close();
+				} catch (final SirixException e) {
+					LOGGER.error("TT exception: " + e.getMessage(), e);
+				}
+			}
 		}
 
 		return mOut;
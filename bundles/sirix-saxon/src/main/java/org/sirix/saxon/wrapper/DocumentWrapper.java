@@ -30,8 +30,15 @@ package org.sirix.saxon.wrapper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nonnegative;
 
@@ -76,6 +83,9 @@ public final class DocumentWrapper implements DocumentInfo {
 	private static final LogWrapper LOGWRAPPER = new LogWrapper(
 			LoggerFactory.getLogger(DocumentWrapper.class));
 
+	/** Maximum number of idle read transactions, which are kept for reuse. */
+	private static final int MAX_POOLED_TRX = 8;
+
 	/** sirix database. */
 	final Session mSession;
 
@@ -96,6 +106,22 @@ public final class DocumentWrapper implements DocumentInfo {
 	 */
 	private final NodeWrapper mNodeWrapper;
 
+	/**
+	 * Idle read transactions on the revision, which are shared by all nodes and
+	 * axis iterations of the document.
+	 */
+	private final Deque<NodeReadTrx> mTrxPool = new ArrayDeque<>();
+
+	/**
+	 * Leases of axis iterations, which have been garbage collected without being
+	 * closed.
+	 */
+	private final ReferenceQueue<Object> mAbandoned = new ReferenceQueue<>();
+
+	/** Outstanding leases of axis iterations. */
+	private final Set<TrxLease> mLeases = Collections
+			.newSetFromMap(new ConcurrentHashMap<TrxLease, Boolean>());
+
 	/**
 	 * Wrap a sirix document.
 	 * 
@@ -152,38 +178,180 @@ public final class DocumentWrapper implements DocumentInfo {
 	@Override
 	public NodeInfo selectID(final String ID, final boolean getParent) {
 		try {
-			final NodeReadTrx rtx = mSession.beginNodeReadTrx();
-			final Axis axis = new DescendantAxis(rtx, IncludeSelf.YES);
-			while (axis.hasNext()) {
-				if (rtx.getKind() == Kind.ELEMENT) {
-					final int attCount = rtx.getAttributeCount();
-
-					if (attCount > 0) {
-						final long nodeKey = rtx.getNodeKey();
-
-						for (int index = 0; index < attCount; index++) {
-							rtx.moveToAttribute(index);
-
-							if ("xml:id".equalsIgnoreCase(rtx.getName().getLocalName())
-									&& ID.equals(rtx.getValue())) {
-								if (getParent) {
-									rtx.moveToParent();
+			final NodeReadTrx rtx = acquireTrx();
+			try {
+				final Axis axis = new DescendantAxis(rtx, IncludeSelf.YES);
+				while (axis.hasNext()) {
+					if (rtx.getKind() == Kind.ELEMENT) {
+						final int attCount = rtx.getAttributeCount();
+
+						if (attCount > 0) {
+							final long nodeKey = rtx.getNodeKey();
+
+							for (int index = 0; index < attCount; index++) {
+								rtx.moveToAttribute(index);
+
+								if ("xml:id".equalsIgnoreCase(rtx.getName().getLocalName())
+										&& ID.equals(rtx.getValue())) {
+									if (getParent) {
+										rtx.moveToParent();
+									}
+									return new NodeWrapper(this, rtx);
 								}
-								return new NodeWrapper(this, rtx.getNodeKey());
+								rtx.moveTo(nodeKey);
 							}
-							rtx.moveTo(nodeKey);
 						}
 					}
+					axis.next();
 				}
-				axis.next();
+			} finally {
+				releaseTrx(rtx);
 			}
-			rtx.close();
 		} catch (final SirixException e) {
 			LOGWRAPPER.error(e.getMessage(), e);
 		}
 		return null;
 	}
 
+	/**
+	 * Get a read transaction on the revision of the document, either an idle one
+	 * from the pool or a new one. It has to be handed back by
+	 * {@link #releaseTrx(NodeReadTrx)} once it isn't needed anymore.
+	 * 
+	 * @return a read transaction, which might be located at any node
+	 * @throws SirixException
+	 *           if a new transaction can't be opened
+	 */
+	NodeReadTrx acquireTrx() throws SirixException {
+		releaseAbandoned();
+		synchronized (mTrxPool) {
+			final NodeReadTrx rtx = mTrxPool.pollFirst();
+			if (rtx != null) {
+				return rtx;
+			}
+		}
+		return mSession.beginNodeReadTrx(mRevision);
+	}
+
+	/**
+	 * Hand back a read transaction acquired by {@link #acquireTrx()}. It is
+	 * closed if the pool is already full.
+	 * 
+	 * @param rtx
+	 *          the read transaction
+	 */
+	void releaseTrx(final NodeReadTrx rtx) {
+		if (rtx.isClosed()) {
+			return;
+		}
+		synchronized (mTrxPool) {
+			if (mTrxPool.size() < MAX_POOLED_TRX) {
+				mTrxPool.addFirst(rtx);
+				return;
+			}
+		}
+		try {
+			rtx.close();
+		} catch (final SirixException e) {
+			LOGWRAPPER.error(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Lease a read transaction to an axis iteration. The lease has to be
+	 * released once the iteration is finished. If the owner is garbage collected
+	 * before, the transaction is handed back the next time a transaction is
+	 * requested.
+	 * 
+	 * @param owner
+	 *          the axis iteration, which uses the transaction
+	 * @return the lease of a read transaction, which might be located at any
+	 *         node
+	 * @throws SirixException
+	 *           if a new transaction can't be opened
+	 */
+	TrxLease leaseTrx(final Object owner) throws SirixException {
+		final TrxLease lease = new TrxLease(checkNotNull(owner), acquireTrx());
+		mLeases.add(lease);
+		return lease;
+	}
+
+	/** Hand back the transactions of abandoned axis iterations. */
+	private void releaseAbandoned() {
+		Reference<?> reference;
+		while ((reference = mAbandoned.poll()) != null) {
+			((TrxLease) reference).release();
+		}
+	}
+
+	/**
+	 * Close the idle read transactions and the transactions of axis iterations,
+	 * which are still in progress. These iterations end prematurely. The
+	 * document can still be used afterwards, transactions are opened again on
+	 * demand.
+	 * 
+	 * @throws SirixException
+	 *           if a transaction can't be closed
+	 */
+	public void close() throws SirixException {
+		releaseAbandoned();
+		for (final TrxLease lease : mLeases) {
+			if (mLeases.remove(lease)) {
+				lease.clear();
+				lease.getTrx().close();
+			}
+		}
+		synchronized (mTrxPool) {
+			while (!mTrxPool.isEmpty()) {
+				mTrxPool.pollFirst().close();
+			}
+		}
+	}
+
+	/**
+	 * A read transaction leased to an axis iteration. The iteration is only
+	 * weakly referenced, such that the transaction of an iteration, which isn't
+	 * exhausted and never closed, isn't lost for the pool.
+	 */
+	final class TrxLease extends WeakReference<Object> {
+
+		/** The leased read transaction. */
+		private final NodeReadTrx mRtx;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param owner
+		 *          the axis iteration
+		 * @param rtx
+		 *          the leased read transaction
+		 */
+		private TrxLease(final Object owner, final NodeReadTrx rtx) {
+			super(owner, mAbandoned);
+			mRtx = rtx;
+		}
+
+		/**
+		 * Get the leased read transaction.
+		 * 
+		 * @return the read transaction
+		 */
+		NodeReadTrx getTrx() {
+			return mRtx;
+		}
+
+		/**
+		 * Hand back the read transaction. Subsequent calls have no effect.
+		 */
+		void release() {
+			if (!mLeases.remove(this)) {
+				return;
+			}
+			clear();
+			releaseTrx(mRtx);
+		}
+	}
+
 	@Override
 	public NamePool getNamePool() {
 		return mConfig.getNamePool();
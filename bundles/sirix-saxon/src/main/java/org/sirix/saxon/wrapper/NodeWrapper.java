@@ -56,6 +56,7 @@ import net.sf.saxon.value.Value;
 
 import org.brackit.xquery.atomic.QNm;
 import org.sirix.api.NodeReadTrx;
+import org.sirix.axis.AbstractAxis;
 import org.sirix.axis.AncestorAxis;
 import org.sirix.axis.AttributeAxis;
 import org.sirix.axis.ChildAxis;
@@ -70,9 +71,12 @@ import org.sirix.axis.filter.FilterAxis;
 import org.sirix.axis.filter.TextFilter;
 import org.sirix.exception.SirixException;
 import org.sirix.node.Kind;
+import org.sirix.node.SirixDeweyID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Optional;
+
 /**
  * <h1>NodeWrapper</h1>
  * 
@@ -118,8 +122,8 @@ public final class NodeWrapper implements SiblingCountingNode {
 	/** QNm of current node. */
 	private final QNm mQName;
 
-	/** The revision to open. */
-	private final int mRevision;
+	/** DeweyID of the node, if DeweyIDs are stored. */
+	private final Optional<SirixDeweyID> mDeweyID;
 
 	/**
 	 * A node in the XML parse tree. Wrap a sirix node.
@@ -134,19 +138,48 @@ public final class NodeWrapper implements SiblingCountingNode {
 			final long nodeKeyToStart) throws SirixException {
 		mDocWrapper = checkNotNull(docWrapper);
 		checkArgument(nodeKeyToStart >= 0, "nodeKeyToStart must be >= 0!");
-		final NodeReadTrx rtx = mDocWrapper.mSession
-				.beginNodeReadTrx(docWrapper.mRevision);
-		rtx.moveTo(nodeKeyToStart);
+		final NodeReadTrx rtx = mDocWrapper.acquireTrx();
+		try {
+			rtx.moveTo(nodeKeyToStart);
+			mNodeKind = rtx.getKind();
+			mKey = rtx.getNodeKey();
+			mQName = qNameOf(rtx);
+			mDeweyID = rtx.getDeweyID();
+		} finally {
+			mDocWrapper.releaseTrx(rtx);
+		}
+	}
+
+	/**
+	 * Wrap the node the transaction is currently located at. The transaction
+	 * isn't moved.
+	 * 
+	 * @param docWrapper
+	 *          the document wrapper
+	 * @param rtx
+	 *          read transaction on the revision of the document
+	 */
+	NodeWrapper(final DocumentWrapper docWrapper, final NodeReadTrx rtx) {
+		mDocWrapper = checkNotNull(docWrapper);
 		mNodeKind = rtx.getKind();
 		mKey = rtx.getNodeKey();
-		mRevision = docWrapper.mRevision;
+		mQName = qNameOf(rtx);
+		mDeweyID = rtx.getDeweyID();
+	}
 
-		if (mNodeKind == Kind.ELEMENT || mNodeKind == Kind.ATTRIBUTE) {
-			mQName = rtx.getName();
-		} else {
-			mQName = null;
+	/**
+	 * Get the name of the current node, if it's an element or an attribute.
+	 * 
+	 * @param rtx
+	 *          the read transaction
+	 * @return the name or {@code null}
+	 */
+	private static QNm qNameOf(final NodeReadTrx rtx) {
+		final Kind kind = rtx.getKind();
+		if (kind == Kind.ELEMENT || kind == Kind.ATTRIBUTE) {
+			return rtx.getName();
 		}
-		rtx.close();
+		return null;
 	}
 
 	@Override
@@ -172,7 +205,16 @@ public final class NodeWrapper implements SiblingCountingNode {
 		if (getDocumentNumber() != node.getDocumentNumber()) {
 			throw new IllegalStateException("May not be called on different trees!");
 		}
-		return Navigator.compareOrder(this, (NodeWrapper) checkNotNull(node));
+		final NodeWrapper other = node instanceof DocumentWrapper ? ((DocumentWrapper) node)
+				.getNodeWrapper() : (NodeWrapper) checkNotNull(node);
+		if (mKey == other.mKey) {
+			return 0;
+		}
+		if (mDeweyID.isPresent() && other.mDeweyID.isPresent()) {
+			// DeweyIDs reflect the document order, no navigation is needed.
+			return mDeweyID.get().compareTo(other.mDeweyID.get()) < 0 ? -1 : 1;
+		}
+		return Navigator.compareOrder(this, other);
 	}
 
 	/**
@@ -247,16 +289,16 @@ public final class NodeWrapper implements SiblingCountingNode {
 		if (mNodeKind == Kind.ELEMENT) {
 			try {
 				final NodeReadTrx rtx = createRtxAndMove();
-				final int count = rtx.getNamespaceCount();
-
-				if (count == 0) {
-					retVal = EMPTY_NAMESPACE_LIST;
-				} else {
-					retVal = (buffer == null || count > buffer.length ? new int[count]
-							: buffer);
-					final NamePool pool = getNamePool();
-					int n = 0;
-					try {
+				try {
+					final int count = rtx.getNamespaceCount();
+
+					if (count == 0) {
+						retVal = EMPTY_NAMESPACE_LIST;
+					} else {
+						retVal = (buffer == null || count > buffer.length ? new int[count]
+								: buffer);
+						final NamePool pool = getNamePool();
+						int n = 0;
 						for (int i = 0; i < count; i++) {
 							rtx.moveTo(i);
 							final String prefix = getPrefix();
@@ -265,17 +307,16 @@ public final class NodeWrapper implements SiblingCountingNode {
 
 							retVal[n++] = pool.allocateNamespaceCode(prefix, uri);
 						}
-						rtx.close();
-					} catch (final SirixException exc) {
-						LOGGER.error(exc.toString());
-					}
-					/*
-					 * If the supplied array is larger than required, then the first
-					 * unused entry will be set to -1.
-					 */
-					if (count < retVal.length) {
-						retVal[count] = -1;
+						/*
+						 * If the supplied array is larger than required, then the first
+						 * unused entry will be set to -1.
+						 */
+						if (count < retVal.length) {
+							retVal[count] = -1;
+						}
 					}
+				} finally {
+					mDocWrapper.releaseTrx(rtx);
 				}
 			} catch (final SirixException e) {
 				throw new IllegalStateException(e.getCause());
@@ -385,11 +426,14 @@ public final class NodeWrapper implements SiblingCountingNode {
 		try {
 			NodeInfo parent = null;
 			final NodeReadTrx rtx = createRtxAndMove();
-			if (rtx.hasParent()) {
-				// Parent transaction.
-				parent = new NodeWrapper(mDocWrapper, rtx.getParentKey());
+			try {
+				if (rtx.hasParent()) {
+					rtx.moveToParent();
+					parent = new NodeWrapper(mDocWrapper, rtx);
+				}
+			} finally {
+				mDocWrapper.releaseTrx(rtx);
 			}
-			rtx.close();
 			return parent;
 		} catch (final SirixException e) {
 			LOGGER.error(e.getMessage(), e);
@@ -436,27 +480,28 @@ public final class NodeWrapper implements SiblingCountingNode {
 		String value = "";
 		try {
 			final NodeReadTrx rtx = createRtxAndMove();
-
-			switch (mNodeKind) {
-			case DOCUMENT:
-			case ELEMENT:
-				value = expandString();
-				break;
-			case ATTRIBUTE:
-				value = emptyIfNull(rtx.getValue());
-				break;
-			case TEXT:
-				value = rtx.getValue();
-				break;
-			case COMMENT:
-			case PROCESSING_INSTRUCTION:
-				value = emptyIfNull(rtx.getValue());
-				break;
-			default:
-				value = "";
+			try {
+				switch (mNodeKind) {
+				case DOCUMENT:
+				case ELEMENT:
+					value = expandString(rtx);
+					break;
+				case ATTRIBUTE:
+					value = emptyIfNull(rtx.getValue());
+					break;
+				case TEXT:
+					value = rtx.getValue();
+					break;
+				case COMMENT:
+				case PROCESSING_INSTRUCTION:
+					value = emptyIfNull(rtx.getValue());
+					break;
+				default:
+					value = "";
+				}
+			} finally {
+				mDocWrapper.releaseTrx(rtx);
 			}
-
-			rtx.close();
 		} catch (final SirixException exc) {
 			LOGGER.error(exc.toString());
 		}
@@ -467,22 +512,18 @@ public final class NodeWrapper implements SiblingCountingNode {
 	/**
 	 * Filter text nodes.
 	 * 
+	 * @param rtx
+	 *          read transaction located at the node
 	 * @return concatenated String of text node values
 	 */
-	private String expandString() {
+	private static String expandString(final NodeReadTrx rtx) {
 		final FastStringBuffer fsb = new FastStringBuffer(FastStringBuffer.SMALL);
-		try {
-			final NodeReadTrx rtx = createRtxAndMove();
-			final FilterAxis axis = new FilterAxis(new DescendantAxis(rtx),
-					new TextFilter(rtx));
+		final FilterAxis axis = new FilterAxis(new DescendantAxis(rtx),
+				new TextFilter(rtx));
 
-			while (axis.hasNext()) {
-				axis.next();
-				fsb.append(rtx.getValue());
-			}
-			rtx.close();
-		} catch (final SirixException exc) {
-			LOGGER.error(exc.toString());
+		while (axis.hasNext()) {
+			axis.next();
+			fsb.append(rtx.getValue());
 		}
 		return fsb.condense().toString();
 	}
@@ -532,10 +573,11 @@ public final class NodeWrapper implements SiblingCountingNode {
 		boolean hasChildNodes = false;
 		try {
 			final NodeReadTrx rtx = createRtxAndMove();
-			if (rtx.getChildCount() > 0) {
-				hasChildNodes = true;
+			try {
+				hasChildNodes = rtx.getChildCount() > 0;
+			} finally {
+				mDocWrapper.releaseTrx(rtx);
 			}
-			rtx.close();
 		} catch (final SirixException exc) {
 			LOGGER.error(exc.toString());
 		}
@@ -580,121 +622,155 @@ public final class NodeWrapper implements SiblingCountingNode {
 	@Override
 	public AxisIterator iterateAxis(final byte axisNumber, final NodeTest nodeTest) {
 		AxisIterator returnVal = null;
-		try {
-			final NodeReadTrx rtx = createRtxAndMove();
 
-			if (LOGGER.isDebugEnabled()) {
-				LOGGER.debug("NODE TEST: " + nodeTest);
-			}
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("NODE TEST: " + nodeTest);
+		}
 
-			switch (axisNumber) {
-			case Axis.ANCESTOR:
-				if (getNodeKind() == Kind.DOCUMENT.getId()) {
-					returnVal = EmptyIterator.getInstance();
-				} else {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new AncestorAxis(rtx)), nodeTest);
-				}
-				break;
-			case Axis.ANCESTOR_OR_SELF:
-				if (getNodeKind() == Kind.DOCUMENT.getId()) {
-					returnVal = Navigator.filteredSingleton(this, nodeTest);
-				} else {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new AncestorAxis(rtx, IncludeSelf.YES)), nodeTest);
-				}
-				break;
-			case Axis.ATTRIBUTE:
-				if (getNodeKind() != Kind.ELEMENT.getId()) {
-					returnVal = EmptyIterator.getInstance();
-				} else {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new AttributeAxis(rtx)), nodeTest);
-				}
-				break;
-			case Axis.CHILD:
-				if (rtx.hasFirstChild()) {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new ChildAxis(rtx)), nodeTest);
-				} else {
-					returnVal = EmptyIterator.getInstance();
-				}
-				break;
-			case Axis.DESCENDANT:
-				if (hasChildNodes()) {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new DescendantAxis(rtx)), nodeTest);
-				} else {
-					returnVal = EmptyIterator.getInstance();
-				}
-				break;
-			case Axis.DESCENDANT_OR_SELF:
-				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-						new DescendantAxis(rtx, IncludeSelf.YES)), nodeTest);
+		switch (axisNumber) {
+		case Axis.ANCESTOR:
+		case Axis.PARENT:
+			if (mNodeKind == Kind.DOCUMENT) {
+				returnVal = EmptyIterator.getInstance();
+			} else {
+				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(axisNumber),
+						nodeTest);
+			}
+			break;
+		case Axis.ANCESTOR_OR_SELF:
+			if (mNodeKind == Kind.DOCUMENT) {
+				returnVal = Navigator.filteredSingleton(this, nodeTest);
+			} else {
+				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(axisNumber),
+						nodeTest);
+			}
+			break;
+		case Axis.ATTRIBUTE:
+			if (mNodeKind != Kind.ELEMENT) {
+				returnVal = EmptyIterator.getInstance();
+			} else {
+				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(axisNumber),
+						nodeTest);
+			}
+			break;
+		case Axis.CHILD:
+		case Axis.DESCENDANT:
+			if (hasChildNodes()) {
+				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(axisNumber),
+						nodeTest);
+			} else {
+				returnVal = EmptyIterator.getInstance();
+			}
+			break;
+		case Axis.DESCENDANT_OR_SELF:
+		case Axis.FOLLOWING:
+		case Axis.PRECEDING:
+			returnVal = new Navigator.AxisFilter(new SaxonEnumeration(axisNumber),
+					nodeTest);
+			break;
+		case Axis.FOLLOWING_SIBLING:
+		case Axis.PRECEDING_SIBLING:
+			switch (mNodeKind) {
+			case DOCUMENT:
+			case ATTRIBUTE:
+			case NAMESPACE:
+				returnVal = EmptyIterator.getInstance();
 				break;
-			case Axis.FOLLOWING:
-				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-						new FollowingAxis(rtx)), nodeTest);
+			default:
+				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(axisNumber),
+						nodeTest);
 				break;
-			case Axis.FOLLOWING_SIBLING:
-				switch (mNodeKind) {
-				case DOCUMENT:
-				case ATTRIBUTE:
-				case NAMESPACE:
-					returnVal = EmptyIterator.getInstance();
-					break;
-				default:
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new FollowingSiblingAxis(rtx)), nodeTest);
-					break;
-				}
+			}
+			break;
+		case Axis.NAMESPACE:
+			if (mNodeKind != Kind.ELEMENT) {
+				returnVal = EmptyIterator.getInstance();
+			} else {
+				returnVal = NamespaceIterator.makeIterator(this, nodeTest);
+			}
+			break;
+		case Axis.SELF:
+			returnVal = Navigator.filteredSingleton(this, nodeTest);
+			break;
+		case Axis.PRECEDING_OR_ANCESTOR:
+			returnVal = new Navigator.AxisFilter(new Navigator.PrecedingEnumeration(
+					this, true), nodeTest);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown axis number " + axisNumber);
+		}
+		return returnVal;
+	}
 
-			case Axis.NAMESPACE:
-				if (getNodeKind() != Kind.ELEMENT.getId()) {
-					returnVal = EmptyIterator.getInstance();
-				} else {
-					returnVal = NamespaceIterator.makeIterator(this, nodeTest);
-				}
-				break;
-			case Axis.PARENT:
-				if (rtx.getParentKey() == Kind.DOCUMENT.getId()) {
-					returnVal = EmptyIterator.getInstance();
-				} else {
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new ParentAxis(rtx)), nodeTest);
-				}
-			case Axis.PRECEDING:
-				returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-						new PrecedingAxis(rtx)), nodeTest);
-				break;
-			case Axis.PRECEDING_SIBLING:
-				switch (mNodeKind) {
-				case DOCUMENT:
-				case ATTRIBUTE:
-				case NAMESPACE:
-					returnVal = EmptyIterator.getInstance();
-					break;
-				default:
-					returnVal = new Navigator.AxisFilter(new SaxonEnumeration(
-							new PrecedingSiblingAxis(rtx)), nodeTest);
-					break;
-				}
+	/**
+	 * Create the sirix axis for a Saxon axis, which is evaluated by a
+	 * {@link SaxonEnumeration}.
+	 * 
+	 * @param axisNumber
+	 *          the Saxon axis
+	 * @param rtx
+	 *          read transaction located at the context node
+	 * @return the sirix axis
+	 */
+	private static org.sirix.api.Axis newAxis(final byte axisNumber,
+			final NodeReadTrx rtx) {
+		switch (axisNumber) {
+		case Axis.ANCESTOR:
+			return new AncestorAxis(rtx);
+		case Axis.ANCESTOR_OR_SELF:
+			return new AncestorAxis(rtx, IncludeSelf.YES);
+		case Axis.ATTRIBUTE:
+			return new AttributeAxis(rtx);
+		case Axis.CHILD:
+			return new ChildAxis(rtx);
+		case Axis.DESCENDANT:
+			return new DescendantAxis(rtx);
+		case Axis.DESCENDANT_OR_SELF:
+			return new DescendantAxis(rtx, IncludeSelf.YES);
+		case Axis.FOLLOWING:
+			return new FollowingAxis(rtx);
+		case Axis.FOLLOWING_SIBLING:
+			return new FollowingSiblingAxis(rtx);
+		case Axis.PARENT:
+			return new ParentAxis(rtx);
+		case Axis.PRECEDING:
+			return new PrecedingAxis(rtx);
+		case Axis.PRECEDING_SIBLING:
+			// Saxon expects the nodes of reverse axes in reverse document order.
+			return new ReversePrecedingSiblingAxis(rtx);
+		default:
+			throw new IllegalArgumentException("Unknown axis number " + axisNumber);
+		}
+	}
 
-			case Axis.SELF:
-				returnVal = Navigator.filteredSingleton(this, nodeTest);
-				break;
+	/**
+	 * Iterate over the preceding siblings in reverse document order, that is
+	 * from the left sibling of the context node up to the first child. In
+	 * contrast, {@link PrecedingSiblingAxis} delivers the nodes in document
+	 * order.
+	 */
+	private static final class ReversePrecedingSiblingAxis extends AbstractAxis {
 
-			case Axis.PRECEDING_OR_ANCESTOR:
-				returnVal = new Navigator.AxisFilter(
-						new Navigator.PrecedingEnumeration(this, true), nodeTest);
-				break;
-			default:
-				throw new IllegalArgumentException("Unknown axis number " + axisNumber);
+		/**
+		 * Constructor.
+		 * 
+		 * @param rtx
+		 *          read transaction located at the context node
+		 */
+		ReversePrecedingSiblingAxis(final NodeReadTrx rtx) {
+			super(rtx);
+		}
+
+		@Override
+		protected long nextKey() {
+			final NodeReadTrx rtx = getTrx();
+			final Kind kind = rtx.getKind();
+			if (kind != Kind.ATTRIBUTE && kind != Kind.NAMESPACE
+					&& rtx.hasLeftSibling()) {
+				return rtx.getLeftSiblingKey();
 			}
-		} catch (final SirixException exc) {
-			LOGGER.error(exc.toString());
+			return done();
 		}
-		return returnVal;
 	}
 
 	@Override
@@ -712,11 +788,14 @@ public final class NodeWrapper implements SiblingCountingNode {
 		int index = 0;
 		try {
 			final NodeReadTrx rtx = createRtxAndMove();
-			while (rtx.hasLeftSibling()) {
-				rtx.moveToLeftSibling();
-				index++;
+			try {
+				while (rtx.hasLeftSibling()) {
+					rtx.moveToLeftSibling();
+					index++;
+				}
+			} finally {
+				mDocWrapper.releaseTrx(rtx);
 			}
-			rtx.close();
 		} catch (final SirixException e) {
 			LOGGER.error(e.getMessage(), e);
 		}
@@ -724,14 +803,15 @@ public final class NodeWrapper implements SiblingCountingNode {
 	}
 
 	/**
-	 * Create a new {@link IReadTransaction} and move to {@link mKey}.
+	 * Get a pooled {@link NodeReadTrx} and move to {@link mKey}. It has to be
+	 * handed back by {@link DocumentWrapper#releaseTrx(NodeReadTrx)}.
 	 * 
-	 * @return new read transaction instance which is moved to {@link mKey}
+	 * @return read transaction instance which is moved to {@link mKey}
 	 * @throws SirixException
 	 *           if sirix fails to setup new transaction
 	 */
 	private final NodeReadTrx createRtxAndMove() throws SirixException {
-		final NodeReadTrx rtx = mDocWrapper.mSession.beginNodeReadTrx(mRevision);
+		final NodeReadTrx rtx = mDocWrapper.acquireTrx();
 		rtx.moveTo(mKey);
 		return rtx;
 	}
@@ -751,51 +831,75 @@ public final class NodeWrapper implements SiblingCountingNode {
 	 * <h1>SaxonEnumeration</h1>
 	 * 
 	 * <p>
-	 * Saxon adaptor for axis iterations.
+	 * Saxon adaptor for axis iterations. The whole iteration runs on a single
+	 * pooled transaction, which is handed back once the axis is exhausted, the
+	 * iterator is closed or the abandoned iterator has been garbage collected.
 	 * </p>
 	 */
 	public final class SaxonEnumeration extends Navigator.BaseEnumeration {
 
-		/** Sirix {@link Axis} iterator. */
-		private final org.sirix.api.Axis mAxis;
+		/** The Saxon axis to evaluate. */
+		private final byte mAxisNumber;
+
+		/** Sirix {@link Axis} iterator, created on the first call to advance. */
+		private org.sirix.api.Axis mAxis;
+
+		/** Lease of the transaction, which is used by {@link #mAxis}. */
+		private DocumentWrapper.TrxLease mLease;
+
+		/** Determines if the iteration is finished. */
+		private boolean mDone;
 
 		/**
 		 * Constructor.
 		 * 
-		 * @param axis
-		 *          Sirix {@link Axis}
+		 * @param axisNumber
+		 *          the Saxon axis to evaluate from this node
 		 */
-		public SaxonEnumeration(final org.sirix.api.Axis axis) {
-			mAxis = checkNotNull(axis);
+		public SaxonEnumeration(final byte axisNumber) {
+			mAxisNumber = axisNumber;
 		}
 
 		@Override
 		public void advance() {
-			if (mAxis.hasNext()) {
-				final long nextKey = mAxis.next();
-				try {
-					current = new NodeWrapper(mDocWrapper, nextKey);
-				} catch (final SirixException e) {
-					current = null;
-					try {
-						mAxis.getTrx().close();
-					} catch (final SirixException exc) {
-						LOGGER.error(exc.toString());
-					}
-				}
-			} else {
+			if (mDone) {
 				current = null;
-				try {
-					mAxis.getTrx().close();
-				} catch (SirixException exc) {
-					LOGGER.error(exc.toString());
+				return;
+			}
+			try {
+				if (mAxis == null) {
+					mLease = mDocWrapper.leaseTrx(this);
+					final NodeReadTrx rtx = mLease.getTrx();
+					rtx.moveTo(mKey);
+					mAxis = newAxis(mAxisNumber, rtx);
 				}
+				// The transaction is closed if the document has been closed.
+				if (!mAxis.getTrx().isClosed() && mAxis.hasNext()) {
+					mAxis.next();
+					current = new NodeWrapper(mDocWrapper, mAxis.getTrx());
+				} else {
+					close();
+				}
+			} catch (final SirixException e) {
+				LOGGER.error(e.getMessage(), e);
+				close();
+			}
+		}
+
+		@Override
+		public void close() {
+			current = null;
+			mDone = true;
+			mAxis = null;
+			if (mLease != null) {
+				mLease.release();
+				mLease = null;
 			}
 		}
 
 		@Override
 		public SequenceIterator getAnother() {
-			return new SaxonEnumeration(mAxis);
+			return new SaxonEnumeration(mAxisNumber);
 		}
 	}
 
@@ -28,11 +28,15 @@
 package org.sirix.saxon.wrapper;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.xml.stream.XMLEventReader;
 
@@ -59,11 +63,13 @@ import org.sirix.access.conf.DatabaseConfiguration;
 import org.sirix.access.conf.ResourceConfiguration;
 import org.sirix.access.conf.SessionConfiguration;
 import org.sirix.api.Database;
+import org.sirix.api.NodeReadTrx;
 import org.sirix.api.NodeWriteTrx;
 import org.sirix.api.Session;
 import org.sirix.exception.SirixException;
 import org.sirix.service.xml.shredder.Insert;
 import org.sirix.service.xml.shredder.XMLShredder;
+import org.sirix.utils.DocumentCreater;
 
 /**
  * Test implemented methods in NodeWrapper.
@@ -81,6 +87,9 @@ public class TestNodeWrapper {
 	/** sirix session on sirix test document. */
 	private Holder mHolder;
 
+	/** Document wrapper of the test document. */
+	private DocumentWrapper mDoc;
+
 	/** Document node. */
 	private NodeWrapper node;
 
@@ -94,11 +103,13 @@ public class TestNodeWrapper {
 		final Processor proc = new Processor(false);
 		final Configuration config = proc.getUnderlyingConfiguration();
 
-		node = new DocumentWrapper(mHolder.getSession(), config).getNodeWrapper();
+		mDoc = new DocumentWrapper(mHolder.getSession(), config);
+		node = mDoc.getNodeWrapper();
 	}
 
 	@After
 	public void afterMethod() throws SirixException {
+		mDoc.close();
 		mHolder.close();
 	}
 
@@ -295,15 +306,183 @@ public class TestNodeWrapper {
 		assertEquals(4, node.getSiblingPosition());
 	}
 
+	@Test
+	public void testCompareOrderDeweyIDs() throws SirixException {
+		final Processor proc = new Processor(false);
+		final Configuration config = proc.getUnderlyingConfiguration();
+
+		final Session session = generateSession(true);
+		final NodeWriteTrx wtx = session.beginNodeWriteTrx();
+		DocumentCreater.create(wtx);
+		wtx.commit();
+		wtx.close();
+
+		// Structural nodes of the test document in document order.
+		final long[] keys = { 0, 1, 4, 5, 6, 7, 8, 9, 11, 12, 13 };
+		final DocumentWrapper deweyDoc = new DocumentWrapper(session, config);
+		final DocumentWrapper doc = new DocumentWrapper(mHolder.getSession(),
+				config);
+		for (int i = 0; i < keys.length; i++) {
+			for (int j = 0; j < keys.length; j++) {
+				final int expected = i == j ? 0 : i < j ? -1 : 1;
+				assertEquals(expected, new NodeWrapper(deweyDoc, keys[i])
+						.compareOrder(new NodeWrapper(deweyDoc, keys[j])));
+				// The same order as determined by navigating without DeweyIDs.
+				assertEquals(expected, new NodeWrapper(doc, keys[i])
+						.compareOrder(new NodeWrapper(doc, keys[j])));
+			}
+		}
+		deweyDoc.close();
+		doc.close();
+		session.close();
+		mDatabase.close();
+	}
+
+	@Test
+	public void testFollowingSibling() throws SirixException {
+		// First b element.
+		node = new NodeWrapper(mDoc, 5);
+		assertKeys(node.iterateAxis(Axis.FOLLOWING_SIBLING), 8, 9, 13);
+		// Last child.
+		node = new NodeWrapper(mDoc, 13);
+		assertKeys(node.iterateAxis(Axis.FOLLOWING_SIBLING));
+		// Attribute.
+		node = new NodeWrapper(mDoc, 3);
+		assertKeys(node.iterateAxis(Axis.FOLLOWING_SIBLING));
+	}
+
+	@Test
+	public void testPrecedingSibling() throws SirixException {
+		// Second b element, the siblings are in reverse document order.
+		node = new NodeWrapper(mDoc, 9);
+		assertKeys(node.iterateAxis(Axis.PRECEDING_SIBLING), 8, 5, 4);
+		// First child.
+		node = new NodeWrapper(mDoc, 4);
+		assertKeys(node.iterateAxis(Axis.PRECEDING_SIBLING));
+		// Attribute.
+		node = new NodeWrapper(mDoc, 10);
+		assertKeys(node.iterateAxis(Axis.PRECEDING_SIBLING));
+	}
+
+	@Test
+	public void testParent() throws SirixException {
+		assertKeys(node.iterateAxis(Axis.PARENT));
+		node = new NodeWrapper(mDoc, 6);
+		assertKeys(node.iterateAxis(Axis.PARENT), 5);
+		// Attribute.
+		node = new NodeWrapper(mDoc, 10);
+		assertKeys(node.iterateAxis(Axis.PARENT), 9);
+		node = new NodeWrapper(mDoc, 1);
+		assertKeys(node.iterateAxis(Axis.PARENT), 0);
+	}
+
+	@Test
+	public void testTrxPool() throws SirixException {
+		final NodeReadTrx rtx = mDoc.acquireTrx();
+		mDoc.releaseTrx(rtx);
+		assertSame(rtx, mDoc.acquireTrx());
+
+		// Transactions are closed once the pool is full.
+		final List<NodeReadTrx> trxs = new ArrayList<>();
+		trxs.add(rtx);
+		for (int i = 0; i < 15; i++) {
+			trxs.add(mDoc.acquireTrx());
+		}
+		for (final NodeReadTrx trx : trxs) {
+			mDoc.releaseTrx(trx);
+		}
+		int closed = 0;
+		for (final NodeReadTrx trx : trxs) {
+			if (trx.isClosed()) {
+				closed++;
+			}
+		}
+		assertEquals(8, closed);
+
+		mDoc.close();
+		for (final NodeReadTrx trx : trxs) {
+			assertTrue(trx.isClosed());
+		}
+		// The document is still usable.
+		assertEquals("oops1foooops2baroops3", node.getStringValueCS());
+	}
+
+	@Test
+	public void testIterationReleasesTrx() throws SirixException {
+		final NodeReadTrx rtx = mDoc.acquireTrx();
+		mDoc.releaseTrx(rtx);
+
+		// An exhausted iteration hands back its transaction.
+		assertKeys(node.iterateAxis(Axis.CHILD), 1);
+		assertSame(rtx, mDoc.acquireTrx());
+		mDoc.releaseTrx(rtx);
+
+		// So does a closed one.
+		final AxisIterator iterator = node.iterateAxis(Axis.DESCENDANT);
+		iterator.next();
+		iterator.close();
+		assertSame(rtx, mDoc.acquireTrx());
+		mDoc.releaseTrx(rtx);
+
+		// Closing the document ends iterations in progress.
+		final AxisIterator unfinished = node.iterateAxis(Axis.DESCENDANT);
+		unfinished.next();
+		mDoc.close();
+		assertNull(unfinished.next());
+	}
+
+	@Test
+	public void testAbandonedIteration() throws SirixException,
+			InterruptedException {
+		Object owner = new Object();
+		final NodeReadTrx rtx = mDoc.leaseTrx(owner).getTrx();
+		owner = null;
+
+		// The transaction is handed back once the owner is garbage collected.
+		boolean released = false;
+		for (int i = 0; i < 100 && !released; i++) {
+			System.gc();
+			Thread.sleep(10);
+			final NodeReadTrx acquired = mDoc.acquireTrx();
+			released = acquired == rtx;
+			mDoc.releaseTrx(acquired);
+		}
+		assertTrue(released);
+		assertFalse(rtx.isClosed());
+		mDoc.close();
+	}
+
+	/**
+	 * Assert the node keys of the nodes of an axis.
+	 * 
+	 * @param iterator
+	 *          the axis iterator
+	 * @param keys
+	 *          the expected node keys
+	 */
+	private static void assertKeys(final AxisIterator iterator,
+			final long... keys) {
+		for (final long key : keys) {
+			assertEquals(key, ((NodeWrapper) iterator.next()).getKey());
+		}
+		assertNull(iterator.next());
+	}
+
 	@Ignore
 	public Session generateSession() throws SirixException {
+		return generateSession(false);
+	}
+
+	@Ignore
+	public Session generateSession(final boolean useDeweyIDs)
+			throws SirixException {
 		final DatabaseConfiguration dbConfig = new DatabaseConfiguration(
 				TestHelper.PATHS.PATH2.getFile());
 		Databases.truncateDatabase(dbConfig);
 		Databases.createDatabase(dbConfig);
 		mDatabase = Databases.openDatabase(dbConfig.getFile());
 		mDatabase.createResource(new ResourceConfiguration.Builder(
-				TestHelper.RESOURCE, dbConfig).build());
+				TestHelper.RESOURCE, dbConfig).useDeweyIDs(useDeweyIDs).build());
 		return mDatabase.getSession(new SessionConfiguration.Builder(
 				TestHelper.RESOURCE).build());
 	}
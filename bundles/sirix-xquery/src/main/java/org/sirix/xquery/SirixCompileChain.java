@@ -20,6 +20,11 @@ import org.sirix.xquery.node.DBStore;
  * 
  */
 public final class SirixCompileChain extends CompileChain {
+	/**
+	 * Add the experimental index matching stage or not. The rewrites of the
+	 * {@link SirixOptimizer} (joins, aggregates and collection paths) are
+	 * switched by their own flags instead.
+	 */
 	public static final boolean OPTIMIZE = Cfg.asBool(
 			"org.sirix.xquery.optimize.multichild", false);
 
@@ -48,7 +53,10 @@ public final class SirixCompileChain extends CompileChain {
 
 	@Override
 	protected Optimizer getOptimizer(Map<QNm, Str> options) {
-		if (!OPTIMIZE) {
+		if (!OPTIMIZE && !SirixOptimizer.JOIN_PROBING
+				&& !SirixOptimizer.INDEX_AGGREGATION
+				&& !SirixOptimizer.COLLECTION_PATHS) {
+			// no Sirix specific stage, thus use the default optimizer
 			return super.getOptimizer(options);
 		}
 		return new SirixOptimizer(options, mStore);
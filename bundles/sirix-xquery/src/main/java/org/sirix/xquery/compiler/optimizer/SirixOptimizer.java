@@ -9,12 +9,41 @@ import org.brackit.xquery.compiler.AST;
 import org.brackit.xquery.compiler.optimizer.Stage;
 import org.brackit.xquery.compiler.optimizer.TopDownOptimizer;
 import org.brackit.xquery.module.StaticContext;
+import org.brackit.xquery.util.Cfg;
+import org.sirix.xquery.SirixCompileChain;
+import org.sirix.xquery.compiler.optimizer.walker.CollectionPaths;
+import org.sirix.xquery.compiler.optimizer.walker.IndexAggregation;
+import org.sirix.xquery.compiler.optimizer.walker.JoinProbing;
 import org.sirix.xquery.node.DBStore;
 
 public class SirixOptimizer extends TopDownOptimizer {
 
+	/** Rewrite value joins into probes of the inner input or not. */
+	public static final boolean JOIN_PROBING = Cfg.asBool(
+			"org.sirix.xquery.optimize.join", true);
+
+	/** Rewrite aggregates of paths into index-only plans or not. */
+	public static final boolean INDEX_AGGREGATION = Cfg.asBool(
+			"org.sirix.xquery.optimize.aggregate", true);
+
+	/** Evaluate plain paths of collections concurrently or not. */
+	public static final boolean COLLECTION_PATHS = Cfg.asBool(
+			"org.sirix.xquery.optimize.collection", true);
+
 	public SirixOptimizer(final Map<QNm, Str> options, final DBStore store) {
 		super(options);
+		if (JOIN_PROBING) {
+			getStages().add(new JoinProbingStage());
+		}
+		if (INDEX_AGGREGATION) {
+			getStages().add(new IndexAggregationStage());
+		}
+		if (COLLECTION_PATHS) {
+			getStages().add(new CollectionPathsStage());
+		}
+		if (!SirixCompileChain.OPTIMIZE) {
+			return;
+		}
 		// perform index matching as last step
 		// getStages().add(new Stage() {
 		// @Override
@@ -27,6 +56,27 @@ public class SirixOptimizer extends TopDownOptimizer {
 		getStages().add(new IndexMatching(store));
 	}
 
+	private static class JoinProbingStage implements Stage {
+		@Override
+		public AST rewrite(StaticContext sctx, AST ast) throws QueryException {
+			return new JoinProbing(sctx).walk(ast);
+		}
+	}
+
+	private static class IndexAggregationStage implements Stage {
+		@Override
+		public AST rewrite(StaticContext sctx, AST ast) throws QueryException {
+			return new IndexAggregation(sctx).walk(ast);
+		}
+	}
+
+	private static class CollectionPathsStage implements Stage {
+		@Override
+		public AST rewrite(StaticContext sctx, AST ast) throws QueryException {
+			return new CollectionPaths(sctx).walk(ast);
+		}
+	}
+
 	private static class IndexMatching implements Stage {
 		private final DBStore mStore;
 
@@ -0,0 +1,53 @@
+package org.sirix.xquery.compiler.optimizer.walker;
+
+import org.brackit.xquery.atomic.Str;
+import org.brackit.xquery.compiler.AST;
+import org.brackit.xquery.compiler.XQ;
+import org.brackit.xquery.compiler.optimizer.walker.Walker;
+import org.brackit.xquery.module.StaticContext;
+import org.sirix.xquery.function.sdb.io.CollectionPath;
+
+/**
+ * Rewrites plain paths of the documents of a collection into a single function
+ * call, which evaluates the path on the documents concurrently:
+ * 
+ * <pre>
+ * collection('auction')//item/@price
+ * </pre>
+ * 
+ * becomes
+ * 
+ * <pre>
+ * sdb:collection-path('auction', '//item/@price')
+ * </pre>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class CollectionPaths extends Walker {
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param sctx
+	 *          the static context
+	 */
+	public CollectionPaths(final StaticContext sctx) {
+		super(sctx);
+	}
+
+	@Override
+	protected AST visit(final AST node) {
+		final String path = PlainPaths.collectionPath(node, true);
+		if (path == null) {
+			return node;
+		}
+
+		final AST call = new AST(XQ.FunctionCall, CollectionPath.COLLECTION_PATH);
+		call.addChild(node.getChild(0).getChild(0).copyTree());
+		call.addChild(new AST(XQ.Str, new Str(path)));
+		node.getParent().replaceChild(node.getChildIndex(), call);
+		snapshot();
+		return call;
+	}
+}
@@ -0,0 +1,180 @@
+package org.sirix.xquery.compiler.optimizer.walker;
+
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.atomic.Str;
+import org.brackit.xquery.compiler.AST;
+import org.brackit.xquery.compiler.XQ;
+import org.brackit.xquery.compiler.optimizer.walker.Walker;
+import org.brackit.xquery.module.Namespaces;
+import org.brackit.xquery.module.StaticContext;
+import org.sirix.xquery.function.sdb.index.aggregate.IndexCount;
+import org.sirix.xquery.function.sdb.index.aggregate.IndexCovers;
+import org.sirix.xquery.function.sdb.index.aggregate.IndexDistinctValues;
+import org.sirix.xquery.function.sdb.index.aggregate.IndexExists;
+
+/**
+ * Rewrites aggregates of plain paths of a document into index-only plans,
+ * which are guarded by a check for a covering index:
+ * 
+ * <pre>
+ * count(doc('auction.xml')//item[@price = 10])
+ * </pre>
+ * 
+ * becomes
+ * 
+ * <pre>
+ * if (sdb:index-covers(doc('auction.xml'), "count", "//item/@price", 10))
+ * then sdb:index-count(doc('auction.xml'), "//item/@price", 10)
+ * else count(doc('auction.xml')//item[@price = 10])
+ * </pre>
+ * 
+ * {@code fn:count} and {@code fn:exists} are rewritten for plain paths, plain
+ * paths whose last step has a single predicate comparing an attribute with a
+ * literal ({@code //item[@price = 10]}) and plain paths ending in an attribute
+ * step, whose predicate compares the context item with a literal (
+ * {@code //item/@price[. = 10]}). {@code fn:distinct-values} is rewritten for
+ * plain paths ending in an attribute step.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class IndexAggregation extends Walker {
+
+	/** Property of an aggregate, which has already been rewritten. */
+	private static final String CHECKED = "indexAggregation";
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param sctx
+	 *          the static context
+	 */
+	public IndexAggregation(final StaticContext sctx) {
+		super(sctx);
+	}
+
+	@Override
+	protected AST visit(final AST node) {
+		if (node.getType() != XQ.FunctionCall || node.getChildCount() != 1
+				|| node.checkProperty(CHECKED)) {
+			return node;
+		}
+		final QNm name = (QNm) node.getValue();
+		if (!Namespaces.FN_NSURI.equals(name.getNamespaceURI())) {
+			return node;
+		}
+		final QNm aggregate;
+		switch (name.getLocalName()) {
+		case "count":
+			aggregate = IndexCount.INDEX_COUNT;
+			break;
+		case "exists":
+			aggregate = IndexExists.INDEX_EXISTS;
+			break;
+		case "distinct-values":
+			aggregate = IndexDistinctValues.INDEX_DISTINCT_VALUES;
+			break;
+		default:
+			return node;
+		}
+
+		final AST expr = node.getChild(0);
+		String path = PlainPaths.path(expr, true);
+		AST key = null;
+		if (aggregate == IndexDistinctValues.INDEX_DISTINCT_VALUES) {
+			if (path != null && !path.contains("@")) {
+				// The values of elements aren't indexed.
+				return node;
+			}
+		} else if (path == null && expr.getType() == XQ.PathExpr
+				&& expr.getLastChild().getType() == XQ.StepExpr
+				&& expr.getLastChild().getChildCount() == 3) {
+			// Last step with a single predicate.
+			final AST predicate = expr.getLastChild().getChild(2);
+			final boolean attribute = PlainPaths.getAxis(expr.getLastChild())
+					== XQ.ATTRIBUTE;
+			final AST plain = expr.copyTree();
+			plain.getLastChild().deleteChild(2);
+			path = PlainPaths.path(plain, attribute);
+			key = key(predicate);
+			final String keyAttribute = key == null ? null : keyAttribute(
+					predicate, attribute);
+			if (path == null || keyAttribute == null) {
+				return node;
+			}
+			if (!attribute) {
+				path = path + "/@" + keyAttribute;
+			}
+		}
+		if (path == null) {
+			return node;
+		}
+
+		final AST original = node.copyTree();
+		original.setProperty(CHECKED, Boolean.TRUE);
+		final AST doc = expr.getChild(0);
+		final AST covers = new AST(XQ.FunctionCall, IndexCovers.INDEX_COVERS);
+		covers.addChild(doc.copyTree());
+		covers.addChild(new AST(XQ.Str, new Str(name.getLocalName())));
+		covers.addChild(new AST(XQ.Str, new Str(path)));
+		final AST indexOnly = new AST(XQ.FunctionCall, aggregate);
+		indexOnly.addChild(doc.copyTree());
+		indexOnly.addChild(new AST(XQ.Str, new Str(path)));
+		if (key != null) {
+			covers.addChild(key.copyTree());
+			indexOnly.addChild(key.copyTree());
+		}
+		final AST ifExpr = new AST(XQ.IfExpr, XQ.toName(XQ.IfExpr));
+		ifExpr.addChild(covers);
+		ifExpr.addChild(indexOnly);
+		ifExpr.addChild(original);
+
+		node.getParent().replaceChild(node.getChildIndex(), ifExpr);
+		snapshot();
+		return ifExpr;
+	}
+
+	/**
+	 * Get the literal, which is compared in a predicate of the form
+	 * {@code @a = literal} or {@code . = literal}.
+	 */
+	private static AST key(final AST predicate) {
+		if (predicate.getType() != XQ.ComparisonExpr
+				|| predicate.getChild(0).getType() != XQ.GeneralCompEQ) {
+			return null;
+		}
+		if (isLiteral(predicate.getChild(2))) {
+			return predicate.getChild(2);
+		}
+		if (isLiteral(predicate.getChild(1))) {
+			return predicate.getChild(1);
+		}
+		return null;
+	}
+
+	/**
+	 * Get the name of the attribute, which is compared in a predicate of the
+	 * form {@code @a = literal}, or the empty string for a predicate of the form
+	 * {@code . = literal} of an attribute step.
+	 */
+	private static String keyAttribute(final AST predicate,
+			final boolean attribute) {
+		AST operand = isLiteral(predicate.getChild(2)) ? predicate.getChild(1)
+				: predicate.getChild(2);
+		if (attribute) {
+			return operand.getType() == XQ.ContextItemExpr ? "" : null;
+		}
+		if (operand.getType() == XQ.PathExpr && operand.getChildCount() == 1) {
+			operand = operand.getChild(0);
+		}
+		if (operand.getType() != XQ.StepExpr
+				|| PlainPaths.getAxis(operand) != XQ.ATTRIBUTE) {
+			return null;
+		}
+		return PlainPaths.name(operand);
+	}
+
+	private static boolean isLiteral(final AST expr) {
+		return expr.getType() == XQ.Str || expr.getType() == XQ.Int;
+	}
+}
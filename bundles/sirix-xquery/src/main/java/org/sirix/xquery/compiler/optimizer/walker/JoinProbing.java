@@ -0,0 +1,221 @@
+package org.sirix.xquery.compiler.optimizer.walker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.brackit.xquery.atomic.Int32;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.atomic.Str;
+import org.brackit.xquery.compiler.AST;
+import org.brackit.xquery.compiler.XQ;
+import org.brackit.xquery.compiler.optimizer.walker.Walker;
+import org.brackit.xquery.module.StaticContext;
+import org.sirix.xquery.function.sdb.io.CollectionPath;
+import org.sirix.xquery.function.sdb.join.JoinProbe;
+
+/**
+ * Rewrites value joins in pipelined FLWOR expressions, which are evaluated as
+ * nested loops, into probes of the inner input:
+ * 
+ * <pre>
+ * for $a in ..., $b in $input where $a/@id = $b/@ref return ...
+ * </pre>
+ * 
+ * becomes
+ * 
+ * <pre>
+ * for $a in ..., $b in sdb:join-probe($input, "@ref", $a/@id, $id) where $a/@id = $b/@ref return ...
+ * </pre>
+ * 
+ * if the input is rooted at a call of doc(), collection() or
+ * sdb:collection-path() with literal arguments and doesn't depend on the outer
+ * tuples or the context otherwise. The selection is kept. If
+ * the input is a plain path of a document, the path is passed as well, such
+ * that the probe might use a CAS index (see {@link JoinProbe}).
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class JoinProbing extends Walker {
+
+	/** Generates the IDs of the call sites. */
+	private static final AtomicInteger ID = new AtomicInteger();
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param sctx
+	 *          the static context
+	 */
+	public JoinProbing(final StaticContext sctx) {
+		super(sctx);
+	}
+
+	@Override
+	protected AST visit(final AST node) {
+		// Variable binding, input and output (no positional variable).
+		if (node.getType() != XQ.ForBind || node.getChildCount() != 3) {
+			return node;
+		}
+		final AST selection = node.getLastChild();
+		if (selection.getType() != XQ.Selection) {
+			return node;
+		}
+		final AST predicate = selection.getChild(0);
+		if (predicate.getType() != XQ.ComparisonExpr
+				|| predicate.getChild(0).getType() != XQ.GeneralCompEQ) {
+			return node;
+		}
+		final AST input = node.getChild(1);
+		if (!isDocumentInput(input)) {
+			return node;
+		}
+
+		final QNm var = variable(node.getChild(0));
+		AST keys = predicate.getChild(1);
+		String keyPath = keyPath(predicate.getChild(2), var);
+		if (keyPath == null) {
+			keys = predicate.getChild(2);
+			keyPath = keyPath(predicate.getChild(1), var);
+		}
+		if (keyPath == null || references(keys, var)) {
+			return node;
+		}
+
+		final AST probe = new AST(XQ.FunctionCall, JoinProbe.JOIN_PROBE);
+		probe.addChild(input.copyTree());
+		probe.addChild(new AST(XQ.Str, new Str(keyPath)));
+		probe.addChild(keys.copyTree());
+		probe.addChild(new AST(XQ.Int, new Int32(ID.incrementAndGet())));
+		final String inputPath = PlainPaths.path(input, false);
+		if (inputPath != null) {
+			probe.addChild(new AST(XQ.Str, new Str(inputPath)));
+		}
+		node.replaceChild(1, probe);
+		snapshot();
+		return node;
+	}
+
+	/**
+	 * Determines if the expression is a call of doc(), collection() or
+	 * sdb:collection-path() with literal arguments, or a path starting with such
+	 * a call, which doesn't depend on variables or on the context otherwise. The
+	 * input then has the same value for all tuples and all evaluations of the
+	 * query, such that {@link JoinProbe} may keep the plan of the call site.
+	 */
+	private static boolean isDocumentInput(final AST expr) {
+		return isRoot(expr)
+				|| (expr.getType() == XQ.PathExpr && isIndependent(expr));
+	}
+
+	/**
+	 * Determines if the expression is a call of doc(), collection() or
+	 * sdb:collection-path() with literal arguments.
+	 */
+	private static boolean isRoot(final AST expr) {
+		if (PlainPaths.isDoc(expr) || PlainPaths.isCollection(expr)) {
+			return true;
+		}
+		if (expr.getType() != XQ.FunctionCall
+				|| CollectionPath.COLLECTION_PATH
+						.atomicCmp((QNm) expr.getValue()) != 0) {
+			return false;
+		}
+		for (int i = 0; i < expr.getChildCount(); i++) {
+			if (expr.getChild(i).getType() != XQ.Str) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determines if the expression doesn't depend on variables or on the
+	 * context, that is it has the same value for all tuples. Paths have to start
+	 * at a document, as absolute and relative paths depend on the context item.
+	 * Functions without arguments are rejected, as for instance
+	 * {@code fn:position()}, {@code fn:last()} or {@code fn:name()} depend on
+	 * the context.
+	 */
+	private static boolean isIndependent(final AST expr) {
+		final int type = expr.getType();
+		if (type == XQ.VariableRef || type == XQ.ContextItemExpr) {
+			return false;
+		}
+		if (type == XQ.FunctionCall) {
+			if (isRoot(expr)) {
+				return true;
+			}
+			if (expr.getChildCount() == 0) {
+				return false;
+			}
+		}
+		if (type == XQ.PathExpr && !isRoot(expr.getChild(0))) {
+			return false;
+		}
+		for (int i = 0; i < expr.getChildCount(); i++) {
+			if (!isIndependent(expr.getChild(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Determines if the expression references the variable. */
+	private static boolean references(final AST expr, final QNm var) {
+		if (expr.getType() == XQ.VariableRef
+				&& var.atomicCmp((QNm) expr.getValue()) == 0) {
+			return true;
+		}
+		for (int i = 0; i < expr.getChildCount(); i++) {
+			if (references(expr.getChild(i), var)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Get the name of the bound variable. */
+	private static QNm variable(final AST binding) {
+		final AST var = binding.getType() == XQ.TypedVariableBinding ? binding
+				.getChild(0) : binding;
+		return (QNm) var.getValue();
+	}
+
+	/**
+	 * Get the relative path of the keys, for instance {@code ref/@id} for
+	 * {@code $b/ref/@id}.
+	 * 
+	 * @param expr
+	 *          the expression
+	 * @param var
+	 *          the variable the path has to start with
+	 * @return child steps, optionally followed by an attribute step, or
+	 *         {@code null}, if the expression isn't such a path
+	 */
+	private static String keyPath(final AST expr, final QNm var) {
+		if (expr.getType() != XQ.PathExpr || expr.getChildCount() < 2
+				|| expr.getChild(0).getType() != XQ.VariableRef
+				|| var.atomicCmp((QNm) expr.getChild(0).getValue()) != 0) {
+			return null;
+		}
+		final StringBuilder path = new StringBuilder();
+		for (int i = 1; i < expr.getChildCount(); i++) {
+			final AST step = expr.getChild(i);
+			final String name = PlainPaths.name(step);
+			if (name == null) {
+				return null;
+			}
+			if (path.length() > 0) {
+				path.append('/');
+			}
+			final int axis = PlainPaths.getAxis(step);
+			if (axis == XQ.ATTRIBUTE && i == expr.getChildCount() - 1) {
+				path.append('@');
+			} else if (axis != XQ.CHILD) {
+				return null;
+			}
+			path.append(name);
+		}
+		return path.toString();
+	}
+}
@@ -0,0 +1,155 @@
+package org.sirix.xquery.compiler.optimizer.walker;
+
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.compiler.AST;
+import org.brackit.xquery.compiler.XQ;
+import org.brackit.xquery.module.Namespaces;
+import org.sirix.xquery.function.sdb.SDBFun;
+
+import com.google.common.base.Strings;
+
+/**
+ * Utility methods for plain paths of a document or a collection, which only
+ * consist of child and descendant steps with name tests, such that they can be
+ * looked up in the path summary and in indexes.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+final class PlainPaths {
+
+	/** Utility class. */
+	private PlainPaths() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Get the path of a plain path expression, which starts at a document and
+	 * only consists of child and descendant steps with name tests, for instance
+	 * {@code //item} for {@code doc('auction.xml')//item}.
+	 * 
+	 * @param expr
+	 *          the expression
+	 * @param attribute
+	 *          determines if the last step might be an attribute step
+	 * @return the path or {@code null}, if the expression isn't a plain path
+	 */
+	static String path(final AST expr, final boolean attribute) {
+		if (expr.getType() != XQ.PathExpr || !isDoc(expr.getChild(0))) {
+			return null;
+		}
+		return steps(expr, attribute);
+	}
+
+	/**
+	 * Get the path of a plain path expression, which starts at the documents of
+	 * a collection, for instance {@code //item} for
+	 * {@code collection('auction')//item}.
+	 * 
+	 * @param expr
+	 *          the expression
+	 * @param attribute
+	 *          determines if the last step might be an attribute step
+	 * @return the path or {@code null}, if the expression isn't a plain path
+	 */
+	static String collectionPath(final AST expr, final boolean attribute) {
+		if (expr.getType() != XQ.PathExpr || !isCollection(expr.getChild(0))) {
+			return null;
+		}
+		return steps(expr, attribute);
+	}
+
+	/** Get the path of the steps following the first child of a path expression. */
+	private static String steps(final AST expr, final boolean attribute) {
+		final StringBuilder path = new StringBuilder();
+		boolean descendant = false;
+		for (int i = 1; i < expr.getChildCount(); i++) {
+			final AST step = expr.getChild(i);
+			if (step.getType() != XQ.StepExpr || step.getChildCount() != 2) {
+				return null;
+			}
+			final int axis = getAxis(step);
+			if (axis == XQ.DESCENDANT_OR_SELF
+					&& step.getChild(1).getType() == XQ.KindTestAnyKind) {
+				// Abbreviated descendant step "//".
+				descendant = true;
+				continue;
+			}
+			final String name = name(step);
+			if (name == null) {
+				return null;
+			}
+			if (axis == XQ.ATTRIBUTE && attribute
+					&& i == expr.getChildCount() - 1) {
+				path.append(descendant ? "//@" : "/@");
+			} else if (axis == XQ.DESCENDANT || axis == XQ.DESCENDANT_OR_SELF
+					|| (axis == XQ.CHILD && descendant)) {
+				path.append("//");
+			} else if (axis == XQ.CHILD) {
+				path.append('/');
+			} else {
+				return null;
+			}
+			path.append(name);
+			descendant = false;
+		}
+		return path.length() == 0 || descendant ? null : path.toString();
+	}
+
+	/** Determines if the expression is a call of a doc function with literals. */
+	static boolean isDoc(final AST expr) {
+		if (expr.getType() != XQ.FunctionCall) {
+			return false;
+		}
+		final QNm name = (QNm) expr.getValue();
+		if (!"doc".equals(name.getLocalName())
+				|| !(Namespaces.FN_NSURI.equals(name.getNamespaceURI()) || SDBFun.SDB_NSURI
+						.equals(name.getNamespaceURI()))) {
+			return false;
+		}
+		for (int i = 0; i < expr.getChildCount(); i++) {
+			final int type = expr.getChild(i).getType();
+			if (type != XQ.Str && type != XQ.Int) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determines if the expression is a call of the collection function with a
+	 * single literal.
+	 */
+	static boolean isCollection(final AST expr) {
+		if (expr.getType() != XQ.FunctionCall || expr.getChildCount() != 1
+				|| expr.getChild(0).getType() != XQ.Str) {
+			return false;
+		}
+		final QNm name = (QNm) expr.getValue();
+		return "collection".equals(name.getLocalName())
+				&& Namespaces.FN_NSURI.equals(name.getNamespaceURI());
+	}
+
+	/**
+	 * Get the local name of the name test of a step without predicates, if it
+	 * doesn't have a namespace and isn't a wildcard.
+	 */
+	static String name(final AST step) {
+		if (step.getType() != XQ.StepExpr || step.getChildCount() != 2
+				|| step.getChild(1).getType() != XQ.NameTest
+				|| !(step.getChild(1).getValue() instanceof QNm)) {
+			return null;
+		}
+		final QNm name = (QNm) step.getChild(1).getValue();
+		if (!Strings.isNullOrEmpty(name.getNamespaceURI())
+				|| !Strings.isNullOrEmpty(name.getPrefix())
+				|| name.getLocalName().contains("*")) {
+			return null;
+		}
+		return name.getLocalName();
+	}
+
+	static int getAxis(final AST stepExpr) {
+		return stepExpr.getChild(0).getChild(0).getType();
+	}
+}
@@ -33,6 +33,7 @@ import org.sirix.axis.FollowingAxis;
 import org.sirix.axis.FollowingSiblingAxis;
 import org.sirix.axis.IncludeSelf;
 import org.sirix.axis.NestedAxis;
+import org.sirix.axis.PageScanAxis;
 import org.sirix.axis.ParentAxis;
 import org.sirix.axis.PrecedingSiblingAxis;
 import org.sirix.axis.SelfAxis;
@@ -57,6 +58,7 @@ import org.sirix.exception.SirixException;
 import org.sirix.index.path.summary.PathSummaryReader;
 import org.sirix.service.xml.xpath.expr.UnionAxis;
 import org.sirix.xquery.node.DBNode;
+import org.sirix.xquery.stream.DocumentOrderStream;
 import org.sirix.xquery.stream.SirixStream;
 import org.sirix.xquery.stream.TemporalSirixStream;
 
@@ -830,6 +832,16 @@ public final class SirixTranslator extends TopDownTranslator {
 						// new ElementFilter(rtx), new NameFilter(rtx,
 						// test.getQName()
 						// .toString())), dbNode.getCollection());
+					} else if (dbNode.getKind() == Kind.DOCUMENT
+							&& rtx.getSession().getResourceConfig().mBloomFilters) {
+						// Matches on different levels of the whole document: scan the
+						// record pages instead, skipping pages which can't contain the
+						// name. The scan delivers the nodes in node key order, which
+						// differs from document order once nodes have been inserted.
+						reader.close();
+						return new DocumentOrderStream(new SirixStream(new FilterAxis(
+								new PageScanAxis(rtx, test.getQName()), new ElementFilter(
+										rtx)), dbNode.getCollection()));
 					} else {
 						// Matches on different levels.
 						// TODO: Use ConcurrentUnionAxis.
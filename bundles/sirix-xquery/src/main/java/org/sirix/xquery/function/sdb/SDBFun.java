@@ -3,13 +3,20 @@ package org.sirix.xquery.function.sdb;
 import static org.sirix.xquery.function.sdb.datamining.GetChildCount.GET_CHILD_COUNT;
 import static org.sirix.xquery.function.sdb.datamining.GetDescendantCount.GET_DESCENDANT_COUNT;
 import static org.sirix.xquery.function.sdb.datamining.GetHash.HASH;
+import static org.sirix.xquery.function.sdb.datamining.GetModificationCount.GET_MODIFICATION_COUNT;
 import static org.sirix.xquery.function.sdb.index.FindCASIndex.FIND_CAS_INDEX;
 import static org.sirix.xquery.function.sdb.index.FindNameIndex.FIND_NAME_INDEX;
 import static org.sirix.xquery.function.sdb.index.FindPathIndex.FIND_PATH_INDEX;
+import static org.sirix.xquery.function.sdb.index.aggregate.IndexCount.INDEX_COUNT;
+import static org.sirix.xquery.function.sdb.index.aggregate.IndexCovers.INDEX_COVERS;
+import static org.sirix.xquery.function.sdb.index.aggregate.IndexDistinctValues.INDEX_DISTINCT_VALUES;
+import static org.sirix.xquery.function.sdb.index.aggregate.IndexExists.INDEX_EXISTS;
 import static org.sirix.xquery.function.sdb.index.create.CreateCASIndex.CREATE_CAS_INDEX;
 import static org.sirix.xquery.function.sdb.index.create.CreateNameIndex.CREATE_NAME_INDEX;
 import static org.sirix.xquery.function.sdb.index.create.CreatePathIndex.CREATE_PATH_INDEX;
+import static org.sirix.xquery.function.sdb.io.CollectionPath.COLLECTION_PATH;
 import static org.sirix.xquery.function.sdb.io.Doc.DOC;
+import static org.sirix.xquery.function.sdb.join.JoinProbe.JOIN_PROBE;
 import static org.sirix.xquery.function.sdb.io.Load.LOAD;
 import static org.sirix.xquery.function.sdb.io.Store.STORE;
 import static org.sirix.xquery.function.sdb.trx.Commit.COMMIT;
@@ -23,15 +30,21 @@ import org.brackit.xquery.atomic.QNm;
 import org.brackit.xquery.module.Functions;
 import org.brackit.xquery.module.Namespaces;
 import org.brackit.xquery.xdm.Signature;
+import org.brackit.xquery.xdm.type.AnyNodeType;
 import org.brackit.xquery.xdm.type.AtomicType;
 import org.brackit.xquery.xdm.type.Cardinality;
 import org.brackit.xquery.xdm.type.SequenceType;
 import org.sirix.xquery.function.sdb.datamining.GetChildCount;
 import org.sirix.xquery.function.sdb.datamining.GetDescendantCount;
 import org.sirix.xquery.function.sdb.datamining.GetHash;
+import org.sirix.xquery.function.sdb.datamining.GetModificationCount;
 import org.sirix.xquery.function.sdb.index.FindCASIndex;
 import org.sirix.xquery.function.sdb.index.FindNameIndex;
 import org.sirix.xquery.function.sdb.index.FindPathIndex;
+import org.sirix.xquery.function.sdb.index.aggregate.IndexCount;
+import org.sirix.xquery.function.sdb.index.aggregate.IndexCovers;
+import org.sirix.xquery.function.sdb.index.aggregate.IndexDistinctValues;
+import org.sirix.xquery.function.sdb.index.aggregate.IndexExists;
 import org.sirix.xquery.function.sdb.index.create.CreateCASIndex;
 import org.sirix.xquery.function.sdb.index.create.CreateNameIndex;
 import org.sirix.xquery.function.sdb.index.create.CreatePathIndex;
@@ -39,9 +52,11 @@ import org.sirix.xquery.function.sdb.index.scan.ScanCASIndex;
 import org.sirix.xquery.function.sdb.index.scan.ScanCASIndexRange;
 import org.sirix.xquery.function.sdb.index.scan.ScanNameIndex;
 import org.sirix.xquery.function.sdb.index.scan.ScanPathIndex;
+import org.sirix.xquery.function.sdb.io.CollectionPath;
 import org.sirix.xquery.function.sdb.io.Doc;
 import org.sirix.xquery.function.sdb.io.Load;
 import org.sirix.xquery.function.sdb.io.Store;
+import org.sirix.xquery.function.sdb.join.JoinProbe;
 import org.sirix.xquery.function.sdb.trx.Commit;
 import org.sirix.xquery.function.sdb.trx.GetMostRecentRevision;
 import org.sirix.xquery.function.sdb.trx.GetNamespaceCount;
@@ -89,6 +104,11 @@ public final class SDBFun {
 		Functions.predefine(new GetHash(HASH, new Signature(SequenceType.STRING,
 				SequenceType.NODE)));
 
+		// get number of modifications in the subtree since an older revision
+		Functions.predefine(new GetModificationCount(GET_MODIFICATION_COUNT,
+				new Signature(SequenceType.INTEGER, SequenceType.NODE,
+						new SequenceType(AtomicType.INT, Cardinality.One))));
+
 		// store
 		Functions.predefine(new Store(false));
 		Functions.predefine(new Store(true));
@@ -110,6 +130,11 @@ public final class SDBFun {
 				new SequenceType(AtomicType.STR, Cardinality.One), new SequenceType(
 						AtomicType.STR, Cardinality.One))));
 
+		// collection-path
+		Functions.predefine(new CollectionPath(COLLECTION_PATH, new Signature(
+				new SequenceType(AnyNodeType.ANY_NODE, Cardinality.ZeroOrMany),
+				SequenceType.STRING, SequenceType.STRING)));
+
 		// commit
 		Functions.predefine(new Commit(COMMIT, new Signature(SequenceType.INTEGER,
 				SequenceType.NODE)));
@@ -178,5 +203,42 @@ public final class SDBFun {
 		Functions.predefine(new ScanCASIndex());
 		Functions.predefine(new ScanCASIndexRange());
 		Functions.predefine(new ScanNameIndex());
+
+		// index-only aggregates
+		Functions.predefine(new IndexCovers(INDEX_COVERS, new Signature(
+				new SequenceType(AtomicType.BOOL, Cardinality.One), SequenceType.NODE,
+				SequenceType.STRING, SequenceType.STRING)));
+		Functions.predefine(new IndexCovers(INDEX_COVERS, new Signature(
+				new SequenceType(AtomicType.BOOL, Cardinality.One), SequenceType.NODE,
+				SequenceType.STRING, SequenceType.STRING, new SequenceType(
+						AtomicType.ANA, Cardinality.One))));
+		Functions.predefine(new IndexCount(INDEX_COUNT, new Signature(
+				SequenceType.INTEGER, SequenceType.NODE, SequenceType.STRING)));
+		Functions.predefine(new IndexCount(INDEX_COUNT, new Signature(
+				SequenceType.INTEGER, SequenceType.NODE, SequenceType.STRING,
+				new SequenceType(AtomicType.ANA, Cardinality.One))));
+		Functions.predefine(new IndexExists(INDEX_EXISTS, new Signature(
+				new SequenceType(AtomicType.BOOL, Cardinality.One), SequenceType.NODE,
+				SequenceType.STRING)));
+		Functions.predefine(new IndexExists(INDEX_EXISTS, new Signature(
+				new SequenceType(AtomicType.BOOL, Cardinality.One), SequenceType.NODE,
+				SequenceType.STRING, new SequenceType(AtomicType.ANA, Cardinality.One))));
+		Functions.predefine(new IndexDistinctValues(INDEX_DISTINCT_VALUES,
+				new Signature(new SequenceType(AtomicType.UNA, Cardinality.ZeroOrMany),
+						SequenceType.NODE, SequenceType.STRING)));
+
+		// join-probe
+		Functions.predefine(new JoinProbe(JOIN_PROBE, new Signature(
+				new SequenceType(AnyNodeType.ANY_NODE, Cardinality.ZeroOrMany),
+				new SequenceType(AnyNodeType.ANY_NODE, Cardinality.ZeroOrMany),
+				SequenceType.STRING, new SequenceType(AtomicType.ANA,
+						Cardinality.ZeroOrMany), new SequenceType(AtomicType.INR,
+						Cardinality.One))));
+		Functions.predefine(new JoinProbe(JOIN_PROBE, new Signature(
+				new SequenceType(AnyNodeType.ANY_NODE, Cardinality.ZeroOrMany),
+				new SequenceType(AnyNodeType.ANY_NODE, Cardinality.ZeroOrMany),
+				SequenceType.STRING, new SequenceType(AtomicType.ANA,
+						Cardinality.ZeroOrMany), new SequenceType(AtomicType.INR,
+						Cardinality.One), SequenceType.STRING)));
 	}
 }
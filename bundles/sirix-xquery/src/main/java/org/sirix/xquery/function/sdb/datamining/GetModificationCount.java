@@ -0,0 +1,76 @@
+package org.sirix.xquery.function.sdb.datamining;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.atomic.Int64;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.function.AbstractFunction;
+import org.brackit.xquery.module.StaticContext;
+import org.brackit.xquery.xdm.Sequence;
+import org.brackit.xquery.xdm.Signature;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.diff.ChangeStatistics;
+import org.sirix.exception.SirixException;
+import org.sirix.xquery.function.FunUtil;
+import org.sirix.xquery.function.sdb.SDBFun;
+import org.sirix.xquery.node.DBNode;
+
+/**
+ * <p>
+ * Function for retrieving the number of modified nodes in the subtree of the
+ * current node between an older revision and the revision of the node. The
+ * counts are computed once per pair of revisions and stored with the
+ * resource. Supported signature is:
+ * </p>
+ * <ul>
+ * <li>
+ * <code>sdb:get-modification-count($node as xs:node, $old-revision as xs:int) as xs:integer</code>
+ * </li>
+ * </ul>
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class GetModificationCount extends AbstractFunction {
+
+	/** Get number of modifications function name. */
+	public final static QNm GET_MODIFICATION_COUNT = new QNm(SDBFun.SDB_NSURI,
+			SDBFun.SDB_PREFIX, "get-modification-count");
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name
+	 *          the name of the function
+	 * @param signature
+	 *          the signature of the function
+	 */
+	public GetModificationCount(QNm name, Signature signature) {
+		super(name, signature, true);
+	}
+
+	@Override
+	public Sequence execute(StaticContext sctx, QueryContext ctx, Sequence[] args)
+			throws QueryException {
+		final DBNode node = ((DBNode) args[0]);
+		final NodeReadTrx rtx = node.getTrx();
+		final int newRevision = rtx.getRevisionNumber();
+		final int oldRevision = FunUtil.getInt(args, 1, "$old-revision", -1,
+				null, true);
+
+		if (oldRevision < 0 || oldRevision > newRevision) {
+			throw new QueryException(SDBFun.ERR_INVALID_ARGUMENT,
+					"Invalid revision %s. Expected a revision between 0 and %s.",
+					oldRevision, newRevision);
+		}
+
+		try {
+			return new Int64(ChangeStatistics.getInstance(rtx.getSession(),
+					oldRevision, newRevision).getModificationCount(
+					node.getUnderlyingNode().getNodeKey()));
+		} catch (final SirixException e) {
+			throw new QueryException(new QNm(
+					"Modifications couldn't be computed: " + e.getMessage()), e);
+		}
+	}
+}
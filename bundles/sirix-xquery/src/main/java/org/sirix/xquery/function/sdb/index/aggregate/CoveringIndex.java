@@ -0,0 +1,228 @@
+package org.sirix.xquery.function.sdb.index.aggregate;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.atomic.Atomic;
+import org.brackit.xquery.atomic.Numeric;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.atomic.Str;
+import org.brackit.xquery.atomic.Una;
+import org.brackit.xquery.util.path.Path;
+import org.brackit.xquery.util.path.PathException;
+import org.brackit.xquery.xdm.Type;
+import org.sirix.access.IndexController;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.index.IndexDef;
+import org.sirix.index.avltree.AVLNode;
+import org.sirix.index.avltree.keyvalue.CASValue;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+import org.sirix.index.path.summary.PathSummaryReader;
+import org.sirix.xquery.function.sdb.SDBFun;
+import org.sirix.xquery.node.DBNode;
+
+import com.google.common.base.Optional;
+
+/**
+ * An index, which covers all nodes of a path (and optionally only the nodes
+ * with a specific value), such that aggregates of the nodes are computed from
+ * the index entries alone.
+ * 
+ * <p>
+ * CAS indexes only cover paths, which end in an attribute, as every attribute
+ * has exactly one value (in contrast to the text nodes of an element). A value
+ * has to be a string or untyped, which is looked up in a CAS index of strings,
+ * or numeric, which is looked up in a CAS index of doubles. Without a value, a
+ * path index covers the nodes as well.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+final class CoveringIndex {
+
+	/** The transaction of the document. */
+	private final NodeReadTrx mRtx;
+
+	/** The index controller of the revision. */
+	private final IndexController mController;
+
+	/** The index definition. */
+	private final IndexDef mIndexDef;
+
+	/** The path class records of the path. */
+	private final Set<Long> mPCRs;
+
+	/** The path. */
+	private final String mPath;
+
+	/** The value or {@code null}. */
+	private final Atomic mKey;
+
+	private CoveringIndex(final NodeReadTrx rtx, final IndexController controller,
+			final IndexDef indexDef, final Set<Long> pcrs, final String path,
+			final @Nullable Atomic key) {
+		mRtx = rtx;
+		mController = controller;
+		mIndexDef = indexDef;
+		mPCRs = pcrs;
+		mPath = path;
+		mKey = key;
+	}
+
+	/**
+	 * Find an index, which covers the nodes of a path.
+	 * 
+	 * @param doc
+	 *          the document
+	 * @param path
+	 *          the path, for instance {@code //item/@price}
+	 * @param key
+	 *          the value of the nodes or {@code null} for all nodes
+	 * @param values
+	 *          determines if the values of the nodes are needed, that is only a
+	 *          CAS index of strings covers the nodes
+	 * @return the index, or an absent reference if no index covers the nodes
+	 * @throws QueryException
+	 *           if the path is invalid or the path summary can't be read
+	 */
+	static Optional<CoveringIndex> find(final DBNode doc, final String path,
+			final @Nullable Atomic key, final boolean values)
+			throws QueryException {
+		final NodeReadTrx rtx = doc.getTrx();
+		final IndexController controller = rtx.getSession().getRtxIndexController(
+				rtx.getRevisionNumber());
+		if (controller == null) {
+			return Optional.absent();
+		}
+
+		final boolean attribute = path.substring(path.lastIndexOf('/') + 1)
+				.startsWith("@");
+		final Type type = key == null ? Type.STR : contentType(key);
+		if (type == null || (values && key != null)) {
+			return Optional.absent();
+		}
+
+		try {
+			final PathSummaryReader reader = rtx.getSession().openPathSummary(
+					rtx.getRevisionNumber());
+			try {
+				final Set<Long> pcrs = reader.getPCRsForPath(Path.parse(path));
+				for (final IndexDef indexDef : controller.getIndexes().getIndexDefs()) {
+					final boolean matches = indexDef.isCasIndex() ? attribute
+							&& type.equals(indexDef.getContentType()) : indexDef
+							.isPathIndex() && key == null && !values;
+					if (matches
+							&& (indexDef.getPaths().isEmpty() || reader.getPCRsForPaths(
+									indexDef.getPaths()).containsAll(pcrs))) {
+						return Optional.of(new CoveringIndex(rtx, controller, indexDef,
+								pcrs, path, key));
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (final SirixException | PathException e) {
+			throw new QueryException(new QNm(e.getMessage()), e);
+		}
+		return Optional.absent();
+	}
+
+	/**
+	 * Find an index, which covers the nodes of a path, or fail.
+	 * 
+	 * @see #find(DBNode, String, Atomic, boolean)
+	 * @throws QueryException
+	 *           if no index covers the nodes
+	 */
+	static CoveringIndex get(final DBNode doc, final String path,
+			final @Nullable Atomic key, final boolean values)
+			throws QueryException {
+		final Optional<CoveringIndex> index = find(doc, path, key, values);
+		if (!index.isPresent()) {
+			throw new QueryException(SDBFun.ERR_INDEX_NOT_FOUND,
+					"No index of document %s covers %s.", doc.getTrx().getSession()
+							.getResourceConfig().getResource().getName(), path);
+		}
+		return index.get();
+	}
+
+	/** Get the content type of a CAS index, which can be probed with the key. */
+	private static Type contentType(final @Nullable Atomic key) {
+		if (key instanceof Str || key instanceof Una) {
+			return Type.STR;
+		}
+		if (key instanceof Numeric) {
+			return Type.DBL;
+		}
+		return null;
+	}
+
+	/**
+	 * Get the references of the nodes.
+	 * 
+	 * @return the references of the matching index entries
+	 * @throws QueryException
+	 *           if the index can't be opened
+	 */
+	Iterator<NodeReferences> references() throws QueryException {
+		if (mIndexDef.isPathIndex()) {
+			try {
+				return mController.openPathIndex(mRtx.getPageTrx(), mIndexDef,
+						mController.createPathFilter(new String[] { mPath }, mRtx));
+			} catch (final PathException e) {
+				throw new QueryException(new QNm(e.getMessage()), e);
+			}
+		}
+		final Iterator<AVLNode<CASValue, NodeReferences>> entries = entries();
+		return new Iterator<NodeReferences>() {
+			@Override
+			public boolean hasNext() {
+				return entries.hasNext();
+			}
+
+			@Override
+			public NodeReferences next() {
+				return entries.next().getValue();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Get the entries of a CAS index.
+	 * 
+	 * @return the entries
+	 */
+	Iterator<AVLNode<CASValue, NodeReferences>> entries() {
+		return mController.openCASIndexEntries(mRtx.getPageTrx(), mIndexDef,
+				mPCRs, mKey);
+	}
+
+	/**
+	 * Count the nodes by the sizes of the references, without decoding the node
+	 * keys.
+	 * 
+	 * @param limit
+	 *          stop counting, as soon as this many nodes are found
+	 * @return the number of nodes, at most the limit
+	 * @throws QueryException
+	 *           if the index can't be opened
+	 */
+	long count(final long limit) throws QueryException {
+		long count = 0;
+		for (final Iterator<NodeReferences> it = references(); it.hasNext()
+				&& count < limit;) {
+			count += it.next().size();
+		}
+		return Math.min(count, limit);
+	}
+}
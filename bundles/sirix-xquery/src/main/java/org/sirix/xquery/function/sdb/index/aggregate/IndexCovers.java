@@ -0,0 +1,75 @@
+package org.sirix.xquery.function.sdb.index.aggregate;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.atomic.Atomic;
+import org.brackit.xquery.atomic.Bool;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.function.AbstractFunction;
+import org.brackit.xquery.module.StaticContext;
+import org.brackit.xquery.xdm.Sequence;
+import org.brackit.xquery.xdm.Signature;
+import org.sirix.xquery.function.FunUtil;
+import org.sirix.xquery.function.sdb.SDBFun;
+import org.sirix.xquery.node.DBNode;
+
+/**
+ * <p>
+ * Function for determining if an index covers the nodes of a path (with a
+ * value), such that the aggregate {@code $aggregate} (one of {@code count},
+ * {@code exists} and {@code distinct-values}) can be computed from the index
+ * alone by {@link IndexCount}, {@link IndexExists} or
+ * {@link IndexDistinctValues}. The optimizer guards the index-only evaluation
+ * of an aggregate with this function and falls back to the original
+ * expression otherwise.
+ * </p>
+ * 
+ * <p>
+ * Supported signatures are:
+ * </p>
+ * <ul>
+ * <li>
+ * <code>sdb:index-covers($doc as node(), $aggregate as xs:string, $path as xs:string) as xs:boolean</code>
+ * </li>
+ * <li>
+ * <code>sdb:index-covers($doc as node(), $aggregate as xs:string, $path as xs:string, $key as xs:anyAtomicType) as xs:boolean</code>
+ * </li>
+ * </ul>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class IndexCovers extends AbstractFunction {
+
+	/** Index covers function name. */
+	public final static QNm INDEX_COVERS = new QNm(SDBFun.SDB_NSURI,
+			SDBFun.SDB_PREFIX, "index-covers");
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param name
+	 *          the name of the function
+	 * @param signature
+	 *          the signature of the function
+	 */
+	public IndexCovers(final QNm name, final Signature signature) {
+		super(name, signature, true);
+	}
+
+	@Override
+	public Sequence execute(final StaticContext sctx, final QueryContext ctx,
+			final Sequence[] args) throws QueryException {
+		if (!(args[0] instanceof DBNode)) {
+			return Bool.FALSE;
+		}
+		final DBNode doc = (DBNode) args[0];
+		final String aggregate = FunUtil.getString(args, 1, "$aggregate", null,
+				null, true);
+		final String path = FunUtil.getString(args, 2, "$path", null, null, true);
+		final Atomic key = args.length > 3 ? (Atomic) args[3] : null;
+		return CoveringIndex.find(doc, path, key,
+				"distinct-values".equals(aggregate)).isPresent() ? Bool.TRUE
+				: Bool.FALSE;
+	}
+}
@@ -0,0 +1,108 @@
+package org.sirix.xquery.function.sdb.index.aggregate;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.atomic.Una;
+import org.brackit.xquery.function.AbstractFunction;
+import org.brackit.xquery.module.StaticContext;
+import org.brackit.xquery.sequence.BaseIter;
+import org.brackit.xquery.sequence.LazySequence;
+import org.brackit.xquery.xdm.Item;
+import org.brackit.xquery.xdm.Iter;
+import org.brackit.xquery.xdm.Sequence;
+import org.brackit.xquery.xdm.Signature;
+import org.sirix.index.avltree.AVLNode;
+import org.sirix.index.avltree.keyvalue.CASValue;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+import org.sirix.xquery.function.FunUtil;
+import org.sirix.xquery.function.sdb.SDBFun;
+import org.sirix.xquery.node.DBNode;
+
+/**
+ * <p>
+ * Function for the distinct values of the attributes of a path, which are
+ * taken from the keys of a covering CAS index of strings, without looking up
+ * the attributes. Calls are introduced by the optimizer for
+ * <code>fn:distinct-values(doc(...)//item/@category)</code>. Fails, if no index
+ * covers the attributes (see {@link IndexCovers}).
+ * </p>
+ * 
+ * <p>
+ * Supported signatures are:
+ * </p>
+ * <ul>
+ * <li>
+ * <code>sdb:index-distinct-values($doc as node(), $path as xs:string) as xs:untypedAtomic*</code>
+ * </li>
+ * </ul>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class IndexDistinctValues extends AbstractFunction {
+
+	/** Index distinct values function name. */
+	public final static QNm INDEX_DISTINCT_VALUES = new QNm(SDBFun.SDB_NSURI,
+			SDBFun.SDB_PREFIX, "index-distinct-values");
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param name
+	 *          the name of the function
+	 * @param signature
+	 *          the signature of the function
+	 */
+	public IndexDistinctValues(final QNm name, final Signature signature) {
+		super(name, signature, true);
+	}
+
+	@Override
+	public Sequence execute(final StaticContext sctx, final QueryContext ctx,
+			final Sequence[] args) throws QueryException {
+		final DBNode doc = (DBNode) args[0];
+		final String path = FunUtil.getString(args, 1, "$path", null, null, true);
+		final CoveringIndex index = CoveringIndex.get(doc, path, null, true);
+
+		return new LazySequence() {
+			@Override
+			public Iter iterate() {
+				return new BaseIter() {
+					Iterator<AVLNode<CASValue, NodeReferences>> mEntries;
+
+					/** Values of the entries of all path class records. */
+					final Set<String> mValues = new HashSet<>();
+
+					@Override
+					public Item next() throws QueryException {
+						if (mEntries == null) {
+							mEntries = index.entries();
+						}
+						while (mEntries.hasNext()) {
+							final AVLNode<CASValue, NodeReferences> entry = mEntries.next();
+							// Entries of deleted attributes might be empty.
+							if (entry.getValue().size() == 0) {
+								continue;
+							}
+							final String value = entry.getKey().getAtomicValue()
+									.stringValue();
+							if (mValues.add(value)) {
+								return new Una(value);
+							}
+						}
+						return null;
+					}
+
+					@Override
+					public void close() {
+					}
+				};
+			}
+		};
+	}
+}
@@ -0,0 +1,66 @@
+package org.sirix.xquery.function.sdb.index.aggregate;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.atomic.Atomic;
+import org.brackit.xquery.atomic.Bool;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.function.AbstractFunction;
+import org.brackit.xquery.module.StaticContext;
+import org.brackit.xquery.xdm.Sequence;
+import org.brackit.xquery.xdm.Signature;
+import org.sirix.xquery.function.FunUtil;
+import org.sirix.xquery.function.sdb.SDBFun;
+import org.sirix.xquery.node.DBNode;
+
+/**
+ * <p>
+ * Function for determining if a path (with a value) has nodes by the entries of
+ * a covering index, without looking up the nodes. Calls are introduced by the
+ * optimizer for <code>fn:exists(doc(...)//item[@price = 10])</code>. Fails, if
+ * no index covers the nodes (see {@link IndexCovers}).
+ * </p>
+ * 
+ * <p>
+ * Supported signatures are:
+ * </p>
+ * <ul>
+ * <li>
+ * <code>sdb:index-exists($doc as node(), $path as xs:string) as xs:boolean</code>
+ * </li>
+ * <li>
+ * <code>sdb:index-exists($doc as node(), $path as xs:string, $key as xs:anyAtomicType) as xs:boolean</code>
+ * </li>
+ * </ul>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class IndexExists extends AbstractFunction {
+
+	/** Index exists function name. */
+	public final static QNm INDEX_EXISTS = new QNm(SDBFun.SDB_NSURI,
+			SDBFun.SDB_PREFIX, "index-exists");
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param name
+	 *          the name of the function
+	 * @param signature
+	 *          the signature of the function
+	 */
+	public IndexExists(final QNm name, final Signature signature) {
+		super(name, signature, true);
+	}
+
+	@Override
+	public Sequence execute(final StaticContext sctx, final QueryContext ctx,
+			final Sequence[] args) throws QueryException {
+		final DBNode doc = (DBNode) args[0];
+		final String path = FunUtil.getString(args, 1, "$path", null, null, true);
+		final Atomic key = args.length > 2 ? (Atomic) args[2] : null;
+		return CoveringIndex.get(doc, path, key, false).count(1) > 0 ? Bool.TRUE
+				: Bool.FALSE;
+	}
+}
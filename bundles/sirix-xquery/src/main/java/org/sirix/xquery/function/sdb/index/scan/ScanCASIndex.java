@@ -35,6 +35,12 @@ import org.sirix.xquery.stream.SirixNodeKeyStream;
 /**
  * Scan the CAS-index for matching nodes.
  * 
+ * <p>
+ * The nodes are returned in node key order, which isn't document order once
+ * nodes have been inserted by updates. Callers needing document order have to
+ * sort them.
+ * </p>
+ * 
  * @author Sebastian Baechle
  * @author Johannes Lichtenberger
  * 
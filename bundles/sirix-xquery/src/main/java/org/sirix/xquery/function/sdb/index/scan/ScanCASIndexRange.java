@@ -35,6 +35,12 @@ import org.sirix.xquery.stream.SirixNodeKeyStream;
 /**
  * Function for scanning for an index range in a CAS index.
  * 
+ * <p>
+ * The nodes are returned in node key order, which isn't document order once
+ * nodes have been inserted by updates. Callers needing document order have to
+ * sort them.
+ * </p>
+ * 
  * @author Sebastian Baechle
  * @author Johannes Lichtenberger
  */
@@ -31,6 +31,12 @@ import org.sirix.xquery.stream.SirixNodeKeyStream;
 /**
  * Scan the name index.
  * 
+ * <p>
+ * The nodes are returned in node key order, which isn't document order once
+ * nodes have been inserted by updates. Callers needing document order have to
+ * sort them.
+ * </p>
+ * 
  * @author Sebastian Baechle
  * @author Johannes Lichtenberger
  */
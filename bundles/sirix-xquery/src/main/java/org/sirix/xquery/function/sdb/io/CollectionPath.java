@@ -0,0 +1,194 @@
+package org.sirix.xquery.function.sdb.io;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.function.AbstractFunction;
+import org.brackit.xquery.module.StaticContext;
+import org.brackit.xquery.sequence.BaseIter;
+import org.brackit.xquery.sequence.LazySequence;
+import org.brackit.xquery.util.path.Path;
+import org.brackit.xquery.util.path.PathException;
+import org.brackit.xquery.xdm.DocumentException;
+import org.brackit.xquery.xdm.Item;
+import org.brackit.xquery.xdm.Iter;
+import org.brackit.xquery.xdm.Sequence;
+import org.brackit.xquery.xdm.Signature;
+import org.brackit.xquery.xdm.Stream;
+import org.sirix.api.Axis;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.axis.DescendantAxis;
+import org.sirix.exception.SirixException;
+import org.sirix.index.path.summary.PathSummaryReader;
+import org.sirix.node.Kind;
+import org.sirix.xquery.function.FunUtil;
+import org.sirix.xquery.function.sdb.SDBFun;
+import org.sirix.xquery.node.DBCollection;
+import org.sirix.xquery.node.DBNode;
+import org.sirix.xquery.stream.ParallelDocumentStream.DocumentFunction;
+
+/**
+ * <p>
+ * Function for evaluating a plain path on all documents of a collection. The
+ * documents are opened and the path is evaluated on them concurrently by the
+ * threads of the collection, whereas the nodes are returned in collection
+ * order and, per document, in document order. Calls are introduced by the
+ * optimizer for <code>fn:collection('coll')//item</code>.
+ * </p>
+ *
+ * <p>
+ * Supported signatures are:
+ * </p>
+ * <ul>
+ * <li>
+ * <code>sdb:collection-path($coll as xs:string, $path as xs:string) as node()*</code>
+ * </li>
+ * </ul>
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class CollectionPath extends AbstractFunction {
+
+	/** Collection path function name. */
+	public final static QNm COLLECTION_PATH = new QNm(SDBFun.SDB_NSURI,
+			SDBFun.SDB_PREFIX, "collection-path");
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name
+	 *          the name of the function
+	 * @param signature
+	 *          the signature of the function
+	 */
+	public CollectionPath(final QNm name, final Signature signature) {
+		super(name, signature, true);
+	}
+
+	@Override
+	public Sequence execute(final StaticContext sctx, final QueryContext ctx,
+			final Sequence[] args) throws QueryException {
+		final String name = FunUtil.getString(args, 0, "$coll", null, null, true);
+		final DBCollection col = (DBCollection) ctx.getStore().lookup(name);
+		if (col == null) {
+			throw new QueryException(new QNm("No valid arguments specified!"));
+		}
+		final Path<QNm> path;
+		try {
+			path = Path.parse(FunUtil.getString(args, 1, "$path", null, null, true));
+		} catch (final PathException e) {
+			throw new QueryException(new QNm(e.getMessage()), e);
+		}
+
+		return new LazySequence() {
+			@Override
+			public Iter iterate() {
+				return new BaseIter() {
+					Stream<DBNode> mNodes;
+
+					@Override
+					public Item next() throws QueryException {
+						if (mNodes == null) {
+							mNodes = col.getDocuments(new PathFunction(path));
+						}
+						return mNodes.next();
+					}
+
+					@Override
+					public void close() {
+						if (mNodes != null) {
+							mNodes.close();
+						}
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Evaluates a plain path on a document in document order. The path class
+	 * records of the path summary are used if the resource has one, otherwise
+	 * the path of each node is matched.
+	 */
+	private static final class PathFunction implements DocumentFunction<DBNode> {
+		/** The path. */
+		private final Path<QNm> mPath;
+
+		PathFunction(final Path<QNm> path) {
+			mPath = path;
+		}
+
+		@Override
+		public List<DBNode> apply(final DBNode document) throws DocumentException {
+			final NodeReadTrx rtx = document.getTrx();
+			final List<DBNode> nodes = new ArrayList<>();
+			Set<Long> pcrs = null;
+			try {
+				if (rtx.getSession().getResourceConfig().mPathSummary) {
+					try (final PathSummaryReader reader = rtx.getSession()
+							.openPathSummary(rtx.getRevisionNumber())) {
+						pcrs = reader.getPCRsForPath(mPath);
+					}
+					if (pcrs.isEmpty()) {
+						return nodes;
+					}
+				}
+			} catch (final SirixException | PathException e) {
+				throw new DocumentException(e);
+			}
+
+			rtx.moveToDocumentRoot();
+			for (final Axis axis = new DescendantAxis(rtx); axis.hasNext();) {
+				axis.next();
+				if (rtx.getKind() != Kind.ELEMENT) {
+					continue;
+				}
+				if (mPath.isAttribute()) {
+					for (int i = 0, count = rtx.getAttributeCount(); i < count; i++) {
+						rtx.moveToAttribute(i);
+						if (matches(rtx, pcrs)) {
+							nodes.add(new DBNode(rtx, document.getCollection()));
+						}
+						rtx.moveToParent();
+					}
+				} else if (matches(rtx, pcrs)) {
+					nodes.add(new DBNode(rtx, document.getCollection()));
+				}
+			}
+			return nodes;
+		}
+
+		/** Determines if the current node of the transaction is on the path. */
+		private boolean matches(final NodeReadTrx rtx, final Set<Long> pcrs) {
+			if (pcrs != null) {
+				return pcrs.contains(rtx.getPathNodeKey());
+			}
+			final long nodeKey = rtx.getNodeKey();
+			final Deque<QNm> names = new ArrayDeque<>();
+			final boolean attribute = rtx.getKind() == Kind.ATTRIBUTE;
+			do {
+				names.push(rtx.getName());
+			} while (rtx.moveToParent().hasMoved()
+					&& rtx.getKind() == Kind.ELEMENT);
+			rtx.moveTo(nodeKey);
+
+			final Path<QNm> path = new Path<>();
+			while (names.size() > 1) {
+				path.child(names.pop());
+			}
+			if (attribute) {
+				path.attribute(names.pop());
+			} else {
+				path.child(names.pop());
+			}
+			return mPath.matches(path);
+		}
+	}
+}
@@ -0,0 +1,537 @@
+package org.sirix.xquery.function.sdb.join;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.atomic.Atomic;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.atomic.Str;
+import org.brackit.xquery.atomic.Una;
+import org.brackit.xquery.function.AbstractFunction;
+import org.brackit.xquery.module.StaticContext;
+import org.brackit.xquery.sequence.BaseIter;
+import org.brackit.xquery.sequence.LazySequence;
+import org.brackit.xquery.util.Cfg;
+import org.brackit.xquery.util.path.Path;
+import org.brackit.xquery.util.path.PathException;
+import org.brackit.xquery.xdm.Item;
+import org.brackit.xquery.xdm.Iter;
+import org.brackit.xquery.xdm.Kind;
+import org.brackit.xquery.xdm.Node;
+import org.brackit.xquery.xdm.Sequence;
+import org.brackit.xquery.xdm.Signature;
+import org.brackit.xquery.xdm.Stream;
+import org.brackit.xquery.xdm.Type;
+import org.sirix.access.IndexController;
+import org.sirix.api.NodeReadTrx;
+import org.sirix.exception.SirixException;
+import org.sirix.index.IndexDef;
+import org.sirix.index.NodeKeyMergeIterator;
+import org.sirix.index.SearchMode;
+import org.sirix.index.avltree.keyvalue.NodeReferences;
+import org.sirix.index.cas.CASFilter;
+import org.sirix.index.path.summary.PathSummaryReader;
+import org.sirix.xquery.function.FunUtil;
+import org.sirix.xquery.function.sdb.SDBFun;
+import org.sirix.xquery.node.DBCollection;
+import org.sirix.xquery.node.DBNode;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * <p>
+ * Probes the inner input of a value join for the nodes, which match the join
+ * keys of the current outer tuple. Calls are introduced by the optimizer, which
+ * rewrites
+ * <code>for $a in ..., $b in $input where $keys = $b/$key-path</code> into
+ * <code>for $a in ..., $b in sdb:join-probe($input, $key-path, $keys, $id) where ...</code>
+ * , if {@code $input} is rooted at a call of doc(), collection() or
+ * sdb:collection-path() with literal arguments and doesn't depend on the outer
+ * tuple or the context otherwise. The selection is kept, thus the function
+ * returns the matching nodes in the order of the input, but doesn't have to
+ * decide typed comparisons on its own.
+ * </p>
+ * 
+ * <p>
+ * As the input thus evaluates to the same nodes every time the call site is
+ * evaluated during a query, a plan is chosen once for every call site (denoted
+ * by {@code $id}) and query:
+ * </p>
+ * <ul>
+ * <li>If the input is a plain path (given by {@code $input-path}), the key path
+ * ends in an attribute and a CAS index of strings covers the key path, the
+ * index is probed for every outer tuple, unless the path summary estimates the
+ * input to be small.</li>
+ * <li>Otherwise the input is hashed by its keys once, as long as it doesn't
+ * exceed {@link #MAX_HASH_SIZE} nodes.</li>
+ * <li>Otherwise the input is returned as is, which is the nested loop join.</li>
+ * </ul>
+ * 
+ * <p>
+ * Supported signatures are:
+ * </p>
+ * <ul>
+ * <li>
+ * <code>sdb:join-probe($input as node()*, $key-path as xs:string, $keys as xs:anyAtomicType*, $id as xs:integer) as node()*</code>
+ * </li>
+ * <li>
+ * <code>sdb:join-probe($input as node()*, $key-path as xs:string, $keys as xs:anyAtomicType*, $id as xs:integer, $input-path as xs:string) as node()*</code>
+ * </li>
+ * </ul>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class JoinProbe extends AbstractFunction {
+
+	/** Join probe function name. */
+	public final static QNm JOIN_PROBE = new QNm(SDBFun.SDB_NSURI,
+			SDBFun.SDB_PREFIX, "join-probe");
+
+	/** Inputs, which are estimated to have at most this many nodes are hashed. */
+	public static final int HASH_THRESHOLD = Cfg.asInt(
+			"org.sirix.xquery.join.hash.threshold", 1024);
+
+	/** Maximum number of nodes of a hashed input. */
+	public static final int MAX_HASH_SIZE = Cfg.asInt(
+			"org.sirix.xquery.join.hash.max", 1 << 20);
+
+	/** Plans of the call sites of all running queries. */
+	private static final Map<QueryContext, Map<Integer, Plan>> PLANS = new WeakHashMap<>();
+
+	/** Nested loop join, which simply returns the input. */
+	private static final Plan NESTED_LOOP = new Plan() {
+		@Override
+		public Sequence probe(final Sequence input, final Set<String> keys) {
+			return input;
+		}
+	};
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param name
+	 *          the name of the function
+	 * @param signature
+	 *          the signature of the function
+	 */
+	public JoinProbe(final QNm name, final Signature signature) {
+		super(name, signature, true);
+	}
+
+	@Override
+	public Sequence execute(final StaticContext sctx, final QueryContext ctx,
+			final Sequence[] args) throws QueryException {
+		final Sequence input = args[0];
+		if (input == null) {
+			return null;
+		}
+		final Set<String> keys = keys(args[2]);
+		if (keys == null) {
+			// Keys, which are not compared as strings.
+			return input;
+		}
+		if (keys.isEmpty()) {
+			return null;
+		}
+
+		final int id = FunUtil.getInt(args, 3, "$id", -1, null, true);
+		Plan plan;
+		synchronized (PLANS) {
+			final Map<Integer, Plan> plans = PLANS.get(ctx);
+			plan = plans == null ? null : plans.get(id);
+		}
+		if (plan == null) {
+			final String keyPath = FunUtil.getString(args, 1, "$key-path", null,
+					null, true);
+			final String inputPath = args.length > 4 ? FunUtil.getString(args, 4,
+					"$input-path", null, null, false) : null;
+			plan = plan(input, keyPath, inputPath);
+			synchronized (PLANS) {
+				Map<Integer, Plan> plans = PLANS.get(ctx);
+				if (plans == null) {
+					plans = new HashMap<>();
+					PLANS.put(ctx, plans);
+				}
+				plans.put(id, plan);
+			}
+		}
+		return plan.probe(input, keys);
+	}
+
+	/**
+	 * Get the join keys, if they all are compared as strings.
+	 * 
+	 * @param keys
+	 *          the join keys
+	 * @return the string values of the keys, or {@code null} if at least one key
+	 *         isn't a string or untyped
+	 * @throws QueryException
+	 *           if the keys can't be evaluated
+	 */
+	private static Set<String> keys(final Sequence keys) throws QueryException {
+		final Set<String> values = new HashSet<>();
+		if (keys == null) {
+			return values;
+		}
+		final Iter it = keys.iterate();
+		try {
+			for (Item item = it.next(); item != null; item = it.next()) {
+				if (!(item instanceof Str || item instanceof Una)) {
+					return null;
+				}
+				values.add(((Atomic) item).stringValue());
+			}
+		} finally {
+			it.close();
+		}
+		return values;
+	}
+
+	/**
+	 * Choose the plan of a call site.
+	 * 
+	 * @param input
+	 *          the inner input of the join
+	 * @param keyPath
+	 *          the relative path of the keys
+	 * @param inputPath
+	 *          the path of the input, if it is a plain path of a single
+	 *          document, {@code null} otherwise
+	 * @return the plan
+	 * @throws QueryException
+	 *           if the plan can't be built
+	 */
+	private static Plan plan(final Sequence input, final String keyPath,
+			final String inputPath) throws QueryException {
+		final KeyPath path = new KeyPath(keyPath);
+		if (inputPath != null && path.mAttribute) {
+			final Item first = first(input);
+			if (!(first instanceof DBNode)) {
+				return NESTED_LOOP;
+			}
+			final DBNode node = (DBNode) first;
+			final NodeReadTrx rtx = node.getTrx();
+			try {
+				final PathSummaryReader reader = rtx.getSession().openPathSummary(
+						rtx.getRevisionNumber());
+				try {
+					final long estimate = estimate(reader, Path.parse(inputPath));
+					if (estimate > HASH_THRESHOLD) {
+						final String indexedPath = inputPath + "/" + keyPath;
+						final Optional<IndexDef> indexDef = findIndex(rtx, reader,
+								Path.parse(indexedPath));
+						if (indexDef.isPresent()) {
+							return new IndexPlan(node, indexDef.get(), indexedPath,
+									path.mNames.length);
+						}
+					}
+					if (estimate > MAX_HASH_SIZE) {
+						return NESTED_LOOP;
+					}
+				} finally {
+					reader.close();
+				}
+			} catch (final SirixException | PathException e) {
+				throw new QueryException(new QNm(e.getMessage()), e);
+			}
+		}
+		return HashPlan.build(input, path);
+	}
+
+	/** Get the first item of a sequence. */
+	private static Item first(final Sequence sequence) throws QueryException {
+		final Iter it = sequence.iterate();
+		try {
+			return it.next();
+		} finally {
+			it.close();
+		}
+	}
+
+	/**
+	 * Estimate the number of nodes on a path by the references of the matching
+	 * nodes of the path summary.
+	 */
+	private static long estimate(final PathSummaryReader reader,
+			final Path<QNm> path) throws PathException {
+		long nodes = 0;
+		for (final long pcr : reader.getPCRsForPath(path)) {
+			if (reader.moveTo(pcr).hasMoved()) {
+				nodes += reader.getPathNode().getReferences();
+			}
+		}
+		return nodes;
+	}
+
+	/** Find a CAS index of strings, which covers the path. */
+	private static Optional<IndexDef> findIndex(final NodeReadTrx rtx,
+			final PathSummaryReader reader, final Path<QNm> path)
+			throws PathException {
+		final IndexController controller = rtx.getSession()
+				.getRtxIndexController(rtx.getRevisionNumber());
+		if (controller == null) {
+			return Optional.absent();
+		}
+		final Set<Long> pcrs = reader.getPCRsForPath(path);
+		for (final IndexDef indexDef : controller.getIndexes().getIndexDefs()) {
+			if (indexDef.isCasIndex()
+					&& Type.STR.equals(indexDef.getContentType())
+					&& (indexDef.getPaths().isEmpty() || reader.getPCRsForPaths(
+							indexDef.getPaths()).containsAll(pcrs))) {
+				return Optional.of(indexDef);
+			}
+		}
+		return Optional.absent();
+	}
+
+	/** The relative path of the join keys of a node. */
+	private static final class KeyPath {
+		/** Local names of the steps. */
+		private final QNm[] mNames;
+
+		/** Determines if the last step is an attribute step. */
+		private final boolean mAttribute;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param path
+		 *          child steps, optionally followed by an attribute step, for
+		 *          instance {@code ref/@id}
+		 */
+		KeyPath(final String path) {
+			final String[] steps = path.split("/");
+			mNames = new QNm[steps.length];
+			mAttribute = steps[steps.length - 1].startsWith("@");
+			for (int i = 0; i < steps.length; i++) {
+				mNames[i] = new QNm(steps[i].startsWith("@") ? steps[i].substring(1)
+						: steps[i]);
+			}
+		}
+
+		/** Add the string values of the keys of the node. */
+		void keys(final Node<?> node, final int step, final List<String> keys)
+				throws QueryException {
+			if (step == mNames.length) {
+				keys.add(node.getValue().stringValue());
+			} else if (mAttribute && step == mNames.length - 1) {
+				final Node<?> attribute = node.getAttribute(mNames[step]);
+				if (attribute != null) {
+					keys.add(attribute.getValue().stringValue());
+				}
+			} else {
+				final Stream<? extends Node<?>> children = node.getChildren();
+				try {
+					for (Node<?> child = children.next(); child != null; child = children
+							.next()) {
+						if (child.getKind() == Kind.ELEMENT
+								&& child.getName().atomicCmp(mNames[step]) == 0) {
+							keys(child, step + 1, keys);
+						}
+					}
+				} finally {
+					children.close();
+				}
+			}
+		}
+	}
+
+	/** Plan of a call site. */
+	private interface Plan {
+		/**
+		 * Get the nodes of the input matching at least one of the keys.
+		 * 
+		 * @param input
+		 *          the inner input of the join
+		 * @param keys
+		 *          the join keys of the outer tuple
+		 * @return the matching nodes in the order of the input
+		 * @throws QueryException
+		 *           if the input can't be probed
+		 */
+		Sequence probe(Sequence input, Set<String> keys) throws QueryException;
+	}
+
+	/** Hash join, which keeps the positions of the input nodes by key. */
+	private static final class HashPlan implements Plan {
+		/** Nodes of the input. */
+		private final List<Item> mItems;
+
+		/** Positions of the nodes in the input by key. */
+		private final ListMultimap<String, Integer> mPositions;
+
+		private HashPlan(final List<Item> items,
+				final ListMultimap<String, Integer> positions) {
+			mItems = items;
+			mPositions = positions;
+		}
+
+		/**
+		 * Hash the input.
+		 * 
+		 * @return the plan, or the nested loop, if the input isn't hashable
+		 */
+		static Plan build(final Sequence input, final KeyPath path)
+				throws QueryException {
+			final List<Item> items = new ArrayList<>();
+			final ListMultimap<String, Integer> positions = ArrayListMultimap
+					.create();
+			final List<String> keys = new ArrayList<>();
+			final Iter it = input.iterate();
+			try {
+				for (Item item = it.next(); item != null; item = it.next()) {
+					if (!(item instanceof Node) || items.size() == MAX_HASH_SIZE) {
+						return NESTED_LOOP;
+					}
+					keys.clear();
+					path.keys((Node<?>) item, 0, keys);
+					for (final String key : keys) {
+						positions.put(key, items.size());
+					}
+					items.add(item);
+				}
+			} finally {
+				it.close();
+			}
+			return new HashPlan(items, positions);
+		}
+
+		@Override
+		public Sequence probe(final Sequence input, final Set<String> keys) {
+			// Positions in ascending order without duplicates.
+			final BitSet matches = new BitSet(mItems.size());
+			for (final String key : keys) {
+				for (final int position : mPositions.get(key)) {
+					matches.set(position);
+				}
+			}
+			if (matches.isEmpty()) {
+				return null;
+			}
+			return new LazySequence() {
+				@Override
+				public Iter iterate() {
+					return new BaseIter() {
+						int mPosition = matches.nextSetBit(0);
+
+						@Override
+						public Item next() {
+							if (mPosition < 0) {
+								return null;
+							}
+							final Item item = mItems.get(mPosition);
+							mPosition = matches.nextSetBit(mPosition + 1);
+							return item;
+						}
+
+						@Override
+						public void close() {
+						}
+					};
+				}
+			};
+		}
+	}
+
+	/** Index nested loop join, which probes a CAS index per outer tuple. */
+	private static final class IndexPlan implements Plan {
+		/** Document order of nodes. */
+		private static final Comparator<DBNode> DOCUMENT_ORDER = new Comparator<DBNode>() {
+			@Override
+			public int compare(final DBNode first, final DBNode second) {
+				return first.cmp(second);
+			}
+		};
+
+		/** Transaction to read the index and the nodes. */
+		private final NodeReadTrx mRtx;
+
+		/** Collection of the document. */
+		private final DBCollection mCollection;
+
+		/** The CAS index. */
+		private final IndexDef mIndexDef;
+
+		/** The path of the keys, including the path of the input. */
+		private final String[] mPaths;
+
+		/** Number of steps from the key nodes up to the input nodes. */
+		private final int mSteps;
+
+		IndexPlan(final DBNode node, final IndexDef indexDef, final String path,
+				final int steps) {
+			mRtx = node.getTrx();
+			mCollection = node.getCollection();
+			mIndexDef = indexDef;
+			mPaths = new String[] { path };
+			mSteps = steps;
+		}
+
+		@Override
+		public Sequence probe(final Sequence input, final Set<String> keys)
+				throws QueryException {
+			final IndexController controller = mRtx.getSession()
+					.getRtxIndexController(mRtx.getRevisionNumber());
+			final Set<Long> nodeKeys = new HashSet<>();
+			final List<DBNode> nodes = new ArrayList<>();
+			try {
+				for (final String value : keys) {
+					final Str key = new Str(value);
+					final CASFilter filter = controller.createCASFilter(mPaths, mRtx,
+							key, SearchMode.EQUAL);
+					final Iterator<NodeReferences> references = controller.openCASIndex(
+							mRtx.getPageTrx(), mIndexDef, SearchMode.EQUAL, filter, key, true);
+					for (final NodeKeyMergeIterator it = new NodeKeyMergeIterator(
+							references); it.hasNext();) {
+						if (!mRtx.moveTo(it.nextNodeKey()).hasMoved()) {
+							continue;
+						}
+						for (int i = 0; i < mSteps; i++) {
+							mRtx.moveToParent();
+						}
+						if (nodeKeys.add(mRtx.getNodeKey())) {
+							nodes.add(new DBNode(mRtx, mCollection));
+						}
+					}
+				}
+			} catch (final PathException e) {
+				throw new QueryException(new QNm(e.getMessage()), e);
+			}
+			if (nodes.isEmpty()) {
+				return null;
+			}
+			Collections.sort(nodes, DOCUMENT_ORDER);
+			return new LazySequence() {
+				@Override
+				public Iter iterate() {
+					return new BaseIter() {
+						final Iterator<DBNode> mNodes = nodes.iterator();
+
+						@Override
+						public Item next() {
+							return mNodes.hasNext() ? mNodes.next() : null;
+						}
+
+						@Override
+						public void close() {
+						}
+					};
+				}
+			};
+		}
+	}
+}
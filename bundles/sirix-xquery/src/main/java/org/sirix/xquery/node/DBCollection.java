@@ -1,10 +1,17 @@
 package org.sirix.xquery.node;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nonnegative;
@@ -15,7 +22,6 @@ import org.brackit.xquery.node.parser.CollectionParser;
 import org.brackit.xquery.node.parser.SubtreeHandler;
 import org.brackit.xquery.node.parser.SubtreeListener;
 import org.brackit.xquery.node.parser.SubtreeParser;
-import org.brackit.xquery.node.stream.ArrayStream;
 import org.brackit.xquery.xdm.AbstractTemporalNode;
 import org.brackit.xquery.xdm.DocumentException;
 import org.brackit.xquery.xdm.OperationNotSupportedException;
@@ -34,8 +40,12 @@ import org.sirix.exception.SirixIOException;
 import org.sirix.service.xml.shredder.Insert;
 import org.sirix.utils.LogWrapper;
 import org.sirix.xquery.node.DBStore.Updating;
+import org.sirix.xquery.stream.ParallelDocumentStream;
+import org.sirix.xquery.stream.ParallelDocumentStream.DocumentFunction;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Database collection.
  * 
@@ -62,6 +72,19 @@ public final class DBCollection extends
 	/** Unique ID. */
 	private final int mID;
 
+	/** Number of threads used to process the documents. */
+	private final int mThreads;
+
+	/** Transactions opened for the documents, closed with the collection. */
+	private final Set<NodeReadTrx> mTrxs;
+
+	/**
+	 * Thread pool shared by the document streams, created on first use and shut
+	 * down with the collection. Idle threads terminate, such that collections,
+	 * which are never closed, don't keep any threads.
+	 */
+	private ExecutorService mPool;
+
 	/**
 	 * Constructor.
 	 * 
@@ -72,10 +95,29 @@ public final class DBCollection extends
 	 */
 	public DBCollection(final String name, final Database database,
 			final Updating updating) {
+		this(name, database, updating, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param name
+	 *          collection name
+	 * @param database
+	 *          Sirix {@link Database} reference
+	 * @param threads
+	 *          number of threads used to process the documents
+	 */
+	public DBCollection(final String name, final Database database,
+			final Updating updating, final @Nonnegative int threads) {
 		super(checkNotNull(name));
+		checkArgument(threads > 0, "threads must be > 0!");
 		mDatabase = checkNotNull(database);
 		mUpdating = checkNotNull(updating);
 		mID = ID_SEQUENCE.incrementAndGet();
+		mThreads = threads;
+		mTrxs = Collections
+				.newSetFromMap(new ConcurrentHashMap<NodeReadTrx, Boolean>());
 	}
 
 	/**
@@ -131,6 +173,7 @@ public final class DBCollection extends
 					.getMostRecentRevisionNumber() : revision;
 			final NodeReadTrx rtx = mUpdating == Updating.YES ? session
 					.beginNodeWriteTrx() : session.beginNodeReadTrx(version);
+			mTrxs.add(rtx);
 			if (mUpdating == Updating.YES
 					&& version < session.getMostRecentRevisionNumber()) {
 				((NodeWriteTrx) rtx).revertTo(version);
@@ -228,6 +271,16 @@ public final class DBCollection extends
 
 	@Override
 	public void close() throws SirixException {
+		for (final NodeReadTrx rtx : mTrxs) {
+			rtx.close();
+		}
+		mTrxs.clear();
+		synchronized (this) {
+			if (mPool != null) {
+				mPool.shutdown();
+				mPool = null;
+			}
+		}
 		mDatabase.close();
 	}
 
@@ -243,21 +296,42 @@ public final class DBCollection extends
 
 	@Override
 	public Stream<DBNode> getDocuments() throws DocumentException {
-		final String[] resources = mDatabase.listResources();
-		final List<DBNode> documents = new ArrayList<>(resources.length);
-		for (final String resource : resources) {
-			try {
-				final Session session = mDatabase.getSession(SessionConfiguration
-						.newBuilder(resource).build());
-				final NodeReadTrx rtx = mUpdating == Updating.YES ? session
-						.beginNodeWriteTrx() : session.beginNodeReadTrx();
-				documents.add(new DBNode(rtx, this));
-			} catch (final SirixException e) {
-				throw new DocumentException(e.getCause());
+		return getDocuments(new DocumentFunction<DBNode>() {
+			@Override
+			public List<DBNode> apply(final DBNode document) {
+				return Collections.singletonList(document);
 			}
+		});
+	}
+
+	/**
+	 * Evaluate a function on all documents of the collection. The documents are
+	 * opened and processed concurrently by the threads of the collection,
+	 * whereas the results are returned in collection order.
+	 * 
+	 * @param function
+	 *          the function to evaluate on each document
+	 * @return the results of all documents
+	 * @throws DocumentException
+	 *           if the documents can't be listed
+	 */
+	public <E> Stream<E> getDocuments(final DocumentFunction<E> function)
+			throws DocumentException {
+		return new ParallelDocumentStream<>(this, Arrays.asList(mDatabase
+				.listResources()), checkNotNull(function), getPool(), mThreads);
+	}
+
+	/** Get the thread pool of the collection. */
+	private synchronized ExecutorService getPool() {
+		if (mPool == null) {
+			final ThreadPoolExecutor pool = new ThreadPoolExecutor(mThreads,
+					mThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactoryBuilder().setDaemon(true)
+							.setNameFormat("collection-" + mID + "-%d").build());
+			pool.allowCoreThreadTimeOut(true);
+			mPool = pool;
 		}
-		return new ArrayStream<DBNode>(documents.toArray(new DBNode[documents
-				.size()]));
+		return mPool;
 	}
 
 	@Override
@@ -269,6 +343,7 @@ public final class DBCollection extends
 					.getMostRecentRevisionNumber() : revision;
 			final NodeReadTrx rtx = mUpdating == Updating.YES ? session
 					.beginNodeWriteTrx() : session.beginNodeReadTrx(version);
+			mTrxs.add(rtx);
 			if (mUpdating == Updating.YES
 					&& version < session.getMostRecentRevisionNumber()) {
 				((NodeWriteTrx) rtx).revertTo(version);
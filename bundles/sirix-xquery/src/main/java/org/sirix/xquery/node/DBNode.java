@@ -102,7 +102,7 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 		mIsWtx = mRtx instanceof NodeWriteTrx;
 		mNodeKey = mRtx.getNodeKey();
 		mKind = mRtx.getKind();
-		mDeweyID = mRtx.getNode().getDeweyID();
+		mDeweyID = mRtx.getDeweyID();
 	}
 
 	/**
@@ -124,14 +124,43 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 		return mRtx.getNode();
 	}
 
+	/**
+	 * Determines if the order and the structural relationships of this node and
+	 * the other node can be derived from their DeweyIDs, that is both nodes
+	 * have a DeweyID and belong to the same revision of the same resource. No
+	 * transaction has to be moved in this case.
+	 * 
+	 * @param other
+	 *          the other node
+	 * @return {@code true}, if the DeweyIDs can be compared, {@code false}
+	 *         otherwise
+	 */
+	private boolean hasComparableDeweyIDs(final DBNode other) {
+		return mDeweyID.isPresent()
+				&& other.mDeweyID.isPresent()
+				&& mCollection.getID() == other.mCollection.getID()
+				&& mRtx.getRevisionNumber() == other.mRtx.getRevisionNumber()
+				&& mRtx.getSession().getResourceConfig().getID() == other.mRtx
+						.getSession().getResourceConfig().getID();
+	}
+
+	/**
+	 * Determines if the node is neither an attribute nor a namespace node.
+	 * 
+	 * @return {@code true}, if it's neither an attribute nor a namespace node,
+	 *         {@code false} otherwise
+	 */
+	private boolean isStructuralNode() {
+		return mKind != org.sirix.node.Kind.ATTRIBUTE
+				&& mKind != org.sirix.node.Kind.NAMESPACE;
+	}
+
 	@Override
 	public boolean isSelfOf(final Node<?> other) {
-		moveRtx();
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
-			if (node.getUnderlyingNode().getNodeKey() == this.getUnderlyingNode()
-					.getNodeKey()) {
+			if (node.mNodeKey == mNodeKey) {
 				return true;
 			}
 		}
@@ -140,11 +169,13 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 
 	@Override
 	public boolean isParentOf(final Node<?> other) {
-		moveRtx();
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
-			if (node.getUnderlyingNode().getParentKey() == mRtx.getNodeKey()) {
+			if (hasComparableDeweyIDs(node)) {
+				return mDeweyID.get().isParentOf(node.mDeweyID.get());
+			}
+			if (node.getUnderlyingNode().getParentKey() == mNodeKey) {
 				return true;
 			}
 		}
@@ -153,13 +184,15 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 
 	@Override
 	public boolean isChildOf(final Node<?> other) {
-		moveRtx();
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
-			if (mKind != org.sirix.node.Kind.ATTRIBUTE
-					&& mKind != org.sirix.node.Kind.NAMESPACE) {
-				if (node.getUnderlyingNode().getNodeKey() == mRtx.getParentKey()) {
+			if (isStructuralNode()) {
+				if (hasComparableDeweyIDs(node)) {
+					return mDeweyID.get().isChildOf(node.mDeweyID.get());
+				}
+				moveRtx();
+				if (node.mNodeKey == mRtx.getParentKey()) {
 					return true;
 				}
 			}
@@ -169,20 +202,18 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 
 	@Override
 	public boolean isDescendantOf(final Node<?> other) {
-		moveRtx();
 		boolean retVal = false;
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
-			moveRtx();
-			if (mKind != org.sirix.node.Kind.ATTRIBUTE
-					&& mKind != org.sirix.node.Kind.NAMESPACE) {
-				if (mDeweyID.isPresent()) {
+			if (isStructuralNode()) {
+				if (hasComparableDeweyIDs(node)) {
 					return mDeweyID.get().isDescendantOf(node.mDeweyID.get());
 				} else {
+					moveRtx();
 					for (final Axis axis = new AncestorAxis(mRtx); axis.hasNext();) {
 						axis.next();
-						if (node.getUnderlyingNode().getNodeKey() == mRtx.getNodeKey()) {
+						if (node.mNodeKey == mRtx.getNodeKey()) {
 							retVal = true;
 						}
 					}
@@ -204,64 +235,45 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 
 	@Override
 	public boolean isDescendantOrSelfOf(final Node<?> other) {
-		moveRtx();
-		boolean retVal = false;
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
-			if (isSelfOf(other)) {
-				retVal = true;
-			}
-			retVal = isDescendantOf(other);
+			return isSelfOf(other) || isDescendantOf(other);
 		}
-		return retVal;
+		return false;
 	}
 
 	@Override
 	public boolean isAncestorOf(final Node<?> other) {
-		moveRtx();
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
-			if (mDeweyID.isPresent()) {
-				return mDeweyID.get().isAncestorOf(node.mDeweyID.get());
-			} else {
-				return other.isDescendantOf(this);
-			}
+			return other.isDescendantOf(this);
 		}
 		return false;
 	}
 
 	@Override
 	public boolean isAncestorOrSelfOf(final Node<?> other) {
-		moveRtx();
-		boolean retVal = false;
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
-			if (mDeweyID.isPresent()) {
-				retVal = mDeweyID.get().isAncestorOf(node.mDeweyID.get());
-			} else {
-				if (isSelfOf(other)) {
-					retVal = true;
-				}
-				retVal = other.isDescendantOf(this);
-			}
+			return isSelfOf(other) || other.isDescendantOf(this);
 		}
-		return retVal;
+		return false;
 	}
 
 	@Override
 	public boolean isSiblingOf(final Node<?> other) {
-		moveRtx();
 		boolean retVal = false;
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
+			if (isStructuralNode() && node.isStructuralNode()
+					&& hasComparableDeweyIDs(node)) {
+				return mDeweyID.get().isSiblingOf(node.mDeweyID.get());
+			}
 			try {
-				if (mDeweyID.isPresent()) {
-					return mDeweyID.get().isSiblingOf(node.mDeweyID.get());
-				}
 				if (node.getKind() != Kind.NAMESPACE
 						&& node.getKind() != Kind.ATTRIBUTE
 						&& ((DBNode) node.getParent()).getUnderlyingNode().getNodeKey() == ((DBNode) other
@@ -279,15 +291,14 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 	public boolean isPrecedingSiblingOf(final Node<?> other) {
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
-			moveRtx();
-			if (mKind != org.sirix.node.Kind.ATTRIBUTE
-					&& mKind != org.sirix.node.Kind.NAMESPACE) {
-				if (mDeweyID.isPresent()) {
+			if (isStructuralNode()) {
+				if (hasComparableDeweyIDs(node)) {
 					return mDeweyID.get().isPrecedingSiblingOf(node.mDeweyID.get());
 				} else {
+					moveRtx();
 					while (mRtx.hasRightSibling()) {
 						mRtx.moveToRightSibling();
-						if (mRtx.getNodeKey() == node.getNodeKey()) {
+						if (mRtx.getNodeKey() == node.mNodeKey) {
 							return true;
 						}
 					}
@@ -301,15 +312,14 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 	public boolean isFollowingSiblingOf(final Node<?> other) {
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
-			moveRtx();
-			if (mKind != org.sirix.node.Kind.ATTRIBUTE
-					&& mKind != org.sirix.node.Kind.NAMESPACE) {
-				if (mDeweyID.isPresent()) {
+			if (isStructuralNode()) {
+				if (hasComparableDeweyIDs(node)) {
 					return mDeweyID.get().isFollowingSiblingOf(node.mDeweyID.get());
 				} else {
+					moveRtx();
 					while (mRtx.hasLeftSibling()) {
 						mRtx.moveToLeftSibling();
-						if (mRtx.getNodeKey() == node.getNodeKey()) {
+						if (mRtx.getNodeKey() == node.mNodeKey) {
 							return true;
 						}
 					}
@@ -323,15 +333,14 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 	public boolean isPrecedingOf(final Node<?> other) {
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
-			moveRtx();
-			if (mKind != org.sirix.node.Kind.ATTRIBUTE
-					&& mKind != org.sirix.node.Kind.NAMESPACE) {
-				if (mDeweyID.isPresent()) {
+			if (isStructuralNode()) {
+				if (hasComparableDeweyIDs(node)) {
 					return mDeweyID.get().isPrecedingOf(node.mDeweyID.get());
 				} else {
+					moveRtx();
 					for (final Axis axis = new FollowingAxis(mRtx); axis.hasNext();) {
 						axis.next();
-						if (mRtx.getNodeKey() == node.getNodeKey()) {
+						if (mRtx.getNodeKey() == node.mNodeKey) {
 							return true;
 						}
 					}
@@ -345,15 +354,14 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 	public boolean isFollowingOf(final Node<?> other) {
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
-			moveRtx();
-			if (mKind != org.sirix.node.Kind.ATTRIBUTE
-					&& mKind != org.sirix.node.Kind.NAMESPACE) {
-				if (mDeweyID.isPresent()) {
+			if (isStructuralNode()) {
+				if (hasComparableDeweyIDs(node)) {
 					return mDeweyID.get().isFollowingOf(node.mDeweyID.get());
 				} else {
+					moveRtx();
 					for (final Axis axis = new PrecedingAxis(mRtx); axis.hasNext();) {
 						axis.next();
-						if (mRtx.getNodeKey() == node.getNodeKey()) {
+						if (mRtx.getNodeKey() == node.mNodeKey) {
 							return true;
 						}
 					}
@@ -365,11 +373,14 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 
 	@Override
 	public boolean isAttributeOf(final Node<?> other) {
-		moveRtx();
 		boolean retVal = false;
 		if (other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
+			if (hasComparableDeweyIDs(node)) {
+				return mKind == org.sirix.node.Kind.ATTRIBUTE
+						&& mDeweyID.get().isAttributeOf(node.mDeweyID.get());
+			}
 			try {
 				if (((DBNode) getParent()).getUnderlyingNode().getNodeKey() == node
 						.getUnderlyingNode().getNodeKey()) {
@@ -389,7 +400,7 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 		if (getKind() == Kind.DOCUMENT && other instanceof DBNode) {
 			final DBNode node = (DBNode) other;
 			assert node.getNodeClassID() == this.getNodeClassID();
-			final NodeReadTrx rtx = node.getTrx();
+			final NodeReadTrx rtx = node.mRtx;
 			if (rtx.getRevisionNumber() == mRtx.getRevisionNumber()
 					&& rtx.getSession().getResourceConfig().getID() == mRtx.getSession()
 							.getResourceConfig().getID()) {
@@ -1257,8 +1268,6 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 
 	@Override
 	protected int cmpInternal(final AbstractTemporalNode<DBNode> otherNode) {
-		moveRtx();
-
 		// Are they the same node?
 		if (this == otherNode) {
 			return 0;
@@ -1273,29 +1282,32 @@ public final class DBNode extends AbstractTemporalNode<DBNode> {
 		}
 
 		// Compare document IDs.
-		final long firstDocumentID = getTrx().getSession().getResourceConfig()
+		final DBNode node = (DBNode) otherNode;
+		final long firstDocumentID = mRtx.getSession().getResourceConfig().getID();
+		final long secondDocumentID = node.mRtx.getSession().getResourceConfig()
 				.getID();
-		final long secondDocumentID = ((DBNode) otherNode).getTrx().getSession()
-				.getResourceConfig().getID();
 		if (firstDocumentID != secondDocumentID) {
 			return firstDocumentID < secondDocumentID ? -1 : 1;
 		}
 
 		// Temporal extension.
-		final Integer revision = mRtx.getRevisionNumber();
-		final Integer otherRevision = ((DBNode) otherNode).mRtx.getRevisionNumber();
+		final int revision = mRtx.getRevisionNumber();
+		final int otherRevision = node.mRtx.getRevisionNumber();
 		if (revision != otherRevision) {
-			return revision.compareTo(otherRevision);
+			return revision < otherRevision ? -1 : 1;
 		}
 
-		if (mNodeKey == ((DBNode) otherNode).mNodeKey) {
+		if (mNodeKey == node.mNodeKey) {
 			return 0;
 		}
 
-		if (mDeweyID.isPresent()) {
-			return mDeweyID.get().compareTo(((DBNode) otherNode).mDeweyID.get());
+		// Document order is derived from the DeweyIDs without moving the
+		// transactions.
+		if (mDeweyID.isPresent() && node.mDeweyID.isPresent()) {
+			return mDeweyID.get().compareTo(node.mDeweyID.get());
 		}
 
+		moveRtx();
 		try {
 			final DBNode firstParent = (DBNode) this.getParent();
 			if (firstParent == null) {
@@ -1,5 +1,6 @@
 package org.sirix.xquery.node;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.File;
@@ -13,6 +14,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nonnegative;
 import javax.annotation.Nullable;
 
 import org.brackit.xquery.node.parser.SubtreeListener;
@@ -76,6 +78,9 @@ public final class DBStore implements Store, AutoCloseable {
 	/** The location to store created collections/databases. */
 	private final File mLocation;
 
+	/** Number of threads used by the collections to process their documents. */
+	private final int mThreads;
+
 	/** Get a new builder instance. */
 	public static Builder newBuilder() {
 		return new Builder();
@@ -94,6 +99,9 @@ public final class DBStore implements Store, AutoCloseable {
 		/** The location to store created collections/databases. */
 		private File mLocation = LOCATION;
 
+		/** Number of threads used by the collections to process their documents. */
+		private int mThreads = Runtime.getRuntime().availableProcessors();
+
 		/**
 		 * Determines if collections should be updatable.
 		 * 
@@ -128,6 +136,20 @@ public final class DBStore implements Store, AutoCloseable {
 			return this;
 		}
 
+		/**
+		 * Set the number of threads used by the collections to open and process
+		 * their documents concurrently (default: number of processors).
+		 * 
+		 * @param threads
+		 *          number of threads
+		 * @return this builder instance
+		 */
+		public Builder threads(final @Nonnegative int threads) {
+			checkArgument(threads > 0, "threads must be > 0!");
+			mThreads = threads;
+			return this;
+		}
+
 		/**
 		 * Create a new {@link DBStore} instance
 		 * 
@@ -149,6 +171,7 @@ public final class DBStore implements Store, AutoCloseable {
 		mUpdating = builder.mIsUpdatable ? Updating.YES : Updating.NO;
 		mStorageType = builder.mStorageType;
 		mLocation = builder.mLocation;
+		mThreads = builder.mThreads;
 	}
 
 	/** Get the location of the generated collections/databases. */
@@ -164,7 +187,7 @@ public final class DBStore implements Store, AutoCloseable {
 			try {
 				final Database database = Databases.openDatabase(dbConf.getFile());
 				mDatabases.add(database);
-				return new DBCollection(name, database, mUpdating);
+				return new DBCollection(name, database, mUpdating, mThreads);
 			} catch (final SirixException e) {
 				throw new DocumentException(e.getCause());
 			}
@@ -183,7 +206,7 @@ public final class DBStore implements Store, AutoCloseable {
 
 			final Database database = Databases.openDatabase(dbConf.getFile());
 			mDatabases.add(database);
-			return new DBCollection(name, database, mUpdating);
+			return new DBCollection(name, database, mUpdating, mThreads);
 		} catch (final SirixException e) {
 			throw new DocumentException(e.getCause());
 		}
@@ -216,7 +239,7 @@ public final class DBStore implements Store, AutoCloseable {
 			final NodeWriteTrx wtx = session.beginNodeWriteTrx();
 
 			final DBCollection collection = new DBCollection(collName, database,
-					mUpdating);
+					mUpdating, mThreads);
 			parser
 					.parse(new SubtreeBuilder(
 							collection,
@@ -264,7 +287,7 @@ public final class DBStore implements Store, AutoCloseable {
 												.build());
 								final NodeWriteTrx wtx = session.beginNodeWriteTrx();
 								final DBCollection collection = new DBCollection(collName,
-										database, mUpdating);
+										database, mUpdating, mThreads);
 								nextParser.parse(new SubtreeBuilder(
 										collection,
 										wtx,
@@ -283,7 +306,7 @@ public final class DBStore implements Store, AutoCloseable {
 				}
 				pool.shutdown();
 				pool.awaitTermination(5, TimeUnit.MINUTES);
-				return new DBCollection(collName, database, mUpdating);
+				return new DBCollection(collName, database, mUpdating, mThreads);
 			} catch (final SirixException | InterruptedException e) {
 				throw new DocumentException(e.getCause());
 			}
@@ -0,0 +1,77 @@
+package org.sirix.xquery.stream;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.brackit.xquery.xdm.DocumentException;
+import org.brackit.xquery.xdm.Stream;
+import org.sirix.xquery.node.DBNode;
+
+import com.google.common.base.Objects;
+
+/**
+ * {@link Stream}, which delivers the nodes of another stream in document
+ * order. The nodes are collected and sorted once the first node is requested.
+ * It is used for streams, which deliver the nodes in node key order, for
+ * instance scans of the record pages, as node keys only reflect document order
+ * until nodes are inserted by later updates.
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
+public final class DocumentOrderStream implements Stream<DBNode> {
+
+	/** Orders nodes in document order, by their DeweyIDs if available. */
+	private static final Comparator<DBNode> DOCUMENT_ORDER = new Comparator<DBNode>() {
+		@Override
+		public int compare(final DBNode first, final DBNode second) {
+			return first.cmp(second);
+		}
+	};
+
+	/** The underlying stream. */
+	private final Stream<DBNode> mStream;
+
+	/** The sorted nodes, or {@code null} if not collected yet. */
+	private Iterator<DBNode> mNodes;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param stream
+	 *          the stream, whose nodes are sorted
+	 */
+	public DocumentOrderStream(final Stream<DBNode> stream) {
+		mStream = checkNotNull(stream);
+	}
+
+	@Override
+	public DBNode next() throws DocumentException {
+		if (mNodes == null) {
+			final List<DBNode> nodes = new ArrayList<>();
+			for (DBNode node = mStream.next(); node != null; node = mStream.next()) {
+				nodes.add(node);
+			}
+			mStream.close();
+			Collections.sort(nodes, DOCUMENT_ORDER);
+			mNodes = nodes.iterator();
+		}
+		return mNodes.hasNext() ? mNodes.next() : null;
+	}
+
+	@Override
+	public void close() {
+		mStream.close();
+		mNodes = Collections.<DBNode> emptyIterator();
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("stream", mStream).toString();
+	}
+}
@@ -0,0 +1,230 @@
+package org.sirix.xquery.stream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nonnegative;
+
+import org.brackit.xquery.xdm.DocumentException;
+import org.brackit.xquery.xdm.Stream;
+import org.sirix.exception.SirixException;
+import org.sirix.utils.LogWrapper;
+import org.sirix.xquery.node.DBCollection;
+import org.sirix.xquery.node.DBNode;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+
+/**
+ * {@link Stream}, which opens the documents of a {@link DBCollection} and
+ * evaluates a {@link DocumentFunction} on each of them on the thread pool of
+ * the collection. At most twice as many documents as threads are processed
+ * ahead of the consumer. The results are returned in collection order and, per
+ * document, in the order the function returned them.
+ * 
+ * <p>
+ * Each document is opened and evaluated by a single thread, which hands the
+ * transaction over to the consumer together with the results. Documents which
+ * have been opened, but whose results have not been consumed once the stream
+ * is closed, are closed immediately.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ * @param <E>
+ *          the result type
+ */
+public final class ParallelDocumentStream<E> implements Stream<E> {
+
+	/** Logger. */
+	private static final LogWrapper LOGGER = new LogWrapper(
+			LoggerFactory.getLogger(ParallelDocumentStream.class));
+
+	/**
+	 * Function evaluated on each document of a collection.
+	 * 
+	 * @param <E>
+	 *          the result type
+	 */
+	public interface DocumentFunction<E> {
+		/**
+		 * Evaluate the function on a document.
+		 * 
+		 * @param document
+		 *          the document node, which is exclusively owned by the calling
+		 *          thread
+		 * @return the results for the document, in the order they should be
+		 *         returned
+		 * @throws DocumentException
+		 *           if the evaluation fails
+		 */
+		List<E> apply(DBNode document) throws DocumentException;
+	}
+
+	/** The collection the documents belong to. */
+	private final DBCollection mCollection;
+
+	/** Names of the resources, which are not yet submitted. */
+	private final Iterator<String> mResources;
+
+	/** The function evaluated on each document. */
+	private final DocumentFunction<E> mFunction;
+
+	/** Pending documents in collection order. */
+	private final Deque<Future<Result<E>>> mPending;
+
+	/** Maximum number of pending documents. */
+	private final int mMaxPending;
+
+	/** The thread pool, which is owned by the collection. */
+	private final ExecutorService mPool;
+
+	/** Results of the current document. */
+	private Iterator<E> mCurrent;
+
+	/** Determines if the stream is closed. */
+	private volatile boolean mClosed;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param collection
+	 *          the collection the documents belong to
+	 * @param resources
+	 *          the names of the resources to process, in collection order
+	 * @param function
+	 *          the function to evaluate on each document
+	 * @param pool
+	 *          the thread pool, which isn't shut down by the stream
+	 * @param threads
+	 *          the number of threads of the pool
+	 */
+	public ParallelDocumentStream(final DBCollection collection,
+			final List<String> resources, final DocumentFunction<E> function,
+			final ExecutorService pool, final @Nonnegative int threads) {
+		checkArgument(threads > 0, "threads must be > 0!");
+		mCollection = checkNotNull(collection);
+		mResources = checkNotNull(resources).iterator();
+		mFunction = checkNotNull(function);
+		mMaxPending = threads * 2;
+		mPending = new ArrayDeque<>(mMaxPending);
+		mPool = checkNotNull(pool);
+		mCurrent = Collections.<E> emptyList().iterator();
+	}
+
+	@Override
+	public E next() throws DocumentException {
+		while (!mCurrent.hasNext()) {
+			if (mClosed) {
+				return null;
+			}
+			while (mPending.size() < mMaxPending && mResources.hasNext()) {
+				mPending.add(mPool.submit(new Task<>(this, mResources.next())));
+			}
+			final Future<Result<E>> future = mPending.poll();
+			if (future == null) {
+				close();
+				return null;
+			}
+			try {
+				mCurrent = future.get().mResults.iterator();
+			} catch (final InterruptedException e) {
+				close();
+				Thread.currentThread().interrupt();
+				throw new DocumentException(e);
+			} catch (final ExecutionException e) {
+				close();
+				if (e.getCause() instanceof DocumentException) {
+					throw (DocumentException) e.getCause();
+				}
+				throw new DocumentException(e.getCause());
+			}
+		}
+		return mCurrent.next();
+	}
+
+	@Override
+	public void close() {
+		if (mClosed) {
+			return;
+		}
+		mClosed = true;
+		for (final Future<Result<E>> future : mPending) {
+			future.cancel(false);
+			if (!future.isCancelled()) {
+				try {
+					closeDocument(future.get().mDocument);
+				} catch (final InterruptedException | ExecutionException e) {
+					// Nothing has been opened or the task closed it itself.
+				}
+			}
+		}
+		mPending.clear();
+		mCurrent = Collections.<E> emptyList().iterator();
+	}
+
+	private static void closeDocument(final DBNode document) {
+		try {
+			document.getTrx().close();
+		} catch (final SirixException e) {
+			LOGGER.error(e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return Objects.toStringHelper(this).add("collection", mCollection)
+				.add("pending", mPending.size()).toString();
+	}
+
+	/** The opened document and its results. */
+	private static final class Result<E> {
+		private final DBNode mDocument;
+
+		private final List<E> mResults;
+
+		Result(final DBNode document, final List<E> results) {
+			mDocument = document;
+			mResults = results;
+		}
+	}
+
+	/** Opens a single document and evaluates the function on it. */
+	private static final class Task<E> implements Callable<Result<E>> {
+		private final ParallelDocumentStream<E> mStream;
+
+		private final String mResource;
+
+		Task(final ParallelDocumentStream<E> stream, final String resource) {
+			mStream = stream;
+			mResource = resource;
+		}
+
+		@Override
+		public Result<E> call() throws DocumentException {
+			final DBNode document = mStream.mCollection.getDocument(mResource);
+			final List<E> results;
+			try {
+				results = checkNotNull(mStream.mFunction.apply(document));
+			} catch (final DocumentException | RuntimeException e) {
+				closeDocument(document);
+				throw e;
+			}
+			if (mStream.mClosed) {
+				// Nobody is going to consume the results.
+				closeDocument(document);
+			}
+			return new Result<>(document, results);
+		}
+	}
+}
@@ -3,35 +3,46 @@ package org.sirix.xquery.stream;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.Iterator;
-import java.util.Set;
 
 import org.brackit.xquery.xdm.DocumentException;
 import org.brackit.xquery.xdm.Stream;
 import org.sirix.api.NodeReadTrx;
+import org.sirix.index.NodeKeyMergeIterator;
 import org.sirix.index.avltree.keyvalue.NodeReferences;
 import org.sirix.xquery.node.DBCollection;
 import org.sirix.xquery.node.DBNode;
 
+/**
+ * {@link Stream}, which delivers the nodes referenced by index entries in
+ * ascending node key order, without duplicates. The node keys of all entries
+ * are merged by a {@link NodeKeyMergeIterator}, such that the nodes are created
+ * lazily one at a time.
+ * 
+ * <p>
+ * Node key order isn't document order once nodes have been inserted by
+ * updates, thus consumers needing document order must still sort the nodes.
+ * </p>
+ * 
+ * @author Johannes Lichtenberger
+ * 
+ */
 public final class SirixNodeKeyStream implements Stream<DBNode> {
 
-	private final Iterator<NodeReferences> mIter;
+	private final NodeKeyMergeIterator mNodeKeys;
 	private final DBCollection mCollection;
 	private final NodeReadTrx mRtx;
 
 	public SirixNodeKeyStream(final Iterator<NodeReferences> iter,
 			final DBCollection collection, final NodeReadTrx rtx) {
-		mIter = checkNotNull(iter);
+		mNodeKeys = new NodeKeyMergeIterator(checkNotNull(iter));
 		mCollection = checkNotNull(collection);
 		mRtx = checkNotNull(rtx);
 	}
 
 	@Override
 	public DBNode next() throws DocumentException {
-		while (mIter.hasNext()) {
-			final NodeReferences nodeReferences = mIter.next();
-			final Set<Long> nodeKeys = nodeReferences.getNodeKeys();
-			for (final long nodeKey : nodeKeys) {
-				mRtx.moveTo(nodeKey);
+		while (mNodeKeys.hasNext()) {
+			if (mRtx.moveTo(mNodeKeys.nextNodeKey()).hasMoved()) {
 				return new DBNode(mRtx, mCollection);
 			}
 		}
@@ -0,0 +1,221 @@
+package org.sirix.xquery.compiler.optimizer.walker;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.XQuery;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.util.path.Path;
+import org.brackit.xquery.util.path.PathException;
+import org.brackit.xquery.xdm.DocumentException;
+import org.brackit.xquery.xdm.Type;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.access.Databases;
+import org.sirix.access.IndexController;
+import org.sirix.access.Movement;
+import org.sirix.access.conf.DatabaseConfiguration;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.index.IndexDef;
+import org.sirix.index.IndexDefs;
+import org.sirix.xquery.SirixCompileChain;
+import org.sirix.xquery.node.DBStore;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Test aggregates of paths, which are rewritten into index-only plans, by
+ * comparing their results with the results of the original expressions.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class IndexAggregationTest {
+
+	/** Name of the database/collection. */
+	private static final String COLLECTION = "aggregate";
+
+	/** The document. */
+	private static final String DOC = "doc('" + COLLECTION + "')";
+
+	/** Number of items. */
+	private static final int ITEMS = 60;
+
+	/** Sirix database store. */
+	private DBStore mStore;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		final File file = new File(TestHelper.PATHS.PATH1.getFile(), COLLECTION);
+		Databases.createDatabase(new DatabaseConfiguration(file));
+		try (final Database database = Databases.openDatabase(file)) {
+			database.createResource(new ResourceConfiguration.Builder(
+					TestHelper.RESOURCE, database.getDatabaseConfig())
+					.buildPathSummary(true).build());
+			try (final Session session = database
+					.getSession(new SessionConfiguration.Builder(TestHelper.RESOURCE)
+							.build());
+					final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+				// <site><item price="0" cat="c0"><name>item0</name></item>...</site>
+				wtx.insertElementAsFirstChild(new QNm("site"));
+				for (int i = 0; i < ITEMS; i++) {
+					if (i == 0) {
+						wtx.insertElementAsFirstChild(new QNm("item"));
+					} else {
+						wtx.insertElementAsRightSibling(new QNm("item"));
+					}
+					wtx.insertAttribute(new QNm("price"), String.valueOf(i % 7),
+							Movement.TOPARENT);
+					wtx.insertAttribute(new QNm("cat"), "c" + i % 5, Movement.TOPARENT);
+					if (i % 3 == 0) {
+						wtx.insertElementAsFirstChild(new QNm("name"));
+						wtx.insertTextAsFirstChild("item" + i);
+						wtx.moveToParent();
+						wtx.moveToParent();
+					}
+				}
+				wtx.commit();
+			}
+		}
+		mStore = DBStore.newBuilder().location(TestHelper.PATHS.PATH1.getFile())
+				.build();
+	}
+
+	@After
+	public void tearDown() throws SirixException, DocumentException {
+		mStore.close();
+		TestHelper.closeEverything();
+		TestHelper.deleteEverything();
+	}
+
+	@Test
+	public void testNoIndex() throws QueryException {
+		assertCovers("count", "//item", false);
+		assertCovers("count", "//item/@cat", "'c1'", false);
+		assertAggregates();
+	}
+
+	@Test
+	public void testPathIndex() throws QueryException, SirixException {
+		createIndex(IndexDefs.createPathIdxDef(ImmutableSet.<Path<QNm>> of(), 0));
+		assertCovers("count", "//item", true);
+		assertCovers("exists", "//item/@price", true);
+		// A path index doesn't cover values.
+		assertCovers("count", "//item/@cat", "'c1'", false);
+		assertCovers("distinct-values", "//item/@cat", false);
+		assertAggregates();
+	}
+
+	@Test
+	public void testCASStringIndex() throws QueryException, SirixException,
+			PathException {
+		createIndex(IndexDefs.createCASIdxDef(false, Optional.of(Type.STR),
+				ImmutableSet.of(Path.parse("//item/@cat")), 0));
+		assertCovers("count", "//item/@cat", "'c1'", true);
+		assertCovers("distinct-values", "//item/@cat", true);
+		assertCovers("count", "//item/@price", "3", false);
+		assertAggregates();
+	}
+
+	@Test
+	public void testCASDoubleIndex() throws QueryException, SirixException,
+			PathException {
+		createIndex(IndexDefs.createCASIdxDef(false, Optional.of(Type.DBL),
+				ImmutableSet.of(Path.parse("//item/@price")), 0));
+		assertCovers("count", "//item/@price", "3", true);
+		assertCovers("count", "//item/@cat", "'c1'", false);
+		assertAggregates();
+	}
+
+	/**
+	 * Assert that the rewritten aggregates have the results of the original
+	 * expressions, which aren't rewritten as they aren't plain paths.
+	 */
+	private void assertAggregates() throws QueryException {
+		for (final String path : new String[] { "//item", "/site/item",
+				"//item/@price", "//item/name", "//unknown" }) {
+			assertAggregate("count(" + DOC + path + ")", "count(for $n in " + DOC
+					+ path + " return $n)");
+			assertAggregate("exists(" + DOC + path + ")", "exists(for $n in " + DOC
+					+ path + " return $n)");
+		}
+		for (final String value : new String[] { "'c1'", "'c9'", "3", "10" }) {
+			final String attribute = value.startsWith("'") ? "cat" : "price";
+			assertAggregate("count(" + DOC + "//item[@" + attribute + " = " + value
+					+ "])", "count(for $n in " + DOC + "//item where $n/@" + attribute
+					+ " = " + value + " return $n)");
+			assertAggregate("exists(" + DOC + "//item[@" + attribute + " = "
+					+ value + "])", "exists(for $n in " + DOC + "//item where $n/@"
+					+ attribute + " = " + value + " return $n)");
+			assertAggregate("count(" + DOC + "//item/@" + attribute + "[. = "
+					+ value + "])", "count(for $n in " + DOC + "//item/@" + attribute
+					+ " where $n = " + value + " return $n)");
+		}
+		for (final String attribute : new String[] { "cat", "price" }) {
+			// The order of distinct values is implementation dependent.
+			final String path = DOC + "//item/@" + attribute;
+			assertAggregate(sorted("distinct-values(" + path + ")"),
+					sorted("distinct-values(for $n in " + path + " return $n)"));
+		}
+	}
+
+	private static String sorted(final String values) {
+		return "string-join(for $v in " + values + " order by $v return $v, ',')";
+	}
+
+	private void assertAggregate(final String rewritten, final String original)
+			throws QueryException {
+		assertEquals(original, query(original), query(rewritten));
+	}
+
+	private void assertCovers(final String aggregate, final String path,
+			final boolean covers) throws QueryException {
+		assertEquals(String.valueOf(covers), query("sdb:index-covers(" + DOC
+				+ ", '" + aggregate + "', '" + path + "')"));
+	}
+
+	private void assertCovers(final String aggregate, final String path,
+			final String key, final boolean covers) throws QueryException {
+		assertEquals(String.valueOf(covers), query("sdb:index-covers(" + DOC
+				+ ", '" + aggregate + "', '" + path + "', " + key + ")"));
+	}
+
+	/** Create an index on the document and reopen the store. */
+	private void createIndex(final IndexDef indexDef) throws SirixException {
+		final File file = new File(TestHelper.PATHS.PATH1.getFile(), COLLECTION);
+		mStore.close();
+		try (final Database database = Databases.openDatabase(file);
+				final Session session = database
+						.getSession(new SessionConfiguration.Builder(TestHelper.RESOURCE)
+								.build());
+				final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+			final IndexController controller = session.getWtxIndexController(wtx
+					.getRevisionNumber() - 1);
+			controller.createIndexes(ImmutableSet.of(indexDef), wtx);
+			wtx.commit();
+		}
+		mStore = DBStore.newBuilder().location(TestHelper.PATHS.PATH1.getFile())
+				.build();
+	}
+
+	private String query(final String query) throws QueryException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new XQuery(new SirixCompileChain(mStore), query).serialize(
+				new QueryContext(mStore), new PrintStream(out));
+		return out.toString();
+	}
+}
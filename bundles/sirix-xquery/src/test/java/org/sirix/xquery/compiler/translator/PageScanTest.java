@@ -0,0 +1,101 @@
+package org.sirix.xquery.compiler.translator;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.XQuery;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.xdm.DocumentException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.access.Databases;
+import org.sirix.access.Movement;
+import org.sirix.access.conf.DatabaseConfiguration;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.xquery.SirixCompileChain;
+import org.sirix.xquery.node.DBStore;
+
+/**
+ * Test descendant steps, which are evaluated by scanning the record pages of a
+ * resource with bloom filters.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class PageScanTest {
+
+	/** Name of the database/collection. */
+	private static final String COLLECTION = "scan";
+
+	/** Sirix database store. */
+	private DBStore mStore;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		final File file = new File(TestHelper.PATHS.PATH1.getFile(), COLLECTION);
+		Databases.createDatabase(new DatabaseConfiguration(file));
+		try (final Database database = Databases.openDatabase(file)) {
+			database.createResource(new ResourceConfiguration.Builder(
+					TestHelper.RESOURCE, database.getDatabaseConfig())
+					.useDeweyIDs(true).buildPathSummary(true).useBloomFilters(true)
+					.build());
+			try (final Session session = database
+					.getSession(new SessionConfiguration.Builder(TestHelper.RESOURCE)
+							.build());
+					final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+				// <a><b id="1"/><c><b id="2"/></c></a>
+				wtx.insertElementAsFirstChild(new QNm("a"));
+				final long rootKey = wtx.getNodeKey();
+				wtx.insertElementAsFirstChild(new QNm("b"));
+				wtx.insertAttribute(new QNm("id"), "1", Movement.TOPARENT);
+				wtx.insertElementAsRightSibling(new QNm("c"));
+				wtx.insertElementAsFirstChild(new QNm("b"));
+				wtx.insertAttribute(new QNm("id"), "2", Movement.TOPARENT);
+				wtx.commit();
+
+				// Insert a node in front of all others, whose node key is the largest.
+				wtx.moveTo(rootKey);
+				wtx.insertElementAsFirstChild(new QNm("b"));
+				wtx.insertAttribute(new QNm("id"), "0", Movement.TOPARENT);
+				wtx.commit();
+			}
+		}
+		mStore = DBStore.newBuilder().location(TestHelper.PATHS.PATH1.getFile())
+				.build();
+	}
+
+	@After
+	public void tearDown() throws SirixException, DocumentException {
+		mStore.close();
+		TestHelper.closeEverything();
+		TestHelper.deleteEverything();
+	}
+
+	@Test
+	public void testDocumentOrder() throws QueryException {
+		assertEquals("0,1,2", query("string-join(doc('" + COLLECTION
+				+ "')//b/@id/string(), ',')"));
+		assertEquals("0,1,2", query("string-join(for $b in doc('" + COLLECTION
+				+ "')//b return $b/@id/string(), ',')"));
+	}
+
+	private String query(final String query) throws QueryException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new XQuery(new SirixCompileChain(mStore), query).serialize(
+				new QueryContext(mStore), new PrintStream(out));
+		return out.toString();
+	}
+}
@@ -0,0 +1,149 @@
+package org.sirix.xquery.function.sdb.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.XQuery;
+import org.brackit.xquery.node.parser.DocumentParser;
+import org.brackit.xquery.node.parser.SubtreeParser;
+import org.brackit.xquery.xdm.DocumentException;
+import org.brackit.xquery.xdm.Stream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.exception.SirixException;
+import org.sirix.xquery.SirixCompileChain;
+import org.sirix.xquery.node.DBCollection;
+import org.sirix.xquery.node.DBNode;
+import org.sirix.xquery.node.DBStore;
+import org.sirix.xquery.stream.ParallelDocumentStream.DocumentFunction;
+
+/**
+ * Test the evaluation of plain paths on the documents of a collection.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class CollectionPathTest {
+
+	/** Name of the collection. */
+	private static final String COLLECTION = "auctions";
+
+	/** Number of documents of the collection. */
+	private static final int DOCUMENTS = 5;
+
+	/** Sirix database store. */
+	private DBStore mStore;
+
+	@Before
+	public void setUp() throws SirixException, DocumentException {
+		TestHelper.deleteEverything();
+		mStore = DBStore.newBuilder().location(TestHelper.PATHS.PATH1.getFile())
+				.threads(2).build();
+		final Iterator<String> documents = documents().iterator();
+		mStore.create(COLLECTION, new Stream<SubtreeParser>() {
+			@Override
+			public SubtreeParser next() throws DocumentException {
+				return documents.hasNext() ? new DocumentParser(documents.next())
+						: null;
+			}
+
+			@Override
+			public void close() {
+			}
+		});
+	}
+
+	@After
+	public void tearDown() throws SirixException, DocumentException {
+		mStore.close();
+		TestHelper.closeEverything();
+		TestHelper.deleteEverything();
+	}
+
+	@Test
+	public void testPaths() throws QueryException {
+		for (final String path : new String[] { "//item", "/site/item/name",
+				"//item/@price", "//name", "//unknown" }) {
+			// Attributes are compared by their values.
+			final String format = path.contains("@") ? "data(%s)" : "%s";
+			final String expected = query(String.format(format, "for $d in collection('"
+					+ COLLECTION + "') return $d" + path));
+			assertEquals(expected, query(String.format(format, "collection('"
+					+ COLLECTION + "')" + path)));
+			assertEquals(expected, query(String.format(format,
+					"sdb:collection-path('" + COLLECTION + "', '" + path + "')")));
+		}
+		assertEquals(String.valueOf(DOCUMENTS * 3), query("count(collection('"
+				+ COLLECTION + "')//item)"));
+	}
+
+	@Test
+	public void testPool() throws DocumentException, SirixException,
+			InterruptedException {
+		final DBCollection collection = (DBCollection) mStore.lookup(COLLECTION);
+		final Stream<String> names = collection
+				.getDocuments(new DocumentFunction<String>() {
+					@Override
+					public List<String> apply(final DBNode document) {
+						return Arrays.asList(Thread.currentThread().getName());
+					}
+				});
+		final String prefix = "collection-" + collection.getID() + "-";
+		for (int i = 0; i < DOCUMENTS; i++) {
+			assertEquals(prefix, names.next().substring(0, prefix.length()));
+		}
+		assertNull(names.next());
+		names.close();
+
+		// The threads are terminated once the collection is closed.
+		collection.close();
+		for (int i = 0; i < 100 && isAlive(prefix); i++) {
+			Thread.sleep(50);
+		}
+		assertFalse(isAlive(prefix));
+	}
+
+	private static boolean isAlive(final String prefix) {
+		for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String query(final String query) throws QueryException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new XQuery(new SirixCompileChain(mStore), query).serialize(
+				new QueryContext(mStore), new PrintStream(out));
+		return out.toString();
+	}
+
+	private static List<String> documents() {
+		final List<String> documents = new ArrayList<>();
+		for (int i = 0; i < DOCUMENTS; i++) {
+			final StringBuilder document = new StringBuilder("<site>");
+			for (int j = 0; j < 3; j++) {
+				document.append("<item price=\"").append(i * 3 + j).append("\">");
+				if (j != 1) {
+					document.append("<name>item").append(i * 3 + j).append("</name>");
+				}
+				document.append("</item>");
+			}
+			documents.add(document.append("</site>").toString());
+		}
+		return documents;
+	}
+}
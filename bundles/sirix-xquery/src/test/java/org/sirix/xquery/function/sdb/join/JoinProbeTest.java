@@ -0,0 +1,223 @@
+package org.sirix.xquery.function.sdb.join;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+
+import org.brackit.xquery.QueryContext;
+import org.brackit.xquery.QueryException;
+import org.brackit.xquery.XQuery;
+import org.brackit.xquery.atomic.QNm;
+import org.brackit.xquery.util.path.Path;
+import org.brackit.xquery.util.path.PathException;
+import org.brackit.xquery.xdm.DocumentException;
+import org.brackit.xquery.xdm.Type;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sirix.TestHelper;
+import org.sirix.access.Databases;
+import org.sirix.access.IndexController;
+import org.sirix.access.Movement;
+import org.sirix.access.conf.DatabaseConfiguration;
+import org.sirix.access.conf.ResourceConfiguration;
+import org.sirix.access.conf.SessionConfiguration;
+import org.sirix.api.Database;
+import org.sirix.api.NodeWriteTrx;
+import org.sirix.api.Session;
+import org.sirix.exception.SirixException;
+import org.sirix.index.IndexDefs;
+import org.sirix.xquery.SirixCompileChain;
+import org.sirix.xquery.node.DBStore;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Test the plans of {@link JoinProbe} and the rewrite of value joins by
+ * comparing the results with the results of the joins evaluated as nested
+ * loops.
+ *
+ * @author Johannes Lichtenberger
+ *
+ */
+public final class JoinProbeTest {
+
+	/** Name of the database/collection. */
+	private static final String COLLECTION = "join";
+
+	/** Number of groups of persons and items. */
+	private static final int GROUPS = 3;
+
+	/** Number of persons per group. */
+	private static final int PERSONS = 10;
+
+	/**
+	 * Number of items per group. The items of all groups exceed the hash
+	 * threshold, such that a CAS index is used if present.
+	 */
+	private static final int ITEMS = 500;
+
+	/** Number of distinct references of the items. */
+	private static final int REFERENCES = 12;
+
+	/** Sirix database store. */
+	private DBStore mStore;
+
+	@Before
+	public void setUp() throws SirixException {
+		TestHelper.deleteEverything();
+		final File file = new File(TestHelper.PATHS.PATH1.getFile(), COLLECTION);
+		Databases.createDatabase(new DatabaseConfiguration(file));
+		try (final Database database = Databases.openDatabase(file)) {
+			database.createResource(new ResourceConfiguration.Builder(
+					TestHelper.RESOURCE, database.getDatabaseConfig())
+					.buildPathSummary(true).build());
+			try (final Session session = database
+					.getSession(new SessionConfiguration.Builder(TestHelper.RESOURCE)
+							.build());
+					final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+				// <site><group><person id="r0" no="0"/>...<item ref="r0" no="0"
+				// num="0"/>...</group>...</site>
+				wtx.insertElementAsFirstChild(new QNm("site"));
+				for (int g = 0; g < GROUPS; g++) {
+					if (g == 0) {
+						wtx.insertElementAsFirstChild(new QNm("group"));
+					} else {
+						wtx.insertElementAsRightSibling(new QNm("group"));
+					}
+					final long groupKey = wtx.getNodeKey();
+					for (int j = 0; j < PERSONS; j++) {
+						if (j == 0) {
+							wtx.insertElementAsFirstChild(new QNm("person"));
+						} else {
+							wtx.insertElementAsRightSibling(new QNm("person"));
+						}
+						wtx.insertAttribute(new QNm("id"), "r" + j, Movement.TOPARENT);
+						wtx.insertAttribute(new QNm("no"), String.valueOf(j),
+								Movement.TOPARENT);
+					}
+					for (int i = 0; i < ITEMS; i++) {
+						final int no = g * ITEMS + i;
+						wtx.insertElementAsRightSibling(new QNm("item"));
+						wtx.insertAttribute(new QNm("ref"), "r" + no % REFERENCES,
+								Movement.TOPARENT);
+						wtx.insertAttribute(new QNm("no"), String.valueOf(no),
+								Movement.TOPARENT);
+						wtx.insertAttribute(new QNm("num"),
+								String.valueOf(no % REFERENCES), Movement.TOPARENT);
+					}
+					wtx.moveTo(groupKey);
+				}
+				wtx.commit();
+			}
+		}
+		mStore = DBStore.newBuilder().location(TestHelper.PATHS.PATH1.getFile())
+				.build();
+	}
+
+	@After
+	public void tearDown() throws SirixException, DocumentException {
+		mStore.close();
+		TestHelper.closeEverything();
+		TestHelper.deleteEverything();
+	}
+
+	@Test
+	public void testHashPlan() throws QueryException {
+		assertJoins();
+	}
+
+	@Test
+	public void testIndexPlan() throws QueryException, SirixException,
+			PathException {
+		final File file = new File(TestHelper.PATHS.PATH1.getFile(), COLLECTION);
+		mStore.close();
+		try (final Database database = Databases.openDatabase(file);
+				final Session session = database
+						.getSession(new SessionConfiguration.Builder(TestHelper.RESOURCE)
+								.build());
+				final NodeWriteTrx wtx = session.beginNodeWriteTrx()) {
+			final IndexController controller = session.getWtxIndexController(wtx
+					.getRevisionNumber() - 1);
+			controller.createIndexes(ImmutableSet.of(IndexDefs.createCASIdxDef(
+					false, Optional.of(Type.STR),
+					ImmutableSet.of(Path.parse("//item/@ref")), 0)), wtx);
+			wtx.commit();
+		}
+		mStore = DBStore.newBuilder().location(TestHelper.PATHS.PATH1.getFile())
+				.build();
+		assertJoins();
+	}
+
+	@Test
+	public void testNestedLoop() throws QueryException {
+		// The keys are integers, which aren't compared as strings.
+		final String expected = query(join("doc('" + COLLECTION + "')//item",
+				"some $k in $i/@num satisfies xs:integer($p/@no) = $k"));
+		assertTrue(expected.length() > 0);
+		assertEquals(expected, query(join("doc('" + COLLECTION + "')//item",
+				"xs:integer($p/@no) = $i/@num")));
+		assertEquals(expected, query(join(probe("xs:integer($p/@no)", "@num"),
+				"xs:integer($p/@no) = $i/@num")));
+	}
+
+	@Test
+	public void testContextDependentInput() throws QueryException {
+		// The inputs depend on the group, thus they mustn't be probed with a plan
+		// chosen for another group.
+		for (final String input : new String[] { "item", "//item" }) {
+			final String expected = query(groupJoin(input,
+					"some $r in $i/@ref satisfies $r = $p/@id"));
+			assertEquals(expected, query(groupJoin(input, "$p/@id = $i/@ref")));
+		}
+	}
+
+	/**
+	 * Assert that the optimized join and direct probes with string keys have
+	 * the results of the nested loop in the same order.
+	 */
+	private void assertJoins() throws QueryException {
+		final String input = "doc('" + COLLECTION + "')//item";
+		final String expected = query(join(input,
+				"some $r in $i/@ref satisfies $r = $p/@id"));
+		assertEquals(GROUPS * PERSONS * GROUPS * ITEMS / REFERENCES,
+				expected.split(",").length);
+		assertEquals(expected, query(join(input, "$p/@id = $i/@ref")));
+		assertEquals(expected, query(join(input, "$i/@ref = $p/@id")));
+		assertEquals(expected,
+				query(join(probe("$p/@id", "@ref"), "$p/@id = $i/@ref")));
+		// Evaluating the query again chooses the plan again.
+		assertEquals(expected, query(join(input, "$p/@id = $i/@ref")));
+	}
+
+	/** Join of the persons with the items of the input. */
+	private static String join(final String input, final String predicate) {
+		return "string-join(for $p in doc('" + COLLECTION + "')//person, $i in "
+				+ input + " where " + predicate
+				+ " return concat($p/@id, '-', $i/@no), ',')";
+	}
+
+	/** Join of the persons of each group with the items of the input. */
+	private static String groupJoin(final String input, final String predicate) {
+		return "string-join(doc('" + COLLECTION
+				+ "')//group/string-join(for $p in person, $i in " + input + " where "
+				+ predicate + " return concat($p/@id, '-', $i/@no), ','), ';')";
+	}
+
+	/** Explicit probe of the items. */
+	private static String probe(final String keys, final String keyPath) {
+		return "sdb:join-probe(doc('" + COLLECTION + "')//item, '" + keyPath
+				+ "', " + keys + ", 1, '//item')";
+	}
+
+	private String query(final String query) throws QueryException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new XQuery(new SirixCompileChain(mStore), query).serialize(
+				new QueryContext(mStore), new PrintStream(out));
+		return out.toString();
+	}
+}